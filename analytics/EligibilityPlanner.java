@@ -0,0 +1,150 @@
+package analytics;
+
+import java.util.Arrays;
+import java.util.concurrent.RecursiveAction;
+
+import enums.Quarter;
+import exception.CourseNotFoundException;
+import person.Student;
+import registration.Course;
+import registration.Section;
+import system.RegistrationSystem;
+import util.CompactBitSet;
+
+/**
+ * The EligibilityPlanner class works out which courses every student may 
+ * take next: the courses they have not completed whose direct 
+ * prerequisites they all have.
+ * 
+ * Both sides are bitsets over dense course ids, so each check is a subset 
+ * test over the few words a course's prerequisites span. Students are 
+ * planned in blocks in parallel on the common fork/join pool, and the 
+ * blocks are stitched into one EligibleCourses at the end.
+ * 
+ * The catalog and prerequisites are copied once when planning starts; 
+ * completions recorded while the plan runs may or may not be seen.
+ */
+public class EligibilityPlanner {
+	
+	/**
+	 * 
+	 * @param system	The registration system
+	 */
+	public EligibilityPlanner(RegistrationSystem system) {
+		this.system = system;
+	}
+	
+	/**
+	 * Plans every student against every course in the catalog.
+	 * 
+	 * @return the eligible courses of each student
+	 */
+	public EligibleCourses plan() {
+		CompactBitSet[] masks = system.getPrerequisiteMasks();
+		int[] candidates = new int[masks.length];
+		for(int i = 0; i < candidates.length; i++) candidates[i] = i;
+		return plan(masks, candidates);
+	}
+	
+	/**
+	 * Plans every student against the courses with a section in a term.
+	 * 
+	 * @param quarter	The quarter of the term
+	 * @param year		The year of the term
+	 * @return the eligible courses of each student
+	 */
+	public EligibleCourses plan(Quarter quarter, int year) {
+		CompactBitSet[] masks = system.getPrerequisiteMasks();
+		CompactBitSet offered = new CompactBitSet();
+		for(Section section : system.querySections(quarter, year)) {
+			int id = section.getCourse().getId();
+			if(id < masks.length) offered.set(id);
+		}
+		int[] candidates = new int[offered.cardinality()];
+		int n = 0;
+		for(int id = offered.nextSetBit(0); id >= 0; id = offered.nextSetBit(id + 1)) {
+			candidates[n++] = id;
+		}
+		return plan(masks, candidates);
+	}
+	
+	private EligibleCourses plan(CompactBitSet[] masks, int[] candidates) {
+		Course[] courses = new Course[masks.length];
+		try {
+			for(int i = 0; i < courses.length; i++) courses[i] = system.getCourse(i);
+		} catch (CourseNotFoundException e) {
+			// courses are never removed, so every id below the mask count exists
+			throw new IllegalStateException(e);
+		}
+		Student[] students = system.queryStudents().stream().toArray(Student[]::new);
+		
+		int blocks = (students.length + BLOCK - 1) / BLOCK;
+		int[] counts = new int[students.length];
+		int[][] parts = new int[blocks][];
+		if(blocks > 0) new Plan(students, masks, candidates, counts, parts, 0, blocks).invoke();
+		
+		int[] offsets = new int[students.length + 1];
+		for(int i = 0; i < students.length; i++) offsets[i + 1] = offsets[i] + counts[i];
+		int[] courseIds = new int[offsets[students.length]];
+		for(int b = 0; b < blocks; b++) {
+			int at = offsets[b * BLOCK];
+			int length = offsets[Math.min(students.length, (b + 1) * BLOCK)] - at;
+			System.arraycopy(parts[b], 0, courseIds, at, length);
+		}
+		return new EligibleCourses(students, courses, offsets, courseIds);
+	}
+	
+	/**
+	 * Plans the blocks [from, to) of BLOCK students, writing each student's
+	 * count to counts and each block's course ids to parts.
+	 */
+	@SuppressWarnings("serial")
+	private static final class Plan extends RecursiveAction {
+		
+		Plan(Student[] students, CompactBitSet[] masks, int[] candidates, int[] counts, 
+				int[][] parts, int from, int to) {
+			this.students = students;
+			this.masks = masks;
+			this.candidates = candidates;
+			this.counts = counts;
+			this.parts = parts;
+			this.from = from;
+			this.to = to;
+		}
+		
+		@Override
+		protected void compute() {
+			if(to - from > 1) {
+				int mid = (from + to) >>> 1;
+				invokeAll(new Plan(students, masks, candidates, counts, parts, from, mid),
+						new Plan(students, masks, candidates, counts, parts, mid, to));
+				return;
+			}
+			int first = from * BLOCK, last = Math.min(students.length, first + BLOCK);
+			int[] ids = new int[Math.max(16, (last - first) * 4)];
+			int n = 0;
+			for(int i = first; i < last; i++) {
+				Student s = students[i];
+				int start = n;
+				for(int id : candidates) {
+					if(s.hasCompleted(id) || !s.hasCompletedAll(masks[id])) continue;
+					if(n == ids.length) ids = Arrays.copyOf(ids, n * 2);
+					ids[n++] = id;
+				}
+				counts[i] = n - start;
+			}
+			parts[from] = ids;
+		}
+		
+		private final Student[] students;
+		private final CompactBitSet[] masks;
+		private final int[] candidates, counts;
+		private final int[][] parts;
+		private final int from, to;
+	}
+	
+	// students planned together by one task
+	private static final int BLOCK = 4096;
+	
+	private final RegistrationSystem system;
+}
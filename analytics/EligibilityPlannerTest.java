@@ -0,0 +1,48 @@
+package analytics;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import enums.Building;
+import enums.FacultyType;
+import enums.Quarter;
+import enums.StudentProgram;
+import enums.StudentType;
+import enums.SubjectCode;
+import system.RegistrationSystem;
+
+
+public class EligibilityPlannerTest {
+	
+	@Test
+	public void testPlan() throws Exception {
+		RegistrationSystem s = new RegistrationSystem();
+		s.addCourse(SubjectCode.CPSC, 5001, "Programming Boot Camp I", 3);
+		s.addCourse(SubjectCode.CPSC, 5002, "Programming Boot Camp II", 3);
+		s.addCourse(SubjectCode.CPSC, 5003, "Programming Boot Camp III", 3);
+		s.addCourse(SubjectCode.MATH, 1010, "Calculus I", 5);
+		s.addPrerequisite(SubjectCode.CPSC, 5002, SubjectCode.CPSC, 5001);
+		s.addPrerequisite(SubjectCode.CPSC, 5003, SubjectCode.CPSC, 5001);
+		s.addPrerequisite(SubjectCode.CPSC, 5003, SubjectCode.CPSC, 5002);
+		s.addStudent(100001, "Michael", "Bluth", StudentType.GRAD, StudentProgram.MSCS, Quarter.FQ, 2018);
+		s.addStudent(100002, "Gob", "Bluth", StudentType.GRAD, StudentProgram.MSCS, Quarter.FQ, 2018);
+		s.completeCourse(100001, SubjectCode.CPSC, 5001);
+		s.completeCourse(100001, SubjectCode.MATH, 1010);
+		
+		EligibleCourses plan = new EligibilityPlanner(s).plan();
+		assertEquals(2, plan.size());
+		int michael = plan.getStudent(0).getSUID() == 100001 ? 0 : 1;
+		assertEquals(1, plan.getCount(michael));
+		assertEquals(5002, plan.getCourses(michael).get(0).getCourseNum());
+		assertArrayEquals(new int[] { 0, 3 }, plan.getCourseIds(1 - michael));
+		assertEquals(3, plan.getTotal());
+		
+		s.addFaculty("Lucille", "Bluth", FacultyType.PROF, Building.ENGR, 500, "lucille@seattleu.edu");
+		s.addSection(SubjectCode.MATH, 1010, 1, "Bluth", Quarter.WQ, 2019, 30, Building.ENGR, 200);
+		plan = new EligibilityPlanner(s).plan(Quarter.WQ, 2019);
+		assertEquals(0, plan.getCount(michael));
+		assertEquals(1, plan.getCount(1 - michael));
+		assertEquals("Calculus I", plan.getCourses(1 - michael).get(0).getName());
+	}
+}
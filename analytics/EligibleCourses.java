@@ -0,0 +1,91 @@
+package analytics;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+import person.Student;
+import registration.Course;
+
+/**
+ * The EligibleCourses class holds the courses each student of a population
+ * may take, in compressed sparse rows: the dense ids of every student's 
+ * courses lie one after another in a single int array, and row i is the 
+ * range offsets[i] to offsets[i + 1].
+ * 
+ * A million students with a dozen eligible courses each take about 52 MB
+ * this way, against several hundred for a list of courses per student.
+ */
+public final class EligibleCourses {
+	
+	EligibleCourses(Student[] students, Course[] courses, int[] offsets, int[] courseIds) {
+		this.students = students;
+		this.courses = courses;
+		this.offsets = offsets;
+		this.courseIds = courseIds;
+	}
+	
+	/**
+	 * Returns the number of students, one row each.
+	 */
+	public int size() {
+		return students.length;
+	}
+	
+	public Student getStudent(int row) {
+		return students[row];
+	}
+	
+	/**
+	 * Returns the number of courses a student may take.
+	 * 
+	 * @param row	The row of the student
+	 */
+	public int getCount(int row) {
+		return offsets[row + 1] - offsets[row];
+	}
+	
+	/**
+	 * Returns the dense ids of the courses a student may take, in id order.
+	 * 
+	 * @param row	The row of the student
+	 * @return a copy of the course ids
+	 */
+	public int[] getCourseIds(int row) {
+		return Arrays.copyOfRange(courseIds, offsets[row], offsets[row + 1]);
+	}
+	
+	/**
+	 * Returns the courses a student may take, in id order.
+	 * 
+	 * @param row	The row of the student
+	 * @return an unmodifiable view of the courses
+	 */
+	public List<Course> getCourses(int row) {
+		int from = offsets[row], to = offsets[row + 1];
+		return new AbstractList<Course>() {
+			@Override
+			public Course get(int i) {
+				if(i < 0 || i >= to - from) throw new IndexOutOfBoundsException(i);
+				return courses[courseIds[from + i]];
+			}
+			
+			@Override
+			public int size() {
+				return to - from;
+			}
+		};
+	}
+	
+	/**
+	 * Returns the number of (student, course) pairs over every row.
+	 */
+	public int getTotal() {
+		return offsets[students.length];
+	}
+	
+	private final Student[] students;
+	// the catalog the plan was made against, indexed by course id
+	private final Course[] courses;
+	private final int[] offsets, courseIds;
+}
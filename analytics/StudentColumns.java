@@ -0,0 +1,286 @@
+package analytics;
+
+import java.util.Arrays;
+import java.util.concurrent.RecursiveTask;
+
+import enums.Quarter;
+import enums.StudentProgram;
+import enums.StudentType;
+import person.Student;
+import system.Query;
+import system.RegistrationListener;
+import system.RegistrationSystem;
+
+/**
+ * The StudentColumns class keeps a copy of the student population as one
+ * array per attribute, for counting students by program, type, start 
+ * quarter and start year without touching the Student objects.
+ * 
+ * Enum attributes are stored as ordinal bytes, with -1 for null, and start
+ * years as shorts. Counting is a single pass over one or two byte arrays 
+ * and the year array; large populations are split into chunks counted in 
+ * parallel on the common fork/join pool.
+ * 
+ * Rows are only ever appended, one writer at a time; counts may run at the
+ * same time and see every student added before they started. Use attach to
+ * build the columns for a system and keep them up to date.
+ */
+public class StudentColumns implements RegistrationListener {
+	
+	/**
+	 * The attributes that can be counted by.
+	 */
+	public enum Column {
+		PROGRAM(StudentProgram.values().length), 
+		TYPE(StudentType.values().length), 
+		QUARTER(Quarter.values().length);
+		
+		Column(int values) {
+			this.values = values;
+		}
+		
+		/**
+		 * Returns the number of count buckets: one per enum value, in 
+		 * ordinal order, and a last one for students without a value.
+		 */
+		public int buckets() {
+			return values + 1;
+		}
+		
+		private final int values;
+	}
+	
+	public StudentColumns() {
+		this(1024);
+	}
+	
+	/**
+	 * 
+	 * @param capacity	The number of students to make room for up front
+	 */
+	public StudentColumns(int capacity) {
+		this.data = new Data(Math.max(16, capacity));
+	}
+	
+	/**
+	 * Builds the columns for every student of a system and keeps them up to
+	 * date as students are added.
+	 * 
+	 * @param system	The registration system
+	 * @return the columns
+	 */
+	public static StudentColumns attach(RegistrationSystem system) throws Exception {
+		return system.runExclusive(() -> {
+			Query<Student> students = system.queryStudents();
+			StudentColumns columns = new StudentColumns((int) students.count() * 5 / 4);
+			for(Student s : students) columns.add(s);
+			system.addListener(columns);
+			return columns;
+		});
+	}
+	
+	@Override
+	public void studentAdded(Student student) {
+		add(student);
+	}
+	
+	/**
+	 * Appends a student.
+	 * 
+	 * @param s	The student
+	 */
+	public synchronized void add(Student s) {
+		int n = size;
+		Data d = data;
+		if(n == d.year.length) data = d = d.grow(n + (n >> 1));
+		d.program[n] = ordinal(s.getProgram());
+		d.type[n] = ordinal(s.getStatus());
+		d.quarter[n] = ordinal(s.getQuarter());
+		d.year[n] = (short) s.getEnrollYear();
+		size = n + 1;
+	}
+	
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Counts the students by one attribute.
+	 * 
+	 * @param column	The attribute
+	 * @return the counts, indexed by ordinal, with the students without a
+	 * 		   value last
+	 */
+	public int[] countBy(Column column) {
+		return countBy(column, Short.MIN_VALUE, Short.MAX_VALUE);
+	}
+	
+	/**
+	 * Counts the students who started between two years by one attribute.
+	 * 
+	 * @param column	The attribute
+	 * @param fromYear	The first start year counted
+	 * @param toYear	The last start year counted
+	 * @return the counts, indexed by ordinal, with the students without a
+	 * 		   value last
+	 * @throws IllegalArgumentException fromYear is after toYear
+	 */
+	public int[] countBy(Column column, int fromYear, int toYear) {
+		checkYears(fromYear, toYear);
+		int n = size;
+		Data d = data;
+		return new Count(d.column(column), null, 0, d.year, fromYear, toYear, 
+				column.buckets(), 0, n).invoke();
+	}
+	
+	/**
+	 * Counts the students by two attributes at once, e.g. type within 
+	 * program.
+	 * 
+	 * @param rows		The first attribute
+	 * @param columns	The second attribute
+	 * @return the counts, [first ordinal][second ordinal], with the students
+	 * 		   without a value last in each dimension
+	 */
+	public int[][] countBy(Column rows, Column columns) {
+		int n = size;
+		Data d = data;
+		int[] flat = new Count(d.column(rows), d.column(columns), columns.buckets(), d.year, 
+				Short.MIN_VALUE, Short.MAX_VALUE, rows.buckets() * columns.buckets(), 0, n).invoke();
+		int[][] counts = new int[rows.buckets()][];
+		for(int i = 0; i < counts.length; i++) {
+			counts[i] = Arrays.copyOfRange(flat, i * columns.buckets(), (i + 1) * columns.buckets());
+		}
+		return counts;
+	}
+	
+	/**
+	 * Counts the students by start year.
+	 * 
+	 * @param fromYear	The first start year counted
+	 * @param toYear	The last start year counted
+	 * @return the counts, indexed by year - fromYear
+	 * @throws IllegalArgumentException fromYear is after toYear
+	 */
+	public int[] countByYear(int fromYear, int toYear) {
+		checkYears(fromYear, toYear);
+		int n = size;
+		Data d = data;
+		return new Count(null, null, 0, d.year, fromYear, toYear, 
+				toYear - fromYear + 1, 0, n).invoke();
+	}
+	
+	private static void checkYears(int fromYear, int toYear) {
+		if(fromYear > toYear) 
+			throw new IllegalArgumentException("fromYear " + fromYear + " is after toYear " + toYear);
+	}
+	
+	private static byte ordinal(Enum<?> e) {
+		return e == null ? -1 : (byte) e.ordinal();
+	}
+	
+	/**
+	 * Counts the rows [from, to) whose year is in [fromYear, toYear] into 
+	 * buckets. The bucket of a row is a * stride + b for two columns, a for
+	 * one and year - fromYear for none; -1 ordinals go to the last bucket of
+	 * their dimension.
+	 */
+	@SuppressWarnings("serial")
+	private static final class Count extends RecursiveTask<int[]> {
+		
+		Count(byte[] a, byte[] b, int stride, short[] year, int fromYear, int toYear, 
+				int buckets, int from, int to) {
+			this.a = a;
+			this.b = b;
+			this.stride = stride;
+			this.year = year;
+			this.fromYear = fromYear;
+			this.toYear = toYear;
+			this.buckets = buckets;
+			this.from = from;
+			this.to = to;
+		}
+		
+		@Override
+		protected int[] compute() {
+			if(to - from > CHUNK) {
+				int mid = (from + to) >>> 1;
+				Count left = new Count(a, b, stride, year, fromYear, toYear, buckets, from, mid);
+				left.fork();
+				int[] right = new Count(a, b, stride, year, fromYear, toYear, buckets, mid, to).compute();
+				int[] counts = left.join();
+				for(int i = 0; i < counts.length; i++) counts[i] += right[i];
+				return counts;
+			}
+			int[] counts = new int[buckets];
+			int span = toYear - fromYear;
+			if(b != null) {
+				int lastA = buckets / stride - 1, lastB = stride - 1;
+				for(int i = from; i < to; i++) {
+					if(Integer.compareUnsigned(year[i] - fromYear, span) > 0) continue;
+					int x = a[i], y = b[i];
+					counts[(x < 0 ? lastA : x) * stride + (y < 0 ? lastB : y)]++;
+				}
+			} else if(a != null) {
+				int last = buckets - 1;
+				for(int i = from; i < to; i++) {
+					if(Integer.compareUnsigned(year[i] - fromYear, span) > 0) continue;
+					int x = a[i];
+					counts[x < 0 ? last : x]++;
+				}
+			} else {
+				for(int i = from; i < to; i++) {
+					int y = year[i] - fromYear;
+					if(Integer.compareUnsigned(y, span) <= 0) counts[y]++;
+				}
+			}
+			return counts;
+		}
+		
+		private final byte[] a, b;
+		private final short[] year;
+		private final int stride, fromYear, toYear, buckets, from, to;
+	}
+	
+	/**
+	 * The arrays behind the columns, replaced as a whole when they grow.
+	 */
+	private static final class Data {
+		
+		Data(int capacity) {
+			program = new byte[capacity];
+			type = new byte[capacity];
+			quarter = new byte[capacity];
+			year = new short[capacity];
+		}
+		
+		Data grow(int capacity) {
+			Data d = new Data(capacity);
+			int n = year.length;
+			System.arraycopy(program, 0, d.program, 0, n);
+			System.arraycopy(type, 0, d.type, 0, n);
+			System.arraycopy(quarter, 0, d.quarter, 0, n);
+			System.arraycopy(year, 0, d.year, 0, n);
+			return d;
+		}
+		
+		byte[] column(Column c) {
+			switch(c) {
+			case PROGRAM: return program;
+			case TYPE: return type;
+			default: return quarter;
+			}
+		}
+		
+		final byte[] program, type, quarter;
+		final short[] year;
+	}
+	
+	// rows at and above CHUNK are split across the fork/join pool
+	private static final int CHUNK = 1 << 16;
+	
+	// data is replaced before size grows past its old length, so a reader
+	// that reads size first always finds that many rows in data
+	private volatile Data data;
+	private volatile int size;
+}
@@ -0,0 +1,56 @@
+package analytics;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import enums.Quarter;
+import enums.StudentProgram;
+import enums.StudentType;
+import system.RegistrationSystem;
+
+
+public class StudentColumnsTest {
+	
+	@Test
+	public void testCountBy() throws Exception {
+		RegistrationSystem s = new RegistrationSystem();
+		s.addStudent("Michael", "Bluth", StudentType.UNDERGRAD, StudentProgram.BSCS, Quarter.FQ, 2018);
+		s.addStudent("Gob", "Bluth", StudentType.UNDERGRAD, StudentProgram.BACS, Quarter.SQ, 2017);
+		StudentColumns columns = StudentColumns.attach(s);
+		s.addStudent("Lindsay", "Bluth", StudentType.GRAD, StudentProgram.MSCS, Quarter.FQ, 2018);
+		s.addStudent("Buster", "Bluth", StudentType.GRAD, null, Quarter.WQ, 2016);
+		assertEquals(4, columns.size());
+		
+		assertArrayEquals(new int[] { 0, 1, 1, 0, 1, 1 }, columns.countBy(StudentColumns.Column.PROGRAM));
+		assertArrayEquals(new int[] { 0, 1, 0, 0, 1, 0 }, 
+				columns.countBy(StudentColumns.Column.PROGRAM, 2018, 2018));
+		assertArrayEquals(new int[] { 1, 1, 2 }, columns.countByYear(2016, 2018));
+		int[][] typeByQuarter = columns.countBy(StudentColumns.Column.TYPE, StudentColumns.Column.QUARTER);
+		assertEquals(1, typeByQuarter[StudentType.GRAD.ordinal()][Quarter.WQ.ordinal()]);
+		assertEquals(1, typeByQuarter[StudentType.UNDERGRAD.ordinal()][Quarter.SQ.ordinal()]);
+		assertEquals(0, typeByQuarter[StudentType.UNDERGRAD.ordinal()][Quarter.WQ.ordinal()]);
+	}
+	
+	@Test
+	public void testInvertedYears() throws Exception {
+		RegistrationSystem s = new RegistrationSystem();
+		s.addStudent("Michael", "Bluth", StudentType.UNDERGRAD, StudentProgram.BSCS, Quarter.FQ, 2018);
+		StudentColumns columns = StudentColumns.attach(s);
+		try {
+			columns.countBy(StudentColumns.Column.PROGRAM, 2019, 2018);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains("2019"));
+		}
+		try {
+			columns.countByYear(2019, 2018);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains("2019"));
+		}
+		// a single year is still a range
+		assertArrayEquals(new int[] { 1 }, columns.countByYear(2018, 2018));
+		assertArrayEquals(new int[] { 0 }, columns.countByYear(2019, 2019));
+	}
+}
@@ -0,0 +1,210 @@
+package benchmark;
+
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import enums.Building;
+import enums.Quarter;
+import person.Student;
+import registration.Section;
+import report.ReportFormat;
+import report.ReportWriter;
+import system.RegistrationSystem;
+import util.LatencyHistogram;
+
+/**
+ * The LoadSimulator class replays the traffic of registration opening 
+ * against a RegistrationSystem the size of a real school, and reports the
+ * throughput and latency percentiles of each kind of request.
+ * 
+ * The system is filled with SyntheticData, the Driver data model at scale.
+ * Every student then runs one session on its own thread, all submitted at
+ * once: browse the sections of a term, try to enroll in a few sections 
+ * picked with a strong bias towards the popular ones, and on a full section
+ * either join its waitlist or browse again and retry elsewhere. Some 
+ * students finally drop one of their sections, which promotes a waitlisted
+ * student. Each request is timed into a LatencyHistogram.
+ * 
+ * Sessions run on virtual threads where the JVM has them (Java 21 and 
+ * later), and on a fixed pool of platform threads otherwise.
+ * 
+ * Usage: java benchmark.LoadSimulator [students] [sections] [think ms]
+ * (default: 100000 students, 5000 sections, no think time)
+ */
+public class LoadSimulator {
+	
+	/**
+	 * The kinds of request a session makes.
+	 */
+	enum Request {
+		BROWSE, ENROLL, WAITLIST, DROP
+	}
+	
+	public static void main(String[] args) throws Exception {
+		int students = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+		int sections = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+		int think = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+		
+		SyntheticData data = new SyntheticData(students);
+		RegistrationSystem system = new RegistrationSystem();
+		data.populate(system, Math.min(sections, students));
+		LoadSimulator simulator = new LoadSimulator(system, think);
+		
+		long elapsed = simulator.run();
+		Writer out = new OutputStreamWriter(System.out);
+		out.write(String.format("%d students, %d sections, %s threads, %.2f s%n", 
+				students, sections, simulator.threadKind, elapsed / 1e9));
+		out.write(String.format("%d enrolled, %d waitlisted, %d retried after a full section%n%n", 
+				simulator.enrolled.sum(), simulator.waitlisted.sum(), simulator.retries.sum()));
+		out.flush();
+		simulator.report(new ReportWriter(out, ReportFormat.FIXED_WIDTH, HEADERS, WIDTHS), elapsed);
+	}
+	
+	/**
+	 * 
+	 * @param system	The populated system to run sessions against
+	 * @param think		Milliseconds each session pauses between requests
+	 */
+	LoadSimulator(RegistrationSystem system, int think) {
+		this.system = system;
+		this.think = think;
+		this.latencies = new LatencyHistogram[Request.values().length];
+		for(int i = 0; i < latencies.length; i++) latencies[i] = new LatencyHistogram();
+		this.enrolled = new LongAdder();
+		this.waitlisted = new LongAdder();
+		this.retries = new LongAdder();
+	}
+	
+	/**
+	 * Runs one session per student and waits for all of them.
+	 * 
+	 * @return the elapsed time in nanoseconds
+	 */
+	long run() throws InterruptedException {
+		List<Student> students = system.queryStudents().page(0, Integer.MAX_VALUE);
+		Section[] sections = system.querySections().stream().toArray(Section[]::new);
+		ExecutorService pool = newExecutor();
+		long start = System.nanoTime();
+		for(int i = 0; i < students.size(); i++) {
+			Student student = students.get(i);
+			long seed = SEED + i;
+			pool.execute(() -> session(student, sections, new SplittableRandom(seed)));
+		}
+		pool.shutdown();
+		if(!pool.awaitTermination(1, TimeUnit.HOURS)) throw new IllegalStateException("sessions did not finish");
+		return System.nanoTime() - start;
+	}
+	
+	private void session(Student student, Section[] sections, SplittableRandom random) {
+		browse(random);
+		List<Section> mine = new ArrayList<>(WANTED);
+		for(int attempt = 0; attempt < WANTED + RETRIES && mine.size() < WANTED; attempt++) {
+			pause();
+			Section section = sections[popular(random, sections.length)];
+			long t = System.nanoTime();
+			boolean ok = section.enroll(student);
+			latencies[Request.ENROLL.ordinal()].record(System.nanoTime() - t);
+			if(ok) {
+				mine.add(section);
+				enrolled.increment();
+			} else if(random.nextInt(4) == 0) {
+				t = System.nanoTime();
+				boolean waiting = section.waitlist(student, random.nextInt(4));
+				latencies[Request.WAITLIST.ordinal()].record(System.nanoTime() - t);
+				if(waiting) waitlisted.increment();
+			} else {
+				retries.increment();
+				browse(random);
+			}
+		}
+		if(!mine.isEmpty() && random.nextInt(10) == 0) {
+			pause();
+			long t = System.nanoTime();
+			mine.get(random.nextInt(mine.size())).drop(student);
+			latencies[Request.DROP.ordinal()].record(System.nanoTime() - t);
+		}
+	}
+	
+	private void browse(SplittableRandom random) {
+		Quarter quarter = QUARTERS[random.nextInt(QUARTERS.length)];
+		Building bldg = BUILDINGS[random.nextInt(BUILDINGS.length)];
+		long t = System.nanoTime();
+		blackhole = system.querySections(quarter, 2018 + random.nextInt(3), bldg)
+				.page(random.nextInt(4) * PAGE, PAGE).size();
+		latencies[Request.BROWSE.ordinal()].record(System.nanoTime() - t);
+	}
+	
+	// a section index biased towards 0; the first 1% draw about a fifth of 
+	// the requests
+	private static int popular(SplittableRandom random, int sections) {
+		double u = random.nextDouble();
+		return (int) (sections * u * u * u);
+	}
+	
+	private void pause() {
+		if(think == 0) return;
+		try {
+			Thread.sleep(think);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	private void report(ReportWriter w, long elapsed) throws Exception {
+		w.writeHeader();
+		for(Request r : Request.values()) {
+			LatencyHistogram h = latencies[r.ordinal()];
+			w.cell(r.name().toLowerCase()).cell(Long.toString(h.getCount()))
+				.cell(Long.toString(Math.round(h.getCount() / (elapsed / 1e9))))
+				.cell(micros(h.getPercentile(50))).cell(micros(h.getPercentile(99)))
+				.cell(micros(h.getPercentile(99.9))).cell(micros(h.getMax()));
+			w.endRow();
+		}
+		w.finish();
+	}
+	
+	private static String micros(long nanos) {
+		return String.format("%.1f", nanos / 1e3);
+	}
+	
+	// one thread per session where virtual threads exist, looked up by 
+	// reflection so that this still compiles and runs on Java 17
+	private ExecutorService newExecutor() {
+		try {
+			ExecutorService pool = (ExecutorService) Executors.class
+					.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+			threadKind = "virtual";
+			return pool;
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			// before Java 21, or a preview release without --enable-preview
+			threadKind = PLATFORM_THREADS + " platform";
+			return Executors.newFixedThreadPool(PLATFORM_THREADS);
+		}
+	}
+	
+	private static final long SEED = 0x5EA771E;
+	// sections each student tries to get, and extra attempts after a full one
+	private static final int WANTED = 3, RETRIES = 3;
+	private static final int PAGE = 20;
+	private static final int PLATFORM_THREADS = 256;
+	private static final Quarter[] QUARTERS = Quarter.values();
+	private static final Building[] BUILDINGS = Building.values();
+	private static final String[] HEADERS = { "Request", "Count", "Req/s", "p50 us", "p99 us",
+			"p99.9 us", "Max us" };
+	private static final int[] WIDTHS = { 10, 10, 10, 10, 10, 10, 1 };
+	
+	static volatile long blackhole;
+	
+	private final RegistrationSystem system;
+	private final int think;
+	private final LatencyHistogram[] latencies;
+	private final LongAdder enrolled, waitlisted, retries;
+	private String threadKind;
+}
@@ -0,0 +1,142 @@
+package benchmark;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import enums.Building;
+import enums.Quarter;
+import person.Student;
+import persist.CatalogFile;
+import registration.Course;
+import registration.Section;
+import system.CatalogSnapshot;
+
+/**
+ * The LookupBenchmarks class measures single lookups on a populated system,
+ * each invocation looking up the next key of the data set.
+ *
+ * Scores are nanoseconds per lookup; run with -prof gc for the bytes
+ * allocated per lookup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LookupBenchmarks {
+
+	@Benchmark
+	public Student getStudent(Populated p, Cursor c) throws Exception {
+		return p.system.getStudent(p.students[c.next(p.students.length)].getSUID());
+	}
+
+	@Benchmark
+	public Student getStudentMetered(Populated p, Metered m, Cursor c) throws Exception {
+		return p.system.getStudent(p.students[c.next(p.students.length)].getSUID());
+	}
+
+	@Benchmark
+	public List<Section> querySections(Populated p, Cursor c) {
+		int i = c.next(1000);
+		return p.system.querySections(QUARTERS[i % QUARTERS.length], 2018 + i % 3,
+				BUILDINGS[i % BUILDINGS.length]).page(i, 20);
+	}
+
+	@Benchmark
+	public List<Student> findByPrefix(Populated p, Cursor c) {
+		String last = p.data.studentLast((int) ((long) c.next(1000) * 7919 % p.data.size()));
+		return p.system.findStudentsByPrefix(last.substring(0, 3), 0, 20);
+	}
+
+	@Benchmark
+	public Course getCatalogCourse(Populated p, Catalog catalog, Cursor c) {
+		int i = c.next(p.data.size());
+		return catalog.snapshot.getCourse(SyntheticData.courseCode(i), SyntheticData.courseNum(i));
+	}
+
+	@Benchmark
+	public int findCatalogCourse(Populated p, Catalog catalog, Cursor c) {
+		int i = c.next(p.data.size());
+		int course = catalog.map.findCourse(SyntheticData.courseCode(i), SyntheticData.courseNum(i));
+		return catalog.map.getSectionsEnd(course) - catalog.map.getFirstSection(course);
+	}
+
+	@Benchmark
+	public CatalogFile openCatalog(Catalog catalog) throws Exception {
+		return CatalogFile.open(catalog.file);
+	}
+
+	/**
+	 * The position of one thread in the data set.
+	 */
+	@State(Scope.Thread)
+	public static class Cursor {
+
+		int next(int bound) {
+			if(++next >= bound) next = 0;
+			return next;
+		}
+
+		private int next;
+	}
+
+	/**
+	 * The populated system with its metrics enabled.
+	 */
+	@State(Scope.Benchmark)
+	public static class Metered {
+
+		@Setup(Level.Trial)
+		public void setUp(Populated p) {
+			p.system.getMetrics().setEnabled(true);
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown(Populated p) {
+			p.system.getMetrics().setEnabled(false);
+		}
+	}
+
+	/**
+	 * The catalog of the populated system, both as a snapshot and as a
+	 * mapped catalog file.
+	 */
+	@State(Scope.Benchmark)
+	public static class Catalog {
+
+		@Setup(Level.Trial)
+		public void setUp(Populated p) throws Exception {
+			file = Files.createTempFile("catalog", ".bin");
+			CatalogFile.write(p.system, file);
+			map = CatalogFile.open(file);
+			snapshot = p.system.enableCatalogSnapshots();
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() throws Exception {
+			Files.deleteIfExists(file);
+		}
+
+		Path file;
+		CatalogFile map;
+		CatalogSnapshot snapshot;
+	}
+
+	private static final Quarter[] QUARTERS = Quarter.values();
+	private static final Building[] BUILDINGS = Building.values();
+}
@@ -0,0 +1,37 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import person.Student;
+import system.RegistrationSystem;
+
+/**
+ * The Populated class is the benchmark state the read benchmarks share: a
+ * RegistrationSystem filled with a whole SyntheticData set.
+ *
+ * The scale is the number of students, courses and sections; run with
+ * -p scale=1000000 to measure a million.
+ */
+@State(Scope.Benchmark)
+public class Populated {
+
+	@Param({ "1000", "100000" })
+	public int scale;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		data = new SyntheticData(scale);
+		system = new RegistrationSystem();
+		data.populate(system);
+		students = system.queryStudents().stream().toArray(Student[]::new);
+	}
+
+	SyntheticData data;
+	RegistrationSystem system;
+	// the students of the system in the order they were added
+	Student[] students;
+}
@@ -0,0 +1,110 @@
+package benchmark;
+
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import analytics.EligibilityPlanner;
+import analytics.EligibleCourses;
+import analytics.StudentColumns;
+import person.Student;
+import report.ReportFormat;
+import report.Reports;
+import system.RegistrationSystem;
+
+/**
+ * The ScanBenchmarks class measures the operations that visit every row
+ * of a populated system: the listings, through the same Reports path the
+ * Driver prints with, and the analytics.
+ *
+ * Scores are milliseconds per pass over the whole data set; run with
+ * -prof gc for the bytes allocated per pass.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScanBenchmarks {
+
+	@Benchmark
+	public void listStudents(Populated p) throws Exception {
+		Reports.writeStudents(p.system.queryStudents(), Writer.nullWriter(), ReportFormat.FIXED_WIDTH);
+	}
+
+	@Benchmark
+	public void listFaculty(Populated p) throws Exception {
+		Reports.writeFaculty(p.system.queryFaculty(), Writer.nullWriter(), ReportFormat.FIXED_WIDTH);
+	}
+
+	@Benchmark
+	public void listCourses(Populated p) throws Exception {
+		Reports.writeCourses(p.system.queryCourses(), Writer.nullWriter(), ReportFormat.FIXED_WIDTH);
+	}
+
+	@Benchmark
+	public void listSections(Populated p) throws Exception {
+		Reports.writeSections(p.system.querySections(), Writer.nullWriter(), ReportFormat.FIXED_WIDTH);
+	}
+
+	@Benchmark
+	public int[] countByProgram(Columns c) {
+		return c.columns.countBy(StudentColumns.Column.PROGRAM, 2018, 2019);
+	}
+
+	@Benchmark
+	public EligibleCourses planEligible(Planned p) {
+		return p.planner.plan();
+	}
+
+	/**
+	 * The columns of the students of the populated system.
+	 */
+	@State(Scope.Benchmark)
+	public static class Columns {
+
+		@Setup(Level.Trial)
+		public void setUp(Populated p) throws Exception {
+			columns = StudentColumns.attach(p.system);
+		}
+
+		StudentColumns columns;
+	}
+
+	/**
+	 * A system of every student of the data set, each having completed some
+	 * of a school-sized catalog, and a planner over it.
+	 */
+	@State(Scope.Benchmark)
+	public static class Planned {
+
+		@Setup(Level.Trial)
+		public void setUp(Populated p) throws Exception {
+			SyntheticData data = p.data;
+			RegistrationSystem system = new RegistrationSystem();
+			for(int i = 0; i < data.size(); i++) data.addStudent(system, i);
+			int catalog = Math.min(data.size(), PLANNED_COURSES);
+			for(int i = 0; i < catalog; i++) data.addCourse(system, i);
+			for(int i = 0; i < catalog; i++) data.addPrerequisite(system, i);
+			int row = 0;
+			for(Student s : system.queryStudents()) data.completeCourses(system, s, row++, catalog);
+			planner = new EligibilityPlanner(system);
+		}
+
+		EligibilityPlanner planner;
+	}
+
+	// the catalog size students are planned against, about a school's worth
+	private static final int PLANNED_COURSES = 512;
+}
@@ -0,0 +1,209 @@
+package benchmark;
+
+import java.util.EnumSet;
+
+import enums.Building;
+import enums.FacultyType;
+import enums.Quarter;
+import enums.StudentProgram;
+import enums.StudentType;
+import enums.SubjectCode;
+import enums.Weekday;
+import exception.CircularPrerequisiteException;
+import exception.CourseNotFoundException;
+import exception.DuplicateCourseException;
+import exception.DuplicatePersonException;
+import exception.DuplicateSubjectException;
+import exception.PersonNotFoundException;
+import exception.ScheduleConflictException;
+import person.Student;
+import registration.Meeting;
+import system.RegistrationSystem;
+
+/**
+ * The SyntheticData class generates a deterministic registration data set
+ * shaped like the Driver data, at any scale.
+ * 
+ * All names are built up front so that generating them is not part of what
+ * is measured. Courses are spread over the subject codes and grouped into 
+ * tracks of TRACK courses, where each course requires the one before it, so
+ * prerequisite chains stay as shallow as in a real catalog.
+ */
+public class SyntheticData {
+
+	public static final int TRACK = 8;
+	
+	/**
+	 * 
+	 * @param people	The number of students; also the number of courses and
+	 * 					sections. One faculty is generated per 20 students.
+	 */
+	public SyntheticData(int people) {
+		this.size = people;
+		this.facultySize = Math.max(1, people / 20);
+		studentFirst = new String[size];
+		studentLast = new String[size];
+		for(int i = 0; i < size; i++) {
+			studentFirst[i] = FIRST[i % FIRST.length] + i;
+			studentLast[i] = LAST[(i / FIRST.length) % LAST.length];
+		}
+		facultyFirst = new String[facultySize];
+		facultyLast = new String[facultySize];
+		facultyEmail = new String[facultySize];
+		for(int i = 0; i < facultySize; i++) {
+			facultyFirst[i] = FIRST[i % FIRST.length];
+			facultyLast[i] = LAST[i % LAST.length] + i;
+			facultyEmail[i] = facultyLast[i].toLowerCase() + "@seattleu.edu";
+		}
+		courseName = new String[size];
+		for(int i = 0; i < size; i++) courseName[i] = "Course " + i;
+	}
+	
+	public int size() {
+		return size;
+	}
+	
+	public int facultySize() {
+		return facultySize;
+	}
+	
+	public String studentFirst(int i) {
+		return studentFirst[i];
+	}
+	
+	public String studentLast(int i) {
+		return studentLast[i];
+	}
+	
+	public String facultyLast(int i) {
+		return facultyLast[i];
+	}
+	
+	public static SubjectCode courseCode(int i) {
+		return CODES[i % CODES.length];
+	}
+	
+	public static int courseNum(int i) {
+		return 1000 + i / CODES.length;
+	}
+	
+	public void addStudent(RegistrationSystem system, int i) throws DuplicatePersonException {
+		system.addStudent(studentFirst[i], studentLast[i], 
+				(i & 1) == 0 ? StudentType.UNDERGRAD : StudentType.GRAD, 
+				PROGRAMS[i % PROGRAMS.length], QUARTERS[i % QUARTERS.length], 2015 + i % 5);
+	}
+	
+	public void addFaculty(RegistrationSystem system, int i) throws DuplicatePersonException {
+		system.addFaculty(facultyFirst[i], facultyLast[i], FACULTY_TYPES[i % FACULTY_TYPES.length], 
+				Building.ENGR, 500 + i % 40, facultyEmail[i]);
+	}
+	
+	public void addCourse(RegistrationSystem system, int i) throws DuplicateCourseException {
+		system.addCourse(courseCode(i), courseNum(i), courseName[i], 3 + (i % 3));
+	}
+	
+	/**
+	 * Adds the prerequisite of course i, if it has one. 
+	 * 
+	 * @return true if a prerequisite was added
+	 */
+	public boolean addPrerequisite(RegistrationSystem system, int i) 
+			throws CourseNotFoundException, CircularPrerequisiteException {
+		int j = i / CODES.length;
+		if(j % TRACK == 0) return false;
+		system.addPrerequisite(courseCode(i), courseNum(i), courseCode(i), courseNum(i) - 1);
+		return true;
+	}
+	
+	public void addSection(RegistrationSystem system, int i) 
+			throws CourseNotFoundException, PersonNotFoundException {
+		system.addSection(courseCode(i), courseNum(i), 1 + i % 3, facultyLast[i % facultySize], 
+				QUARTERS[i % QUARTERS.length], 2018 + i % 3, 20 + i % 30, 
+				BUILDINGS[i % BUILDINGS.length], 100 + i % 400);
+	}
+	
+	/**
+	 * Adds section i with a weekly meeting time. Sections sharing a room and
+	 * term get different one-hour slots, so none clash at the scales the
+	 * benchmark uses.
+	 * 
+	 * @return false if the section clashed with one added before
+	 */
+	public boolean addTimedSection(RegistrationSystem system, int i) 
+			throws CourseNotFoundException, PersonNotFoundException {
+		try {
+			system.addSection(courseCode(i), courseNum(i), 1 + i % 3, facultyLast[i % facultySize], 
+					QUARTERS[i % QUARTERS.length], 2018 + i % 3, 20 + i % 30, 
+					BUILDINGS[i % BUILDINGS.length], 100 + i % 400, SLOTS[(i / ROOM_CYCLE) % SLOTS.length]);
+			return true;
+		} catch (ScheduleConflictException e) {
+			return false;
+		}
+	}
+	
+	/**
+	 * Records which of the first courses of the catalog student i has 
+	 * completed: a prefix of each track, of a length that varies by student
+	 * and track, so most students can take the next course of most tracks.
+	 * 
+	 * @param student	The student added as student i
+	 * @param courses	The number of courses in the catalog
+	 */
+	public void completeCourses(RegistrationSystem system, Student student, int i, int courses) 
+			throws CourseNotFoundException {
+		for(int c = 0; c < courses; c++) {
+			int position = (c / CODES.length) % TRACK;
+			if(position < (i + c % CODES.length) % TRACK) student.complete(system.getCourse(c));
+		}
+	}
+	
+	/**
+	 * Fills a system with the whole data set.
+	 * 
+	 * @param system	An empty registration system
+	 */
+	public void populate(RegistrationSystem system) throws Exception {
+		populate(system, size);
+	}
+	
+	/**
+	 * Fills a system with every student and faculty of the data set, but 
+	 * only the first courses and sections.
+	 * 
+	 * @param system	An empty registration system
+	 * @param courses	The number of courses, and of sections, at most size()
+	 */
+	public void populate(RegistrationSystem system, int courses) throws Exception {
+		for(SubjectCode code : CODES) system.addSubject(code, code.name());
+		for(int i = 0; i < facultySize; i++) addFaculty(system, i);
+		for(int i = 0; i < size; i++) addStudent(system, i);
+		for(int i = 0; i < courses; i++) addCourse(system, i);
+		for(int i = 0; i < courses; i++) addPrerequisite(system, i);
+		for(int i = 0; i < courses; i++) addSection(system, i);
+	}
+	
+	private static final String[] FIRST = { "Michael", "Gob", "Buster", "Lucille", "Lindsay", 
+			"Tobias", "Maeby", "Kitty", "Edsger", "Ada", "Grace", "Marie", "Alan", "Katherine" };
+	private static final String[] LAST = { "Bluth", "Funke", "Sanchez", "Dijkstra", "Lovelace", 
+			"Hopper", "Curie", "Turing", "Johnson" };
+	private static final SubjectCode[] CODES = SubjectCode.values();
+	private static final StudentProgram[] PROGRAMS = StudentProgram.values();
+	private static final Quarter[] QUARTERS = Quarter.values();
+	private static final FacultyType[] FACULTY_TYPES = FacultyType.values();
+	private static final Building[] BUILDINGS = Building.values();
+	// sections i and i + ROOM_CYCLE share building, room, quarter and year
+	private static final int ROOM_CYCLE = 1200;
+	// one-hour slots from 8:00 to 20:00 on each day of the week
+	private static final Meeting[] SLOTS = new Meeting[7 * 12];
+	static {
+		for(int i = 0; i < SLOTS.length; i++) {
+			int start = (8 + i % 12) * 60;
+			SLOTS[i] = new Meeting(EnumSet.of(Weekday.values()[i / 12]), start, start + 50);
+		}
+	}
+	
+	private final int size, facultySize;
+	private final String[] studentFirst, studentLast;
+	private final String[] facultyFirst, facultyLast, facultyEmail;
+	private final String[] courseName;
+}
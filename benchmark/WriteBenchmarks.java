@@ -0,0 +1,206 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import enums.Building;
+import enums.Quarter;
+import person.Faculty;
+import person.Student;
+import registration.Cart;
+import registration.Course;
+import registration.Section;
+import system.RegistrationSystem;
+
+/**
+ * The WriteBenchmarks class measures loading a whole SyntheticData set into
+ * a RegistrationSystem, one kind of entity at a time, as a baseline for
+ * regression tracking.
+ *
+ * Every invocation starts from a fresh system holding what the adds depend
+ * on, so the score is the time to load the set once; divide it by the scale
+ * for the time per add. Run with -prof gc for the bytes allocated.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WriteBenchmarks {
+
+	@Param({ "1000", "100000" })
+	public int scale;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		data = new SyntheticData(scale);
+	}
+
+	@Benchmark
+	public RegistrationSystem addStudent(Empty s) throws Exception {
+		for(int i = 0; i < data.size(); i++) data.addStudent(s.system, i);
+		return s.system;
+	}
+
+	@Benchmark
+	public RegistrationSystem addFaculty(Empty s) throws Exception {
+		for(int i = 0; i < data.facultySize(); i++) data.addFaculty(s.system, i);
+		return s.system;
+	}
+
+	@Benchmark
+	public RegistrationSystem addCourse(Empty s) throws Exception {
+		for(int i = 0; i < data.size(); i++) data.addCourse(s.system, i);
+		return s.system;
+	}
+
+	@Benchmark
+	public RegistrationSystem addCourseSnapshot(Snapshotted s) throws Exception {
+		for(int i = 0; i < data.size(); i++) data.addCourse(s.system, i);
+		return s.system;
+	}
+
+	@Benchmark
+	public int addPrerequisite(WithCourses s) throws Exception {
+		int added = 0;
+		for(int i = 0; i < data.size(); i++) {
+			if(data.addPrerequisite(s.system, i)) added++;
+		}
+		return added;
+	}
+
+	@Benchmark
+	public RegistrationSystem addSection(WithInstructors s) throws Exception {
+		for(int i = 0; i < data.size(); i++) data.addSection(s.system, i);
+		return s.system;
+	}
+
+	@Benchmark
+	public RegistrationSystem addTimedSection(WithInstructors s) throws Exception {
+		for(int i = 0; i < data.size(); i++) data.addTimedSection(s.system, i);
+		return s.system;
+	}
+
+	/**
+	 * Registers every student for a cart of three of the same few sections,
+	 * so that the sections fill up and later carts are refused.
+	 */
+	@Benchmark
+	public int registerCart(Carts s) {
+		int registered = 0;
+		for(int i = 0; i < s.students.length; i++) {
+			Cart cart = new Cart();
+			cart.add(s.popular[i % s.popular.length]);
+			cart.add(s.popular[(i * 7 + 1) % s.popular.length]);
+			cart.add(s.popular[(i * 13 + 2) % s.popular.length]);
+			if(cart.register(s.students[i])) registered++;
+		}
+		return registered;
+	}
+
+	/**
+	 * An empty system.
+	 */
+	@State(Scope.Thread)
+	public static class Empty {
+
+		@Setup(Level.Invocation)
+		public void setUp() {
+			system = new RegistrationSystem();
+		}
+
+		RegistrationSystem system;
+	}
+
+	/**
+	 * An empty system publishing catalog snapshots.
+	 */
+	@State(Scope.Thread)
+	public static class Snapshotted {
+
+		@Setup(Level.Invocation)
+		public void setUp() {
+			system = new RegistrationSystem();
+			system.enableCatalogSnapshots();
+		}
+
+		RegistrationSystem system;
+	}
+
+	/**
+	 * A system holding every course of the data set.
+	 */
+	@State(Scope.Thread)
+	public static class WithCourses {
+
+		@Setup(Level.Invocation)
+		public void setUp(WriteBenchmarks b) throws Exception {
+			system = new RegistrationSystem();
+			for(int i = 0; i < b.data.size(); i++) b.data.addCourse(system, i);
+		}
+
+		RegistrationSystem system;
+	}
+
+	/**
+	 * A system holding every faculty and course of the data set.
+	 */
+	@State(Scope.Thread)
+	public static class WithInstructors {
+
+		@Setup(Level.Invocation)
+		public void setUp(WriteBenchmarks b) throws Exception {
+			system = new RegistrationSystem();
+			for(int i = 0; i < b.data.facultySize(); i++) b.data.addFaculty(system, i);
+			for(int i = 0; i < b.data.size(); i++) b.data.addCourse(system, i);
+		}
+
+		RegistrationSystem system;
+	}
+
+	/**
+	 * The students of the data set, and empty sections for their carts.
+	 */
+	@State(Scope.Thread)
+	public static class Carts {
+
+		@Setup(Level.Trial)
+		public void setUpStudents(WriteBenchmarks b) throws Exception {
+			RegistrationSystem system = new RegistrationSystem();
+			for(int i = 0; i < b.data.size(); i++) b.data.addStudent(system, i);
+			students = system.queryStudents().stream().toArray(Student[]::new);
+			popular = new Section[CART_SECTIONS];
+		}
+
+		@Setup(Level.Invocation)
+		public void setUpSections() {
+			Faculty instructor = new Faculty("Sheila", "Oh");
+			for(int i = 0; i < popular.length; i++) {
+				popular[i] = new Section(new Course(SyntheticData.courseCode(i),
+						SyntheticData.courseNum(i), "Course " + i, 3), 1, instructor,
+						Quarter.FQ, 2018, students.length / 16, Building.ENGR, 100 + i);
+			}
+		}
+
+		Student[] students;
+		Section[] popular;
+	}
+
+	// the sections every cart picks three of
+	private static final int CART_SECTIONS = 64;
+
+	private SyntheticData data;
+}
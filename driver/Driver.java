@@ -1,16 +1,24 @@
 package driver;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
 import enums.Building;
 import enums.FacultyType;
 import enums.Quarter;
 import enums.StudentType;
 import enums.SubjectCode;
 import enums.StudentProgram;
+import exception.CircularPrerequisiteException;
 import exception.CourseNotFoundException;
 import exception.DuplicateCourseException;
 import exception.DuplicatePersonException;
 import exception.DuplicateSubjectException;
 import exception.PersonNotFoundException;
+import report.ReportFormat;
+import report.Reports;
 import system.RegistrationSystem;
 
 /**
@@ -67,49 +75,44 @@ public class Driver {
 			System.out.println(e.getMessage());
 		} catch (CourseNotFoundException e) {
 			System.out.println(e.getMessage());
+		} catch (CircularPrerequisiteException e) {
+			System.out.println(e.getMessage());
 		} catch (PersonNotFoundException e) {
 			System.out.println(e.getMessage());
 		}
 
 	}
 	
+	/**
+	 * print one of the lists stored in system, streaming the rows to
+	 * standard output
+	 * @param s
+	 * @param list
+	 */
 	private static void printList(RegistrationSystem s, String list){
-
-		if(list.equals("student")) {
-			System.out.println("Student List");
-			System.out.printf(" %-12s %-12s %-15s %-18s %-15s %-10s %-10s %-8s %-1s", "Last Name", 
-					"First Name", "SUID", "Status", "Study Year", "Program" , "Quarter","Year", "Email");
-			System.out.println();
-			System.out.print(s.returnList("student").toString()
-					.replace(",", "").replace("[", " ").replace("]", " "));
-		}
-		
-		else if(list.equals("subject")) {
-			System.out.println("Subject List");
-			//course, section, instructor, quarter/year, capacity, building/room
-			System.out.printf(" %-10s %-10s %-10s %-15s %-15s %-1s",
-					"Course","Section","Instructor", "Quarter/Year", "Capacity", "BLDG/Room");
-			System.out.println();
-			System.out.print(s.returnList("section").toString()
-					.replace(",", "").replace("[", " ").replace("]", " "));	
-		}
-		
-		else if(list.equals("faculty")) {
-			System.out.println("Faculty List");
-			System.out.printf(" %-12s %-12s %-15s %-15s %-4s %-10s %-1s", "Last Name", 
-					"First Name", "SUID", "Type", "BLDG" , "Room #","Email" );
-			System.out.println();
-			System.out.print(s.returnList("faculty").toString()
-					.replace(",", "").replace("[", " ").replace("]", " "));
-		}
-		
-		else if(list.equals("course")) {
-			System.out.println("Prerequisite List");
-			System.out.printf(" %4s %-4s %-60s %-30s", "Code", "#", 
-					"Name","Prerequisite" );
-			System.out.println();
-			System.out.print(s.returnList("course").toString()
-					.replace(",", "").replace("[", " ").replace("]", " "));
+		Writer out = new BufferedWriter(new OutputStreamWriter(System.out));
+		try {
+			if(list.equals("student")) {
+				System.out.println("Student List");
+				Reports.writeStudents(s.queryStudents(), out, ReportFormat.FIXED_WIDTH);
+			}
+			
+			else if(list.equals("subject")) {
+				System.out.println("Subject List");
+				Reports.writeSections(s.querySections(), out, ReportFormat.FIXED_WIDTH);
+			}
+			
+			else if(list.equals("faculty")) {
+				System.out.println("Faculty List");
+				Reports.writeFaculty(s.queryFaculty(), out, ReportFormat.FIXED_WIDTH);
+			}
+			
+			else if(list.equals("course")) {
+				System.out.println("Prerequisite List");
+				Reports.writeCourses(s.queryCourses(), out, ReportFormat.FIXED_WIDTH);
+			}
+		} catch (IOException e) {
+			System.out.println(e.getMessage());
 		}
 		
 	}
@@ -191,7 +194,8 @@ public class Driver {
 		system.addCourse(SubjectCode.CPSC, 5700, "Computer Graphics", 5);
 	}
 	
-	private static void populatePrerequisites(RegistrationSystem system) throws CourseNotFoundException {
+	private static void populatePrerequisites(RegistrationSystem system) 
+			throws CourseNotFoundException, CircularPrerequisiteException {
 		system.addPrerequisite(SubjectCode.CPSC, 1430, SubjectCode.CPSC, 1420);
 		system.addPrerequisite(SubjectCode.CPSC, 2430, SubjectCode.CPSC, 1430);
 		system.addPrerequisite(SubjectCode.CPSC, 2500, SubjectCode.CPSC, 1430);
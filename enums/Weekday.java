@@ -0,0 +1,14 @@
+package enums;
+
+/**
+ * The Weekday enum, in the order the days appear in a class schedule.
+ * 
+ * M: Monday
+ * T: Tuesday
+ * W: Wednesday
+ * R: Thursday
+ * F: Friday
+ * S: Saturday
+ * U: Sunday
+ */
+public enum Weekday { M, T, W, R, F, S, U }
@@ -0,0 +1,214 @@
+package event;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+
+import enums.SubjectCode;
+import person.Faculty;
+import person.Student;
+import registration.Course;
+import registration.Section;
+import system.RegistrationListener;
+
+/**
+ * The EventFeed class publishes every change made to a RegistrationSystem to
+ * any number of subscribers through a preallocated ring of events.
+ * 
+ * Register the feed with RegistrationSystem.addListener. Writers claim a
+ * slot with one atomic increment, fill in the preallocated event and publish
+ * the slot's sequence number; they never wait for subscribers, however many
+ * there are or however slow. A subscriber that falls more than a ring behind
+ * has the events it missed overwritten: it skips to the oldest event still
+ * in the ring and counts the ones it lost.
+ * 
+ * The ring should be much larger than the number of writing threads, so
+ * that two writers are never a whole lap apart on the same slot.
+ * 
+ * Subscribers poll in batches. Each event is copied into the subscription's
+ * own event and checked again after the copy, so a slot overwritten while
+ * it was being read is never handed out, and reading allocates nothing.
+ */
+public class EventFeed implements RegistrationListener {
+	
+	/**
+	 * 
+	 * @param capacity	The number of events kept, a power of two
+	 */
+	public EventFeed(int capacity) {
+		if(capacity < 2 || Integer.bitCount(capacity) != 1)
+			throw new IllegalArgumentException("capacity must be a power of two");
+		this.ring = new RegistrationEvent[capacity];
+		this.published = new long[capacity];
+		for(int i = 0; i < capacity; i++) {
+			ring[i] = new RegistrationEvent();
+			published[i] = -1;
+		}
+		this.mask = capacity - 1;
+		this.next = new AtomicLong();
+	}
+	
+	/**
+	 * Starts reading the feed from the next event published.
+	 * 
+	 * @return the new subscription
+	 */
+	public Subscription subscribe() {
+		return new Subscription(next.get());
+	}
+	
+	/**
+	 * Returns the number of events published so far.
+	 */
+	public long getPublished() {
+		return next.get();
+	}
+	
+	public int getCapacity() {
+		return ring.length;
+	}
+	
+	@Override
+	public void studentAdded(Student student) {
+		publish(EventType.STUDENT_ADDED, student, null, null, null, null, null, null);
+	}
+	
+	@Override
+	public void facultyAdded(Faculty faculty) {
+		publish(EventType.FACULTY_ADDED, null, faculty, null, null, null, null, null);
+	}
+	
+	@Override
+	public void subjectAdded(SubjectCode code, String desc) {
+		publish(EventType.SUBJECT_ADDED, null, null, code, desc, null, null, null);
+	}
+	
+	@Override
+	public void courseAdded(Course course) {
+		publish(EventType.COURSE_ADDED, null, null, null, null, course, null, null);
+	}
+	
+	@Override
+	public void prerequisiteAdded(Course course, Course prereq) {
+		publish(EventType.PREREQUISITE_ADDED, null, null, null, null, course, prereq, null);
+	}
+	
+	@Override
+	public void sectionAdded(Section section) {
+		publish(EventType.SECTION_ADDED, null, null, null, null, null, null, section);
+	}
+	
+	@Override
+	public void courseCompleted(Student student, Course course) {
+		publish(EventType.COURSE_COMPLETED, student, null, null, null, course, null, null);
+	}
+	
+	@Override
+	public void waitlistPromoted(Section section, Student student) {
+		publish(EventType.WAITLIST_PROMOTED, student, null, null, null, null, null, section);
+	}
+	
+	private void publish(EventType type, Student student, Faculty faculty, SubjectCode code,
+			String desc, Course course, Course prereq, Section section) {
+		long seq = next.getAndIncrement();
+		int slot = (int) seq & mask;
+		// readers of the previous lap see the slot change before its fields do
+		PUBLISHED.setOpaque(published, slot, -1L);
+		VarHandle.storeStoreFence();
+		ring[slot].set(type, student, faculty, code, desc, course, prereq, section);
+		PUBLISHED.setRelease(published, slot, seq);
+	}
+	
+	/**
+	 * The Subscription class is one reader's position in the feed. A
+	 * subscription must only be polled by one thread at a time.
+	 */
+	public final class Subscription {
+		
+		private Subscription(long start) {
+			this.sequence = start;
+			this.event = new RegistrationEvent();
+		}
+		
+		/**
+		 * Hands the events published since the last poll to a handler, in
+		 * order. endOfBatch is true for the last one unless the batch was cut
+		 * short because writers overtook the subscription.
+		 * 
+		 * @param handler	The handler
+		 * @param maxBatch	The maximum number of events to hand out
+		 * @return the number of events handed out
+		 */
+		public int poll(EventHandler handler, int maxBatch) {
+			long head = next.get();
+			if(head - sequence > ring.length) skipTo(head - ring.length);
+			long end = Math.min(head, sequence + maxBatch);
+			// stop before the first slot still being written
+			long available = sequence;
+			while(available < end 
+					&& (long) PUBLISHED.getAcquire(published, (int) available & mask) >= available) 
+				available++;
+			
+			int handled = 0;
+			while(sequence < available) {
+				int slot = (int) sequence & mask;
+				if((long) PUBLISHED.getAcquire(published, slot) != sequence) {
+					skipTo(next.get() - ring.length);
+					break;
+				}
+				event.copyFrom(ring[slot], sequence);
+				VarHandle.acquireFence();
+				if((long) PUBLISHED.getVolatile(published, slot) != sequence) {
+					skipTo(next.get() - ring.length);
+					break;
+				}
+				sequence++;
+				handled++;
+				handler.onEvent(event, sequence == available);
+			}
+			event.set(null, null, null, null, null, null, null, null);
+			return handled;
+		}
+		
+		/**
+		 * Returns the sequence number of the next event this subscription
+		 * will read.
+		 */
+		public long getSequence() {
+			return sequence;
+		}
+		
+		/**
+		 * Returns the number of events overwritten before this subscription
+		 * could read them.
+		 */
+		public long getLapsed() {
+			return lapsed;
+		}
+		
+		/**
+		 * Returns the number of events published but not read yet.
+		 */
+		public long getBacklog() {
+			return Math.min(ring.length, next.get() - sequence);
+		}
+		
+		private void skipTo(long oldest) {
+			if(oldest <= sequence) oldest = sequence + 1;
+			lapsed += oldest - sequence;
+			sequence = oldest;
+		}
+		
+		private long sequence, lapsed;
+		private final RegistrationEvent event;
+	}
+	
+	private static final VarHandle PUBLISHED = MethodHandles.arrayElementVarHandle(long[].class);
+	
+	// the preallocated events and, per slot, the sequence number of the event
+	// in it, or -1 while it is being written
+	private final RegistrationEvent[] ring;
+	private final long[] published;
+	private final int mask;
+	private final AtomicLong next;
+}
@@ -0,0 +1,80 @@
+package event;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import enums.Quarter;
+import enums.StudentProgram;
+import enums.StudentType;
+import enums.SubjectCode;
+import system.RegistrationSystem;
+
+
+public class EventFeedTest {
+
+	@Before
+	public void setUp() throws Exception {
+		s = new RegistrationSystem();
+		feed = new EventFeed(8);
+		s.addListener(feed);
+	}
+
+	@Test
+	public void testPoll() throws Exception {
+		EventFeed.Subscription sub = feed.subscribe();
+		s.addSubject(SubjectCode.CPSC, "Computer Science");
+		s.addCourse(SubjectCode.CPSC, 5001, "Programming Boot Camp I", 3);
+		s.addCourse(SubjectCode.CPSC, 5002, "Programming Boot Camp II", 3);
+		s.addPrerequisite(SubjectCode.CPSC, 5002, SubjectCode.CPSC, 5001);
+		
+		List<String> seen = new ArrayList<>();
+		assertEquals(3, sub.poll((e, end) -> seen.add(e.getType() + " " + end), 3));
+		assertEquals(1, sub.poll((e, end) -> {
+			assertEquals(5002, e.getCourse().getCourseNum());
+			assertEquals(5001, e.getPrerequisite().getCourseNum());
+			assertEquals(3, e.getSequence());
+		}, 10));
+		assertEquals("[SUBJECT_ADDED false, COURSE_ADDED false, COURSE_ADDED true]", seen.toString());
+		assertEquals(0, sub.poll((e, end) -> fail(), 10));
+	}
+
+	@Test
+	public void testLapsed() throws Exception {
+		EventFeed.Subscription sub = feed.subscribe();
+		for(int i = 0; i < 11; i++) {
+			s.addStudent("Student" + i, "Bluth", StudentType.UNDERGRAD, StudentProgram.BSCS, 
+					Quarter.FQ, 2018);
+		}
+		List<String> seen = new ArrayList<>();
+		assertEquals(8, sub.poll((e, end) -> seen.add(e.getStudent().getFirstName()), 100));
+		assertEquals(3, sub.getLapsed());
+		assertEquals("Student3", seen.get(0));
+		assertEquals("Student10", seen.get(7));
+	}
+
+	@Test
+	public void testCourseCompleted() throws Exception {
+		s.addSubject(SubjectCode.CPSC, "Computer Science");
+		s.addCourse(SubjectCode.CPSC, 5001, "Programming Boot Camp I", 3);
+		s.addStudent("Michael", "Bluth", StudentType.GRAD, StudentProgram.MSCS, Quarter.FQ, 2018);
+		int suid = s.queryStudents().page(0, 1).get(0).getSUID();
+		EventFeed.Subscription sub = feed.subscribe();
+		s.completeCourse(suid, SubjectCode.CPSC, 5001);
+		// completing it again publishes nothing
+		s.completeCourse(suid, SubjectCode.CPSC, 5001);
+		
+		assertEquals(1, sub.poll((e, end) -> {
+			assertEquals(EventType.COURSE_COMPLETED, e.getType());
+			assertEquals(suid, e.getStudent().getSUID());
+			assertEquals(5001, e.getCourse().getCourseNum());
+		}, 10));
+	}
+
+	RegistrationSystem s;
+	EventFeed feed;
+}
@@ -0,0 +1,16 @@
+package event;
+
+/**
+ * The EventHandler interface receives the events read by a subscription.
+ */
+@FunctionalInterface
+public interface EventHandler {
+
+	/**
+	 * 
+	 * @param event			The event, valid until this method returns
+	 * @param endOfBatch	true for the last event of the current poll, e.g.
+	 * 						to flush work collected over the batch
+	 */
+	void onEvent(RegistrationEvent event, boolean endOfBatch);
+}
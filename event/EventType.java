@@ -0,0 +1,19 @@
+package event;
+
+/**
+ * The EventType enum lists the changes a RegistrationSystem publishes to an
+ * EventFeed, one per RegistrationListener method.
+ * 
+ * STUDENT_ADDED: student
+ * FACULTY_ADDED: faculty
+ * SUBJECT_ADDED: subject code, description
+ * COURSE_ADDED: course
+ * PREREQUISITE_ADDED: course, prerequisite
+ * SECTION_ADDED: section
+ * COURSE_COMPLETED: student, course
+ * WAITLIST_PROMOTED: section, student
+ */
+public enum EventType { 
+	STUDENT_ADDED, FACULTY_ADDED, SUBJECT_ADDED, COURSE_ADDED, PREREQUISITE_ADDED, 
+	SECTION_ADDED, COURSE_COMPLETED, WAITLIST_PROMOTED 
+}
@@ -0,0 +1,91 @@
+package event;
+
+import enums.SubjectCode;
+import person.Faculty;
+import person.Student;
+import registration.Course;
+import registration.Section;
+
+/**
+ * The RegistrationEvent class is one change published to an EventFeed.
+ * 
+ * Events are preallocated and reused: the feed writes each change into the
+ * next slot of its ring, and each subscription copies the slot into its own
+ * event before handing it out. An event is only valid until the handler it
+ * was passed to returns. Only the fields of its EventType are set; the 
+ * others are null.
+ */
+public final class RegistrationEvent {
+
+	RegistrationEvent() {
+	}
+	
+	public EventType getType() {
+		return type;
+	}
+	
+	/**
+	 * Returns the position of the event in the feed, counting from 0.
+	 */
+	public long getSequence() {
+		return sequence;
+	}
+	
+	public Student getStudent() {
+		return student;
+	}
+	
+	public Faculty getFaculty() {
+		return faculty;
+	}
+	
+	public SubjectCode getSubjectCode() {
+		return code;
+	}
+	
+	public String getSubjectDescription() {
+		return desc;
+	}
+	
+	public Course getCourse() {
+		return course;
+	}
+	
+	public Course getPrerequisite() {
+		return prereq;
+	}
+	
+	public Section getSection() {
+		return section;
+	}
+	
+	void set(EventType type, Student student, Faculty faculty, SubjectCode code, String desc, 
+			Course course, Course prereq, Section section) {
+		this.type = type;
+		this.student = student;
+		this.faculty = faculty;
+		this.code = code;
+		this.desc = desc;
+		this.course = course;
+		this.prereq = prereq;
+		this.section = section;
+	}
+	
+	void copyFrom(RegistrationEvent e, long sequence) {
+		set(e.type, e.student, e.faculty, e.code, e.desc, e.course, e.prereq, e.section);
+		this.sequence = sequence;
+	}
+	
+	public String toString() {
+		return sequence + " " + type;
+	}
+	
+	private EventType type;
+	private long sequence;
+	private Student student;
+	private Faculty faculty;
+	private SubjectCode code;
+	private String desc;
+	private Course course, prereq;
+	private Section section;
+}
@@ -0,0 +1,20 @@
+package exception;
+
+/**
+ * The class CircularPrerequisiteException and its subclasses are a form of 
+ * Throwable that indicates conditions that a reasonable application might want
+ * to catch. This exception is thrown when adding a prerequisite would make a 
+ * course (transitively) a prerequisite of itself.
+ */
+@SuppressWarnings("serial")
+public class CircularPrerequisiteException extends Exception {
+
+	public CircularPrerequisiteException(String msg) {
+		super(msg);
+	}
+	
+	public CircularPrerequisiteException() {
+		this("Prerequisite would create a cycle.");
+	}
+	
+}
@@ -0,0 +1,20 @@
+package exception;
+
+/**
+ * The class ScheduleConflictException and its subclasses are a form of 
+ * Throwable that indicates conditions that a reasonable application might want
+ * to catch. This exception is thrown when a section would meet in the same room,
+ * or with the same instructor, at the same time as another section.
+ */
+@SuppressWarnings("serial")
+public class ScheduleConflictException extends Exception {
+
+	public ScheduleConflictException(String msg) {
+		super(msg);
+	}
+	
+	public ScheduleConflictException() {
+		this("Section conflicts with another section.");
+	}
+	
+}
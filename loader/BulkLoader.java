@@ -0,0 +1,523 @@
+package loader;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import enums.Building;
+import enums.FacultyType;
+import enums.Quarter;
+import enums.StudentProgram;
+import enums.StudentType;
+import enums.SubjectCode;
+import registration.Course;
+import registration.Meeting;
+import registration.Section;
+import system.Batch;
+import system.RegistrationSystem;
+
+/**
+ * The BulkLoader class loads people, subjects, courses, prerequisites and 
+ * sections into a RegistrationSystem from CSV files, one RecordType per file.
+ * 
+ * A load runs in three passes:
+ * - parse: the file is read a window of chunks at a time, each chunk ending
+ *   at a line boundary, and the chunks of a window are parsed and converted
+ *   to typed values in parallel; only one window is held in memory
+ * - check: in file order, one batch at a time, rows that duplicate an 
+ *   earlier row or an entity already in the system, or that refer to a 
+ *   missing course or instructor, are rejected
+ * - insert: the remaining rows of the batch are added to the system as one
+ *   Batch, so each write lock is taken once per batch
+ * 
+ * A bad row never stops the load; every rejected row is recorded in the
+ * returned LoadReport with its line number.
+ * 
+ * Fields are separated by commas and may be quoted with double quotes; a
+ * quoted field may not span lines. The first line is skipped as a header
+ * unless setHeader(false) is called.
+ */
+public class BulkLoader {
+	
+	/**
+	 * 
+	 * @param system	The registration system to load into
+	 */
+	public BulkLoader(RegistrationSystem system) {
+		this.system = system;
+		this.header = true;
+		this.batchSize = 4096;
+		this.chunkSize = 1 << 20;
+		this.window = 2 * Runtime.getRuntime().availableProcessors();
+	}
+	
+	/**
+	 * Sets whether the first line of each file is a header row.
+	 * 
+	 * @param header	true to skip the first line
+	 */
+	public void setHeader(boolean header) {
+		this.header = header;
+	}
+	
+	/**
+	 * Sets how many rows are inserted per batch.
+	 * 
+	 * @param batchSize	The number of rows per batch
+	 */
+	public void setBatchSize(int batchSize) {
+		if(batchSize < 1) throw new IllegalArgumentException("batch size must be positive");
+		this.batchSize = batchSize;
+	}
+	
+	/**
+	 * Loads a CSV file of the given record type.
+	 * 
+	 * @param type	The kind of rows in the file
+	 * @param file	The CSV file
+	 * @return the load report
+	 * @throws IOException The file could not be read
+	 */
+	public LoadReport load(RecordType type, Path file) throws IOException {
+		try(InputStream in = Files.newInputStream(file)) {
+			return load(type, in);
+		}
+	}
+	
+	/**
+	 * Loads CSV content of the given record type.
+	 * 
+	 * @param type	The kind of rows in the content
+	 * @param csv	The CSV content, encoded as UTF-8
+	 * @return the load report
+	 */
+	public LoadReport load(RecordType type, byte[] csv) {
+		try {
+			return load(type, new ByteArrayInputStream(csv));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	/**
+	 * Loads CSV content of the given record type from a stream, which is 
+	 * read to its end but not closed.
+	 * 
+	 * @param type	The kind of rows in the content
+	 * @param in	The CSV content, encoded as UTF-8
+	 * @return the load report
+	 * @throws IOException The stream could not be read
+	 */
+	public LoadReport load(RecordType type, InputStream in) throws IOException {
+		LoadReport report = new LoadReport(type);
+		ChunkReader reader = new ChunkReader(in, chunkSize);
+		Checker checker = new Checker(type);
+		List<Object[]> batch = new ArrayList<>(batchSize);
+		long[] batchLines = new long[batchSize];
+		long firstLine = 1;
+		boolean skipHeader = header;
+		List<byte[]> read = new ArrayList<>(window);
+		while(true) {
+			// parse pass over the next window
+			read.clear();
+			for(byte[] chunk; read.size() < window && (chunk = reader.next()) != null; ) read.add(chunk);
+			if(read.isEmpty()) break;
+			int start = 0;
+			if(skipHeader) {
+				byte[] first = read.get(0);
+				while(start < first.length && first[start] != '\n') start++;
+				if(start < first.length) start++;
+				firstLine = 2;
+				skipHeader = false;
+			}
+			int headerEnd = start;
+			Chunk[] chunks = IntStream.range(0, read.size()).parallel()
+					.mapToObj(i -> parseChunk(type, read.get(i), i == 0 ? headerEnd : 0))
+					.toArray(Chunk[]::new);
+			
+			for(Chunk chunk : chunks) {
+				chunk.firstLine = firstLine;
+				firstLine += chunk.lineCount;
+				report.rowsRead += chunk.rows.size();
+				for(int i = 0; i < chunk.errorLines.size(); i++) 
+					report.addError(chunk.firstLine + chunk.errorLines.get(i), chunk.errors.get(i));
+			}
+			
+			// check and insert pass, one batch at a time; rows of earlier 
+			// batches are already in the system by the time a batch is checked
+			for(Chunk chunk : chunks) {
+				for(int i = 0; i < chunk.rows.size(); i++) {
+					batchLines[batch.size()] = chunk.firstLine + chunk.lines.get(i);
+					batch.add(chunk.rows.get(i));
+					if(batch.size() == batchSize) {
+						loadBatch(type, checker, batch, batchLines, report);
+					}
+				}
+				chunk.rows.clear();
+			}
+		}
+		loadBatch(type, checker, batch, batchLines, report);
+		report.sortErrors();
+		return report;
+	}
+	
+	private Chunk parseChunk(RecordType type, byte[] csv, int from) {
+		int to = csv.length;
+		Chunk chunk = new Chunk();
+		String[] fields = new String[type.getColumns() + type.getOptionalColumns()];
+		int line = 0;
+		int pos = from;
+		while(pos < to) {
+			int end = pos;
+			while(end < to && csv[end] != '\n') end++;
+			int stop = end > pos && csv[end - 1] == '\r' ? end - 1 : end;
+			if(stop > pos) {
+				try {
+					int n = split(csv, pos, stop, fields);
+					if(n < type.getColumns() || n > fields.length) 
+						throw new IllegalArgumentException("expected " + type.getColumns() 
+								+ (fields.length > type.getColumns() ? " to " + fields.length : "")
+								+ " columns but found " + n);
+					Arrays.fill(fields, n, fields.length, "");
+					chunk.rows.add(convert(type, fields));
+					chunk.lines.add(line);
+				} catch (IllegalArgumentException e) {
+					chunk.errorLines.add(line);
+					chunk.errors.add(e.getMessage());
+				}
+			}
+			line++;
+			pos = end + 1;
+		}
+		chunk.lineCount = line;
+		return chunk;
+	}
+	
+	// splits one line into fields and returns the number of fields found
+	private static int split(byte[] csv, int from, int to, String[] fields) {
+		int n = 0;
+		int pos = from;
+		while(true) {
+			String field;
+			if(pos < to && csv[pos] == '"') {
+				StringBuilder sb = new StringBuilder();
+				int i = pos + 1;
+				int runStart = i;
+				while(true) {
+					if(i >= to) throw new IllegalArgumentException("unterminated quoted field");
+					if(csv[i] == '"') {
+						sb.append(new String(csv, runStart, i - runStart, StandardCharsets.UTF_8));
+						if(i + 1 < to && csv[i + 1] == '"') {
+							sb.append('"');
+							i += 2;
+							runStart = i;
+							continue;
+						}
+						i++;
+						break;
+					}
+					i++;
+				}
+				if(i < to && csv[i] != ',') 
+					throw new IllegalArgumentException("unexpected text after quoted field");
+				field = sb.toString();
+				pos = i;
+			} else {
+				int i = pos;
+				while(i < to && csv[i] != ',') i++;
+				field = new String(csv, pos, i - pos, StandardCharsets.UTF_8).trim();
+				pos = i;
+			}
+			if(n < fields.length) fields[n] = field;
+			n++;
+			if(pos >= to) return n;
+			pos++;
+		}
+	}
+	
+	private static Object[] convert(RecordType type, String[] f) {
+		switch(type) {
+		case STUDENT:
+			return new Object[] { text(f[0], "first name"), text(f[1], "last name"), 
+					value(StudentType.class, f[2]), value(StudentProgram.class, f[3]), 
+					value(Quarter.class, f[4]), number(f[5], "year") };
+		case FACULTY:
+			return new Object[] { text(f[0], "first name"), text(f[1], "last name"), 
+					value(FacultyType.class, f[2]), value(Building.class, f[3]), 
+					number(f[4], "room"), f[5] };
+		case SUBJECT:
+			return new Object[] { value(SubjectCode.class, f[0]), f[1] };
+		case COURSE:
+			return new Object[] { value(SubjectCode.class, f[0]), number(f[1], "course number"), 
+					text(f[2], "course name"), number(f[3], "credits") };
+		case PREREQUISITE:
+			return new Object[] { value(SubjectCode.class, f[0]), number(f[1], "course number"), 
+					value(SubjectCode.class, f[2]), number(f[3], "prerequisite number") };
+		default:
+			return new Object[] { value(SubjectCode.class, f[0]), number(f[1], "course number"), 
+					number(f[2], "section number"), text(f[3], "instructor"), 
+					value(Quarter.class, f[4]), number(f[5], "year"), number(f[6], "capacity"), 
+					value(Building.class, f[7]), number(f[8], "room"), meeting(f[9]) };
+		}
+	}
+	
+	private static String text(String s, String column) {
+		if(s.isEmpty()) throw new IllegalArgumentException("missing " + column);
+		return s;
+	}
+	
+	private static Integer number(String s, String column) {
+		try {
+			return Integer.valueOf(s);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("invalid " + column + " '" + s + "'");
+		}
+	}
+	
+	// null for an empty (TBA) meeting time
+	private static Meeting meeting(String s) {
+		if(s.isEmpty()) return null;
+		try {
+			return Meeting.parse(s);
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("invalid meeting '" + s + "'");
+		}
+	}
+	
+	private static <E extends Enum<E>> E value(Class<E> type, String s) {
+		try {
+			return Enum.valueOf(type, s);
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("invalid " + type.getSimpleName() + " '" + s + "'");
+		}
+	}
+	
+	private void loadBatch(RecordType type, Checker checker, List<Object[]> rows, 
+							long[] lines, LoadReport report) {
+		Batch batch = system.newBatch();
+		// the row of each queued call
+		int[] queued = new int[rows.size()];
+		for(int i = 0; i < rows.size(); i++) {
+			Object[] r = rows.get(i);
+			String error = checker.check(r);
+			if(error != null) {
+				report.addError(lines[i], error);
+				continue;
+			}
+			queued[batch.size()] = i;
+			switch(type) {
+			case STUDENT:
+				batch.addStudent((String) r[0], (String) r[1], (StudentType) r[2], 
+						(StudentProgram) r[3], (Quarter) r[4], (Integer) r[5]);
+				break;
+			case FACULTY:
+				batch.addFaculty((String) r[0], (String) r[1], (FacultyType) r[2], 
+						(Building) r[3], (Integer) r[4], (String) r[5]);
+				break;
+			case SUBJECT:
+				batch.addSubject((SubjectCode) r[0], (String) r[1]);
+				break;
+			case COURSE:
+				batch.addCourse((SubjectCode) r[0], (Integer) r[1], (String) r[2], 
+						(Integer) r[3]);
+				break;
+			case PREREQUISITE:
+				batch.addPrerequisite((SubjectCode) r[0], (Integer) r[1], 
+						(SubjectCode) r[2], (Integer) r[3]);
+				break;
+			case SECTION:
+				batch.addSection((SubjectCode) r[0], (Integer) r[1], (Integer) r[2], 
+						(String) r[3], (Quarter) r[4], (Integer) r[5], (Integer) r[6], 
+						(Building) r[7], (Integer) r[8], (Meeting) r[9]);
+				break;
+			}
+		}
+		checker.reset();
+		
+		Exception[] errors = batch.apply();
+		for(int i = 0; i < errors.length; i++) {
+			if(errors[i] == null) report.rowsLoaded++;
+			// e.g. a prerequisite cycle, or a row added by another writer 
+			// since the check pass
+			else {
+				report.addError(lines[queued[i]], errors[i].getMessage());
+				checker.rejected(rows.get(queued[i]));
+			}
+		}
+		rows.clear();
+	}
+	
+	/**
+	 * Rejects rows that duplicate an earlier row of the batch or an entity
+	 * already in the system, or that refer to a missing course or instructor.
+	 * 
+	 * The system cannot look up a prerequisite or a section by key, so the 
+	 * keys of those already in it are collected once per load, and the keys
+	 * of the rows checked are kept for the rest of the load unless the insert
+	 * rejects the row.
+	 */
+	private class Checker {
+		
+		Checker(RecordType type) {
+			this.type = type;
+			this.keys = new HashSet<>();
+			this.subjects = EnumSet.noneOf(SubjectCode.class);
+		}
+		
+		void reset() {
+			if(type != RecordType.PREREQUISITE && type != RecordType.SECTION) keys.clear();
+			subjects.clear();
+		}
+		
+		String check(Object[] r) {
+			switch(type) {
+			case STUDENT:
+				if(!keys.add(r[0] + "\0" + r[1]) || system.hasStudent((String) r[0], (String) r[1]))
+					return "duplicate student " + r[0] + " " + r[1];
+				return null;
+			case FACULTY:
+				if(!keys.add(r[0] + "\0" + r[1]) || system.hasFaculty((String) r[0], (String) r[1]))
+					return "duplicate faculty " + r[0] + " " + r[1];
+				return null;
+			case SUBJECT:
+				if(!subjects.add((SubjectCode) r[0]) || system.hasSubject((SubjectCode) r[0]))
+					return "duplicate subject " + r[0];
+				return null;
+			case COURSE:
+				if(!keys.add(r[0] + " " + r[1]) || system.hasCourse((SubjectCode) r[0], (Integer) r[1]))
+					return "duplicate course " + r[0] + " " + r[1];
+				return null;
+			case PREREQUISITE:
+				if(!system.hasCourse((SubjectCode) r[0], (Integer) r[1])) 
+					return "course " + r[0] + " " + r[1] + " was not found";
+				if(!system.hasCourse((SubjectCode) r[2], (Integer) r[3])) 
+					return "prerequisite " + r[2] + " " + r[3] + " was not found";
+				if(!existing().add(prerequisiteKey(r[0], r[1], r[2], r[3])))
+					return "duplicate prerequisite " + r[2] + " " + r[3] + " of " + r[0] + " " + r[1];
+				return null;
+			default:
+				if(!system.hasCourse((SubjectCode) r[0], (Integer) r[1])) 
+					return "course " + r[0] + " " + r[1] + " was not found";
+				if(!system.hasInstructor((String) r[3])) 
+					return "instructor " + r[3] + " was not found";
+				if(!existing().add(sectionKey(r[0], r[1], r[2], r[4], r[5])))
+					return "duplicate section " + r[0] + " " + r[1] + "-" + r[2] + " in " + r[4] + " " + r[5];
+				return null;
+			}
+		}
+		
+		// forgets the key of a checked row the insert rejected, so that a 
+		// corrected row later in the load is not taken for a duplicate
+		void rejected(Object[] r) {
+			if(type == RecordType.PREREQUISITE) keys.remove(prerequisiteKey(r[0], r[1], r[2], r[3]));
+			else if(type == RecordType.SECTION) keys.remove(sectionKey(r[0], r[1], r[2], r[4], r[5]));
+		}
+		
+		// the keys of the prerequisites or sections of the system, and of the
+		// rows checked so far
+		private Set<String> existing() {
+			if(!collected) {
+				if(type == RecordType.PREREQUISITE) {
+					for(Course c : system.queryCourses()) {
+						for(Course p : c.getPrerequisiteList()) 
+							keys.add(prerequisiteKey(c.getCode(), c.getCourseNum(), p.getCode(), p.getCourseNum()));
+					}
+				} else {
+					for(Section s : system.querySections()) {
+						keys.add(sectionKey(s.getCourse().getCode(), s.getCourse().getCourseNum(), 
+								s.getSection(), s.getQuarter(), s.getYear()));
+					}
+				}
+				collected = true;
+			}
+			return keys;
+		}
+		
+		private String prerequisiteKey(Object code, Object num, Object prereqCode, Object prereqNum) {
+			return code + " " + num + "<" + prereqCode + " " + prereqNum;
+		}
+		
+		private String sectionKey(Object code, Object num, Object section, Object quarter, Object year) {
+			return code + " " + num + "-" + section + " " + quarter + " " + year;
+		}
+		
+		private final RecordType type;
+		private final Set<String> keys;
+		private final Set<SubjectCode> subjects;
+		private boolean collected;
+	}
+	
+	/**
+	 * Reads a stream in chunks of about a given size that end just after a
+	 * newline, except for the last. A chunk grows past the size to hold a 
+	 * line longer than it.
+	 */
+	private static class ChunkReader {
+		
+		ChunkReader(InputStream in, int size) {
+			this.in = in;
+			this.buf = new byte[size];
+		}
+		
+		// the next chunk, or null at the end of the stream
+		byte[] next() throws IOException {
+			while(true) {
+				while(!eof && len < buf.length) {
+					int n = in.read(buf, len, buf.length - len);
+					if(n < 0) eof = true;
+					else len += n;
+				}
+				if(len == 0) return null;
+				int cut = len;
+				if(!eof) {
+					while(cut > 0 && buf[cut - 1] != '\n') cut--;
+					if(cut == 0) {
+						buf = Arrays.copyOf(buf, buf.length * 2);
+						continue;
+					}
+				}
+				byte[] chunk = Arrays.copyOf(buf, cut);
+				System.arraycopy(buf, cut, buf, 0, len - cut);
+				len -= cut;
+				return chunk;
+			}
+		}
+		
+		private final InputStream in;
+		private byte[] buf;
+		// the bytes read into buf but not yet returned
+		private int len;
+		private boolean eof;
+	}
+	
+	/**
+	 * The rows parsed from one chunk, with line numbers relative to the 
+	 * start of the chunk.
+	 */
+	private static class Chunk {
+		final List<Object[]> rows = new ArrayList<>();
+		final List<Integer> lines = new ArrayList<>();
+		final List<Integer> errorLines = new ArrayList<>();
+		final List<String> errors = new ArrayList<>();
+		int lineCount;
+		long firstLine;
+	}
+	
+	private final RegistrationSystem system;
+	private boolean header;
+	private int batchSize;
+	private final int chunkSize;
+	// the number of chunks parsed together
+	private final int window;
+}
@@ -0,0 +1,185 @@
+package loader;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.Test;
+
+import enums.Building;
+import enums.FacultyType;
+import enums.Quarter;
+import enums.SubjectCode;
+import system.RegistrationSystem;
+
+
+public class BulkLoaderTest {
+	
+	@Test
+	public void testBadRows() throws Exception {
+		RegistrationSystem system = new RegistrationSystem();
+		LoadReport report = new BulkLoader(system).load(RecordType.STUDENT, csv(
+				"first,last,type,program,quarter,year",
+				"Michael,Bluth,GRAD,MSCS,FQ,2018",
+				"Lindsay,Bluth,GRAD,MSCS,FQ",
+				"Tobias,Funke,POSTDOC,MSCS,FQ,2018",
+				"Gob,Bluth,UNDERGRAD,BSCS,SQ,next",
+				"\"George,Bluth,GRAD,MSCS,FQ,2018",
+				",Bluth,GRAD,MSCS,FQ,2018",
+				"\"Lucille, Sr.\",Bluth,GRAD,MSCS,WQ,2019"));
+		
+		assertEquals(2, report.getRowsLoaded());
+		assertErrors(report, 3, "expected 6", 4, "POSTDOC", 5, "invalid year",
+				6, "unterminated", 7, "missing first name");
+		assertEquals(2, system.queryStudents().count());
+		assertTrue(system.hasStudent("Lucille, Sr.", "Bluth"));
+	}
+	
+	@Test
+	public void testDuplicateRows() throws Exception {
+		RegistrationSystem system = new RegistrationSystem();
+		system.addCourse(SubjectCode.CPSC, 2430, "Data Structures", 5);
+		BulkLoader loader = new BulkLoader(system);
+		
+		LoadReport courses = loader.load(RecordType.COURSE, csv(
+				"code,num,name,credits",
+				"CPSC,2430,Data Structures,5",
+				"CPSC,5011,Object-Oriented Concepts,5",
+				"CPSC,5011,Object-Oriented Concepts,5",
+				"CPSC,5600,Parallel Computing,5"));
+		assertEquals(2, courses.getRowsLoaded());
+		assertErrors(courses, 2, "duplicate course", 4, "duplicate course");
+		
+		system.addPrerequisite(SubjectCode.CPSC, 5600, SubjectCode.CPSC, 2430);
+		LoadReport prerequisites = loader.load(RecordType.PREREQUISITE, csv(
+				"code,num,prereq code,prereq num",
+				"CPSC,5600,CPSC,2430",
+				"CPSC,5600,CPSC,5011",
+				"CPSC,5600,CPSC,5011",
+				"CPSC,5011,CPSC,2430"));
+		assertEquals(2, prerequisites.getRowsLoaded());
+		assertErrors(prerequisites, 2, "duplicate prerequisite", 4, "duplicate prerequisite");
+		assertTrue(system.requiresPrerequisite(SubjectCode.CPSC, 5600, SubjectCode.CPSC, 5011));
+		
+		system.addFaculty("Adair", "Dingle", FacultyType.PROF, Building.ENGR, 531, "dingle@seattleu.edu");
+		system.addSection(SubjectCode.CPSC, 2430, 1, "Dingle", Quarter.FQ, 2018, 30, Building.ENGR, 100);
+		LoadReport sections = loader.load(RecordType.SECTION, csv(
+				"code,num,section,instructor,quarter,year,cap,building,room",
+				"CPSC,2430,1,Dingle,FQ,2018,30,ENGR,100",
+				"CPSC,2430,1,Dingle,WQ,2019,30,ENGR,100",
+				"CPSC,2430,2,Dingle,FQ,2018,30,ENGR,200",
+				"CPSC,2430,2,Dingle,FQ,2018,30,ENGR,200"));
+		assertEquals(2, sections.getRowsLoaded());
+		assertErrors(sections, 2, "duplicate section", 5, "duplicate section");
+		assertEquals(3, system.querySections().count());
+	}
+	
+	@Test
+	public void testLineNumbers() throws Exception {
+		RegistrationSystem system = new RegistrationSystem();
+		BulkLoader loader = new BulkLoader(system);
+		loader.setBatchSize(7);
+		// enough rows for several chunks, with a bad row every thousand
+		int rows = 100_000;
+		StringBuilder sb = new StringBuilder("first,last,type,program,quarter,year\r\n");
+		for(int i = 0; i < rows; i++) {
+			if(i % 1000 == 0) sb.append("First").append(i).append(",Last,GRAD,MSCS,XQ,2018\r\n");
+			else sb.append("First").append(i).append(",Last,GRAD,MSCS,FQ,2018\r\n");
+		}
+		
+		LoadReport report = loader.load(RecordType.STUDENT,
+				new ByteArrayInputStream(sb.toString().getBytes(StandardCharsets.UTF_8)));
+		// rows that fail to parse are not counted as read
+		assertEquals(rows - rows / 1000, report.getRowsRead());
+		assertEquals(rows - rows / 1000, report.getRowsLoaded());
+		List<RowError> errors = report.getErrors();
+		assertEquals(rows / 1000, errors.size());
+		for(int i = 0; i < errors.size(); i++) {
+			assertEquals(2 + 1000 * i, errors.get(i).getLine());
+			assertTrue(errors.get(i).getMessage().contains("XQ"));
+		}
+	}
+	
+	@Test
+	public void testPartialFailure() throws Exception {
+		RegistrationSystem system = new RegistrationSystem();
+		system.addCourse(SubjectCode.CPSC, 1420, "Programming", 5);
+		system.addCourse(SubjectCode.CPSC, 2430, "Data Structures", 5);
+		system.addCourse(SubjectCode.CPSC, 5011, "Object-Oriented Concepts", 5);
+		BulkLoader loader = new BulkLoader(system);
+		loader.setHeader(false);
+		
+		// the cycle is only found by the insert, and fails that row alone
+		Path file = Files.createTempFile("prerequisites", ".csv");
+		try {
+			Files.write(file, csv(
+					"CPSC,2430,CPSC,1420",
+					"CPSC,5011,CPSC,2430",
+					"CPSC,1420,CPSC,5011",
+					"CPSC,5011,CPSC,9999",
+					"CPSC,5011,CPSC,1420"));
+			LoadReport report = loader.load(RecordType.PREREQUISITE, file);
+			assertEquals(5, report.getRowsRead());
+			assertEquals(3, report.getRowsLoaded());
+			assertErrors(report, 3, "", 4, "was not found");
+		} finally {
+			Files.deleteIfExists(file);
+		}
+		assertTrue(system.requiresPrerequisite(SubjectCode.CPSC, 5011, SubjectCode.CPSC, 1420));
+		assertFalse(system.requiresPrerequisite(SubjectCode.CPSC, 1420, SubjectCode.CPSC, 5011));
+	}
+	
+	@Test
+	public void testSharedLastName() throws Exception {
+		RegistrationSystem system = new RegistrationSystem();
+		system.addCourse(SubjectCode.CPSC, 2430, "Data Structures", 5);
+		system.addFaculty("Adair", "Dingle", FacultyType.PROF, Building.ENGR, 531, "dingle@seattleu.edu");
+		system.addFaculty("Bob", "Dingle", FacultyType.ADJUNCT, Building.ENGR, 532, "bdingle@seattleu.edu");
+		LoadReport report = new BulkLoader(system).load(RecordType.SECTION, csv(
+				"code,num,section,instructor,quarter,year,cap,building,room",
+				"CPSC,2430,1,Dingle,FQ,2018,30,ENGR,100",
+				"CPSC,2430,2,Smith,FQ,2018,30,ENGR,200"));
+		assertEquals(0, report.getRowsLoaded());
+		assertErrors(report, 2, "More than one faculty is named Dingle", 3, "Smith was not found");
+	}
+	
+	@Test
+	public void testCorrectedRow() throws Exception {
+		RegistrationSystem system = new RegistrationSystem();
+		system.addCourse(SubjectCode.CPSC, 2430, "Data Structures", 5);
+		system.addFaculty("Adair", "Dingle", FacultyType.PROF, Building.ENGR, 531, "dingle@seattleu.edu");
+		system.addFaculty("Bob", "Dingle", FacultyType.ADJUNCT, Building.ENGR, 532, "bdingle@seattleu.edu");
+		system.addFaculty("Sheila", "Oh", FacultyType.PROF, Building.ENGR, 533, "oh@seattleu.edu");
+		BulkLoader loader = new BulkLoader(system);
+		loader.setBatchSize(1);
+		
+		// the insert rejects the first row, so the second is not a duplicate of it
+		LoadReport report = loader.load(RecordType.SECTION, csv(
+				"code,num,section,instructor,quarter,year,cap,building,room",
+				"CPSC,2430,1,Dingle,FQ,2018,30,ENGR,100",
+				"CPSC,2430,1,Oh,FQ,2018,30,ENGR,100",
+				"CPSC,2430,1,Oh,FQ,2018,30,ENGR,100"));
+		assertEquals(1, report.getRowsLoaded());
+		assertErrors(report, 2, "More than one faculty", 4, "duplicate section");
+		assertEquals("Oh", system.querySections().page(0, 1).get(0).getInstructor().getLastName());
+	}
+	
+	// the errors as line, message fragment pairs
+	private static void assertErrors(LoadReport report, Object... expected) {
+		List<RowError> errors = report.getErrors();
+		assertEquals(errors.toString(), expected.length / 2, errors.size());
+		for(int i = 0; i < errors.size(); i++) {
+			RowError e = errors.get(i);
+			assertEquals(e.toString(), ((Integer) expected[2 * i]).longValue(), e.getLine());
+			assertTrue(e.toString(), e.getMessage().contains((String) expected[2 * i + 1]));
+		}
+	}
+	
+	private static byte[] csv(String... lines) {
+		return (String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8);
+	}
+}
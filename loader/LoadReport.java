@@ -0,0 +1,83 @@
+package loader;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import report.ReportFormat;
+import report.ReportWriter;
+
+/**
+ * The LoadReport class summarizes a bulk load: how many rows were read, how
+ * many were added to the registration system, and why each of the other rows
+ * was rejected.
+ */
+public class LoadReport {
+
+	LoadReport(RecordType type) {
+		this.type = type;
+		this.errors = new ArrayList<>();
+	}
+	
+	public RecordType getType() {
+		return type;
+	}
+	
+	public long getRowsRead() {
+		return rowsRead;
+	}
+	
+	public long getRowsLoaded() {
+		return rowsLoaded;
+	}
+	
+	/**
+	 * Returns the rejected rows ordered by line number.
+	 * 
+	 * @return the row errors
+	 */
+	public List<RowError> getErrors() {
+		return Collections.unmodifiableList(errors);
+	}
+	
+	/**
+	 * Writes the rejected rows as a report with a line and an error column.
+	 * 
+	 * @param out		The writer to stream the report to
+	 * @param format	The format of the report
+	 * @throws IOException The report could not be written
+	 */
+	public void writeErrors(Writer out, ReportFormat format) throws IOException {
+		ReportWriter w = new ReportWriter(out, format, ERROR_HEADERS, ERROR_WIDTHS);
+		w.writeHeader();
+		for(RowError e : errors) {
+			w.cell(Long.toString(e.getLine())).cell(e.getMessage());
+			w.endRow();
+		}
+		w.finish();
+	}
+	
+	@Override
+	public String toString() {
+		return type + ": " + rowsLoaded + " of " + rowsRead + " rows loaded, " 
+				+ errors.size() + " rejected";
+	}
+	
+	void addError(long line, String message) {
+		errors.add(new RowError(line, message));
+	}
+	
+	void sortErrors() {
+		errors.sort(Comparator.comparingLong(RowError::getLine));
+	}
+	
+	private static final String[] ERROR_HEADERS = { "Line", "Error" };
+	private static final int[] ERROR_WIDTHS = { 10, 1 };
+	
+	private final RecordType type;
+	private final List<RowError> errors;
+	long rowsRead, rowsLoaded;
+}
@@ -0,0 +1,44 @@
+package loader;
+
+/**
+ * The RecordType enum lists the kinds of rows the BulkLoader reads, with the
+ * columns each kind expects, in the order of the matching RegistrationSystem
+ * add method.
+ * 
+ * STUDENT: first name, last name, type, program, quarter, year
+ * FACULTY: first name, last name, type, building, room, email
+ * SUBJECT: code, description
+ * COURSE: code, number, name, credits
+ * PREREQUISITE: code, number, prerequisite code, prerequisite number
+ * SECTION: code, course number, section number, instructor last name, 
+ * 			quarter, year, capacity, building, room, and optionally the
+ * 			meeting time, e.g. "MW 10:15-12:00"
+ */
+public enum RecordType {
+	STUDENT(6), FACULTY(6), SUBJECT(2), COURSE(4), PREREQUISITE(4), SECTION(9, 1);
+	
+	RecordType(int columns) {
+		this(columns, 0);
+	}
+	
+	RecordType(int columns, int optionalColumns) {
+		this.columns = columns;
+		this.optionalColumns = optionalColumns;
+	}
+	
+	/**
+	 * Returns the number of columns every row must have.
+	 */
+	public int getColumns() {
+		return columns;
+	}
+	
+	/**
+	 * Returns the number of columns a row may have after the required ones.
+	 */
+	public int getOptionalColumns() {
+		return optionalColumns;
+	}
+	
+	private final int columns, optionalColumns;
+}
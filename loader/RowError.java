@@ -0,0 +1,33 @@
+package loader;
+
+/**
+ * The RowError class records why a row of a bulk load was rejected.
+ */
+public class RowError {
+
+	/**
+	 * 
+	 * @param line		The line number of the row in the file, starting at 1
+	 * @param message	Why the row was rejected
+	 */
+	public RowError(long line, String message) {
+		this.line = line;
+		this.message = message;
+	}
+	
+	public long getLine() {
+		return line;
+	}
+	
+	public String getMessage() {
+		return message;
+	}
+	
+	@Override
+	public String toString() {
+		return "line " + line + ": " + message;
+	}
+	
+	private final long line;
+	private final String message;
+}
@@ -0,0 +1,537 @@
+package persist;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import enums.Building;
+import enums.FacultyType;
+import enums.Quarter;
+import enums.SubjectCode;
+import person.Faculty;
+import registration.Course;
+import registration.Meeting;
+import registration.Section;
+import system.RegistrationSystem;
+
+/**
+ * The CatalogFile class writes the course catalog of a RegistrationSystem
+ * (subjects, courses, prerequisites, sections and their instructors) to a
+ * versioned binary file that read nodes map into memory and query in place,
+ * without building any objects first.
+ * 
+ * After a fixed header with the magic number, the format version, the table
+ * sizes and a CRC32 of the rest of the file, the file holds:
+ * 
+ * - the description of each subject, by subject code ordinal
+ * - fixed-width course records, sorted by subject code and course number
+ * - the prerequisites of each course, as offsets into an array of course
+ *   indexes
+ * - the sections of each course, as offsets into fixed-width section records
+ * - fixed-width records for the instructors, sorted by SUID
+ * - a string table: offsets into UTF-8 bytes, each string stored once
+ * 
+ * Courses, sections, instructors and strings are referred to by their index
+ * in their table. Opening a catalog maps the file and checks its CRC; every
+ * lookup after that reads a few records straight from the mapping, so a
+ * CatalogFile is safe to share between threads.
+ */
+public final class CatalogFile {
+	
+	private CatalogFile(Path file, ByteBuffer map) throws IOException {
+		if(map.limit() < HEADER || map.getInt(0) != MAGIC)
+			throw new IOException(file + " is not a catalog.");
+		if(map.getInt(4) != VERSION)
+			throw new IOException(file + " has an unsupported catalog version.");
+		this.map = map;
+		this.subjects = map.getInt(8);
+		this.courses = map.getInt(12);
+		this.edges = map.getInt(16);
+		this.sections = map.getInt(20);
+		this.faculty = map.getInt(24);
+		this.strings = map.getInt(28);
+		
+		this.coursesAt = HEADER + 4L * subjects;
+		this.edgeOffsetsAt = coursesAt + (long) COURSE * courses;
+		this.edgesAt = edgeOffsetsAt + 4L * (courses + 1);
+		this.sectionOffsetsAt = edgesAt + 4L * edges;
+		this.sectionsAt = sectionOffsetsAt + 4L * (courses + 1);
+		this.facultyAt = sectionsAt + (long) SECTION * sections;
+		this.stringOffsetsAt = facultyAt + (long) FACULTY * faculty;
+		this.stringsAt = stringOffsetsAt + 4L * (strings + 1);
+		if((subjects | courses | edges | sections | faculty | strings) < 0
+				|| stringsAt > map.limit()
+				|| stringsAt + map.getInt((int) stringOffsetsAt + 4 * strings) != map.limit())
+			throw new IOException(file + " is corrupt.");
+		
+		ByteBuffer body = map.duplicate();
+		body.position(HEADER);
+		CRC32 crc = new CRC32();
+		crc.update(body);
+		if((int) crc.getValue() != map.getInt(CRC))
+			throw new IOException(file + " is corrupt.");
+	}
+	
+	/**
+	 * Writes the catalog of the system. The system must not change while the
+	 * catalog is written; see RegistrationSystem.runExclusive.
+	 * 
+	 * @param system	The system to write
+	 * @param file		The catalog file
+	 * @throws IOException The catalog could not be written
+	 */
+	public static void write(RegistrationSystem system, Path file) throws IOException {
+		List<Course> courses = new ArrayList<>();
+		system.queryCourses().forEach(courses::add);
+		courses.sort(Comparator.comparing(Course::getCode).thenComparingInt(Course::getCourseNum));
+		Map<Course, Integer> courseIndex = new IdentityHashMap<>();
+		for(int i = 0; i < courses.size(); i++) courseIndex.put(courses.get(i), i);
+		
+		List<List<Section>> sectionsOf = new ArrayList<>(courses.size());
+		for(int i = 0; i < courses.size(); i++) sectionsOf.add(new ArrayList<>());
+		Map<Faculty, Integer> facultyIndex = new IdentityHashMap<>();
+		List<Faculty> faculty = new ArrayList<>();
+		int sectionCount = 0;
+		for(Section s : system.querySections()) {
+			sectionsOf.get(courseIndex.get(s.getCourse())).add(s);
+			if(facultyIndex.putIfAbsent(s.getInstructor(), 0) == null) faculty.add(s.getInstructor());
+			sectionCount++;
+		}
+		faculty.sort(Comparator.comparingInt(Faculty::getSUID));
+		for(int i = 0; i < faculty.size(); i++) facultyIndex.put(faculty.get(i), i);
+		
+		StringTable table = new StringTable();
+		SubjectCode[] codes = SubjectCode.values();
+		int[] descs = new int[codes.length];
+		for(SubjectCode code : codes) descs[code.ordinal()] = table.add(system.getSubjectDescription(code));
+		int edgeCount = 0;
+		for(Course c : courses) {
+			table.add(c.getName());
+			edgeCount += c.getPrerequisiteList().size();
+		}
+		for(Faculty f : faculty) {
+			table.add(f.getFirstName());
+			table.add(f.getLastName());
+			table.add(f.getEmail());
+		}
+		
+		long size = HEADER + 4L * codes.length + (long) COURSE * courses.size()
+				+ 4L * (courses.size() + 1) + 4L * edgeCount + 4L * (courses.size() + 1)
+				+ (long) SECTION * sectionCount + (long) FACULTY * faculty.size()
+				+ 4L * (table.size() + 1) + table.bytes;
+		if(size > Integer.MAX_VALUE) throw new IOException("The catalog is too large to map.");
+		ByteBuffer buf = ByteBuffer.allocate((int) size);
+		buf.putInt(MAGIC).putInt(VERSION).putInt(codes.length).putInt(courses.size())
+			.putInt(edgeCount).putInt(sectionCount).putInt(faculty.size()).putInt(table.size())
+			.putInt(0).putInt(0);
+		
+		for(int desc : descs) buf.putInt(desc);
+		for(Course c : courses)
+			buf.putInt(c.getCode().ordinal()).putInt(c.getCourseNum())
+				.putInt(table.indexOf(c.getName())).putInt(c.getCredit());
+		int edge = 0;
+		for(Course c : courses) {
+			buf.putInt(edge);
+			edge += c.getPrerequisiteList().size();
+		}
+		buf.putInt(edge);
+		for(Course c : courses) {
+			for(Course prereq : c.getPrerequisiteList()) buf.putInt(courseIndex.get(prereq));
+		}
+		int section = 0;
+		for(List<Section> list : sectionsOf) {
+			list.sort(Comparator.comparingInt(Section::getYear).thenComparing(Section::getQuarter)
+					.thenComparingInt(Section::getSection));
+			buf.putInt(section);
+			section += list.size();
+		}
+		buf.putInt(section);
+		for(int i = 0; i < courses.size(); i++) {
+			for(Section s : sectionsOf.get(i)) {
+				Meeting m = s.getMeeting();
+				buf.putInt(i).putInt(s.getSection()).putInt(facultyIndex.get(s.getInstructor()))
+					.putInt(s.getYear()).putInt(s.getCapacity()).putInt(s.getRoom())
+					.put(ordinal(s.getQuarter())).put(ordinal(s.getBuilding()))
+					.put((byte) (m == null ? 0 : m.getDayMask())).put((byte) 0)
+					.putShort((short) (m == null ? 0 : m.getStart()))
+					.putShort((short) (m == null ? 0 : m.getEnd()));
+			}
+		}
+		for(Faculty f : faculty)
+			buf.putInt(f.getSUID()).putInt(table.indexOf(f.getFirstName()))
+				.putInt(table.indexOf(f.getLastName())).putInt(table.indexOf(f.getEmail()))
+				.putInt(f.getRoom()).put(ordinal(f.getType())).put(ordinal(f.getBuilding()))
+				.putShort((short) 0);
+		table.writeTo(buf);
+		
+		buf.position(HEADER);
+		CRC32 crc = new CRC32();
+		crc.update(buf);
+		buf.putInt(CRC, (int) crc.getValue());
+		buf.clear();
+		
+		Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+		try(FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			while(buf.hasRemaining()) out.write(buf);
+			out.force(true);
+		}
+		Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+	
+	/**
+	 * Maps a catalog file and checks that it is intact. The mapping stays
+	 * valid after the file is replaced by a newer catalog.
+	 * 
+	 * @param file	The catalog file
+	 * @return the catalog
+	 * @throws IOException The catalog could not be read or is corrupt
+	 */
+	public static CatalogFile open(Path file) throws IOException {
+		try(FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+			if(in.size() > Integer.MAX_VALUE) throw new IOException(file + " is not a catalog.");
+			MappedByteBuffer map = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+			return new CatalogFile(file, map);
+		}
+	}
+	
+	/**
+	 * Adds the whole catalog to an empty system: subjects, instructors,
+	 * courses, prerequisites and then sections.
+	 * 
+	 * @param system	The system to load into
+	 * @throws IOException The catalog could not be applied to the system
+	 */
+	public void loadInto(RegistrationSystem system) throws IOException {
+		try {
+			for(SubjectCode code : SubjectCode.values()) {
+				String desc = getSubjectDescription(code);
+				if(desc != null) system.addSubject(code, desc);
+			}
+			for(int f = 0; f < faculty; f++) {
+				int at = facultyAt(f);
+				system.addFaculty(map.getInt(at), string(map.getInt(at + 4)),
+						string(map.getInt(at + 8)), value(FacultyType.values(), map.get(at + 20)),
+						value(Building.values(), map.get(at + 21)), map.getInt(at + 16),
+						string(map.getInt(at + 12)));
+			}
+			for(int c = 0; c < courses; c++)
+				system.addCourse(getSubject(c), getCourseNumber(c), getCourseName(c), getCredits(c));
+			for(int c = 0; c < courses; c++) {
+				for(int prereq : getPrerequisites(c))
+					system.addPrerequisite(getSubject(c), getCourseNumber(c),
+							getSubject(prereq), getCourseNumber(prereq));
+			}
+			for(int s = 0; s < sections; s++) {
+				int c = getSectionCourse(s);
+				system.addSection(getSubject(c), getCourseNumber(c), getSectionNumber(s),
+						getFacultySuid(getInstructor(s)), getQuarter(s), getYear(s),
+						getCapacity(s), getBuilding(s), getRoom(s), getMeeting(s));
+			}
+		} catch (Exception e) {
+			throw new IOException("Catalog could not be loaded: " + e.getMessage(), e);
+		}
+	}
+	
+	/**
+	 * Returns the description of a subject, or null if the subject is not in
+	 * the catalog.
+	 */
+	public String getSubjectDescription(SubjectCode code) {
+		int i = code.ordinal();
+		return i < subjects ? string(map.getInt(HEADER + 4 * i)) : null;
+	}
+	
+	public int getCourseCount() {
+		return courses;
+	}
+	
+	public int getSectionCount() {
+		return sections;
+	}
+	
+	public int getFacultyCount() {
+		return faculty;
+	}
+	
+	/**
+	 * Finds a course by binary search over the course records.
+	 * 
+	 * @param code	The subject code of the course
+	 * @param num	The course number of the course
+	 * @return the index of the course, or -1 if it is not in the catalog
+	 */
+	public int findCourse(SubjectCode code, int num) {
+		int lo = 0, hi = courses - 1;
+		while(lo <= hi) {
+			int mid = (lo + hi) >>> 1;
+			int at = courseAt(mid);
+			int cmp = Integer.compare(map.getInt(at), code.ordinal());
+			if(cmp == 0) cmp = Integer.compare(map.getInt(at + 4), num);
+			if(cmp < 0) lo = mid + 1;
+			else if(cmp > 0) hi = mid - 1;
+			else return mid;
+		}
+		return -1;
+	}
+	
+	public SubjectCode getSubject(int course) {
+		return SubjectCode.values()[map.getInt(courseAt(course))];
+	}
+	
+	public int getCourseNumber(int course) {
+		return map.getInt(courseAt(course) + 4);
+	}
+	
+	public String getCourseName(int course) {
+		return string(map.getInt(courseAt(course) + 8));
+	}
+	
+	public int getCredits(int course) {
+		return map.getInt(courseAt(course) + 12);
+	}
+	
+	/**
+	 * Returns the indexes of the direct prerequisites of a course.
+	 */
+	public int[] getPrerequisites(int course) {
+		int from = offset(edgeOffsetsAt, course), to = offset(edgeOffsetsAt, course + 1);
+		int[] prereqs = new int[to - from];
+		for(int i = 0; i < prereqs.length; i++) prereqs[i] = map.getInt((int) edgesAt + 4 * (from + i));
+		return prereqs;
+	}
+	
+	/**
+	 * Returns true if a course requires another, directly or through its
+	 * prerequisites.
+	 * 
+	 * @param course	The index of the course
+	 * @param prereq	The index of the possible prerequisite
+	 */
+	public boolean requiresPrerequisite(int course, int prereq) {
+		checkIndex(course, courses);
+		boolean[] seen = new boolean[courses];
+		int[] stack = new int[courses];
+		int top = 0;
+		stack[top++] = course;
+		seen[course] = true;
+		while(top > 0) {
+			int c = stack[--top];
+			int to = offset(edgeOffsetsAt, c + 1);
+			for(int e = offset(edgeOffsetsAt, c); e < to; e++) {
+				int p = map.getInt((int) edgesAt + 4 * e);
+				if(p == prereq) return true;
+				if(!seen[p]) {
+					seen[p] = true;
+					stack[top++] = p;
+				}
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Returns the index of the first section of a course. The sections of a
+	 * course are contiguous and ordered by year, quarter and section number.
+	 */
+	public int getFirstSection(int course) {
+		return offset(sectionOffsetsAt, course);
+	}
+	
+	/**
+	 * Returns the index after the last section of a course.
+	 */
+	public int getSectionsEnd(int course) {
+		return offset(sectionOffsetsAt, course + 1);
+	}
+	
+	public int getSectionCourse(int section) {
+		return map.getInt(sectionAt(section));
+	}
+	
+	public int getSectionNumber(int section) {
+		return map.getInt(sectionAt(section) + 4);
+	}
+	
+	/**
+	 * Returns the index of the instructor of a section.
+	 */
+	public int getInstructor(int section) {
+		return map.getInt(sectionAt(section) + 8);
+	}
+	
+	public int getYear(int section) {
+		return map.getInt(sectionAt(section) + 12);
+	}
+	
+	public int getCapacity(int section) {
+		return map.getInt(sectionAt(section) + 16);
+	}
+	
+	public int getRoom(int section) {
+		return map.getInt(sectionAt(section) + 20);
+	}
+	
+	public Quarter getQuarter(int section) {
+		return value(Quarter.values(), map.get(sectionAt(section) + 24));
+	}
+	
+	public Building getBuilding(int section) {
+		return value(Building.values(), map.get(sectionAt(section) + 25));
+	}
+	
+	/**
+	 * Returns the weekly meeting time of a section, or null if it is TBA.
+	 */
+	public Meeting getMeeting(int section) {
+		int at = sectionAt(section);
+		int days = map.get(at + 26) & 0xFF;
+		return days == 0 ? null
+				: Meeting.of(days, map.getShort(at + 28), map.getShort(at + 30));
+	}
+	
+	/**
+	 * Finds an instructor by binary search over the instructor records.
+	 * 
+	 * @param suid	The SUID of the instructor
+	 * @return the index of the instructor, or -1 if no section in the
+	 * 		   catalog is taught by them
+	 */
+	public int findFaculty(int suid) {
+		int lo = 0, hi = faculty - 1;
+		while(lo <= hi) {
+			int mid = (lo + hi) >>> 1;
+			int cmp = Integer.compare(map.getInt(facultyAt(mid)), suid);
+			if(cmp < 0) lo = mid + 1;
+			else if(cmp > 0) hi = mid - 1;
+			else return mid;
+		}
+		return -1;
+	}
+	
+	public int getFacultySuid(int faculty) {
+		return map.getInt(facultyAt(faculty));
+	}
+	
+	public String getFacultyFirstName(int faculty) {
+		return string(map.getInt(facultyAt(faculty) + 4));
+	}
+	
+	public String getFacultyLastName(int faculty) {
+		return string(map.getInt(facultyAt(faculty) + 8));
+	}
+	
+	private int courseAt(int course) {
+		checkIndex(course, courses);
+		return (int) coursesAt + COURSE * course;
+	}
+	
+	private int sectionAt(int section) {
+		checkIndex(section, sections);
+		return (int) sectionsAt + SECTION * section;
+	}
+	
+	private int facultyAt(int faculty) {
+		checkIndex(faculty, this.faculty);
+		return (int) facultyAt + FACULTY * faculty;
+	}
+	
+	// entry i of an offset array with one entry per course plus an end
+	private int offset(long array, int course) {
+		if(course < 0 || course > courses) throw new IndexOutOfBoundsException(course);
+		return map.getInt((int) array + 4 * course);
+	}
+	
+	private String string(int index) {
+		if(index < 0) return null;
+		int from = map.getInt((int) stringOffsetsAt + 4 * index);
+		byte[] bytes = new byte[map.getInt((int) stringOffsetsAt + 4 * index + 4) - from];
+		map.get((int) stringsAt + from, bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+	
+	private static void checkIndex(int index, int size) {
+		if(index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+	}
+	
+	// 0 for null, otherwise the ordinal plus one
+	private static byte ordinal(Enum<?> e) {
+		return (byte) (e == null ? 0 : e.ordinal() + 1);
+	}
+	
+	private static <E> E value(E[] values, byte ordinal) {
+		return ordinal == 0 ? null : values[ordinal - 1];
+	}
+	
+	/**
+	 * Collects distinct strings in the order they are first added.
+	 */
+	private static class StringTable {
+		
+		StringTable() {
+			this.index = new HashMap<>();
+			this.encoded = new ArrayList<>();
+		}
+		
+		// returns -1 for null
+		int add(String s) {
+			if(s == null) return -1;
+			Integer i = index.get(s);
+			if(i != null) return i;
+			byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+			index.put(s, encoded.size());
+			encoded.add(utf8);
+			bytes += utf8.length;
+			return encoded.size() - 1;
+		}
+		
+		int indexOf(String s) {
+			return s == null ? -1 : index.get(s);
+		}
+		
+		int size() {
+			return encoded.size();
+		}
+		
+		void writeTo(ByteBuffer buf) {
+			int offset = 0;
+			for(byte[] utf8 : encoded) {
+				buf.putInt(offset);
+				offset += utf8.length;
+			}
+			buf.putInt(offset);
+			for(byte[] utf8 : encoded) buf.put(utf8);
+		}
+		
+		private final Map<String, Integer> index;
+		private final List<byte[]> encoded;
+		private long bytes;
+	}
+	
+	private static final int MAGIC = 0x52534354;
+	private static final int VERSION = 1;
+	private static final int HEADER = 40;
+	// the CRC32 of everything after the header
+	private static final int CRC = 32;
+	private static final int COURSE = 16;
+	private static final int SECTION = 32;
+	private static final int FACULTY = 24;
+	
+	private final ByteBuffer map;
+	private final int subjects, courses, edges, sections, faculty, strings;
+	private final long coursesAt, edgeOffsetsAt, edgesAt, sectionOffsetsAt, sectionsAt,
+			facultyAt, stringOffsetsAt, stringsAt;
+}
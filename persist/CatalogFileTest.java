@@ -0,0 +1,97 @@
+package persist;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.Test;
+
+import enums.Building;
+import enums.FacultyType;
+import enums.Quarter;
+import enums.SubjectCode;
+import registration.Meeting;
+import system.RegistrationSystem;
+
+
+public class CatalogFileTest {
+	
+	@Test
+	public void testQueryInPlace() throws Exception {
+		Path file = Files.createTempFile("catalog", ".bin");
+		try {
+			CatalogFile.write(catalog(), file);
+			CatalogFile catalog = CatalogFile.open(file);
+			assertEquals(3, catalog.getCourseCount());
+			assertEquals("Computer Science", catalog.getSubjectDescription(SubjectCode.CPSC));
+			assertNull(catalog.getSubjectDescription(SubjectCode.BIOL));
+			
+			int ds = catalog.findCourse(SubjectCode.CPSC, 2430);
+			int algebra = catalog.findCourse(SubjectCode.MATH, 1334);
+			int oop = catalog.findCourse(SubjectCode.CPSC, 5011);
+			assertEquals(-1, catalog.findCourse(SubjectCode.CPSC, 1420));
+			assertEquals("Data Structures", catalog.getCourseName(ds));
+			assertEquals(5, catalog.getCredits(ds));
+			assertArrayEquals(new int[] { ds }, catalog.getPrerequisites(oop));
+			assertTrue(catalog.requiresPrerequisite(oop, algebra));
+			assertFalse(catalog.requiresPrerequisite(algebra, oop));
+			
+			// sorted by year, quarter and then section number
+			assertEquals(2, catalog.getSectionsEnd(ds) - catalog.getFirstSection(ds));
+			int first = catalog.getFirstSection(ds);
+			assertEquals(Quarter.FQ, catalog.getQuarter(first));
+			assertEquals(2, catalog.getSectionNumber(first));
+			assertNull(catalog.getMeeting(first));
+			assertEquals(Meeting.parse("MW 10:15-12:00"), catalog.getMeeting(first + 1));
+			assertEquals(Building.PIGT, catalog.getBuilding(first + 1));
+			assertEquals("Dingle", catalog.getFacultyLastName(catalog.getInstructor(first + 1)));
+			assertEquals(catalog.getInstructor(first + 1),
+					catalog.findFaculty(catalog.getFacultySuid(catalog.getInstructor(first + 1))));
+			
+			RegistrationSystem copy = new RegistrationSystem();
+			catalog.loadInto(copy);
+			assertTrue(copy.requiresPrerequisite(SubjectCode.CPSC, 5011, SubjectCode.MATH, 1334));
+			assertEquals(3, copy.querySections().count());
+			assertTrue(copy.hasInstructor("Roshandel"));
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+	
+	@Test(expected = IOException.class)
+	public void testCorrupt() throws Exception {
+		Path file = Files.createTempFile("catalog", ".bin");
+		try {
+			CatalogFile.write(catalog(), file);
+			try(FileChannel out = FileChannel.open(file, StandardOpenOption.WRITE)) {
+				out.write(ByteBuffer.wrap(new byte[] { 42 }), out.size() - 1);
+			}
+			CatalogFile.open(file);
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+	
+	private static RegistrationSystem catalog() throws Exception {
+		RegistrationSystem s = new RegistrationSystem();
+		s.addSubject(SubjectCode.CPSC, "Computer Science");
+		s.addSubject(SubjectCode.MATH, "Mathematics");
+		s.addCourse(SubjectCode.CPSC, 2430, "Data Structures", 5);
+		s.addCourse(SubjectCode.MATH, 1334, "Linear Algebra", 5);
+		s.addCourse(SubjectCode.CPSC, 5011, "Object-Oriented Concepts", 3);
+		s.addPrerequisite(SubjectCode.CPSC, 5011, SubjectCode.CPSC, 2430);
+		s.addPrerequisite(SubjectCode.CPSC, 2430, SubjectCode.MATH, 1334);
+		s.addFaculty("Adair", "Dingle", FacultyType.PROF, Building.ENGR, 531, "dingle@seattleu.edu");
+		s.addFaculty("Roshanak", "Roshandel", FacultyType.ASSOCPROF, Building.ENGR, 530, "roshanak@seattleu.edu");
+		s.addSection(SubjectCode.CPSC, 2430, 1, "Dingle", Quarter.WQ, 2019, 30, Building.PIGT, 207,
+				Meeting.parse("MW 10:15-12:00"));
+		s.addSection(SubjectCode.CPSC, 2430, 2, "Roshandel", Quarter.FQ, 2018, 30, Building.ENGR, 200);
+		s.addSection(SubjectCode.CPSC, 5011, 1, "Roshandel", Quarter.FQ, 2018, 25, Building.ENGR, 201);
+		return s;
+	}
+}
@@ -0,0 +1,120 @@
+package persist;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import system.RegistrationSystem;
+
+/**
+ * The DurableStore class keeps a RegistrationSystem on disk as a snapshot
+ * plus a write-ahead log of the changes made since.
+ * 
+ * Opening a store loads the snapshot through a memory-mapped buffer and 
+ * replays only the log records written after it. From then on every add 
+ * call on the system is logged before it returns. A checkpoint writes a new
+ * snapshot and deletes the log segments it covers.
+ * 
+ * For example:
+ * 		DurableStore store = DurableStore.open(Paths.get("data"));
+ * 		store.getSystem().addSubject(SubjectCode.CPSC, "Computer Science");
+ * 		store.checkpoint();
+ * 		store.close();
+ */
+public class DurableStore implements Closeable {
+	
+	private DurableStore(Path dir, RegistrationSystem system, WriteAheadLog log) {
+		this.dir = dir;
+		this.system = system;
+		this.log = log;
+		this.journal = new Journal(log);
+		system.addListener(journal);
+	}
+	
+	/**
+	 * Opens the store in a directory, recovering the system saved there.
+	 * 
+	 * @param dir	The directory holding the snapshot and the log
+	 * @return the open store
+	 * @throws IOException The store could not be read
+	 */
+	public static DurableStore open(Path dir) throws IOException {
+		Files.createDirectories(dir);
+		RegistrationSystem system = new RegistrationSystem();
+		Path snapshot = dir.resolve(SNAPSHOT);
+		long lsn = Files.exists(snapshot) ? Snapshot.load(snapshot, system) : 0L;
+		
+		WriteAheadLog log = WriteAheadLog.open(dir, MutationCodec.VERSION);
+		log.replay(lsn, (record, version) -> MutationCodec.apply(record, system, version));
+		return new DurableStore(dir, system, log);
+	}
+	
+	public RegistrationSystem getSystem() {
+		return system;
+	}
+	
+	/**
+	 * Writes a snapshot of the system and deletes the log segments it 
+	 * covers. Add calls on the system wait until the snapshot is written.
+	 * 
+	 * @throws IOException The snapshot could not be written
+	 */
+	public synchronized void checkpoint() throws IOException {
+		long lsn;
+		try {
+			lsn = system.runExclusive(() -> {
+				long end = log.roll();
+				Snapshot.write(system, dir.resolve(SNAPSHOT), end);
+				return end;
+			});
+		} catch (IOException | RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new IOException(e);
+		}
+		log.deleteBefore(lsn);
+	}
+	
+	/**
+	 * Checkpoints the store periodically on a background thread until it is
+	 * closed.
+	 * 
+	 * @param period	The time between checkpoints
+	 * @param unit		The unit of the period
+	 */
+	public synchronized void scheduleCheckpoints(long period, TimeUnit unit) {
+		if(scheduler == null) {
+			scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread t = new Thread(r, "checkpoint");
+				t.setDaemon(true);
+				return t;
+			});
+		}
+		scheduler.scheduleAtFixedRate(() -> {
+			try {
+				checkpoint();
+			} catch (IOException e) {
+				System.err.println("Checkpoint failed: " + e.getMessage());
+			}
+		}, period, period, unit);
+	}
+	
+	@Override
+	public synchronized void close() throws IOException {
+		if(scheduler != null) scheduler.shutdownNow();
+		system.removeListener(journal);
+		log.close();
+	}
+	
+	private static final String SNAPSHOT = "snapshot.bin";
+	
+	private final Path dir;
+	private final RegistrationSystem system;
+	private final WriteAheadLog log;
+	private final Journal journal;
+	private ScheduledExecutorService scheduler;
+}
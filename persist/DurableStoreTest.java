@@ -0,0 +1,168 @@
+package persist;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+import enums.Building;
+import enums.FacultyType;
+import enums.Quarter;
+import enums.StudentProgram;
+import enums.StudentType;
+import enums.SubjectCode;
+import exception.CourseNotFoundException;
+import exception.PersonNotFoundException;
+import person.Student;
+import system.RegistrationSystem;
+
+
+public class DurableStoreTest {
+	
+	@Test
+	public void testConcurrentRecovery() throws Exception {
+		Path dir = Files.createTempDirectory("store");
+		try {
+			DurableStore store = DurableStore.open(dir);
+			RegistrationSystem system = store.getSystem();
+			// prerequisites and sections are added as soon as the courses and
+			// faculty they refer to show up, from other threads
+			List<Callable<Void>> writers = new ArrayList<>();
+			writers.add(() -> {
+				for(int i = 0; i < COURSES; i++) system.addCourse(SubjectCode.CPSC, 1000 + i, "Course " + i, 5);
+				return null;
+			});
+			writers.add(() -> {
+				for(int i = 0; i < FACULTY; i++) {
+					system.addFaculty("Faculty", "Last" + i, FacultyType.PROF, Building.ENGR, 500 + i,
+							"last" + i + "@seattleu.edu");
+				}
+				return null;
+			});
+			writers.add(() -> {
+				for(int i = 1; i < COURSES; i++) {
+					while(true) {
+						try {
+							system.addPrerequisite(SubjectCode.CPSC, 1000 + i, SubjectCode.CPSC, 999 + i);
+							break;
+						} catch (CourseNotFoundException e) {
+							Thread.yield();
+						}
+					}
+				}
+				return null;
+			});
+			writers.add(() -> {
+				for(int i = 0; i < COURSES; i++) {
+					while(true) {
+						try {
+							system.addSection(SubjectCode.CPSC, 1000 + i, 1, "Last" + (i % FACULTY),
+									Quarter.FQ, 2018, 30, Building.ENGR, i);
+							break;
+						} catch (CourseNotFoundException | PersonNotFoundException e) {
+							Thread.yield();
+						}
+					}
+				}
+				return null;
+			});
+			ExecutorService pool = Executors.newFixedThreadPool(writers.size());
+			try {
+				for(Future<Void> f : pool.invokeAll(writers)) f.get();
+			} finally {
+				pool.shutdown();
+			}
+			store.close();
+			
+			DurableStore reopened = DurableStore.open(dir);
+			RegistrationSystem recovered = reopened.getSystem();
+			assertEquals(COURSES, recovered.queryCourses().count());
+			assertEquals(FACULTY, recovered.queryFaculty().count());
+			assertEquals(COURSES, recovered.querySections().count());
+			assertTrue(recovered.requiresPrerequisite(SubjectCode.CPSC, 999 + COURSES, SubjectCode.CPSC, 1000));
+			reopened.close();
+		} finally {
+			delete(dir);
+		}
+	}
+	
+	@Test
+	public void testCheckpoint() throws Exception {
+		Path dir = Files.createTempDirectory("store");
+		try {
+			DurableStore store = DurableStore.open(dir);
+			RegistrationSystem system = store.getSystem();
+			system.addSubject(SubjectCode.CPSC, "Computer Science");
+			system.addFaculty("Adair", "Dingle", FacultyType.PROF, Building.ENGR, 531, "dingle@seattleu.edu");
+			system.addStudent("Michael", "Bluth", StudentType.GRAD, StudentProgram.MSCS, Quarter.FQ, 2018);
+			system.addCourse(SubjectCode.CPSC, 2430, "Data Structures", 5);
+			int suid = system.queryStudents().page(0, 1).get(0).getSUID();
+			system.completeCourse(suid, SubjectCode.CPSC, 2430);
+			store.checkpoint();
+			assertTrue(Files.exists(dir.resolve("snapshot.bin")));
+			assertEquals(1, segments(dir));
+			
+			// after the snapshot, so only in the log
+			system.addCourse(SubjectCode.CPSC, 5011, "Object-Oriented Concepts", 5);
+			system.addPrerequisite(SubjectCode.CPSC, 5011, SubjectCode.CPSC, 2430);
+			system.addSection(SubjectCode.CPSC, 5011, 1, "Dingle", Quarter.FQ, 2018, 30, Building.ENGR, 100);
+			system.completeCourse(suid, SubjectCode.CPSC, 5011);
+			store.close();
+			
+			store = DurableStore.open(dir);
+			assertRecovered(store.getSystem(), suid);
+			// a checkpoint covering the whole log leaves one empty segment
+			store.checkpoint();
+			assertEquals(1, segments(dir));
+			store.close();
+			
+			store = DurableStore.open(dir);
+			assertRecovered(store.getSystem(), suid);
+			store.close();
+		} finally {
+			delete(dir);
+		}
+	}
+	
+	private static void assertRecovered(RegistrationSystem system, int suid) throws Exception {
+		assertEquals("Computer Science", system.getSubjectDescription(SubjectCode.CPSC));
+		Student student = system.getStudent(suid);
+		assertEquals("Bluth", student.getLastName());
+		List<Integer> completed = new ArrayList<>();
+		for(int id = student.nextCompleted(0); id >= 0; id = student.nextCompleted(id + 1)) 
+			completed.add(system.getCourse(id).getCourseNum());
+		completed.sort(null);
+		assertEquals(List.of(2430, 5011), completed);
+		assertEquals(2, system.queryCourses().count());
+		assertTrue(system.requiresPrerequisite(SubjectCode.CPSC, 5011, SubjectCode.CPSC, 2430));
+		assertEquals(1, system.querySections().count());
+		assertEquals("Dingle", system.querySections().page(0, 1).get(0).getInstructor().getLastName());
+	}
+	
+	private static long segments(Path dir) throws IOException {
+		try(Stream<Path> files = Files.list(dir)) {
+			return files.filter(p -> p.getFileName().toString().startsWith("wal-")).count();
+		}
+	}
+	
+	static void delete(Path dir) throws IOException {
+		try(Stream<Path> files = Files.walk(dir)) {
+			for(Path p : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+				Files.deleteIfExists(p);
+			}
+		}
+	}
+	
+	private static final int COURSES = 300, FACULTY = 20;
+}
@@ -0,0 +1,97 @@
+package persist;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+import enums.SubjectCode;
+import person.Faculty;
+import person.Student;
+import registration.Course;
+import registration.Section;
+import system.RegistrationListener;
+
+/**
+ * The Journal class writes every change made to a RegistrationSystem to the
+ * write-ahead log and waits until it is durable before the add call returns.
+ * 
+ * A change is appended to the log under its write lock, before the system 
+ * publishes it, so the log holds every change after the ones it depends on.
+ * The wait for the disk comes after the lock is released, so concurrent add
+ * calls share forces through the log's group commit. If the log cannot be 
+ * written, an UncheckedIOException is passed to the caller of the add 
+ * method; the change has then been applied in memory but is not durable.
+ */
+class Journal implements RegistrationListener {
+
+	Journal(WriteAheadLog log) {
+		this.log = log;
+		this.scratch = ThreadLocal.withInitial(() -> ByteBuffer.allocate(256));
+		this.appended = ThreadLocal.withInitial(() -> new long[1]);
+	}
+	
+	@Override
+	public void studentAdded(Student student) {
+		append(MutationCodec.student(buffer(), student));
+	}
+	
+	@Override
+	public void facultyAdded(Faculty faculty) {
+		append(MutationCodec.faculty(buffer(), faculty));
+	}
+	
+	@Override
+	public void subjectAdded(SubjectCode code, String desc) {
+		append(MutationCodec.subject(buffer(), code, desc));
+	}
+	
+	@Override
+	public void courseAdded(Course course) {
+		append(MutationCodec.course(buffer(), course));
+	}
+	
+	@Override
+	public void prerequisiteAdded(Course course, Course prereq) {
+		append(MutationCodec.prerequisite(buffer(), course, prereq));
+	}
+	
+	@Override
+	public void sectionAdded(Section section) {
+		append(MutationCodec.section(buffer(), section));
+	}
+	
+	@Override
+	public void courseCompleted(Student student, Course course) {
+		append(MutationCodec.completion(buffer(), student, course));
+	}
+	
+	@Override
+	public void afterChange() {
+		long[] lsn = appended.get();
+		if(lsn[0] == 0) return;
+		try {
+			log.sync(lsn[0]);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			lsn[0] = 0;
+		}
+	}
+	
+	private ByteBuffer buffer() {
+		ByteBuffer buf = scratch.get();
+		buf.clear();
+		return buf;
+	}
+	
+	private void append(ByteBuffer record) {
+		scratch.set(record);
+		record.flip();
+		appended.get()[0] = log.append(record);
+	}
+	
+	private final WriteAheadLog log;
+	private final ThreadLocal<ByteBuffer> scratch;
+	// the LSN of the last record this thread appended and has not synced
+	private final ThreadLocal<long[]> appended;
+}
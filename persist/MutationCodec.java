@@ -0,0 +1,264 @@
+package persist;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import enums.Building;
+import enums.FacultyType;
+import enums.Quarter;
+import enums.StudentProgram;
+import enums.StudentType;
+import enums.SubjectCode;
+import person.Faculty;
+import person.Student;
+import registration.Course;
+import registration.Meeting;
+import registration.Section;
+import system.RegistrationSystem;
+
+/**
+ * The MutationCodec class encodes each RegistrationSystem add call as a
+ * compact binary record and applies decoded records to a system.
+ * 
+ * A record is a type byte followed by the arguments of the add call, with 
+ * the SUID first for people so that they keep it on recovery, and sections
+ * naming their instructor by SUID. Enums 
+ * are stored as ordinal bytes (-1 for null) and strings as an int length 
+ * (-1 for null) followed by UTF-8 bytes. The same records are used by the 
+ * write-ahead log and by snapshots.
+ * 
+ * Records are always written in the current VERSION, but records of every
+ * earlier version can still be applied:
+ * 		1	the first version
+ * 		2	people start with their SUID
+ * 		3	sections name their instructor by SUID instead of last name
+ * 		4	sections end with their meeting time
+ * 		5	courses completed by students
+ */
+final class MutationCodec {
+	
+	static final byte STUDENT = 1, FACULTY = 2, SUBJECT = 3, COURSE = 4, 
+			PREREQUISITE = 5, SECTION = 6, COMPLETION = 7;
+	
+	/**
+	 * The version of the records written.
+	 */
+	static final int VERSION = 5;
+	
+	private MutationCodec() {
+	}
+	
+	static ByteBuffer student(ByteBuffer out, Student s) {
+		out = ensure(out, 64 + chars(s.getFirstName()) + chars(s.getLastName()));
+		out.put(STUDENT);
+		out.putInt(s.getSUID());
+		putString(out, s.getFirstName());
+		putString(out, s.getLastName());
+		putEnum(out, s.getStatus());
+		putEnum(out, s.getProgram());
+		putEnum(out, s.getQuarter());
+		out.putInt(s.getEnrollYear());
+		return out;
+	}
+	
+	static ByteBuffer faculty(ByteBuffer out, Faculty f) {
+		out = ensure(out, 64 + chars(f.getFirstName()) + chars(f.getLastName()) 
+				+ chars(f.getEmail()));
+		out.put(FACULTY);
+		out.putInt(f.getSUID());
+		putString(out, f.getFirstName());
+		putString(out, f.getLastName());
+		putEnum(out, f.getType());
+		putEnum(out, f.getBuilding());
+		out.putInt(f.getRoom());
+		putString(out, f.getEmail());
+		return out;
+	}
+	
+	static ByteBuffer subject(ByteBuffer out, SubjectCode code, String desc) {
+		out = ensure(out, 16 + chars(desc));
+		out.put(SUBJECT);
+		putEnum(out, code);
+		putString(out, desc);
+		return out;
+	}
+	
+	static ByteBuffer course(ByteBuffer out, Course c) {
+		out = ensure(out, 32 + chars(c.getName()));
+		out.put(COURSE);
+		putEnum(out, c.getCode());
+		out.putInt(c.getCourseNum());
+		putString(out, c.getName());
+		out.putInt(c.getCredit());
+		return out;
+	}
+	
+	static ByteBuffer prerequisite(ByteBuffer out, Course c, Course prereq) {
+		out = ensure(out, 16);
+		out.put(PREREQUISITE);
+		putEnum(out, c.getCode());
+		out.putInt(c.getCourseNum());
+		putEnum(out, prereq.getCode());
+		out.putInt(prereq.getCourseNum());
+		return out;
+	}
+	
+	static ByteBuffer section(ByteBuffer out, Section s) {
+		out = ensure(out, 64);
+		out.put(SECTION);
+		putEnum(out, s.getCourse().getCode());
+		out.putInt(s.getCourse().getCourseNum());
+		out.putInt(s.getSection());
+		out.putInt(s.getInstructor().getSUID());
+		putEnum(out, s.getQuarter());
+		out.putInt(s.getYear());
+		out.putInt(s.getCapacity());
+		putEnum(out, s.getBuilding());
+		out.putInt(s.getRoom());
+		Meeting m = s.getMeeting();
+		out.put(m == null ? 0 : (byte) m.getDayMask());
+		if(m != null) out.putShort((short) m.getStart()).putShort((short) m.getEnd());
+		return out;
+	}
+	
+	static ByteBuffer completion(ByteBuffer out, Student s, Course c) {
+		out = ensure(out, 16);
+		out.put(COMPLETION);
+		out.putInt(s.getSUID());
+		putEnum(out, c.getCode());
+		out.putInt(c.getCourseNum());
+		return out;
+	}
+	
+	/**
+	 * Decodes one record of the current version and applies it to the system.
+	 * 
+	 * @param in		The buffer positioned at the start of the record
+	 * @param system	The system to apply the record to
+	 * @throws IOException The record is corrupt or cannot be applied
+	 */
+	static void apply(ByteBuffer in, RegistrationSystem system) throws IOException {
+		apply(in, system, VERSION);
+	}
+	
+	/**
+	 * Decodes one record and applies it to the system.
+	 * 
+	 * @param in		The buffer positioned at the start of the record
+	 * @param system	The system to apply the record to
+	 * @param version	The version the record was written in
+	 * @throws IOException The record is corrupt, of an unknown version or 
+	 * 					   cannot be applied
+	 */
+	static void apply(ByteBuffer in, RegistrationSystem system, int version) throws IOException {
+		if(version < 1 || version > VERSION) 
+			throw new IOException("Unsupported record version " + version + ".");
+		byte type = in.get();
+		try {
+			switch(type) {
+			case STUDENT:
+				if(version < 2) {
+					system.addStudent(getString(in), getString(in), 
+							getEnum(in, StudentType.values()), getEnum(in, StudentProgram.values()), 
+							getEnum(in, Quarter.values()), in.getInt());
+					break;
+				}
+				system.addStudent(in.getInt(), getString(in), getString(in), 
+						getEnum(in, StudentType.values()), getEnum(in, StudentProgram.values()), 
+						getEnum(in, Quarter.values()), in.getInt());
+				break;
+			case FACULTY:
+				if(version < 2) {
+					system.addFaculty(getString(in), getString(in), 
+							getEnum(in, FacultyType.values()), getEnum(in, Building.values()), 
+							in.getInt(), getString(in));
+					break;
+				}
+				system.addFaculty(in.getInt(), getString(in), getString(in), 
+						getEnum(in, FacultyType.values()), getEnum(in, Building.values()), 
+						in.getInt(), getString(in));
+				break;
+			case SUBJECT:
+				system.addSubject(getEnum(in, SubjectCode.values()), getString(in));
+				break;
+			case COURSE:
+				system.addCourse(getEnum(in, SubjectCode.values()), in.getInt(), 
+						getString(in), in.getInt());
+				break;
+			case PREREQUISITE:
+				system.addPrerequisite(getEnum(in, SubjectCode.values()), in.getInt(), 
+						getEnum(in, SubjectCode.values()), in.getInt());
+				break;
+			case SECTION:
+				if(version < 3) {
+					system.addSection(getEnum(in, SubjectCode.values()), in.getInt(), in.getInt(), 
+							getString(in), getEnum(in, Quarter.values()), in.getInt(), in.getInt(), 
+							getEnum(in, Building.values()), in.getInt());
+					break;
+				}
+				system.addSection(getEnum(in, SubjectCode.values()), in.getInt(), in.getInt(), 
+						in.getInt(), getEnum(in, Quarter.values()), in.getInt(), in.getInt(), 
+						getEnum(in, Building.values()), in.getInt(), 
+						version < 4 ? null : getMeeting(in));
+				break;
+			case COMPLETION:
+				if(version < 5) throw new IOException("Unknown record type " + type + ".");
+				system.completeCourse(in.getInt(), getEnum(in, SubjectCode.values()), in.getInt());
+				break;
+			default:
+				throw new IOException("Unknown record type " + type + ".");
+			}
+		} catch (IOException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new IOException("Record could not be applied: " + e.getMessage(), e);
+		}
+	}
+	
+	// a day mask byte, 0 for TBA, then the start and end minutes
+	private static Meeting getMeeting(ByteBuffer in) {
+		int days = in.get();
+		return days == 0 ? null : Meeting.of(days, in.getShort(), in.getShort());
+	}
+	
+	private static void putEnum(ByteBuffer out, Enum<?> e) {
+		out.put(e == null ? -1 : (byte) e.ordinal());
+	}
+	
+	private static <E extends Enum<E>> E getEnum(ByteBuffer in, E[] values) {
+		byte b = in.get();
+		return b < 0 ? null : values[b];
+	}
+	
+	private static void putString(ByteBuffer out, String s) {
+		if(s == null) {
+			out.putInt(-1);
+			return;
+		}
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		out.putInt(bytes.length);
+		out.put(bytes);
+	}
+	
+	private static String getString(ByteBuffer in) {
+		int len = in.getInt();
+		if(len < 0) return null;
+		byte[] bytes = new byte[len];
+		in.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+	
+	// an upper bound on the UTF-8 length of a string
+	private static int chars(String s) {
+		return s == null ? 0 : s.length() * 3;
+	}
+	
+	private static ByteBuffer ensure(ByteBuffer out, int needed) {
+		if(out.remaining() >= needed) return out;
+		ByteBuffer bigger = ByteBuffer.allocate(Math.max(out.capacity() * 2, out.position() + needed));
+		out.flip();
+		bigger.put(out);
+		return bigger;
+	}
+}
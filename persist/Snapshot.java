@@ -0,0 +1,180 @@
+package persist;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+import enums.SubjectCode;
+import person.Faculty;
+import person.Student;
+import registration.Course;
+import registration.Section;
+import system.Query;
+import system.RegistrationSystem;
+
+/**
+ * The Snapshot class writes the whole state of a RegistrationSystem to a 
+ * compact binary file and loads it back through a memory-mapped buffer.
+ * 
+ * The file starts with a magic number, a format version, the log sequence 
+ * number the snapshot is current up to, and the number of records. It is 
+ * followed by length-prefixed MutationCodec records (subjects, faculty, 
+ * students, courses, prerequisites, sections, then the courses each 
+ * student has completed) and a CRC32 of the 
+ * records. A snapshot is written to a temporary file and moved into place,
+ * so a crash never leaves a partial snapshot behind.
+ * 
+ * The format version is the MutationCodec version of the records, so a 
+ * snapshot written by an earlier release is loaded by decoding its records
+ * the way that release wrote them.
+ */
+public final class Snapshot {
+	
+	private Snapshot() {
+	}
+	
+	/**
+	 * Writes a snapshot of the system. The system must not change while the 
+	 * snapshot is written; see RegistrationSystem.runExclusive.
+	 * 
+	 * @param system	The system to write
+	 * @param file		The snapshot file
+	 * @param lsn		The log sequence number the system is current up to
+	 * @throws IOException The snapshot could not be written
+	 */
+	public static void write(RegistrationSystem system, Path file, long lsn) throws IOException {
+		Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+		try(FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, 
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			Writer w = new Writer(out);
+			w.buf.putInt(MAGIC).putInt(MutationCodec.VERSION).putLong(lsn).putLong(0L);
+			
+			for(SubjectCode code : SubjectCode.values()) {
+				String desc = system.getSubjectDescription(code);
+				if(desc != null) w.record(MutationCodec.subject(w.scratch(), code, desc));
+			}
+			for(Faculty f : system.queryFaculty()) 
+				w.record(MutationCodec.faculty(w.scratch(), f));
+			for(Student s : system.queryStudents()) 
+				w.record(MutationCodec.student(w.scratch(), s));
+			Query<Course> courses = system.queryCourses();
+			for(Course c : courses) 
+				w.record(MutationCodec.course(w.scratch(), c));
+			for(Course c : courses) {
+				for(Course prereq : c.getPrerequisiteList()) 
+					w.record(MutationCodec.prerequisite(w.scratch(), c, prereq));
+			}
+			for(Section s : system.querySections()) 
+				w.record(MutationCodec.section(w.scratch(), s));
+			Course[] byId = new Course[(int) courses.count()];
+			for(Course c : courses) byId[c.getId()] = c;
+			for(Student s : system.queryStudents()) {
+				for(int id = s.nextCompleted(0); id >= 0; id = s.nextCompleted(id + 1)) 
+					w.record(MutationCodec.completion(w.scratch(), s, byId[id]));
+			}
+			
+			w.finish();
+			out.force(true);
+		}
+		Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+	
+	/**
+	 * Loads a snapshot into an empty system.
+	 * 
+	 * @param file		The snapshot file
+	 * @param system	The system to load into
+	 * @return the log sequence number the snapshot is current up to
+	 * @throws IOException The snapshot could not be read or is corrupt
+	 */
+	public static long load(Path file, RegistrationSystem system) throws IOException {
+		try(FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+			MappedByteBuffer map = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+			if(map.remaining() < HEADER + 4 || map.getInt() != MAGIC) 
+				throw new IOException(file + " is not a snapshot.");
+			int version = map.getInt();
+			if(version < 1 || version > MutationCodec.VERSION) 
+				throw new IOException(file + " has snapshot version " + version 
+						+ "; this release reads versions 1 to " + MutationCodec.VERSION + ".");
+			long lsn = map.getLong();
+			long count = map.getLong();
+			
+			ByteBuffer records = map.slice();
+			records.limit(records.remaining() - 4);
+			CRC32 crc = new CRC32();
+			crc.update(records.duplicate());
+			if((int) crc.getValue() != map.getInt(map.limit() - 4)) 
+				throw new IOException(file + " is corrupt.");
+			
+			for(long i = 0; i < count; i++) {
+				int len = records.getInt();
+				ByteBuffer record = records.slice();
+				record.limit(len);
+				MutationCodec.apply(record, system, version);
+				records.position(records.position() + len);
+			}
+			return lsn;
+		}
+	}
+	
+	/**
+	 * Buffers the framed records and keeps a running count and checksum.
+	 */
+	private static class Writer {
+		
+		Writer(FileChannel out) {
+			this.out = out;
+			this.buf = ByteBuffer.allocate(1 << 20);
+			this.scratch = ByteBuffer.allocate(256);
+			this.crc = new CRC32();
+		}
+		
+		ByteBuffer scratch() {
+			scratch.clear();
+			return scratch;
+		}
+		
+		void record(ByteBuffer record) throws IOException {
+			scratch = record;
+			record.flip();
+			if(buf.remaining() < record.remaining() + 4) drain();
+			if(buf.remaining() < record.remaining() + 4) {
+				buf = ByteBuffer.allocate(record.remaining() + 4);
+			}
+			int start = buf.position();
+			buf.putInt(record.remaining());
+			buf.put(record);
+			ByteBuffer framed = buf.duplicate();
+			framed.position(start).limit(buf.position());
+			crc.update(framed);
+			count++;
+		}
+		
+		void finish() throws IOException {
+			drain();
+			buf.putInt((int) crc.getValue());
+			drain();
+			out.write(ByteBuffer.allocate(8).putLong(0, count), HEADER - 8);
+		}
+		
+		private void drain() throws IOException {
+			buf.flip();
+			while(buf.hasRemaining()) out.write(buf);
+			buf.clear();
+		}
+		
+		private final FileChannel out;
+		private ByteBuffer buf, scratch;
+		private final CRC32 crc;
+		private long count;
+	}
+	
+	private static final int MAGIC = 0x52534E50;
+	private static final int HEADER = 24;
+}
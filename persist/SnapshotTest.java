@@ -0,0 +1,121 @@
+package persist;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+
+import org.junit.Test;
+
+import enums.Building;
+import enums.FacultyType;
+import enums.Quarter;
+import enums.StudentProgram;
+import enums.StudentType;
+import enums.SubjectCode;
+import person.Student;
+import registration.Section;
+import system.RegistrationSystem;
+
+
+public class SnapshotTest {
+	
+	@Test
+	public void testLoadVersion1() throws Exception {
+		// people without SUIDs, and a section naming its instructor by last name
+		ByteBuffer subject = record(MutationCodec.SUBJECT);
+		subject.put((byte) SubjectCode.CPSC.ordinal());
+		putString(subject, "Computer Science");
+		ByteBuffer faculty = record(MutationCodec.FACULTY);
+		putString(faculty, "Adair");
+		putString(faculty, "Dingle");
+		faculty.put((byte) FacultyType.PROF.ordinal()).put((byte) Building.ENGR.ordinal()).putInt(531);
+		putString(faculty, "dingle@seattleu.edu");
+		ByteBuffer student = record(MutationCodec.STUDENT);
+		putString(student, "Michael");
+		putString(student, "Bluth");
+		student.put((byte) StudentType.GRAD.ordinal()).put((byte) StudentProgram.MSCS.ordinal())
+			.put((byte) Quarter.FQ.ordinal()).putInt(2018);
+		ByteBuffer course = record(MutationCodec.COURSE);
+		course.put((byte) SubjectCode.CPSC.ordinal()).putInt(2430);
+		putString(course, "Data Structures");
+		course.putInt(5);
+		ByteBuffer section = record(MutationCodec.SECTION);
+		section.put((byte) SubjectCode.CPSC.ordinal()).putInt(2430).putInt(1);
+		putString(section, "Dingle");
+		section.put((byte) Quarter.WQ.ordinal()).putInt(2019).putInt(30)
+			.put((byte) Building.PIGT.ordinal()).putInt(207);
+		
+		Path file = Files.createTempFile("snapshot", ".bin");
+		try {
+			Files.write(file, snapshot(1, 42, subject, faculty, student, course, section));
+			RegistrationSystem system = new RegistrationSystem();
+			assertEquals(42, Snapshot.load(file, system));
+			assertEquals("Computer Science", system.getSubjectDescription(SubjectCode.CPSC));
+			Student s = system.queryStudents().page(0, 1).get(0);
+			assertEquals("Bluth", s.getLastName());
+			assertEquals(StudentProgram.MSCS, s.getProgram());
+			Section loaded = system.querySections().page(0, 1).get(0);
+			assertEquals("Dingle", loaded.getInstructor().getLastName());
+			assertEquals(Building.PIGT, loaded.getBuilding());
+			assertNull(loaded.getMeeting());
+			
+			// written back in the current version
+			Snapshot.write(system, file, 42);
+			RegistrationSystem copy = new RegistrationSystem();
+			Snapshot.load(file, copy);
+			assertEquals(s.getSUID(), copy.queryStudents().page(0, 1).get(0).getSUID());
+			assertEquals(1, copy.querySections().count());
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+	
+	@Test
+	public void testUnsupportedVersion() throws Exception {
+		Path file = Files.createTempFile("snapshot", ".bin");
+		try {
+			Files.write(file, snapshot(MutationCodec.VERSION + 1, 0));
+			try {
+				Snapshot.load(file, new RegistrationSystem());
+				fail();
+			} catch (IOException e) {
+				assertTrue(e.getMessage(),
+						e.getMessage().contains("snapshot version " + (MutationCodec.VERSION + 1)));
+			}
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+	
+	private static ByteBuffer record(byte type) {
+		return ByteBuffer.allocate(256).put(type);
+	}
+	
+	private static void putString(ByteBuffer out, String s) {
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		out.putInt(bytes.length).put(bytes);
+	}
+	
+	// the header, the length-prefixed records and their CRC
+	private static byte[] snapshot(int version, long lsn, ByteBuffer... records) {
+		ByteBuffer out = ByteBuffer.allocate(24 + 260 * records.length + 4);
+		out.putInt(0x52534E50).putInt(version).putLong(lsn).putLong(records.length);
+		int start = out.position();
+		for(ByteBuffer r : records) {
+			r.flip();
+			out.putInt(r.remaining()).put(r);
+		}
+		CRC32 crc = new CRC32();
+		crc.update(out.array(), start, out.position() - start);
+		out.putInt((int) crc.getValue());
+		byte[] bytes = new byte[out.position()];
+		out.flip();
+		out.get(bytes);
+		return bytes;
+	}
+}
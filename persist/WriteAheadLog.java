@@ -0,0 +1,465 @@
+package persist;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+import java.util.zip.CRC32;
+
+/**
+ * The WriteAheadLog class appends records to a sequence of log segment files
+ * and makes them durable with group commit.
+ * 
+ * Every segment file starts with a header of a magic number, the log 
+ * format VERSION and the version of the records in it, which the caller
+ * chooses and gets back on replay. Every record is framed as its length, a
+ * CRC32 of its payload, and the payload. A record's log sequence number 
+ * (LSN) is the position just past it in the log as a whole, not counting
+ * headers; each segment file is named after the LSN it starts at.
+ * 
+ * append() only copies the record into a buffer. sync() waits until a given
+ * LSN is on disk: the first thread to find no write in progress writes and
+ * forces everything appended so far, and threads that arrive while it does
+ * so wait and are usually covered by the same force.
+ * 
+ * On open, a torn record at the end of the last segment (e.g. after a crash
+ * mid-write) is cut off. When a write fails, the segment is cut back to the 
+ * end of the last durable record and the records of the write are kept to be
+ * written again by the next sync(), so the LSNs handed out stay the offsets
+ * of their records. If the segment cannot be cut back either, the log fails:
+ * every later append() and sync() throws.
+ */
+public class WriteAheadLog implements Closeable {
+	
+	/**
+	 * Handles one record read back from the log.
+	 */
+	public interface RecordHandler {
+		
+		/**
+		 * @param payload	The record
+		 * @param version	The record version of the segment holding it
+		 */
+		void record(ByteBuffer payload, int version) throws IOException;
+	}
+	
+	/**
+	 * The version of the log format.
+	 */
+	public static final int VERSION = 1;
+	
+	private WriteAheadLog(Path dir, List<Long> segments, List<Integer> versions, 
+			int recordVersion, UnaryOperator<FileChannel> channels) throws IOException {
+		this.dir = dir;
+		this.channels = channels;
+		this.segments = segments;
+		this.versions = versions;
+		this.recordVersion = recordVersion;
+		this.lock = new ReentrantLock();
+		this.flushed = lock.newCondition();
+		this.pending = ByteBuffer.allocate(1 << 16);
+		this.spare = ByteBuffer.allocate(1 << 16);
+		
+		int last = segments.size() - 1;
+		long base = segments.get(last);
+		this.channel = channels.apply(FileChannel.open(segment(base), StandardOpenOption.CREATE, 
+				StandardOpenOption.READ, StandardOpenOption.WRITE));
+		long valid = validLength(channel);
+		if(valid < channel.size()) {
+			channel.truncate(valid);
+			channel.force(true);
+		}
+		this.appendedLsn = base + Math.max(0, valid - HEADER);
+		this.durableLsn = appendedLsn;
+		if(valid <= HEADER) {
+			// a new or empty segment, or one whose header never reached the disk
+			writeHeader();
+			versions.set(last, recordVersion);
+		} else if(versions.get(last) != recordVersion) {
+			// keep each segment to a single record version
+			startSegment();
+		} else {
+			channel.position(valid);
+		}
+	}
+	
+	/**
+	 * Opens the log in a directory, creating it if needed.
+	 * 
+	 * @param dir			The directory holding the log segments
+	 * @param recordVersion	The version of the records appended from now on
+	 * @return the open log, positioned after its last valid record
+	 * @throws IOException The log could not be opened, or was written in an
+	 * 					   unsupported format
+	 */
+	public static WriteAheadLog open(Path dir, int recordVersion) throws IOException {
+		return open(dir, recordVersion, UnaryOperator.identity());
+	}
+	
+	// opens the log writing through channels wrapped by the given function, 
+	// e.g. to inject write failures
+	static WriteAheadLog open(Path dir, int recordVersion, UnaryOperator<FileChannel> channels) 
+							throws IOException {
+		Files.createDirectories(dir);
+		List<Long> segments = new ArrayList<>();
+		try(DirectoryStream<Path> files = Files.newDirectoryStream(dir, "wal-*.log")) {
+			for(Path file : files) {
+				String name = file.getFileName().toString();
+				segments.add(Long.parseUnsignedLong(name.substring(4, name.length() - 4), 16));
+			}
+		}
+		Collections.sort(segments);
+		if(segments.isEmpty()) segments.add(0L);
+		List<Integer> versions = new ArrayList<>();
+		for(int i = 0; i < segments.size(); i++) {
+			Path file = dir.resolve(segmentName(segments.get(i)));
+			int version = Files.exists(file) ? readHeader(file) : -1;
+			if(version < 0 && i < segments.size() - 1) 
+				throw new IOException(file + " is missing its segment header.");
+			versions.add(version);
+		}
+		return new WriteAheadLog(dir, segments, versions, recordVersion, channels);
+	}
+	
+	/**
+	 * Appends a record. The record is not durable until sync() has been
+	 * called with the returned LSN.
+	 * 
+	 * @param payload	The record, between its position and limit
+	 * @return the LSN just past the record
+	 * @throws UncheckedIOException The log has failed
+	 */
+	public long append(ByteBuffer payload) {
+		int len = payload.remaining();
+		CRC32 crc = new CRC32();
+		crc.update(payload.duplicate());
+		lock.lock();
+		try {
+			if(failed != null) throw new UncheckedIOException(failure());
+			if(pending.remaining() < len + 8) {
+				ByteBuffer bigger = ByteBuffer.allocate(Math.max(pending.capacity() * 2, 
+						pending.position() + len + 8));
+				pending.flip();
+				bigger.put(pending);
+				pending = bigger;
+			}
+			pending.putInt(len);
+			pending.putInt((int) crc.getValue());
+			pending.put(payload);
+			appendedLsn += len + 8;
+			return appendedLsn;
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	/**
+	 * Waits until every record up to the given LSN is on disk.
+	 * 
+	 * @param lsn	The LSN returned by append()
+	 * @throws IOException The log could not be written
+	 */
+	public void sync(long lsn) throws IOException {
+		lock.lock();
+		try {
+			while(durableLsn < lsn) {
+				if(flushing) {
+					flushed.await();
+					continue;
+				}
+				if(failed != null) throw failure();
+				flushing = true;
+				ByteBuffer batch = pending;
+				pending = spare;
+				long target = appendedLsn;
+				IOException failure = null;
+				lock.unlock();
+				try {
+					write(batch);
+				} catch (IOException e) {
+					failure = e;
+				} finally {
+					lock.lock();
+				}
+				flushing = false;
+				if(failure == null) {
+					batch.clear();
+					spare = batch;
+					durableLsn = target;
+				} else {
+					requeue(batch, failure);
+				}
+				flushed.signalAll();
+				if(failure != null) throw failure;
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted waiting for the log.");
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	/**
+	 * Returns the LSN just past the last appended record.
+	 * 
+	 * @return the current LSN
+	 */
+	public long getLsn() {
+		lock.lock();
+		try {
+			return appendedLsn;
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	/**
+	 * Forces everything appended so far and starts a new segment.
+	 * 
+	 * @return the LSN the new segment starts at
+	 * @throws IOException The log could not be written
+	 */
+	public long roll() throws IOException {
+		lock.lock();
+		try {
+			while(flushing) flushed.awaitUninterruptibly();
+			if(failed != null) throw failure();
+			writePending();
+			startSegment();
+			return appendedLsn;
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	/**
+	 * Deletes the segments holding only records before the given LSN.
+	 * 
+	 * @param lsn	The LSN from which records are still needed
+	 * @throws IOException A segment could not be deleted
+	 */
+	public void deleteBefore(long lsn) throws IOException {
+		lock.lock();
+		try {
+			while(segments.size() > 1 && segments.get(1) <= lsn) {
+				Files.deleteIfExists(segment(segments.remove(0)));
+				versions.remove(0);
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	/**
+	 * Reads back every record that starts at or after the given LSN, in 
+	 * order. Call before appending.
+	 * 
+	 * @param fromLsn	The first LSN to replay
+	 * @param handler	The handler given each record
+	 * @return the number of records replayed
+	 * @throws IOException The log could not be read
+	 */
+	public long replay(long fromLsn, RecordHandler handler) throws IOException {
+		long count = 0;
+		for(int i = 0; i < segments.size(); i++) {
+			long base = segments.get(i);
+			long next = i + 1 < segments.size() ? segments.get(i + 1) : Long.MAX_VALUE;
+			if(next <= fromLsn) continue;
+			try(FileChannel in = FileChannel.open(segment(base), StandardOpenOption.READ)) {
+				long size = Math.min(in.size() - HEADER, 
+						i + 1 < segments.size() ? in.size() : appendedLsn - base);
+				if(size <= 0) continue;
+				int version = versions.get(i);
+				MappedByteBuffer map = in.map(FileChannel.MapMode.READ_ONLY, HEADER, size);
+				while(map.remaining() >= 8) {
+					long start = base + map.position();
+					int len = map.getInt();
+					map.getInt();
+					ByteBuffer payload = map.slice();
+					payload.limit(len);
+					map.position(map.position() + len);
+					if(start >= fromLsn) {
+						handler.record(payload, version);
+						count++;
+					}
+				}
+			}
+		}
+		return count;
+	}
+	
+	@Override
+	public void close() throws IOException {
+		lock.lock();
+		try {
+			while(flushing) flushed.awaitUninterruptibly();
+			try {
+				if(failed == null) writePending();
+			} finally {
+				channel.close();
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	private void write(ByteBuffer batch) throws IOException {
+		batch.flip();
+		while(batch.hasRemaining()) channel.write(batch);
+		channel.force(false);
+	}
+	
+	// writes and forces every appended record; under the lock, not flushing
+	private void writePending() throws IOException {
+		try {
+			write(pending);
+		} catch (IOException e) {
+			requeue(pending, e);
+			throw e;
+		}
+		pending.clear();
+		durableLsn = appendedLsn;
+	}
+	
+	// after a failed write of a batch, which write() left flipped: cuts the 
+	// segment back to its last durable record, so no part of the batch stays
+	// in it, and puts the batch back in front of the records appended since;
+	// under the lock
+	private void requeue(ByteBuffer batch, IOException failure) {
+		batch.position(batch.limit()).limit(batch.capacity());
+		if(batch != pending) {
+			pending.flip();
+			if(batch.remaining() < pending.remaining()) {
+				ByteBuffer bigger = ByteBuffer.allocate(batch.position() + pending.remaining());
+				batch.flip();
+				bigger.put(batch);
+				batch = bigger;
+			}
+			batch.put(pending);
+			pending.clear();
+			spare = pending;
+			pending = batch;
+		}
+		try {
+			long end = HEADER + durableLsn - segments.get(segments.size() - 1);
+			channel.truncate(end);
+			channel.position(end);
+		} catch (IOException e) {
+			failure.addSuppressed(e);
+			failed = failure;
+		}
+	}
+	
+	private IOException failure() {
+		return new IOException("The log failed and cannot be written.", failed);
+	}
+	
+	// closes the current segment and starts a new one at the appended LSN
+	private void startSegment() throws IOException {
+		channel.close();
+		segments.add(appendedLsn);
+		versions.add(recordVersion);
+		channel = channels.apply(FileChannel.open(segment(appendedLsn), StandardOpenOption.CREATE, 
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING));
+		writeHeader();
+	}
+	
+	// forced along with the first records written after it
+	private void writeHeader() throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(HEADER).putInt(MAGIC).putInt(VERSION).putInt(recordVersion);
+		header.flip();
+		channel.position(0);
+		while(header.hasRemaining()) channel.write(header);
+	}
+	
+	private Path segment(long base) {
+		return dir.resolve(segmentName(base));
+	}
+	
+	private static String segmentName(long base) {
+		return String.format("wal-%016x.log", base);
+	}
+	
+	/**
+	 * Checks the header of a segment.
+	 * 
+	 * @return the record version of the segment, or -1 if it is too short 
+	 * 		   to hold a header
+	 * @throws IOException The segment is not of a supported log format
+	 */
+	private static int readHeader(Path file) throws IOException {
+		try(FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER);
+			while(header.hasRemaining() && in.read(header) >= 0);
+			// even a header cut short by a crash starts with the magic number
+			int read = header.position();
+			for(int i = 0; i < Math.min(read, 4); i++) {
+				if(header.get(i) != (byte) (MAGIC >>> 24 - 8 * i)) 
+					throw new IOException(file + " has no segment header; it was written before "
+							+ "log version 1 and cannot be replayed.");
+			}
+			if(read < HEADER) return -1;
+			header.position(4);
+			int version = header.getInt();
+			if(version != VERSION) 
+				throw new IOException(file + " has log version " + version 
+						+ "; this release reads version " + VERSION + ".");
+			return header.getInt();
+		}
+	}
+	
+	// the length of the prefix of a segment made of its header and complete,
+	// intact records, or 0 if it is too short to hold a header
+	private static long validLength(FileChannel in) throws IOException {
+		long size = in.size();
+		if(size < HEADER) return 0;
+		MappedByteBuffer map = in.map(FileChannel.MapMode.READ_ONLY, 0, size);
+		map.position(HEADER);
+		CRC32 crc = new CRC32();
+		while(map.remaining() >= 8) {
+			int start = map.position();
+			int len = map.getInt();
+			int check = map.getInt();
+			if(len < 0 || len > map.remaining()) return start;
+			ByteBuffer payload = map.slice();
+			payload.limit(len);
+			crc.reset();
+			crc.update(payload);
+			if((int) crc.getValue() != check) return start;
+			map.position(map.position() + len);
+		}
+		return map.position();
+	}
+	
+	private static final int MAGIC = 0x5253574C;
+	private static final int HEADER = 12;
+	
+	private final Path dir;
+	private final UnaryOperator<FileChannel> channels;
+	// the LSN each segment starts at, and the record version of each
+	private final List<Long> segments;
+	private final List<Integer> versions;
+	private final int recordVersion;
+	private final ReentrantLock lock;
+	private final Condition flushed;
+	private FileChannel channel;
+	private ByteBuffer pending, spare;
+	private long appendedLsn, durableLsn;
+	private boolean flushing;
+	// the write failure the segment could not be cut back after, or null
+	private IOException failed;
+}
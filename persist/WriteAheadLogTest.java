@@ -0,0 +1,418 @@
+package persist;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+
+public class WriteAheadLogTest {
+	
+	@Test
+	public void testTornTail() throws Exception {
+		Path dir = Files.createTempDirectory("wal");
+		try {
+			WriteAheadLog log = WriteAheadLog.open(dir, 1);
+			long end = appendAll(log, "a", "b", "c");
+			log.sync(end);
+			log.close();
+			
+			// a record whose length and checksum made it to disk, but not all
+			// of its payload
+			Path segment = segments(dir).get(0);
+			long size = Files.size(segment);
+			try(FileChannel out = FileChannel.open(segment, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+				out.write(ByteBuffer.allocate(14).putInt(0, 100).putInt(4, 1234));
+			}
+			
+			log = WriteAheadLog.open(dir, 1);
+			assertEquals(end, log.getLsn());
+			assertEquals(size, Files.size(segment));
+			assertEquals(List.of("a", "b", "c"), replay(log, 0));
+			
+			// appends go where the torn record was
+			log.sync(appendAll(log, "d"));
+			log.close();
+			assertEquals(List.of("a", "b", "c", "d"), replay(dir));
+		} finally {
+			DurableStoreTest.delete(dir);
+		}
+	}
+	
+	@Test
+	public void testCrcRejection() throws Exception {
+		Path dir = Files.createTempDirectory("wal");
+		try {
+			WriteAheadLog log = WriteAheadLog.open(dir, 1);
+			long second = appendAll(log, "first", "second");
+			log.sync(appendAll(log, "third"));
+			log.close();
+			
+			// flip the last byte of the third payload
+			Path segment = segments(dir).get(0);
+			try(FileChannel out = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+				ByteBuffer b = ByteBuffer.allocate(1);
+				out.read(b, out.size() - 1);
+				b.put(0, (byte) (b.get(0) ^ 1));
+				b.rewind();
+				out.write(b, out.size() - 1);
+			}
+			
+			log = WriteAheadLog.open(dir, 1);
+			assertEquals(second, log.getLsn());
+			assertEquals(List.of("first", "second"), replay(log, 0));
+			log.close();
+		} finally {
+			DurableStoreTest.delete(dir);
+		}
+	}
+	
+	@Test
+	public void testGroupCommit() throws Exception {
+		Path dir = Files.createTempDirectory("wal");
+		try {
+			WriteAheadLog log = WriteAheadLog.open(dir, 1);
+			List<Callable<Long>> writers = new ArrayList<>();
+			for(int t = 0; t < 8; t++) {
+				int thread = t;
+				writers.add(() -> {
+					long lsn = 0;
+					for(int i = 0; i < 200; i++) {
+						lsn = appendAll(log, thread + ":" + i);
+						log.sync(lsn);
+					}
+					return lsn;
+				});
+			}
+			ExecutorService pool = Executors.newFixedThreadPool(writers.size());
+			try {
+				for(Future<Long> f : pool.invokeAll(writers)) assertTrue(f.get() <= log.getLsn());
+			} finally {
+				pool.shutdown();
+			}
+			
+			// every synced record is on disk without the log being closed
+			List<String> records = replay(dir);
+			assertEquals(8 * 200, records.size());
+			for(int t = 0; t < 8; t++) {
+				int previous = -1;
+				for(String r : records) {
+					if(!r.startsWith(t + ":")) continue;
+					int i = Integer.parseInt(r.substring(r.indexOf(':') + 1));
+					assertEquals(previous + 1, i);
+					previous = i;
+				}
+			}
+			log.close();
+		} finally {
+			DurableStoreTest.delete(dir);
+		}
+	}
+	
+	@Test
+	public void testRollAndDeleteBefore() throws Exception {
+		Path dir = Files.createTempDirectory("wal");
+		try {
+			WriteAheadLog log = WriteAheadLog.open(dir, 1);
+			long end = appendAll(log, "a", "b");
+			long start = log.roll();
+			assertEquals(end, start);
+			log.sync(appendAll(log, "c"));
+			assertEquals(2, segments(dir).size());
+			assertEquals(List.of("a", "b", "c"), replay(log, 0));
+			assertEquals(List.of("c"), replay(log, start));
+			
+			log.deleteBefore(start);
+			assertEquals(1, segments(dir).size());
+			assertEquals(List.of("c"), replay(log, 0));
+			log.close();
+			
+			// the LSNs carry on from the deleted segments
+			log = WriteAheadLog.open(dir, 1);
+			assertEquals(List.of("c"), replay(log, start));
+			assertEquals(start + 8 + 1, log.getLsn());
+			log.close();
+		} finally {
+			DurableStoreTest.delete(dir);
+		}
+	}
+	
+	@Test
+	public void testRecordVersions() throws Exception {
+		Path dir = Files.createTempDirectory("wal");
+		try {
+			WriteAheadLog log = WriteAheadLog.open(dir, 1);
+			log.sync(appendAll(log, "old"));
+			log.close();
+			
+			// a log reopened for newer records starts a segment of its own
+			log = WriteAheadLog.open(dir, 2);
+			log.sync(appendAll(log, "new"));
+			assertEquals(2, segments(dir).size());
+			List<String> records = new ArrayList<>();
+			log.replay(0, (payload, version) -> records.add(string(payload) + version));
+			assertEquals(List.of("old1", "new2"), records);
+			log.close();
+		} finally {
+			DurableStoreTest.delete(dir);
+		}
+	}
+	
+	@Test
+	public void testHeaderlessSegment() throws Exception {
+		Path dir = Files.createTempDirectory("wal");
+		try {
+			// a segment as written before segments had headers: just records
+			ByteBuffer old = ByteBuffer.allocate(9).putInt(1).putInt(0).put((byte) 'a');
+			Files.write(dir.resolve("wal-0000000000000000.log"), old.array());
+			try {
+				WriteAheadLog.open(dir, 1);
+				fail();
+			} catch (IOException e) {
+				assertTrue(e.getMessage(), e.getMessage().contains("no segment header"));
+			}
+		} finally {
+			DurableStoreTest.delete(dir);
+		}
+	}
+	
+	@Test
+	public void testWriteFailure() throws Exception {
+		Path dir = Files.createTempDirectory("wal");
+		try {
+			FaultyChannel[] channel = new FaultyChannel[1];
+			WriteAheadLog log = WriteAheadLog.open(dir, 1, c -> channel[0] = new FaultyChannel(c));
+			log.sync(appendAll(log, "a"));
+			Path segment = segments(dir).get(0);
+			long durable = Files.size(segment);
+			
+			// half of the write reaches the file before it fails
+			channel[0].failWrites = true;
+			long c = appendAll(log, "b", "c");
+			try {
+				log.sync(c);
+				fail();
+			} catch (IOException e) {
+				assertEquals("disk full", e.getMessage());
+			}
+			assertEquals(durable, Files.size(segment));
+			
+			// the failed records are written by the next sync, where their LSNs say
+			channel[0].failWrites = false;
+			long d = appendAll(log, "d");
+			log.sync(d);
+			assertEquals(List.of("a", "b", "c", "d"), replay(log, 0));
+			assertEquals(List.of("c", "d"), replay(log, c - 9));
+			log.close();
+			
+			log = WriteAheadLog.open(dir, 1);
+			assertEquals(d, log.getLsn());
+			assertEquals(List.of("a", "b", "c", "d"), replay(log, 0));
+			log.close();
+		} finally {
+			DurableStoreTest.delete(dir);
+		}
+	}
+	
+	@Test
+	public void testFailedTruncate() throws Exception {
+		Path dir = Files.createTempDirectory("wal");
+		try {
+			FaultyChannel[] channel = new FaultyChannel[1];
+			WriteAheadLog log = WriteAheadLog.open(dir, 1, c -> channel[0] = new FaultyChannel(c));
+			log.sync(appendAll(log, "a"));
+			channel[0].failWrites = true;
+			channel[0].failTruncate = true;
+			try {
+				log.sync(appendAll(log, "b"));
+				fail();
+			} catch (IOException e) {
+				assertEquals(1, e.getSuppressed().length);
+			}
+			
+			// the segment may hold part of a record, so the log takes no more
+			channel[0].failWrites = false;
+			try {
+				appendAll(log, "c");
+				fail();
+			} catch (UncheckedIOException e) {
+				assertEquals("disk full", e.getCause().getCause().getMessage());
+			}
+			try {
+				log.sync(Long.MAX_VALUE);
+				fail();
+			} catch (IOException e) {
+				assertEquals("disk full", e.getCause().getMessage());
+			}
+			log.close();
+			
+			// a reopened log cuts off the partial record
+			log = WriteAheadLog.open(dir, 1);
+			assertEquals(List.of("a"), replay(log, 0));
+			log.close();
+		} finally {
+			DurableStoreTest.delete(dir);
+		}
+	}
+	
+	private static long appendAll(WriteAheadLog log, String... records) {
+		long lsn = 0;
+		for(String r : records) lsn = log.append(ByteBuffer.wrap(r.getBytes(StandardCharsets.UTF_8)));
+		return lsn;
+	}
+	
+	private static List<String> replay(WriteAheadLog log, long fromLsn) throws IOException {
+		List<String> records = new ArrayList<>();
+		log.replay(fromLsn, (payload, version) -> records.add(string(payload)));
+		return records;
+	}
+	
+	// reads the log as a fresh process would
+	private static List<String> replay(Path dir) throws IOException {
+		WriteAheadLog log = WriteAheadLog.open(dir, 1);
+		try {
+			return replay(log, 0);
+		} finally {
+			log.close();
+		}
+	}
+	
+	private static String string(ByteBuffer payload) {
+		byte[] bytes = new byte[payload.remaining()];
+		payload.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+	
+	private static List<Path> segments(Path dir) throws IOException {
+		try(Stream<Path> files = Files.list(dir)) {
+			return files.filter(p -> p.getFileName().toString().startsWith("wal-")).sorted()
+					.collect(Collectors.toList());
+		}
+	}
+	
+	/**
+	 * A file channel whose writes can be made to fail after writing half of
+	 * the buffer, and whose truncate can be made to fail.
+	 */
+	private static class FaultyChannel extends FileChannel {
+		
+		FaultyChannel(FileChannel channel) {
+			this.channel = channel;
+		}
+		
+		@Override
+		public int write(ByteBuffer src) throws IOException {
+			if(!failWrites) return channel.write(src);
+			ByteBuffer half = src.duplicate();
+			half.limit(half.position() + half.remaining() / 2);
+			src.position(src.position() + channel.write(half));
+			throw new IOException("disk full");
+		}
+		
+		@Override
+		public FileChannel truncate(long size) throws IOException {
+			if(failTruncate) throw new IOException("read-only file system");
+			channel.truncate(size);
+			return this;
+		}
+		
+		@Override
+		public int read(ByteBuffer dst) throws IOException {
+			return channel.read(dst);
+		}
+		
+		@Override
+		public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+			return channel.read(dsts, offset, length);
+		}
+		
+		@Override
+		public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+			throw new UnsupportedOperationException();
+		}
+		
+		@Override
+		public long position() throws IOException {
+			return channel.position();
+		}
+		
+		@Override
+		public FileChannel position(long newPosition) throws IOException {
+			channel.position(newPosition);
+			return this;
+		}
+		
+		@Override
+		public long size() throws IOException {
+			return channel.size();
+		}
+		
+		@Override
+		public void force(boolean metaData) throws IOException {
+			channel.force(metaData);
+		}
+		
+		@Override
+		public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+			return channel.transferTo(position, count, target);
+		}
+		
+		@Override
+		public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+			throw new UnsupportedOperationException();
+		}
+		
+		@Override
+		public int read(ByteBuffer dst, long position) throws IOException {
+			return channel.read(dst, position);
+		}
+		
+		@Override
+		public int write(ByteBuffer src, long position) throws IOException {
+			throw new UnsupportedOperationException();
+		}
+		
+		@Override
+		public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+			return channel.map(mode, position, size);
+		}
+		
+		@Override
+		public FileLock lock(long position, long size, boolean shared) throws IOException {
+			return channel.lock(position, size, shared);
+		}
+		
+		@Override
+		public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+			return channel.tryLock(position, size, shared);
+		}
+		
+		@Override
+		protected void implCloseChannel() throws IOException {
+			channel.close();
+		}
+		
+		private final FileChannel channel;
+		volatile boolean failWrites, failTruncate;
+	}
+}
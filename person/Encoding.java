@@ -0,0 +1,57 @@
+package person;
+
+import java.nio.charset.StandardCharsets;
+
+import util.StringDictionary;
+
+/**
+ * The Encoding class holds the dictionaries and conversions behind the 
+ * compact fields of Student and Faculty.
+ * 
+ * First and last names share one dictionary, and email domains have their
+ * own; the part of an email before the @ is usually unique, so it is kept
+ * as UTF-8 bytes instead. Enums are stored as ordinal + 1 in a byte, with 0
+ * for null, so a new person's fields start out null.
+ */
+final class Encoding {
+	
+	private Encoding() {
+	}
+	
+	static final StringDictionary NAMES = new StringDictionary();
+	static final StringDictionary DOMAINS = new StringDictionary();
+	
+	static byte ordinal(Enum<?> e) {
+		return e == null ? 0 : (byte) (e.ordinal() + 1);
+	}
+	
+	static <E extends Enum<E>> E value(E[] values, byte ordinal) {
+		return ordinal == 0 ? null : values[ordinal - 1];
+	}
+	
+	/**
+	 * Returns the part of an email before the last @, or the whole email if 
+	 * it has none, as UTF-8.
+	 */
+	static byte[] local(String email) {
+		if(email == null) return null;
+		int at = email.lastIndexOf('@');
+		return (at < 0 ? email : email.substring(0, at)).getBytes(StandardCharsets.UTF_8);
+	}
+	
+	/**
+	 * Returns the code of the part of an email after the last @, or 0 if it
+	 * has none.
+	 */
+	static int domain(String email) {
+		if(email == null) return 0;
+		int at = email.lastIndexOf('@');
+		return at < 0 ? 0 : DOMAINS.encode(email.substring(at + 1));
+	}
+	
+	static String email(byte[] local, int domain) {
+		if(local == null) return null;
+		String s = new String(local, StandardCharsets.UTF_8);
+		return domain == 0 ? s : s + '@' + DOMAINS.decode(domain);
+	}
+}
@@ -15,6 +15,9 @@ import enums.PersonStatus;
  * - office: includes building (i.e. ENGR) and room number (i.e 504)
  * - email: the school (i.e. SU) email address
  * 
+ * Names and email domains are stored as codes into shared dictionaries and
+ * enums as byte ordinals, as for Student; the getters decode them.
+ * 
  * @author 
  */
 public class Faculty {
@@ -26,8 +29,8 @@ public class Faculty {
 	 */
 	public Faculty(String firstName, String lastName) {
 		
-		this.firstName = firstName;
-		this.lastName = lastName;
+		this.firstName = Encoding.NAMES.encode(firstName);
+		this.lastName = Encoding.NAMES.encode(lastName);
 	
 	}
 	
@@ -36,15 +39,15 @@ public class Faculty {
 	}
 	
 	public void setStatus(PersonStatus s) {
-		this.status = s;
+		this.status = Encoding.ordinal(s);
 	}
 	
 	public void setType(FacultyType t) {
-		this.type = t;
+		this.type = Encoding.ordinal(t);
 	}
 	
 	public void setBuilding(Building b) {
-		this.building = b;
+		this.building = Encoding.ordinal(b);
 	}
 	
 	public void setRoom(int room) {
@@ -52,33 +55,56 @@ public class Faculty {
 	}
 	
 	public void setEmail(String e) {
-		this.email = e;
+		this.emailLocal = Encoding.local(e);
+		this.emailDomain = Encoding.domain(e);
 	}
 	
 	public int getSUID() {
 		return this.suid;
 	}
 	
+	public PersonStatus getStatus() {
+		return Encoding.value(STATUSES, status);
+	}
+	
+	public FacultyType getType() {
+		return Encoding.value(TYPES, type);
+	}
+	
+	public Building getBuilding() {
+		return Encoding.value(BUILDINGS, building);
+	}
+	
+	public int getRoom() {
+		return this.room;
+	}
+	
+	public String getEmail() {
+		return Encoding.email(emailLocal, emailDomain);
+	}
 	
 	public String getLastName() {
-		return this.lastName;
+		return Encoding.NAMES.decode(lastName);
 	}
 	
 	public String getFirstName() {
-		return this.firstName;
+		return Encoding.NAMES.decode(firstName);
 	}
 	
 	@Override
 	public String toString() {
 		return String.format("%-12s %-12s %-15d %-15s %-4s %-10d %-1s",
-				lastName, firstName, suid, type, building, room, email + "\n");
+				getLastName(), getFirstName(), suid, getType(), getBuilding(), room, getEmail() + "\n");
 	}
 	
 	
 	// first name, last name, SUID, status, faculty type, office (see building), email
-	String firstName, lastName, email;
+	int firstName, lastName, emailDomain;
+	byte[] emailLocal;
 	int suid, room;
-	PersonStatus status;
-	FacultyType type;
-	Building building;
+	byte status, type, building;
+	
+	private static final PersonStatus[] STATUSES = PersonStatus.values();
+	private static final FacultyType[] TYPES = FacultyType.values();
+	private static final Building[] BUILDINGS = Building.values();
 }
\ No newline at end of file
@@ -1,11 +1,14 @@
 package person;
 
-import java.util.Calendar;
+import java.util.Arrays;
 
 import enums.Quarter;
 import enums.StudentProgram;
 import enums.StudentType;
 import enums.StudentYear;
+import registration.AcademicClock;
+import registration.Course;
+import util.CompactBitSet;
 
 /**
  * The Student class holds information about a student. 
@@ -27,18 +30,30 @@ import enums.StudentYear;
  *   particular program; for example, a single student may start the CERT in 
  *   RQ17 and then continue the MSCS in FQ18 (see Quarter enum)
  * - email: the school (i.e. SU) email address
+ * - completed courses: a bitset over the dense ids of the courses the 
+ *   student has completed, replaced as a whole on every change so that it
+ *   can be read without a lock
+ * 
+ * Names and email domains are stored as codes into shared dictionaries and
+ * enums as byte ordinals, which keeps a student to about 50 bytes plus the
+ * start of their email; the getters decode them.
  * 
  * @author 
  */
 public class Student {
 
-	private StudentProgram program;
-	private StudentYear year;
-	private StudentType status;
-	private Quarter quarter;
+	private byte program, year, status, quarter;
 	private Faculty faculty;
-	private String firstName, lastName, email;
+	private int firstName, lastName, emailDomain;
+	private byte[] emailLocal;
 	private int suid,enrollYear;
+	private volatile long[] completed = NONE;
+	
+	private static final long[] NONE = new long[0];
+	private static final StudentProgram[] PROGRAMS = StudentProgram.values();
+	private static final StudentYear[] YEARS = StudentYear.values();
+	private static final StudentType[] TYPES = StudentType.values();
+	private static final Quarter[] QUARTERS = Quarter.values();
 	
 	/**
 	 * 
@@ -46,30 +61,30 @@ public class Student {
 	 * @param lastName	The last name of the student
 	 */
 	public Student(String firstName, String lastName) {
-		this.firstName = firstName;
-		this.lastName = lastName;
+		this.firstName = Encoding.NAMES.encode(firstName);
+		this.lastName = Encoding.NAMES.encode(lastName);
 	}
 
 	
 	// first name, last name, SUID, status, student type, student program, 
 	// start quarter/year, faculty advisor, email
 	// if undergrad, also add student year (default to freshman)
-	// Note -- do not need to worry about registering students for courses;
-	//         will implement this functionality during HW5
+	// Note -- registering students for courses is done through 
+	//         Section.enroll(Student) and Section.drop(Student)
 	public String getFirstName() {
-		return firstName;
+		return Encoding.NAMES.decode(firstName);
 	}
 	
 	public String getLastName() {
-		return lastName;
+		return Encoding.NAMES.decode(lastName);
 	}
 	
 	public void setFirstName(String n) {
-		this.firstName = n;
+		this.firstName = Encoding.NAMES.encode(n);
 	}
 	
 	public void setLastName(String n) {
-		this.lastName = n;
+		this.lastName = Encoding.NAMES.encode(n);
 	}
 	
 	/**
@@ -77,7 +92,7 @@ public class Student {
 	 * @param p Student program
 	 */
 	public void setProgram(StudentProgram p) {
-		this.program = p;
+		this.program = Encoding.ordinal(p);
 	}
 	
 	/**
@@ -85,12 +100,28 @@ public class Student {
 	 * @param p student study year
  	 */
 	public void setYear(int enrollYear) {
+		setYear(enrollYear, AcademicClock.system());
+	}
+	
+	/**
+	 * Sets the year a student started and their standing as of the current
+	 * term of a clock; set the start quarter first.
+	 * 
+	 * @param enrollYear	The year the student started
+	 * @param clock			The clock to take the current term from
+	 */
+	public void setYear(int enrollYear, AcademicClock clock) {
 		this.enrollYear = enrollYear;
-		int level = Calendar.getInstance().get(Calendar.YEAR) - enrollYear;
-		if(level <= 0) this.year = StudentYear.FRESHMAN;
-		else if(level == 1) this.year = StudentYear.SOPHOMORE;
-		else if(level == 2) this.year = StudentYear.JUNIOR;
-		else if(level >= 3) this.year = StudentYear.SENIOR;		
+		this.year = Encoding.ordinal(clock.standing(getQuarter(), enrollYear));
+	}
+	
+	/**
+	 * Sets a student's standing, e.g. when terms roll over.
+	 * 
+	 * @param year	The class standing
+	 */
+	public void setStanding(StudentYear year) {
+		this.year = Encoding.ordinal(year);
 	}
 	
 	/**
@@ -98,7 +129,7 @@ public class Student {
 	 * @param p student current status
 	 */
 	public void setStatus(StudentType p) {
-		this.status = p;
+		this.status = Encoding.ordinal(p);
 	}
 	
 	public void setSUID(int id) {
@@ -110,11 +141,12 @@ public class Student {
 	 * @param p student current quarter
 	 */
 	public void setQuarter(Quarter p) {
-		this.quarter = p;
+		this.quarter = Encoding.ordinal(p);
 	}
 	
 	public void setEmail(String email) {
-		this.email = email;
+		this.emailLocal = Encoding.local(email);
+		this.emailDomain = Encoding.domain(email);
 	}
 	
 	public void setFaculty(Faculty f) {
@@ -122,11 +154,11 @@ public class Student {
 	}
 	
 	public StudentProgram getProgram() {
-		return program;
+		return Encoding.value(PROGRAMS, program);
 	}
 	
 	public StudentYear getYear() {
-		return year;
+		return Encoding.value(YEARS, year);
 	}
 	
 	public Faculty getFaculty() {
@@ -138,28 +170,98 @@ public class Student {
 	 * @return students current status;
 	 */
 	public StudentType getStatus() {
-		return status;
+		return Encoding.value(TYPES, status);
 	}
 	
 	public Quarter getQuarter() {
-		return quarter;
+		return Encoding.value(QUARTERS, quarter);
 	}
 	
 	public int getSUID() {
 		return suid;
 	}
 	
+	public int getEnrollYear() {
+		return enrollYear;
+	}
+	
 	public String getEmaio() {
-		return email;
+		return Encoding.email(emailLocal, emailDomain);
+	}
+	
+	/**
+	 * Records that the student has completed a course.
+	 * 
+	 * @param course	The course, registered with a RegistrationSystem
+	 */
+	public synchronized void complete(Course course) {
+		int id = course.getId();
+		if(id < 0) throw new IllegalArgumentException("course is not registered");
+		long[] bits = completed;
+		if((id >>> 6) >= bits.length) bits = Arrays.copyOf(bits, (id >>> 6) + 1);
+		else bits = bits.clone();
+		bits[id >>> 6] |= 1L << id;
+		completed = bits;
+	}
+	
+	/**
+	 * Checks whether the student has completed a course.
+	 * 
+	 * @param courseId	The dense id of the course
+	 * @return true if the course was completed
+	 */
+	public boolean hasCompleted(int courseId) {
+		long[] bits = completed;
+		int w = courseId >>> 6;
+		return w < bits.length && (bits[w] & (1L << courseId)) != 0;
+	}
+	
+	/**
+	 * Checks whether the student has completed every course of a set, e.g. 
+	 * the prerequisites of a course.
+	 * 
+	 * @param courseIds	The dense ids of the courses
+	 * @return true if every course was completed
+	 */
+	public boolean hasCompletedAll(CompactBitSet courseIds) {
+		return courseIds.isSubsetOf(completed);
+	}
+	
+	/**
+	 * Returns the dense id of the first course the student has completed 
+	 * from the given id on, e.g. to list them in order.
+	 * 
+	 * @param fromId	The id to start from
+	 * @return the id, or -1 if there is none
+	 */
+	public int nextCompleted(int fromId) {
+		long[] bits = completed;
+		int w = fromId >>> 6;
+		if(w >= bits.length) return -1;
+		long word = bits[w] & (-1L << fromId);
+		while(word == 0) {
+			if(++w == bits.length) return -1;
+			word = bits[w];
+		}
+		return (w << 6) + Long.numberOfTrailingZeros(word);
+	}
+	
+	public int getCompletedCount() {
+		int n = 0;
+		for(long w : completed) n += Long.bitCount(w);
+		return n;
 	}
 	
 	@Override
 	public String toString() {
+		StudentType status = getStatus();
 		if(status == StudentType.NONMAT_UNDERGRAD || status == StudentType.UNDERGRAD)
 		return String.format("%-12s %-12s %-15d %-18s %-15s %-10s %-10s %-8s %-1s",
-				lastName, firstName, suid, status, year, program, quarter, enrollYear, email + "\n");
+				getLastName(), getFirstName(), suid, status, getYear(), getProgram(), getQuarter(), 
+				enrollYear, getEmaio() + "\n");
 		else 		return String.format("%-12s %-12s %-15d %-18s %-15s %-10s %-10s %-8s %-1s",
-				lastName, firstName, suid, status, " ", program, quarter, enrollYear, email + "\n");
+				getLastName(), getFirstName(), suid, status, " ", getProgram(), getQuarter(), 
+				enrollYear, getEmaio() + "\n");
 
 	}
 }
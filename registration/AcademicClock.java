@@ -0,0 +1,55 @@
+package registration;
+
+import enums.Quarter;
+import enums.StudentYear;
+
+/**
+ * The AcademicClock interface tells the registration system which term it
+ * is, and with it the class standing of every student.
+ * 
+ * The system clock is read through a TermCalendar; tests and simulations 
+ * can use a fixed term instead.
+ */
+@FunctionalInterface
+public interface AcademicClock {
+
+	/**
+	 * Returns the current term.
+	 */
+	Term currentTerm();
+	
+	/**
+	 * Returns the class standing of a student who started in a given term:
+	 * freshman in the academic year they started, one step up each fall 
+	 * quarter after that, and senior from the fourth year on.
+	 * 
+	 * @param startQuarter	The quarter the student started, or null
+	 * @param startYear		The year the student started
+	 * @return the standing
+	 */
+	default StudentYear standing(Quarter startQuarter, int startYear) {
+		int level = currentTerm().getAcademicYear() - Term.academicYear(startQuarter, startYear);
+		if(level <= 0) return StudentYear.FRESHMAN;
+		if(level == 1) return StudentYear.SOPHOMORE;
+		if(level == 2) return StudentYear.JUNIOR;
+		return StudentYear.SENIOR;
+	}
+	
+	/**
+	 * Returns a clock that always reads the same term.
+	 * 
+	 * @param term	The term
+	 * @return the clock
+	 */
+	static AcademicClock fixed(Term term) {
+		return () -> term;
+	}
+	
+	/**
+	 * Returns the shared clock that follows the system clock with the 
+	 * default term start dates.
+	 */
+	static AcademicClock system() {
+		return TermCalendar.SYSTEM;
+	}
+}
@@ -0,0 +1,98 @@
+package registration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import person.Student;
+
+/**
+ * The Cart class registers a student for several sections at once: either 
+ * the student gets a seat in every section of the cart, or in none.
+ * 
+ * Seats are claimed one section at a time with the same compare-and-set as
+ * Section.enroll, always in the order the sections were created, and 
+ * released again if any section turns out to be full. No lock is held at 
+ * any point, so carts cannot deadlock, and carts that share a popular 
+ * section only contend on its seat counter. Because every cart claims in 
+ * the same order, two carts racing for the last seats of the same sections
+ * cannot both fail: whichever claims the first shared section first gets 
+ * the others too, unless a third cart takes them.
+ * 
+ * While a cart is being registered, its seats may be seen as taken by other
+ * registrations that then find the section full, even if the cart is 
+ * rolled back a moment later. A seat given back when students are waiting
+ * goes to the head of the waitlist, as for any drop.
+ */
+public class Cart {
+	
+	public Cart() {
+		this.sections = new ArrayList<>();
+	}
+	
+	/**
+	 * Adds a section to the cart.
+	 * 
+	 * @param section	The section
+	 * @return false if the section is already in the cart
+	 */
+	public boolean add(Section section) {
+		if(sections.contains(section)) return false;
+		sections.add(section);
+		return true;
+	}
+	
+	public boolean remove(Section section) {
+		return sections.remove(section);
+	}
+	
+	public List<Section> getSections() {
+		return Collections.unmodifiableList(sections);
+	}
+	
+	public int size() {
+		return sections.size();
+	}
+	
+	/**
+	 * Enrolls a student in every section of the cart, or in none of them.
+	 * 
+	 * @param student	The student to enroll, who must have a SUID
+	 * @return true if the student was enrolled in every section; false if a 
+	 * 		   section is full or the student is already enrolled in one
+	 */
+	public boolean register(Student student) {
+		if(student.getSUID() == 0) throw new IllegalArgumentException("Student has no SUID.");
+		Section[] order = sections.toArray(new Section[0]);
+		Arrays.sort(order, CREATION_ORDER);
+		for(Section s : order) {
+			if(s.isEnrolled(student)) return false;
+		}
+		
+		int claimed = 0;
+		while(claimed < order.length && order[claimed].reserveSeat()) claimed++;
+		if(claimed < order.length) {
+			for(int i = claimed - 1; i >= 0; i--) order[i].releaseSeat();
+			return false;
+		}
+		
+		int added = 0;
+		while(added < order.length && order[added].addToRoster(student)) added++;
+		if(added < order.length) {
+			// the student enrolled in one of the sections on another thread
+			for(int i = order.length - 1; i >= 0; i--) {
+				if(i < added) order[i].removeFromRoster(student);
+				order[i].releaseSeat();
+			}
+			return false;
+		}
+		return true;
+	}
+	
+	private static final Comparator<Section> CREATION_ORDER = 
+			Comparator.comparingLong(Section::getCreationOrder);
+	
+	private final List<Section> sections;
+}
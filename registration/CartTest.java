@@ -0,0 +1,90 @@
+package registration;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import enums.Building;
+import enums.Quarter;
+import enums.SubjectCode;
+import person.Faculty;
+import person.Student;
+
+
+public class CartTest {
+	
+	@Test
+	public void testRegister() {
+		Section a = section(5011, 2), b = section(5003, 1);
+		Student ada = student("Ada", "Lovelace", 100001);
+		Student grace = student("Grace", "Hopper", 100002);
+		Student alan = student("Alan", "Turing", 100003);
+		Cart cart = new Cart();
+		assertTrue(cart.add(b));
+		assertTrue(cart.add(a));
+		assertFalse(cart.add(a));
+		
+		assertTrue(cart.register(ada));
+		assertTrue(a.isEnrolled(ada) && b.isEnrolled(ada));
+		assertFalse(cart.register(ada));
+		// b is full, so grace gets neither seat
+		assertFalse(cart.register(grace));
+		assertFalse(a.isEnrolled(grace));
+		assertEquals(1, a.getAvailableSeats());
+		
+		assertTrue(a.enroll(alan));
+		assertTrue(b.drop(ada));
+		assertFalse(cart.register(grace));
+		assertEquals(1, b.getAvailableSeats());
+	}
+	
+	@Test
+	public void testConcurrentCartsAreAllOrNothing() throws InterruptedException {
+		// every cart wants the popular section and one of two others
+		Section popular = section(5011, 50), left = section(5003, 1000), right = section(5600, 1000);
+		int threads = 8;
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicInteger admitted = new AtomicInteger();
+		for(int t = 0; t < threads; t++) {
+			Cart cart = new Cart();
+			cart.add((t & 1) == 0 ? left : right);
+			cart.add(popular);
+			int first = 100000 + t * 1000;
+			pool.execute(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				for(int i = 0; i < 1000; i++) {
+					if(cart.register(student("First" + i, "Last", first + i))) admitted.incrementAndGet();
+				}
+			});
+		}
+		start.countDown();
+		pool.shutdown();
+		assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+		assertEquals(50, admitted.get());
+		assertEquals(50, popular.getEnrolled());
+		assertEquals(50, left.getEnrolled() + right.getEnrolled());
+	}
+	
+	private static Student student(String firstName, String lastName, int suid) {
+		Student s = new Student(firstName, lastName);
+		s.setSUID(suid);
+		return s;
+	}
+	
+	private static Section section(int num, int cap) {
+		Course course = new Course(SubjectCode.CPSC, num, "Course " + num, 3);
+		return new Section(course, 1, new Faculty("Sheila", "Oh"), Quarter.FQ, 2018, cap, 
+				Building.LEML, 122);
+	}
+}
@@ -1,6 +1,7 @@
 package registration;
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import enums.SubjectCode;
 
@@ -22,6 +23,7 @@ public class Course {
 	String name;
 	int courseNum, creditNum;
 	List <Course> prereqList;
+	int id = -1;
 	
 	/**
 	 * Constructor of Course class
@@ -38,7 +40,7 @@ public class Course {
 		this.courseNum = courseNum;
 		this.name = name;
 		this.creditNum = creditNum;
-		prereqList = new ArrayList<Course>();
+		prereqList = new CopyOnWriteArrayList<Course>();
 	
 	}
 
@@ -78,17 +80,52 @@ public class Course {
 		return this.creditNum;
 	}
 	
+	/**
+	 * Returns the dense id given to the course by its PrerequisiteGraph, or
+	 * -1 if the course has not been registered with one.
+	 * 
+	 * @return the course id
+	 */
+	public int getId() {
+		return this.id;
+	}
+	
+	void setId(int id) {
+		this.id = id;
+	}
+	
+	/**
+	 * Returns the direct prerequisites of the course in the order they were
+	 * added.
+	 * 
+	 * @return an unmodifiable view of the prerequisites
+	 */
+	public List<Course> getPrerequisiteList() {
+		return Collections.unmodifiableList(prereqList);
+	}
+	
 	public String getPrerequisities(){
-		String str = "";
+		StringBuilder str = new StringBuilder();
+		appendPrerequisites(str);
+		return str.toString();
+	}
+	
+	/**
+	 * Appends the prerequisites as "CPSC 2430 & CPSC 2600", or "----" if the
+	 * course has none.
+	 * 
+	 * @param str	The builder to append to
+	 */
+	public void appendPrerequisites(StringBuilder str) {
+		if(prereqList.isEmpty()) {
+			str.append("----");
+			return;
+		}
 		for(int i = 0; i < prereqList.size(); i++) {
-			String a = prereqList.get(i).getCode().toString();
-			int b = prereqList.get(i).getCourseNum();
-			str += a + " " + b;
-			if(i < prereqList.size() - 1) str += " & ";
+			if(i > 0) str.append(" & ");
+			str.append(prereqList.get(i).getCode()).append(' ')
+				.append(prereqList.get(i).getCourseNum());
 		}
-		if (str.length() <= 1) str = "----";
-		return str;
-			
 	}
 	
 	@Override
@@ -0,0 +1,132 @@
+package registration;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import enums.Weekday;
+
+/**
+ * The Meeting class holds the weekly meeting time of a section.
+ * 
+ * For example, MW 10:15-12:00
+ * - days: Monday, Wednesday
+ * - start: 615 (minutes after midnight)
+ * - end: 720
+ * 
+ * Meetings are immutable. A meeting takes up one interval of the week per 
+ * day, [day * 1440 + start, day * 1440 + end), so two meetings overlap when
+ * they share a day and their times overlap.
+ */
+public final class Meeting {
+	
+	/**
+	 * 
+	 * @param days	The days of the week the section meets
+	 * @param start	The start time, in minutes after midnight
+	 * @param end	The end time, in minutes after midnight, after the start
+	 */
+	public Meeting(Set<Weekday> days, int start, int end) {
+		if(days.isEmpty()) throw new IllegalArgumentException("A meeting needs at least one day.");
+		if(start < 0 || end > MINUTES_PER_DAY || start >= end) 
+			throw new IllegalArgumentException("Invalid meeting time " + start + "-" + end + ".");
+		int mask = 0;
+		for(Weekday d : days) mask |= 1 << d.ordinal();
+		this.days = mask;
+		this.start = start;
+		this.end = end;
+	}
+	
+	/**
+	 * Parses a meeting such as "MW 10:15-12:00" or "TR 8:00-9:50".
+	 * 
+	 * @param s	The meeting: day letters, a space and the times
+	 * @return the meeting
+	 */
+	public static Meeting parse(String s) {
+		String[] parts = s.trim().split("\\s+");
+		if(parts.length != 2) throw new IllegalArgumentException("Invalid meeting " + s + ".");
+		EnumSet<Weekday> days = EnumSet.noneOf(Weekday.class);
+		for(char c : parts[0].toCharArray()) days.add(Weekday.valueOf(String.valueOf(c)));
+		String[] times = parts[1].split("-");
+		if(times.length != 2) throw new IllegalArgumentException("Invalid meeting " + s + ".");
+		return new Meeting(days, minutes(times[0]), minutes(times[1]));
+	}
+	
+	/**
+	 * Rebuilds a meeting from getDayMask().
+	 */
+	public static Meeting of(int dayMask, int start, int end) {
+		EnumSet<Weekday> days = EnumSet.noneOf(Weekday.class);
+		for(Weekday d : Weekday.values()) {
+			if((dayMask & (1 << d.ordinal())) != 0) days.add(d);
+		}
+		return new Meeting(days, start, end);
+	}
+	
+	public boolean meetsOn(Weekday day) {
+		return (days & (1 << day.ordinal())) != 0;
+	}
+	
+	/**
+	 * Returns the days as a bit mask, bit i set for Weekday.values()[i].
+	 */
+	public int getDayMask() {
+		return days;
+	}
+	
+	public int getStart() {
+		return start;
+	}
+	
+	public int getEnd() {
+		return end;
+	}
+	
+	public int getLength() {
+		return end - start;
+	}
+	
+	public boolean overlaps(Meeting other) {
+		return (days & other.days) != 0 && start < other.end && other.start < end;
+	}
+	
+	@Override
+	public boolean equals(Object o) {
+		if(this == o) return true;
+		if(!(o instanceof Meeting)) return false;
+		Meeting m = (Meeting) o;
+		return days == m.days && start == m.start && end == m.end;
+	}
+	
+	@Override
+	public int hashCode() {
+		return (days * 31 + start) * 31 + end;
+	}
+	
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		for(Weekday d : Weekday.values()) {
+			if(meetsOn(d)) sb.append(d);
+		}
+		return sb.append(' ').append(time(start)).append('-').append(time(end)).toString();
+	}
+	
+	private static int minutes(String hhmm) {
+		int colon = hhmm.indexOf(':');
+		if(colon < 0) throw new IllegalArgumentException("Invalid time " + hhmm + ".");
+		int hours = Integer.parseInt(hhmm.substring(0, colon));
+		int minutes = Integer.parseInt(hhmm.substring(colon + 1));
+		if(hours < 0 || minutes < 0 || minutes > 59) 
+			throw new IllegalArgumentException("Invalid time " + hhmm + ".");
+		return hours * 60 + minutes;
+	}
+	
+	private static String time(int minutes) {
+		return String.format("%d:%02d", minutes / 60, minutes % 60);
+	}
+	
+	static final int MINUTES_PER_DAY = 24 * 60;
+	
+	// days as a bit mask, start and end in minutes after midnight
+	private final int days, start, end;
+}
@@ -0,0 +1,38 @@
+package registration;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import enums.Weekday;
+
+
+public class MeetingTest {
+	
+	@Test
+	public void testParse() {
+		Meeting m = Meeting.parse("MW 10:15-12:00");
+		assertTrue(m.meetsOn(Weekday.M) && m.meetsOn(Weekday.W) && !m.meetsOn(Weekday.T));
+		assertEquals(615, m.getStart());
+		assertEquals(720, m.getEnd());
+		assertEquals("MW 10:15-12:00", m.toString());
+		assertEquals(m, Meeting.parse(" MW  10:15-12:00 "));
+		assertEquals(8 * 60, Meeting.parse("TR 8:00-9:59").getStart());
+		assertEquals(Meeting.MINUTES_PER_DAY, Meeting.parse("U 23:00-24:00").getEnd());
+	}
+	
+	@Test
+	public void testInvalidTimes() {
+		String[] invalid = { "MW 10:75-12:00", "MW 10:15-11:60", "MW 1015-12:00", 
+				"MW 12:00-10:15", "MW 23:00-24:30", "MW 10:15", "X 10:15-12:00", "10:15-12:00", 
+				"MW ten:15-12:00" };
+		for(String s : invalid) {
+			try {
+				Meeting.parse(s);
+				fail(s);
+			} catch (IllegalArgumentException e) {
+				// expected
+			}
+		}
+	}
+}
@@ -0,0 +1,162 @@
+package registration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import exception.CircularPrerequisiteException;
+import util.CompactBitSet;
+
+/**
+ * The PrerequisiteGraph class keeps the transitive closure of the 
+ * prerequisites of every registered course.
+ * 
+ * Each course is given a dense id when it is registered, and its closure is
+ * a CompactBitSet over those ids, so asking whether one course transitively
+ * requires another is a single bit test. When a prerequisite is added, only the course
+ * and the courses that depend on it are updated; dependents whose closure 
+ * already holds the new prerequisites are not visited further.
+ * 
+ * For example, with CPSC 5002 requiring CPSC 5001 and CPSC 5003 requiring 
+ * CPSC 5002, requires(CPSC 5003, CPSC 5001) is true and adding CPSC 5003 as
+ * a prerequisite of CPSC 5001 is rejected.
+ * 
+ * The direct prerequisites of each course are kept the same way, as the
+ * masks a student's completed courses are checked against.
+ */
+public class PrerequisiteGraph {
+	
+	public PrerequisiteGraph() {
+		courses = new ArrayList<>();
+		closures = new ArrayList<>();
+		direct = new ArrayList<>();
+		dependents = new int[16][];
+		dependentCount = new int[16];
+	}
+	
+	/**
+	 * Registers a course and assigns it the next dense id.
+	 * 
+	 * @param course	The course to register
+	 * @return the id assigned to the course
+	 */
+	public int register(Course course) {
+		int id = courses.size();
+		course.setId(id);
+		courses.add(course);
+		closures.add(new CompactBitSet());
+		direct.add(new CompactBitSet());
+		if(id == dependentCount.length) {
+			dependents = Arrays.copyOf(dependents, id * 2);
+			dependentCount = Arrays.copyOf(dependentCount, id * 2);
+		}
+		return id;
+	}
+	
+	/**
+	 * Records that a course requires a prerequisite and updates the closures
+	 * of the course and of every course that depends on it. Adding a direct
+	 * prerequisite the course already has changes nothing.
+	 * 
+	 * @param course	The course to add the prerequisite to
+	 * @param prereq	The prerequisite course
+	 * @return true if the prerequisite was added, false if the course 
+	 * 		   already listed it
+	 * @throws CircularPrerequisiteException The course is already, directly or 
+	 * 		   transitively, a prerequisite of the prerequisite
+	 */
+	public boolean addPrerequisite(Course course, Course prereq) 
+							throws CircularPrerequisiteException {
+		int c = course.getId();
+		int p = prereq.getId();
+		if(direct.get(c).get(p)) return false;
+		if(c == p || closures.get(p).get(c)) 
+			throw new CircularPrerequisiteException();
+		
+		addDependent(p, c);
+		direct.get(c).set(p);
+		CompactBitSet added = closures.get(p).copy();
+		added.set(p);
+		
+		// walk up the dependents, stopping wherever the closure already 
+		// contains everything being added
+		int[] stack = new int[16];
+		int top = 0;
+		stack[top++] = c;
+		while(top > 0) {
+			int id = stack[--top];
+			if(!closures.get(id).or(added)) continue;
+			int[] up = dependents[id];
+			for(int i = 0; i < dependentCount[id]; i++) {
+				if(top == stack.length) stack = Arrays.copyOf(stack, top * 2);
+				stack[top++] = up[i];
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Returns whether a course directly or transitively requires another.
+	 * 
+	 * @param course	The course
+	 * @param prereq	The possible prerequisite
+	 * @return true if prereq must be completed before course
+	 */
+	public boolean requires(Course course, Course prereq) {
+		return closures.get(course.getId()).get(prereq.getId());
+	}
+	
+	/**
+	 * Returns a copy of the transitive prerequisites of a course as a set of
+	 * course ids.
+	 * 
+	 * @param course	The course
+	 * @return the ids of every course that must be completed before it
+	 */
+	public BitSet getClosure(Course course) {
+		return closures.get(course.getId()).toBitSet();
+	}
+	
+	/**
+	 * Returns a copy of the direct prerequisites of every course, indexed by
+	 * course id.
+	 * 
+	 * @return the ids of the direct prerequisites of each course
+	 */
+	public CompactBitSet[] getPrerequisiteMasks() {
+		CompactBitSet[] masks = new CompactBitSet[direct.size()];
+		for(int i = 0; i < masks.length; i++) masks[i] = direct.get(i).copy();
+		return masks;
+	}
+	
+	/**
+	 * Returns the course registered with the given id.
+	 * 
+	 * @param id	The dense course id
+	 * @return the course
+	 */
+	public Course getCourse(int id) {
+		return courses.get(id);
+	}
+	
+	public int size() {
+		return courses.size();
+	}
+	
+	private void addDependent(int prereq, int course) {
+		int[] up = dependents[prereq];
+		int n = dependentCount[prereq];
+		if(up == null) up = dependents[prereq] = new int[2];
+		else if(n == up.length) up = dependents[prereq] = Arrays.copyOf(up, n * 2);
+		up[n] = course;
+		dependentCount[prereq] = n + 1;
+	}
+	
+	// registered courses by id, their transitive and direct prerequisites, 
+	// and the courses that list each course as a direct prerequisite
+	private final List<Course> courses;
+	private final List<CompactBitSet> closures, direct;
+	private int[][] dependents;
+	private int[] dependentCount;
+}
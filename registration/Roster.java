@@ -0,0 +1,78 @@
+package registration;
+
+import java.util.Arrays;
+
+/**
+ * The Roster class is the set of SUIDs enrolled in a section, kept as a 
+ * sorted int array: four bytes per enrollment, where a concurrent set of 
+ * Student references costs around forty, and nothing for the garbage 
+ * collector to trace.
+ * 
+ * Membership is a binary search; adds and removes shift the tail of the 
+ * array, which stays short since a roster never outgrows the capacity of 
+ * its section. Every method locks the roster, briefly and without calling
+ * out, so it can be used under other locks.
+ */
+final class Roster {
+	
+	/**
+	 * 
+	 * @param capacity	The most SUIDs the roster will hold
+	 */
+	Roster(int capacity) {
+		this.suids = EMPTY;
+		this.capacity = Math.max(0, capacity);
+	}
+	
+	/**
+	 * 
+	 * @return true if the SUID was not already on the roster
+	 */
+	synchronized boolean add(int suid) {
+		int i = Arrays.binarySearch(suids, 0, size, suid);
+		if(i >= 0) return false;
+		i = -i - 1;
+		if(size == suids.length) {
+			int grown = Math.max(INITIAL, size + (size >> 1));
+			suids = Arrays.copyOf(suids, Math.max(size + 1, Math.min(grown, capacity)));
+		}
+		System.arraycopy(suids, i, suids, i + 1, size - i);
+		suids[i] = suid;
+		size++;
+		return true;
+	}
+	
+	/**
+	 * 
+	 * @return true if the SUID was on the roster
+	 */
+	synchronized boolean remove(int suid) {
+		int i = Arrays.binarySearch(suids, 0, size, suid);
+		if(i < 0) return false;
+		System.arraycopy(suids, i + 1, suids, i, size - i - 1);
+		size--;
+		return true;
+	}
+	
+	synchronized boolean contains(int suid) {
+		return Arrays.binarySearch(suids, 0, size, suid) >= 0;
+	}
+	
+	synchronized int size() {
+		return size;
+	}
+	
+	/**
+	 * Returns the SUIDs on the roster in ascending order.
+	 */
+	synchronized int[] toArray() {
+		return Arrays.copyOf(suids, size);
+	}
+	
+	private static final int[] EMPTY = new int[0];
+	private static final int INITIAL = 8;
+	
+	private int[] suids;
+	private int size;
+	private final int capacity;
+}
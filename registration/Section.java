@@ -1,8 +1,16 @@
 package registration;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
 import enums.Building;
 import enums.Quarter;
 import person.Faculty;
+import person.Student;
 
 /**
  * The Section class holds information about a course section.
@@ -14,6 +22,22 @@ import person.Faculty;
  * - quarter/year: FQ18
  * - capacity: 30
  * - building/room: LEML 122
+ * - meeting: MW 10:15-12:00, or none if the time is still TBA
+ * 
+ * Students enroll and drop through enroll(Student) and drop(Student). Seats
+ * are counted with a compare-and-set loop on a per-section counter, so 
+ * concurrent registrations for the same section never wait on each other 
+ * for a seat and never push the enrollment past the capacity. The roster 
+ * holds the SUIDs of the enrolled students in a sorted int array, so only
+ * students with a SUID can enroll.
+ * 
+ * Once the section is full, students can join its waitlist, which is served
+ * by priority and then by arrival. A seat released while students are 
+ * waiting goes straight to the head of the waitlist instead of being freed,
+ * so the section stays full, and enroll() cannot jump the queue, for as long
+ * as anyone is waiting. The waitlist refers to students by SUID; 
+ * attach(...) tells the section how to find them. Use a Cart to enroll in
+ * several sections at once.
  * 
  * @author 
  */
@@ -32,6 +56,23 @@ public class Section {
 	 */
 	public Section(Course course, int section, Faculty instructor, Quarter quarter, 
 					int year, int cap, Building bldg, int room) {
+		this(course, section, instructor, quarter, year, cap, bldg, room, null);
+	}
+	
+	/**
+	 * 
+	 * @param course	 The course associated with the section
+	 * @param section	 The section number for the course
+	 * @param instructor The faculty instructor teaching the course
+	 * @param quarter	 The quarter that the course section is held 
+	 * @param year		 The year that the course section is held
+	 * @param cap		 The capacity of the course section
+	 * @param bldg		 The building that the course section is held
+	 * @param room		 The room that the course section is held
+	 * @param meeting	 The weekly meeting time, or null if it is TBA
+	 */
+	public Section(Course course, int section, Faculty instructor, Quarter quarter, 
+					int year, int cap, Building bldg, int room, Meeting meeting) {
 		
 		this.course = course;
 		this.section = section;
@@ -41,8 +82,202 @@ public class Section {
 		this.cap = cap;
 		this.bldg = bldg;
 		this.room = room;
+		this.meeting = meeting;
+		this.enrolled = new AtomicInteger();
+		this.roster = new Roster(cap);
+		this.waitlist = new Waitlist(cap);
+		this.creationOrder = CREATED.getAndIncrement();
 		
 	}
+	
+	/**
+	 * Connects the section to the students it can promote off its waitlist.
+	 * 
+	 * @param students	Finds a student by SUID, or returns null; also used to
+	 * 					list the roster
+	 * @param promoted	Called with each student given a seat off the waitlist,
+	 * 					or null
+	 */
+	public void attach(IntFunction<Student> students, Consumer<Student> promoted) {
+		synchronized(waitlist) {
+			this.students = students;
+			this.promoted = promoted;
+		}
+	}
+	
+	/**
+	 * Enrolls a student in the section if a seat is available.
+	 * 
+	 * @param student	The student to enroll, who must have a SUID
+	 * @return true if the student was enrolled, false if the section is full
+	 * 		   or the student is already enrolled in it
+	 */
+	public boolean enroll(Student student) {
+		int suid = student.getSUID();
+		if(suid == 0) throw new IllegalArgumentException("Student has no SUID.");
+		if(roster.contains(suid)) return false;
+		if(!reserveSeat()) return false;
+		if(!roster.add(suid)) {
+			releaseSeat();
+			return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * Drops a student from the section. The seat goes to the head of the 
+	 * waitlist, or is released if nobody is waiting.
+	 * 
+	 * @param student	The student to drop
+	 * @return true if the student was enrolled and has been dropped
+	 */
+	public boolean drop(Student student) {
+		if(!roster.remove(student.getSUID())) return false;
+		releaseSeat();
+		return true;
+	}
+	
+	/**
+	 * Adds a student to the waitlist of a full section.
+	 * 
+	 * @param student	The student, who must have a SUID
+	 * @param priority	0 to 127; students with a higher priority are promoted
+	 * 					first, and students with the same one in arrival order
+	 * @return true if the student is now waiting; false if the section has a
+	 * 		   free seat (enroll instead), the student is enrolled or already 
+	 * 		   waiting, or the waitlist is full
+	 */
+	public boolean waitlist(Student student, int priority) {
+		if(student.getSUID() == 0) throw new IllegalArgumentException("Student has no SUID.");
+		synchronized(waitlist) {
+			if(students == null) throw new IllegalStateException("Section is not attached.");
+			if(enrolled.get() < cap || roster.contains(student.getSUID())) return false;
+			return waitlist.offer(student.getSUID(), priority);
+		}
+	}
+	
+	/**
+	 * Removes a student from the waitlist.
+	 * 
+	 * @param student	The student
+	 * @return true if the student was waiting
+	 */
+	public boolean leaveWaitlist(Student student) {
+		synchronized(waitlist) {
+			return waitlist.remove(student.getSUID());
+		}
+	}
+	
+	public boolean isWaitlisted(Student student) {
+		synchronized(waitlist) {
+			return waitlist.contains(student.getSUID());
+		}
+	}
+	
+	public int getWaitlistSize() {
+		synchronized(waitlist) {
+			return waitlist.size();
+		}
+	}
+	
+	public int getWaitlistCapacity() {
+		synchronized(waitlist) {
+			return waitlist.getCapacity();
+		}
+	}
+	
+	/**
+	 * Sets how many students can wait for a seat; the default is the 
+	 * capacity of the section.
+	 * 
+	 * @param capacity	The new waitlist capacity, at least the number waiting
+	 */
+	public void setWaitlistCapacity(int capacity) {
+		synchronized(waitlist) {
+			waitlist.setCapacity(capacity);
+		}
+	}
+	
+	public boolean isEnrolled(Student student) {
+		return roster.contains(student.getSUID());
+	}
+	
+	/**
+	 * Returns the SUIDs of the enrolled students in ascending order.
+	 * 
+	 * @return a copy of the roster
+	 */
+	public int[] getRosterSuids() {
+		return roster.toArray();
+	}
+	
+	/**
+	 * Returns the enrolled students in SUID order, looked up through the
+	 * function given to attach(...).
+	 * 
+	 * @return the students
+	 */
+	public List<Student> getRoster() {
+		IntFunction<Student> lookup;
+		synchronized(waitlist) {
+			lookup = students;
+		}
+		if(lookup == null) throw new IllegalStateException("Section is not attached.");
+		int[] suids = roster.toArray();
+		List<Student> list = new ArrayList<>(suids.length);
+		for(int suid : suids) {
+			Student s = lookup.apply(suid);
+			if(s != null) list.add(s);
+		}
+		return list;
+	}
+	
+	public int getEnrolled() {
+		return enrolled.get();
+	}
+	
+	public int getAvailableSeats() {
+		return cap - enrolled.get();
+	}
+	
+	// claims a seat unless the section is already at capacity
+	boolean reserveSeat() {
+		int taken;
+		do {
+			taken = enrolled.get();
+			if(taken >= cap) return false;
+		} while(!enrolled.compareAndSet(taken, taken + 1));
+		return true;
+	}
+	
+	// gives the seat to the head of the waitlist, or frees it
+	void releaseSeat() {
+		Student next = null;
+		synchronized(waitlist) {
+			while(next == null && waitlist.size() > 0) {
+				int suid = waitlist.poll();
+				Student s = students.apply(suid);
+				if(s != null && roster.add(suid)) next = s;
+			}
+			if(next == null) enrolled.decrementAndGet();
+		}
+		Consumer<Student> listener = promoted;
+		if(next != null && listener != null) listener.accept(next);
+	}
+	
+	// puts a student holding a reserved seat on the roster
+	boolean addToRoster(Student student) {
+		return roster.add(student.getSUID());
+	}
+	
+	void removeFromRoster(Student student) {
+		roster.remove(student.getSUID());
+	}
+	
+	// the order sections were created in, which carts claim seats in
+	long getCreationOrder() {
+		return creationOrder;
+	}
 
 	public Course getCourse() {
 		return this.course;
@@ -76,6 +311,13 @@ public class Section {
 		return this.room;
 	}
 	
+	/**
+	 * Returns the weekly meeting time, or null if it is TBA.
+	 */
+	public Meeting getMeeting() {
+		return this.meeting;
+	}
+	
 
 	public String toString() {
 		return String.format("%-10s %-10s %-10s %-15s %-15s %-1s",
@@ -89,5 +331,19 @@ public class Section {
 	Faculty instructor;
 	Quarter quarter;
 	Building bldg;
+	private final Meeting meeting;
+	private final long creationOrder;
+	
+	// number of seats taken and the SUIDs of the students holding them
+	private final AtomicInteger enrolled;
+	private final Roster roster;
+	
+	// SUIDs of the students waiting for a seat, which is also the lock for
+	// everything to do with the waitlist
+	private final Waitlist waitlist;
+	private IntFunction<Student> students;
+	private volatile Consumer<Student> promoted;
+	
+	private static final AtomicLong CREATED = new AtomicLong();
 
 }
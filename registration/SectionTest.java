@@ -0,0 +1,155 @@
+package registration;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import enums.Building;
+import enums.FacultyType;
+import enums.Quarter;
+import enums.SubjectCode;
+import person.Faculty;
+import person.Student;
+
+
+public class SectionTest {
+
+	@Before
+	public void setUp() throws Exception {
+		Faculty oh = new Faculty("Sheila", "Oh");
+		oh.setType(FacultyType.SEN_INSTRUCT);
+		Course course = new Course(SubjectCode.CPSC, 5011, "Object-Oriented Concepts", 3);
+		section = new Section(course, 2, oh, Quarter.FQ, 2018, 2, Building.LEML, 122);
+	}
+
+	@Test
+	public void testEnroll() {
+		Student a = student("Ada", "Lovelace", 100001);
+		Student b = student("Grace", "Hopper", 100002);
+		Student c = student("Alan", "Turing", 100003);
+		assertTrue(section.enroll(a));
+		assertFalse(section.enroll(a));
+		assertTrue(section.enroll(b));
+		assertFalse(section.enroll(c));
+		assertEquals(0, section.getAvailableSeats());
+	}
+
+	@Test
+	public void testDrop() {
+		Student a = student("Ada", "Lovelace", 100001);
+		Student b = student("Grace", "Hopper", 100002);
+		assertFalse(section.drop(a));
+		assertTrue(section.enroll(a));
+		assertTrue(section.drop(a));
+		assertFalse(section.isEnrolled(a));
+		assertTrue(section.enroll(b));
+		assertEquals(1, section.getEnrolled());
+	}
+
+	@Test
+	public void testWaitlist() {
+		Map<Integer, Student> students = new HashMap<>();
+		List<Student> promoted = new ArrayList<>();
+		section.attach(students::get, promoted::add);
+		String[] names = { "Ada", "Grace", "Alan", "Edsger", "Marie" };
+		Student[] s = new Student[names.length];
+		for(int i = 0; i < s.length; i++) {
+			s[i] = new Student(names[i], "Student");
+			s[i].setSUID(100000 + i);
+			students.put(s[i].getSUID(), s[i]);
+		}
+		assertFalse(section.waitlist(s[0], 0));
+		assertTrue(section.enroll(s[0]));
+		assertTrue(section.enroll(s[1]));
+		assertTrue(section.waitlist(s[2], 0));
+		assertTrue(section.waitlist(s[3], 5));
+		assertFalse(section.waitlist(s[3], 5));
+		assertFalse(section.waitlist(s[4], 0));
+		assertFalse(section.enroll(s[4]));
+		
+		// the higher priority goes first, then arrival order
+		assertTrue(section.drop(s[0]));
+		assertTrue(section.isEnrolled(s[3]));
+		assertEquals(0, section.getAvailableSeats());
+		assertTrue(section.drop(s[1]));
+		assertTrue(section.isEnrolled(s[2]));
+		assertEquals(Arrays.asList(s[3], s[2]), promoted);
+		assertEquals(0, section.getWaitlistSize());
+		assertTrue(section.drop(s[2]));
+		assertEquals(1, section.getAvailableSeats());
+	}
+
+	@Test
+	public void testRoster() {
+		Map<Integer, Student> students = new HashMap<>();
+		section = new Section(section.getCourse(), 3, section.getInstructor(), Quarter.FQ, 2018, 3, 
+				Building.LEML, 122);
+		section.attach(students::get, null);
+		Student c = student("Alan", "Turing", 100003);
+		Student a = student("Ada", "Lovelace", 100001);
+		Student b = student("Grace", "Hopper", 100002);
+		for(Student s : Arrays.asList(c, a, b)) {
+			students.put(s.getSUID(), s);
+			assertTrue(section.enroll(s));
+		}
+		assertArrayEquals(new int[] { 100001, 100002, 100003 }, section.getRosterSuids());
+		assertEquals(Arrays.asList(a, b, c), section.getRoster());
+		assertTrue(section.drop(b));
+		assertFalse(section.drop(b));
+		assertEquals(Arrays.asList(a, c), section.getRoster());
+		assertTrue(section.isEnrolled(c));
+		assertFalse(section.isEnrolled(b));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testEnrollNeedsSuid() {
+		section.enroll(new Student("Ada", "Lovelace"));
+	}
+
+	@Test
+	public void testConcurrentEnrollNeverOverEnrolls() throws InterruptedException {
+		int threads = 8;
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicInteger admitted = new AtomicInteger();
+		for(int t = 0; t < threads; t++) {
+			int first = 100000 + t * 1000;
+			pool.execute(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				for(int i = 0; i < 1000; i++) {
+					if(section.enroll(student("First" + i, "Last", first + i))) 
+						admitted.incrementAndGet();
+				}
+			});
+		}
+		start.countDown();
+		pool.shutdown();
+		assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+		assertEquals(2, admitted.get());
+		assertEquals(2, section.getEnrolled());
+	}
+
+	private static Student student(String firstName, String lastName, int suid) {
+		Student s = new Student(firstName, lastName);
+		s.setSUID(suid);
+		return s;
+	}
+
+	Section section;
+}
@@ -0,0 +1,37 @@
+package registration;
+
+import enums.SubjectCode;
+
+/**
+ * The Subject class holds a subject code and its description.
+ * 
+ * For example, CPSC: Computer Science
+ */
+public final class Subject {
+	
+	/**
+	 * 
+	 * @param code	The subject code
+	 * @param desc	The subject description
+	 */
+	public Subject(SubjectCode code, String desc) {
+		this.code = code;
+		this.desc = desc;
+	}
+	
+	public SubjectCode getCode() {
+		return code;
+	}
+	
+	public String getDescription() {
+		return desc;
+	}
+	
+	@Override
+	public String toString() {
+		return code + "=" + desc;
+	}
+	
+	private final SubjectCode code;
+	private final String desc;
+}
@@ -0,0 +1,66 @@
+package registration;
+
+import enums.Quarter;
+
+/**
+ * The Term class is one quarter of one year, e.g. FQ 2018.
+ * 
+ * An academic year starts with fall quarter, so FQ 2018, WQ 2019, SQ 2019 
+ * and RQ 2019 all belong to academic year 2018.
+ */
+public final class Term {
+
+	/**
+	 * 
+	 * @param quarter	The quarter
+	 * @param year		The calendar year the quarter is held in
+	 */
+	public Term(Quarter quarter, int year) {
+		if(quarter == null) throw new NullPointerException("quarter");
+		this.quarter = quarter;
+		this.year = year;
+	}
+	
+	/**
+	 * Returns the academic year a quarter belongs to.
+	 * 
+	 * @param quarter	The quarter, or null to take the year as it is
+	 * @param year		The calendar year the quarter is held in
+	 * @return the calendar year of the fall quarter that started it
+	 */
+	public static int academicYear(Quarter quarter, int year) {
+		return quarter == null || quarter == Quarter.FQ ? year : year - 1;
+	}
+	
+	public Quarter getQuarter() {
+		return quarter;
+	}
+	
+	public int getYear() {
+		return year;
+	}
+	
+	public int getAcademicYear() {
+		return academicYear(quarter, year);
+	}
+	
+	@Override
+	public boolean equals(Object o) {
+		if(this == o) return true;
+		if(!(o instanceof Term)) return false;
+		Term t = (Term) o;
+		return quarter == t.quarter && year == t.year;
+	}
+	
+	@Override
+	public int hashCode() {
+		return year * 4 + quarter.ordinal();
+	}
+	
+	public String toString() {
+		return quarter + " " + year;
+	}
+	
+	private final Quarter quarter;
+	private final int year;
+}
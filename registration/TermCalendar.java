@@ -0,0 +1,116 @@
+package registration;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+import enums.Quarter;
+
+/**
+ * The TermCalendar class is an AcademicClock that reads the date from a 
+ * java.time.Clock and looks up the term it falls in.
+ * 
+ * The current term is cached together with the instants it starts and 
+ * ends, so reading it is one clock read and two comparisons until the term
+ * changes.
+ */
+public class TermCalendar implements AcademicClock {
+
+	/**
+	 * Uses the default term start dates: WQ on January 3, SQ on March 28, 
+	 * RQ on June 18 and FQ on September 23.
+	 * 
+	 * @param clock	The clock to read the date from
+	 */
+	public TermCalendar(Clock clock) {
+		this(clock, defaultStarts());
+	}
+	
+	/**
+	 * 
+	 * @param clock		The clock to read the date from
+	 * @param starts	The first day of each quarter
+	 */
+	public TermCalendar(Clock clock, Map<Quarter, MonthDay> starts) {
+		this.clock = clock;
+		this.starts = new EnumMap<>(starts);
+		for(Quarter q : Quarter.values()) {
+			if(!this.starts.containsKey(q)) throw new IllegalArgumentException("No start date for " + q);
+		}
+		// quarters in the order they start within a calendar year
+		this.order = this.starts.keySet().toArray(new Quarter[0]);
+		Arrays.sort(order, (a, b) -> this.starts.get(a).compareTo(this.starts.get(b)));
+	}
+	
+	@Override
+	public Term currentTerm() {
+		long now = clock.millis();
+		Cached c = cached;
+		if(c != null && now >= c.from && now < c.until) return c.term;
+		c = lookUp(LocalDate.ofInstant(clock.instant(), clock.getZone()));
+		cached = c;
+		return c.term;
+	}
+	
+	/**
+	 * Returns the day a term starts.
+	 * 
+	 * @param term	The term
+	 * @return the first day of the term
+	 */
+	public LocalDate getStart(Term term) {
+		return starts.get(term.getQuarter()).atYear(term.getYear());
+	}
+	
+	private Cached lookUp(LocalDate date) {
+		int year = date.getYear();
+		// the last quarter starting on or before the date, else the last 
+		// quarter of the year before
+		int i = order.length - 1;
+		while(i >= 0 && starts.get(order[i]).atYear(year).isAfter(date)) i--;
+		Term term = i >= 0 ? new Term(order[i], year) : new Term(order[order.length - 1], year - 1);
+		int nextIndex = i + 1;
+		LocalDate end = nextIndex < order.length 
+				? starts.get(order[nextIndex]).atYear(year) 
+				: starts.get(order[0]).atYear(year + 1);
+		return new Cached(term, millis(getStart(term)), millis(end));
+	}
+	
+	private long millis(LocalDate date) {
+		return date.atStartOfDay(clock.getZone()).toInstant().toEpochMilli();
+	}
+	
+	private static Map<Quarter, MonthDay> defaultStarts() {
+		Map<Quarter, MonthDay> starts = new EnumMap<>(Quarter.class);
+		starts.put(Quarter.WQ, MonthDay.of(1, 3));
+		starts.put(Quarter.SQ, MonthDay.of(3, 28));
+		starts.put(Quarter.RQ, MonthDay.of(6, 18));
+		starts.put(Quarter.FQ, MonthDay.of(9, 23));
+		return starts;
+	}
+	
+	/**
+	 * A term and the instants it starts and ends.
+	 */
+	private static final class Cached {
+		
+		Cached(Term term, long from, long until) {
+			this.term = term;
+			this.from = from;
+			this.until = until;
+		}
+		
+		final Term term;
+		final long from, until;
+	}
+	
+	static final TermCalendar SYSTEM = new TermCalendar(Clock.systemDefaultZone());
+	
+	private final Clock clock;
+	private final Map<Quarter, MonthDay> starts;
+	private final Quarter[] order;
+	private volatile Cached cached;
+}
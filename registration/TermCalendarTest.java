@@ -0,0 +1,42 @@
+package registration;
+
+import static org.junit.Assert.*;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import org.junit.Test;
+
+import enums.Quarter;
+import enums.StudentYear;
+
+
+public class TermCalendarTest {
+	
+	@Test
+	public void testCurrentTerm() {
+		assertEquals(new Term(Quarter.FQ, 2017), at("2018-01-02"));
+		assertEquals(new Term(Quarter.WQ, 2018), at("2018-01-03"));
+		assertEquals(new Term(Quarter.SQ, 2018), at("2018-04-01"));
+		assertEquals(new Term(Quarter.RQ, 2018), at("2018-09-22"));
+		assertEquals(new Term(Quarter.FQ, 2018), at("2018-09-23"));
+		assertEquals(new Term(Quarter.FQ, 2018), at("2018-12-31"));
+	}
+	
+	@Test
+	public void testStanding() {
+		AcademicClock clock = AcademicClock.fixed(new Term(Quarter.WQ, 2020));
+		assertEquals(StudentYear.FRESHMAN, clock.standing(Quarter.FQ, 2019));
+		assertEquals(StudentYear.SOPHOMORE, clock.standing(Quarter.SQ, 2019));
+		assertEquals(StudentYear.JUNIOR, clock.standing(Quarter.FQ, 2017));
+		assertEquals(StudentYear.SENIOR, clock.standing(Quarter.WQ, 2017));
+	}
+	
+	private static Term at(String date) {
+		Clock clock = Clock.fixed(Instant.parse(date + "T12:00:00Z"), ZoneOffset.UTC);
+		TermCalendar calendar = new TermCalendar(clock);
+		assertSame(calendar.currentTerm(), calendar.currentTerm());
+		return calendar.currentTerm();
+	}
+}
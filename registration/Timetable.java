@@ -0,0 +1,96 @@
+package registration;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import enums.Quarter;
+import enums.Weekday;
+
+/**
+ * The Timetable class books the meeting times of sections, per room and per
+ * instructor, and finds the section a new one would clash with.
+ * 
+ * Every (building, room, quarter, year) and every (instructor, quarter, year)
+ * has its own tree of booked intervals over the minutes of the week. The 
+ * intervals in a tree never overlap, so the only one that can overlap a new
+ * interval is the one starting last before the new one ends: a check costs 
+ * one O(log n) lookup per meeting day.
+ * 
+ * Sections without a meeting time (TBA) are not booked. Sections without a
+ * quarter are booked in a term of their own per year, apart from every 
+ * quarter. A Timetable is not thread-safe.
+ */
+public class Timetable {
+	
+	public Timetable() {
+		this.rooms = new HashMap<>();
+		this.instructors = new HashMap<>();
+	}
+	
+	/**
+	 * Returns a booked section that meets in the same room, or with the same
+	 * instructor, at the same time as the given section.
+	 * 
+	 * @param s	The section to check
+	 * @return the clashing section, or null if there is none
+	 */
+	public Section findConflict(Section s) {
+		Meeting m = s.getMeeting();
+		if(m == null) return null;
+		Section clash = null;
+		if(s.getBuilding() != null) clash = findConflict(rooms.get(roomKey(s)), m);
+		if(clash == null) clash = findConflict(instructors.get(instructorKey(s)), m);
+		return clash;
+	}
+	
+	/**
+	 * Books the meeting time of a section; findConflict(s) must be null.
+	 * 
+	 * @param s	The section to book
+	 */
+	public void book(Section s) {
+		Meeting m = s.getMeeting();
+		if(m == null) return;
+		if(s.getBuilding() != null) book(rooms.computeIfAbsent(roomKey(s), k -> new TreeMap<>()), s);
+		book(instructors.computeIfAbsent(instructorKey(s), k -> new TreeMap<>()), s);
+	}
+	
+	private static Section findConflict(TreeMap<Integer, Section> booked, Meeting m) {
+		if(booked == null) return null;
+		for(Weekday d : Weekday.values()) {
+			if(!m.meetsOn(d)) continue;
+			int day = d.ordinal() * Meeting.MINUTES_PER_DAY;
+			Map.Entry<Integer, Section> e = booked.floorEntry(day + m.getEnd() - 1);
+			if(e != null && e.getKey() + e.getValue().getMeeting().getLength() > day + m.getStart()) 
+				return e.getValue();
+		}
+		return null;
+	}
+	
+	private static void book(TreeMap<Integer, Section> booked, Section s) {
+		Meeting m = s.getMeeting();
+		for(Weekday d : Weekday.values()) {
+			if(m.meetsOn(d)) booked.put(d.ordinal() * Meeting.MINUTES_PER_DAY + m.getStart(), s);
+		}
+	}
+	
+	private static long roomKey(Section s) {
+		return termKey(s) | (long) s.getBuilding().ordinal() << 32 | (s.getRoom() & 0xFFFFFFFFL);
+	}
+	
+	private static long instructorKey(Section s) {
+		return termKey(s) | (s.getInstructor().getSUID() & 0xFFFFFFFFL);
+	}
+	
+	// quarter and year in the bits above a 32-bit room number or SUID and 
+	// an 8-bit building; the quarter is ordinal + 1, or 0 if there is none
+	private static long termKey(Section s) {
+		Quarter q = s.getQuarter();
+		return (long) s.getYear() << 43 | (long) (q == null ? 0 : q.ordinal() + 1) << 40;
+	}
+	
+	// booked intervals keyed by their start, in minutes since Monday 0:00
+	private final Map<Long, TreeMap<Integer, Section>> rooms;
+	private final Map<Long, TreeMap<Integer, Section>> instructors;
+}
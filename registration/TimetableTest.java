@@ -0,0 +1,50 @@
+package registration;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import enums.Building;
+import enums.FacultyType;
+import enums.Quarter;
+import enums.SubjectCode;
+import person.Faculty;
+
+
+public class TimetableTest {
+	
+	@Test
+	public void testWithoutQuarter() {
+		Timetable timetable = new Timetable();
+		Section fall = section(1, dingle, Quarter.FQ, 2018, "MW 10:15-12:00");
+		Section tba = section(2, roshandel, null, 2018, "MW 10:15-12:00");
+		// the same room at the same time, but not in a known quarter
+		assertNull(timetable.findConflict(fall));
+		timetable.book(fall);
+		assertNull(timetable.findConflict(tba));
+		timetable.book(tba);
+		
+		// clashes with the other section without a quarter that year only
+		assertSame(tba, timetable.findConflict(section(3, dingle, null, 2018, "W 11:00-11:30")));
+		assertNull(timetable.findConflict(section(4, dingle, null, 2019, "W 11:00-11:30")));
+		assertSame(fall, timetable.findConflict(section(5, roshandel, Quarter.FQ, 2018, "M 11:00-11:30")));
+		for(Quarter q : Quarter.values()) {
+			if(q != Quarter.FQ) assertNull(timetable.findConflict(section(6, dingle, q, 2018, "MW 10:15-12:00")));
+		}
+	}
+	
+	private Section section(int number, Faculty instructor, Quarter quarter, int year, String meeting) {
+		return new Section(course, number, instructor, quarter, year, 30, Building.PIGT, 207, 
+				Meeting.parse(meeting));
+	}
+	
+	private static Faculty faculty(String lastName, int suid) {
+		Faculty f = new Faculty("First", lastName);
+		f.setType(FacultyType.PROF);
+		f.setSUID(suid);
+		return f;
+	}
+	
+	private final Course course = new Course(SubjectCode.CPSC, 2430, "Data Structures", 5);
+	private final Faculty dingle = faculty("Dingle", 100001), roshandel = faculty("Roshandel", 100002);
+}
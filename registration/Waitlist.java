@@ -0,0 +1,201 @@
+package registration;
+
+import java.util.Arrays;
+
+/**
+ * The Waitlist class is a bounded priority queue of SUIDs, served by
+ * priority and then by arrival.
+ * 
+ * Each entry is one non-negative long in a binary heap: the inverted 
+ * priority in bits 56-62, the arrival number in bits 32-55 and the SUID in
+ * the low 32, so the smallest long is always the next student to promote.
+ * The arrival number restarts whenever the waitlist empties, and the 
+ * students waiting are renumbered, in order, if it runs out first. 
+ * 
+ * An open addressing table from SUID to heap slot, kept up to date as 
+ * entries move, makes contains and remove constant time rather than a scan
+ * of the heap. A Waitlist is not thread-safe.
+ */
+final class Waitlist {
+	
+	static final int MAX_PRIORITY = 127;
+	
+	/**
+	 * 
+	 * @param capacity	The maximum number of students waiting
+	 */
+	Waitlist(int capacity) {
+		this.heap = new long[0];
+		this.keys = new int[0];
+		this.slots = new int[0];
+		this.capacity = capacity;
+	}
+	
+	/**
+	 * Adds a student unless the waitlist is full or the student is on it.
+	 * 
+	 * @param suid		The SUID of the student, not 0
+	 * @param priority	0 to MAX_PRIORITY; higher is served first
+	 * @return true if the student was added
+	 */
+	boolean offer(int suid, int priority) {
+		if(priority < 0 || priority > MAX_PRIORITY)
+			throw new IllegalArgumentException("priority must be 0 to " + MAX_PRIORITY);
+		if(suid == 0) throw new IllegalArgumentException("SUID 0 is reserved");
+		if(size == capacity || contains(suid)) return false;
+		if(arrivals > MAX_ARRIVAL) renumber();
+		if(size == heap.length) heap = Arrays.copyOf(heap, Math.min(capacity, Math.max(8, size * 2)));
+		if(2 * (size + 1) > keys.length) reindex(Math.max(16, keys.length * 2));
+		long entry = (long) (MAX_PRIORITY - priority) << 56 | (long) arrivals++ << 32
+				| (suid & 0xFFFFFFFFL);
+		siftUp(size++, entry);
+		return true;
+	}
+	
+	/**
+	 * Removes the next student to promote.
+	 * 
+	 * @return the SUID of the student, or 0 if the waitlist is empty
+	 */
+	int poll() {
+		if(size == 0) return 0;
+		int suid = (int) heap[0];
+		unindex(suid);
+		removeAt(0);
+		return suid;
+	}
+	
+	/**
+	 * Removes a student from anywhere in the waitlist.
+	 * 
+	 * @return true if the student was waiting
+	 */
+	boolean remove(int suid) {
+		int i = slotOf(suid);
+		if(i < 0) return false;
+		unindex(suid);
+		removeAt(i);
+		return true;
+	}
+	
+	boolean contains(int suid) {
+		return slotOf(suid) >= 0;
+	}
+	
+	int size() {
+		return size;
+	}
+	
+	int getCapacity() {
+		return capacity;
+	}
+	
+	void setCapacity(int capacity) {
+		if(capacity < size) throw new IllegalArgumentException("capacity below current size");
+		this.capacity = capacity;
+	}
+	
+	// the heap slot of a student, or -1 if not waiting
+	private int slotOf(int suid) {
+		if(keys.length == 0 || suid == 0) return -1;
+		int mask = keys.length - 1;
+		for(int i = mix(suid) & mask; ; i = (i + 1) & mask) {
+			if(keys[i] == suid) return slots[i];
+			if(keys[i] == 0) return -1;
+		}
+	}
+	
+	// puts an entry in a heap slot and records where it went
+	private void place(int slot, long entry) {
+		heap[slot] = entry;
+		int suid = (int) entry;
+		int mask = keys.length - 1;
+		int i = mix(suid) & mask;
+		while(keys[i] != 0 && keys[i] != suid) i = (i + 1) & mask;
+		keys[i] = suid;
+		slots[i] = slot;
+	}
+	
+	// drops a student from the index, shifting back the entries probed past it
+	private void unindex(int suid) {
+		int mask = keys.length - 1;
+		int i = mix(suid) & mask;
+		while(keys[i] != suid) i = (i + 1) & mask;
+		for(int j = (i + 1) & mask; keys[j] != 0; j = (j + 1) & mask) {
+			int home = mix(keys[j]) & mask;
+			// move j back to i unless its home lies cyclically in (i, j]
+			if(i <= j ? (home <= i || home > j) : (home <= i && home > j)) {
+				keys[i] = keys[j];
+				slots[i] = slots[j];
+				i = j;
+			}
+		}
+		keys[i] = 0;
+	}
+	
+	private void reindex(int length) {
+		keys = new int[length];
+		slots = new int[length];
+		for(int i = 0; i < size; i++) place(i, heap[i]);
+	}
+	
+	// renumbers the arrivals of the students waiting 0, 1, 2... in the same
+	// order; since the order of the entries is unchanged, none of them moves
+	private void renumber() {
+		if(size > MAX_ARRIVAL) throw new IllegalStateException("too many students waiting");
+		long[] byArrival = new long[size];
+		for(int i = 0; i < size; i++) byArrival[i] = (heap[i] & ARRIVAL) | i;
+		Arrays.sort(byArrival);
+		for(int rank = 0; rank < size; rank++) {
+			int i = (int) byArrival[rank];
+			heap[i] = heap[i] & ~ARRIVAL | (long) rank << 32;
+		}
+		arrivals = size;
+	}
+	
+	// spreads sequential keys, such as SUIDs, over the table
+	private static int mix(int key) {
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+	
+	// removes the entry in a slot; its student is already out of the index
+	private void removeAt(int i) {
+		long last = heap[--size];
+		if(i < size) {
+			siftDown(i, last);
+			if(heap[i] == last) siftUp(i, last);
+		}
+		if(size == 0) arrivals = 0;
+	}
+	
+	private void siftUp(int i, long entry) {
+		while(i > 0) {
+			int parent = (i - 1) >>> 1;
+			if(heap[parent] <= entry) break;
+			place(i, heap[parent]);
+			i = parent;
+		}
+		place(i, entry);
+	}
+	
+	private void siftDown(int i, long entry) {
+		int half = size >>> 1;
+		while(i < half) {
+			int child = 2 * i + 1;
+			if(child + 1 < size && heap[child + 1] < heap[child]) child++;
+			if(entry <= heap[child]) break;
+			place(i, heap[child]);
+			i = child;
+		}
+		place(i, entry);
+	}
+	
+	private static final int MAX_ARRIVAL = (1 << 24) - 1;
+	private static final long ARRIVAL = (long) MAX_ARRIVAL << 32;
+	
+	private long[] heap;
+	// the SUID, 0 for none, and heap slot of each student waiting
+	private int[] keys, slots;
+	private int size, capacity, arrivals;
+}
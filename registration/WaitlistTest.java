@@ -0,0 +1,85 @@
+package registration;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+
+public class WaitlistTest {
+	
+	@Test
+	public void testIndex() {
+		// random offers, removals and polls against a list kept in order
+		Waitlist waitlist = new Waitlist(500);
+		List<int[]> expected = new ArrayList<>();
+		Random random = new Random(42);
+		int arrival = 0;
+		for(int op = 0; op < 100_000; op++) {
+			int suid = 100000 + random.nextInt(1000);
+			int choice = random.nextInt(3);
+			if(choice == 0) {
+				int priority = random.nextInt(4);
+				boolean waiting = indexOf(expected, suid) >= 0;
+				boolean added = waitlist.offer(suid, priority);
+				assertEquals(!waiting && expected.size() < 500, added);
+				if(added) expected.add(new int[] { suid, priority, arrival++ });
+			} else if(choice == 1) {
+				int i = indexOf(expected, suid);
+				assertEquals(i >= 0, waitlist.remove(suid));
+				if(i >= 0) expected.remove(i);
+			} else if(!expected.isEmpty()) {
+				expected.sort(ORDER);
+				assertEquals(expected.remove(0)[0], waitlist.poll());
+			}
+			assertEquals(expected.size(), waitlist.size());
+			int probe = 100000 + random.nextInt(1000);
+			assertEquals(indexOf(expected, probe) >= 0, waitlist.contains(probe));
+		}
+		
+		expected.sort(ORDER);
+		for(int[] e : expected) assertEquals(e[0], waitlist.poll());
+		assertEquals(0, waitlist.poll());
+		for(int suid = 100000; suid < 101000; suid++) assertFalse(waitlist.contains(suid));
+	}
+	
+	@Test
+	public void testRenumber() {
+		// a waitlist that never empties runs through every arrival number
+		Waitlist waitlist = new Waitlist(10);
+		assertTrue(waitlist.offer(1, 0));
+		assertTrue(waitlist.offer(2, 5));
+		assertTrue(waitlist.offer(3, 0));
+		for(int i = 0; i < (1 << 24); i++) {
+			assertTrue(waitlist.offer(4, 9));
+			assertEquals(4, waitlist.poll());
+		}
+		assertTrue(waitlist.offer(5, 0));
+		assertTrue(waitlist.offer(6, 5));
+		
+		// served by priority, then in the order they arrived
+		int[] order = { 2, 6, 1, 3, 5 };
+		for(int suid : order) assertEquals(suid, waitlist.poll());
+		assertEquals(0, waitlist.size());
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testReservedSuid() {
+		new Waitlist(10).offer(0, 0);
+	}
+	
+	private static int indexOf(List<int[]> entries, int suid) {
+		for(int i = 0; i < entries.size(); i++) {
+			if(entries.get(i)[0] == suid) return i;
+		}
+		return -1;
+	}
+	
+	// higher priority first, then earlier arrival
+	private static final Comparator<int[]> ORDER = 
+			Comparator.<int[]>comparingInt(e -> -e[1]).thenComparingInt(e -> e[2]);
+}
@@ -0,0 +1,10 @@
+package report;
+
+/**
+ * The ReportFormat enum.
+ * 
+ * FIXED_WIDTH: space padded columns, as printed by the Driver
+ * CSV: comma separated values with a header row
+ * JSON: an array with one object per row, keyed by the column headers
+ */
+public enum ReportFormat { FIXED_WIDTH, CSV, JSON }
@@ -0,0 +1,236 @@
+package report;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The ReportWriter class streams a report to a Writer one row at a time.
+ * 
+ * A row is built cell by cell into a buffer that is reused for every row and
+ * then written out, so the memory used by a report does not depend on the 
+ * number of rows. Integers and enum constants are appended without creating
+ * intermediate strings.
+ * 
+ * For example:
+ * 		w.writeHeader();
+ * 		w.cell("Bluth").cell("Michael").cell(100001).endRow();
+ * 		w.finish();
+ */
+public class ReportWriter implements Flushable, Closeable {
+
+	/**
+	 * 
+	 * @param out		The writer to stream the report to
+	 * @param format	The format of the report
+	 * @param headers	The column headers
+	 * @param widths	The column widths, only used for fixed width reports;
+	 * 					the last column is never padded
+	 */
+	public ReportWriter(Writer out, ReportFormat format, String[] headers, int[] widths) {
+		this.out = out;
+		this.format = format;
+		this.headers = headers;
+		this.widths = widths;
+		this.row = new StringBuilder(256);
+		this.chars = new char[256];
+	}
+	
+	/**
+	 * 
+	 * @param channel	The channel to stream the report to, encoded as UTF-8
+	 * @param format	The format of the report
+	 * @param headers	The column headers
+	 * @param widths	The column widths, only used for fixed width reports
+	 */
+	public ReportWriter(WritableByteChannel channel, ReportFormat format, 
+						String[] headers, int[] widths) {
+		this(Channels.newWriter(channel, StandardCharsets.UTF_8), format, headers, widths);
+	}
+	
+	/**
+	 * Writes the header row, or opens the array for a JSON report.
+	 * 
+	 * @throws IOException The header could not be written
+	 */
+	public void writeHeader() throws IOException {
+		if(format == ReportFormat.JSON) {
+			out.write('[');
+			return;
+		}
+		for(String header : headers) cell(header);
+		endRow();
+	}
+	
+	/**
+	 * Appends a text cell to the current row.
+	 * 
+	 * @param value	The cell value, may be null
+	 * @return this writer
+	 */
+	public ReportWriter cell(CharSequence value) {
+		int start = beginCell();
+		if(value == null) {
+			row.append(format == ReportFormat.CSV ? "" : "null");
+		} else if(format == ReportFormat.CSV) {
+			appendCsv(value);
+		} else if(format == ReportFormat.JSON) {
+			appendJson(value);
+		} else {
+			row.append(value);
+		}
+		endCell(start);
+		return this;
+	}
+	
+	/**
+	 * Appends a cell holding the string value of an object, such as an enum 
+	 * constant.
+	 * 
+	 * @param value	The cell value, may be null
+	 * @return this writer
+	 */
+	public ReportWriter cell(Object value) {
+		return cell(value == null ? null : value.toString());
+	}
+	
+	/**
+	 * Appends a numeric cell to the current row.
+	 * 
+	 * @param value	The cell value
+	 * @return this writer
+	 */
+	public ReportWriter cell(int value) {
+		int start = beginCell();
+		row.append(value);
+		endCell(start);
+		return this;
+	}
+	
+	/**
+	 * Ends the current row and writes it out.
+	 * 
+	 * @throws IOException The row could not be written
+	 */
+	public void endRow() throws IOException {
+		if(format == ReportFormat.JSON) row.append('}');
+		else row.append('\n');
+		
+		int len = row.length();
+		if(len > chars.length) chars = new char[Math.max(len, chars.length * 2)];
+		row.getChars(0, len, chars, 0);
+		out.write(chars, 0, len);
+		row.setLength(0);
+		column = 0;
+		rows++;
+	}
+	
+	/**
+	 * Closes the array of a JSON report and flushes the writer. The 
+	 * underlying writer is left open.
+	 * 
+	 * @throws IOException The report could not be written
+	 */
+	public void finish() throws IOException {
+		if(format == ReportFormat.JSON) out.write(rows == 0 ? "]\n" : "\n]\n");
+		out.flush();
+	}
+	
+	public long getRowCount() {
+		return rows;
+	}
+	
+	@Override
+	public void flush() throws IOException {
+		out.flush();
+	}
+	
+	@Override
+	public void close() throws IOException {
+		out.close();
+	}
+	
+	// appends the separator before a cell and returns where the value starts
+	private int beginCell() {
+		switch(format) {
+		case CSV:
+			if(column > 0) row.append(',');
+			break;
+		case JSON:
+			if(column == 0) row.append(rows == 0 ? "\n{" : ",\n{");
+			else row.append(',');
+			row.append('"');
+			appendEscaped(headers[column]);
+			row.append("\":");
+			break;
+		default:
+			row.append(' ');
+		}
+		return row.length();
+	}
+	
+	// pads a fixed width cell, leaving the last column unpadded
+	private void endCell(int start) {
+		if(format == ReportFormat.FIXED_WIDTH && column < widths.length - 1) {
+			for(int pad = widths[column] - (row.length() - start); pad > 0; pad--) 
+				row.append(' ');
+		}
+		column++;
+	}
+	
+	private void appendCsv(CharSequence value) {
+		boolean quote = false;
+		for(int i = 0; i < value.length() && !quote; i++) {
+			char c = value.charAt(i);
+			quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+		}
+		if(!quote) {
+			row.append(value);
+			return;
+		}
+		row.append('"');
+		for(int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if(c == '"') row.append('"');
+			row.append(c);
+		}
+		row.append('"');
+	}
+	
+	private void appendJson(CharSequence value) {
+		row.append('"');
+		appendEscaped(value);
+		row.append('"');
+	}
+	
+	private void appendEscaped(CharSequence value) {
+		for(int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if(c == '"' || c == '\\') {
+				row.append('\\').append(c);
+			} else if(c == '\n') {
+				row.append("\\n");
+			} else if(c < 0x20) {
+				row.append("\\u00");
+				row.append(HEX[c >> 4]).append(HEX[c & 0xF]);
+			} else {
+				row.append(c);
+			}
+		}
+	}
+	
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+	
+	private final Writer out;
+	private final ReportFormat format;
+	private final String[] headers;
+	private final int[] widths;
+	private final StringBuilder row;
+	private char[] chars;
+	private int column;
+	private long rows;
+}
@@ -0,0 +1,87 @@
+package report;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import enums.Quarter;
+
+
+public class ReportWriterTest {
+	
+	@Test
+	public void testFixedWidth() throws Exception {
+		StringWriter out = new StringWriter();
+		ReportWriter w = new ReportWriter(out, ReportFormat.FIXED_WIDTH, HEADERS, WIDTHS);
+		w.writeHeader();
+		w.cell("Bluth").cell(100001).cell(Quarter.FQ).endRow();
+		w.cell((Object) null).cell(-1).cell("a value longer than its column").endRow();
+		w.finish();
+		assertEquals(String.format(" %-6s %-8s %-1s\n", "Name", "SUID", "Quarter")
+				+ String.format(" %-6s %-8d %-1s\n", "Bluth", 100001, Quarter.FQ)
+				+ String.format(" %-6s %-8d %-1s\n", null, -1, "a value longer than its column"),
+				out.toString());
+		assertEquals(3, w.getRowCount());
+	}
+	
+	@Test
+	public void testCsv() throws Exception {
+		StringWriter out = new StringWriter();
+		ReportWriter w = new ReportWriter(out, ReportFormat.CSV, HEADERS, WIDTHS);
+		w.writeHeader();
+		w.cell("Bluth, Jr.").cell(100001).cell("say \"hi\"").endRow();
+		w.cell("two\nlines").cell(0).cell((Object) null).endRow();
+		w.finish();
+		assertEquals("Name,SUID,Quarter\n"
+				+ "\"Bluth, Jr.\",100001,\"say \"\"hi\"\"\"\n"
+				+ "\"two\nlines\",0,\n", out.toString());
+	}
+	
+	@Test
+	public void testJson() throws Exception {
+		StringWriter out = new StringWriter();
+		ReportWriter w = new ReportWriter(out, ReportFormat.JSON, HEADERS, WIDTHS);
+		w.writeHeader();
+		w.cell("Bluth \"Gob\"").cell(100001).cell(Quarter.FQ).endRow();
+		w.cell("back\\slash\ttab").cell(2).cell((Object) null).endRow();
+		w.finish();
+		assertEquals("[\n"
+				+ "{\"Name\":\"Bluth \\\"Gob\\\"\",\"SUID\":100001,\"Quarter\":\"FQ\"},\n"
+				+ "{\"Name\":\"back\\\\slash\\u0009tab\",\"SUID\":2,\"Quarter\":null}\n"
+				+ "]\n", out.toString());
+	}
+	
+	@Test
+	public void testEmpty() throws Exception {
+		for(ReportFormat format : ReportFormat.values()) {
+			StringWriter out = new StringWriter();
+			ReportWriter w = new ReportWriter(out, format, HEADERS, WIDTHS);
+			w.writeHeader();
+			w.finish();
+			String expected = format == ReportFormat.JSON ? "[]\n" 
+					: format == ReportFormat.CSV ? "Name,SUID,Quarter\n" 
+					: String.format(" %-6s %-8s %-1s\n", "Name", "SUID", "Quarter");
+			assertEquals(format.toString(), expected, out.toString());
+		}
+	}
+	
+	@Test
+	public void testChannel() throws Exception {
+		// a row longer than the reused buffer, and text that is not ASCII
+		StringBuilder name = new StringBuilder("Dvořák");
+		while(name.length() < 1000) name.append('x');
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ReportWriter w = new ReportWriter(Channels.newChannel(bytes), ReportFormat.CSV, HEADERS, WIDTHS);
+		w.cell(name).cell(1).cell("é").endRow();
+		w.finish();
+		assertEquals(name + ",1,é\n", new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+	}
+	
+	private static final String[] HEADERS = { "Name", "SUID", "Quarter" };
+	private static final int[] WIDTHS = { 6, 8, 1 };
+}
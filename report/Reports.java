@@ -0,0 +1,130 @@
+package report;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import enums.StudentType;
+import person.Faculty;
+import person.Student;
+import registration.Course;
+import registration.Section;
+
+/**
+ * The Reports class writes the faculty, student, course and section 
+ * listings of the registration system through a ReportWriter.
+ * 
+ * The fixed width layout matches the toString() of each entity.
+ */
+public final class Reports {
+
+	private Reports() {
+	}
+	
+	/**
+	 * Writes the student listing.
+	 * 
+	 * @param students	The students to list
+	 * @param out		The writer to stream the report to
+	 * @param format	The format of the report
+	 * @throws IOException The report could not be written
+	 */
+	public static void writeStudents(Iterable<Student> students, Writer out, 
+						ReportFormat format) throws IOException {
+		ReportWriter w = new ReportWriter(out, format, STUDENT_HEADERS, STUDENT_WIDTHS);
+		w.writeHeader();
+		for(Student s : students) {
+			boolean undergrad = s.getStatus() == StudentType.UNDERGRAD 
+					|| s.getStatus() == StudentType.NONMAT_UNDERGRAD;
+			w.cell(s.getLastName()).cell(s.getFirstName()).cell(s.getSUID())
+				.cell(s.getStatus()).cell(undergrad ? s.getYear() : "")
+				.cell(s.getProgram()).cell(s.getQuarter()).cell(s.getEnrollYear())
+				.cell(s.getEmaio());
+			w.endRow();
+		}
+		w.finish();
+	}
+	
+	/**
+	 * Writes the faculty listing.
+	 * 
+	 * @param faculty	The faculty to list
+	 * @param out		The writer to stream the report to
+	 * @param format	The format of the report
+	 * @throws IOException The report could not be written
+	 */
+	public static void writeFaculty(Iterable<Faculty> faculty, Writer out, 
+						ReportFormat format) throws IOException {
+		ReportWriter w = new ReportWriter(out, format, FACULTY_HEADERS, FACULTY_WIDTHS);
+		w.writeHeader();
+		for(Faculty f : faculty) {
+			w.cell(f.getLastName()).cell(f.getFirstName()).cell(f.getSUID())
+				.cell(f.getType()).cell(f.getBuilding()).cell(f.getRoom())
+				.cell(f.getEmail());
+			w.endRow();
+		}
+		w.finish();
+	}
+	
+	/**
+	 * Writes the course listing with the prerequisites of each course.
+	 * 
+	 * @param courses	The courses to list
+	 * @param out		The writer to stream the report to
+	 * @param format	The format of the report
+	 * @throws IOException The report could not be written
+	 */
+	public static void writeCourses(Iterable<Course> courses, Writer out, 
+						ReportFormat format) throws IOException {
+		ReportWriter w = new ReportWriter(out, format, COURSE_HEADERS, COURSE_WIDTHS);
+		StringBuilder prereqs = new StringBuilder();
+		w.writeHeader();
+		for(Course c : courses) {
+			prereqs.setLength(0);
+			c.appendPrerequisites(prereqs);
+			w.cell(c.getCode()).cell(c.getCourseNum()).cell(c.getName()).cell(prereqs);
+			w.endRow();
+		}
+		w.finish();
+	}
+	
+	/**
+	 * Writes the section listing.
+	 * 
+	 * @param sections	The sections to list
+	 * @param out		The writer to stream the report to
+	 * @param format	The format of the report
+	 * @throws IOException The report could not be written
+	 */
+	public static void writeSections(Iterable<Section> sections, Writer out, 
+						ReportFormat format) throws IOException {
+		ReportWriter w = new ReportWriter(out, format, SECTION_HEADERS, SECTION_WIDTHS);
+		StringBuilder scratch = new StringBuilder();
+		w.writeHeader();
+		for(Section s : sections) {
+			scratch.setLength(0);
+			scratch.append(s.getCourse().getCode()).append(' ').append(s.getCourse().getCourseNum());
+			w.cell(scratch).cell(s.getSection()).cell(s.getInstructor().getLastName());
+			scratch.setLength(0);
+			scratch.append(s.getQuarter()).append(' ').append(s.getYear());
+			w.cell(scratch).cell(s.getCapacity());
+			scratch.setLength(0);
+			scratch.append(s.getBuilding()).append(s.getRoom());
+			w.cell(scratch);
+			w.endRow();
+		}
+		w.finish();
+	}
+	
+	// column headers and fixed widths of each listing
+	private static final String[] STUDENT_HEADERS = { "Last Name", "First Name", "SUID", 
+			"Status", "Study Year", "Program", "Quarter", "Year", "Email" };
+	private static final int[] STUDENT_WIDTHS = { 12, 12, 15, 18, 15, 10, 10, 8, 1 };
+	private static final String[] FACULTY_HEADERS = { "Last Name", "First Name", "SUID", 
+			"Type", "BLDG", "Room #", "Email" };
+	private static final int[] FACULTY_WIDTHS = { 12, 12, 15, 15, 4, 10, 1 };
+	private static final String[] COURSE_HEADERS = { "Code", "#", "Name", "Prerequisite" };
+	private static final int[] COURSE_WIDTHS = { 4, 4, 60, 30 };
+	private static final String[] SECTION_HEADERS = { "Course", "Section", "Instructor", 
+			"Quarter/Year", "Capacity", "BLDG/Room" };
+	private static final int[] SECTION_WIDTHS = { 10, 10, 10, 15, 15, 1 };
+}
@@ -0,0 +1,159 @@
+package report;
+
+import static org.junit.Assert.*;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import enums.Building;
+import enums.FacultyType;
+import enums.Quarter;
+import enums.StudentProgram;
+import enums.StudentType;
+import enums.SubjectCode;
+import person.Faculty;
+import person.Student;
+import registration.Course;
+import registration.Section;
+
+
+public class ReportsTest {
+	
+	@Test
+	public void testStudents() throws Exception {
+		List<Student> students = new ArrayList<>();
+		students.add(student("Michael", "Bluth", StudentType.GRAD, StudentProgram.MSCS, Quarter.FQ));
+		students.add(student("George", "Bluth", StudentType.UNDERGRAD, StudentProgram.BSCS, Quarter.WQ));
+		students.add(student("Maeby", "Funke", StudentType.NONMAT_UNDERGRAD, null, null));
+		
+		String header = String.format(" %-12s %-12s %-15s %-18s %-15s %-10s %-10s %-8s %-1s", "Last Name",
+				"First Name", "SUID", "Status", "Study Year", "Program" , "Quarter","Year", "Email");
+		StringWriter out = new StringWriter();
+		Reports.writeStudents(students, out, ReportFormat.FIXED_WIDTH);
+		assertListing(legacy(header, students), out.toString());
+		assertTrue(out.toString().contains(" null "));
+		
+		out = new StringWriter();
+		Reports.writeStudents(Collections.emptyList(), out, ReportFormat.FIXED_WIDTH);
+		assertListing(legacy(header, Collections.emptyList()), out.toString());
+	}
+	
+	@Test
+	public void testFaculty() throws Exception {
+		List<Faculty> faculty = new ArrayList<>();
+		faculty.add(faculty("Adair", "Dingle", Building.ENGR));
+		faculty.add(faculty("Sheila", "Oh", null));
+		
+		String header = String.format(" %-12s %-12s %-15s %-15s %-4s %-10s %-1s", "Last Name",
+				"First Name", "SUID", "Type", "BLDG" , "Room #","Email" );
+		StringWriter out = new StringWriter();
+		Reports.writeFaculty(faculty, out, ReportFormat.FIXED_WIDTH);
+		assertListing(legacy(header, faculty), out.toString());
+		
+		out = new StringWriter();
+		Reports.writeFaculty(Collections.emptyList(), out, ReportFormat.FIXED_WIDTH);
+		assertListing(legacy(header, Collections.emptyList()), out.toString());
+	}
+	
+	@Test
+	public void testCourses() throws Exception {
+		Course ds = new Course(SubjectCode.CPSC, 2430, "Data Structures", 5);
+		Course oo = new Course(SubjectCode.CPSC, 5011, "Object-Oriented Concepts", 5);
+		Course calc = new Course(SubjectCode.MATH, 1334, "Calculus I", 5);
+		oo.setPrerequisite(ds);
+		oo.setPrerequisite(calc);
+		List<Course> courses = List.of(ds, oo, calc);
+		
+		String header = String.format(" %4s %-4s %-60s %-30s", "Code", "#", "Name","Prerequisite" );
+		StringWriter out = new StringWriter();
+		Reports.writeCourses(courses, out, ReportFormat.FIXED_WIDTH);
+		assertListing(legacy(header, courses), out.toString());
+		assertTrue(out.toString().contains("CPSC 2430 & MATH 1334"));
+		
+		out = new StringWriter();
+		Reports.writeCourses(Collections.emptyList(), out, ReportFormat.FIXED_WIDTH);
+		assertListing(legacy(header, Collections.emptyList()), out.toString());
+	}
+	
+	@Test
+	public void testSections() throws Exception {
+		Course ds = new Course(SubjectCode.CPSC, 2430, "Data Structures", 5);
+		Faculty dingle = faculty("Adair", "Dingle", Building.ENGR);
+		List<Section> sections = List.of(
+				new Section(ds, 1, dingle, Quarter.FQ, 2018, 30, Building.ENGR, 100),
+				new Section(ds, 2, dingle, Quarter.WQ, 2019, 25, Building.PIGT, 207));
+		
+		String header = String.format(" %-10s %-10s %-10s %-15s %-15s %-1s",
+				"Course","Section","Instructor", "Quarter/Year", "Capacity", "BLDG/Room");
+		StringWriter out = new StringWriter();
+		Reports.writeSections(sections, out, ReportFormat.FIXED_WIDTH);
+		assertListing(legacy(header, sections), out.toString());
+		
+		out = new StringWriter();
+		Reports.writeSections(Collections.emptyList(), out, ReportFormat.FIXED_WIDTH);
+		assertListing(legacy(header, Collections.emptyList()), out.toString());
+	}
+	
+	@Test
+	public void testSectionWithoutTermOrBuilding() throws Exception {
+		// the old toString() threw for these, so there is no listing to compare with
+		Course ds = new Course(SubjectCode.CPSC, 2430, "Data Structures", 5);
+		Section tba = new Section(ds, 3, faculty("Adair", "Dingle", null), null, 2019, 30, null, 0);
+		
+		StringWriter out = new StringWriter();
+		Reports.writeSections(List.of(tba), out, ReportFormat.FIXED_WIDTH);
+		String row = out.toString().split("\n")[1];
+		assertEquals(String.format(" %-10s %-10s %-10s %-15s %-15s %-1s",
+				"CPSC 2430", 3, "Dingle", "null 2019", 30, "null0"), row);
+		
+		out = new StringWriter();
+		Reports.writeSections(List.of(tba), out, ReportFormat.CSV);
+		assertEquals("Course,Section,Instructor,Quarter/Year,Capacity,BLDG/Room\n"
+				+ "CPSC 2430,3,Dingle,null 2019,30,null0\n", out.toString());
+	}
+	
+	// the listing as the Driver printed it before Reports: the header, then
+	// the toString() of the list with its commas and brackets replaced
+	private static String legacy(String header, List<?> list) {
+		return header + "\n" + list.toString().replace(",", "").replace("[", " ").replace("]", " ");
+	}
+	
+	// the listings match up to trailing whitespace
+	private static void assertListing(String expected, String actual) {
+		assertEquals(stripTrailing(expected), stripTrailing(actual));
+	}
+	
+	private static String stripTrailing(String listing) {
+		StringBuilder sb = new StringBuilder();
+		for(String line : listing.split("\n")) sb.append(line.stripTrailing()).append('\n');
+		return sb.toString().stripTrailing();
+	}
+	
+	private Student student(String firstName, String lastName, StudentType type,
+						StudentProgram program, Quarter quarter) {
+		Student s = new Student(firstName, lastName);
+		s.setStatus(type);
+		s.setProgram(program);
+		s.setQuarter(quarter);
+		s.setYear(2018);
+		s.setSUID(100000 + suid++);
+		s.setEmail(lastName.toLowerCase() + suid + "@seattleu.edu");
+		return s;
+	}
+	
+	private Faculty faculty(String firstName, String lastName, Building bldg) {
+		Faculty f = new Faculty(firstName, lastName);
+		f.setType(FacultyType.PROF);
+		f.setBuilding(bldg);
+		f.setRoom(531);
+		f.setSUID(200000 + suid++);
+		f.setEmail(lastName.toLowerCase() + "@seattleu.edu");
+		return f;
+	}
+	
+	private int suid;
+}
@@ -0,0 +1,134 @@
+package system;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import enums.Building;
+import enums.FacultyType;
+import enums.Quarter;
+import enums.StudentProgram;
+import enums.StudentType;
+import enums.SubjectCode;
+import registration.Meeting;
+import system.RegistrationMetrics.Operation;
+
+/**
+ * The Batch class queues add calls for a RegistrationSystem and applies them
+ * together, taking the write lock of each kind of change once for every run
+ * of calls of that kind instead of once per call.
+ * 
+ * Each call is checked and applied in the order it was queued, just as the
+ * add method of the same name would be, and listeners hear of each change as
+ * usual; a call that fails does not stop the others. People are given the
+ * next free SUIDs.
+ * 
+ * For example:
+ * 		Batch batch = system.newBatch();
+ * 		batch.addCourse(SubjectCode.CPSC, 2430, "Data Structures", 5);
+ * 		batch.addPrerequisite(SubjectCode.CPSC, 5011, SubjectCode.CPSC, 2430);
+ * 		Exception[] errors = batch.apply();
+ */
+public class Batch {
+	
+	/**
+	 * The kinds of add call, each applied under its own lock.
+	 */
+	enum Kind {
+		STUDENT, FACULTY, SUBJECT, COURSE, PREREQUISITE, SECTION
+	}
+	
+	Batch(RegistrationSystem system) {
+		this.system = system;
+		this.kinds = new ArrayList<>();
+		this.rows = new ArrayList<>();
+	}
+	
+	public void addStudent(String firstName, String lastName, StudentType type,
+							StudentProgram program, Quarter quarter, int year) {
+		add(Kind.STUDENT, firstName, lastName, type, program, quarter, year);
+	}
+	
+	public void addFaculty(String firstName, String lastName, FacultyType type,
+							Building bldg, int room, String email) {
+		add(Kind.FACULTY, firstName, lastName, type, bldg, room, email);
+	}
+	
+	public void addSubject(SubjectCode code, String desc) {
+		add(Kind.SUBJECT, code, desc);
+	}
+	
+	public void addCourse(SubjectCode code, int num, String name, int creditNum) {
+		add(Kind.COURSE, code, num, name, creditNum);
+	}
+	
+	public void addPrerequisite(SubjectCode code, int num, SubjectCode prereqCode, int prereqNum) {
+		add(Kind.PREREQUISITE, code, num, prereqCode, prereqNum);
+	}
+	
+	/**
+	 * Queues a section taught by the only faculty with the given last name.
+	 * 
+	 * @param meeting	The weekly meeting time of the section, or null if TBA
+	 */
+	public void addSection(SubjectCode code, int courseNum, int sectionNum,
+							String lastName, Quarter quarter, int year,
+							int cap, Building bldg, int room, Meeting meeting) {
+		add(Kind.SECTION, code, courseNum, sectionNum, lastName, quarter, year, cap, bldg, room, meeting);
+	}
+	
+	/**
+	 * Queues a section taught by the faculty with the given SUID.
+	 * 
+	 * @param meeting	The weekly meeting time of the section, or null if TBA
+	 */
+	public void addSection(SubjectCode code, int courseNum, int sectionNum,
+							int instructor, Quarter quarter, int year,
+							int cap, Building bldg, int room, Meeting meeting) {
+		add(Kind.SECTION, code, courseNum, sectionNum, instructor, quarter, year, cap, bldg, room, meeting);
+	}
+	
+	/**
+	 * Returns the number of calls queued.
+	 */
+	public int size() {
+		return rows.size();
+	}
+	
+	/**
+	 * Applies the queued calls, in order, and empties the batch.
+	 * 
+	 * @return the exception the add method would have thrown for each call
+	 * 		   that was not applied, indexed by queue position; null for each
+	 * 		   call that was
+	 */
+	public Exception[] apply() {
+		RegistrationMetrics metrics = system.getMetrics();
+		long start = metrics.start();
+		Exception[] errors = new Exception[rows.size()];
+		try {
+			int from = 0;
+			while(from < rows.size()) {
+				Kind kind = kinds.get(from);
+				int to = from + 1;
+				while(to < rows.size() && kinds.get(to) == kind) to++;
+				system.applyRun(kind, rows, from, to, errors);
+				from = to;
+			}
+		} finally {
+			kinds.clear();
+			rows.clear();
+			metrics.end(Operation.APPLY_BATCH, start);
+		}
+		return errors;
+	}
+	
+	private void add(Kind kind, Object... args) {
+		kinds.add(kind);
+		rows.add(args);
+	}
+	
+	private final RegistrationSystem system;
+	// the kind and arguments of each queued call
+	private final List<Kind> kinds;
+	private final List<Object[]> rows;
+}
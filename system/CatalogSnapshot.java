@@ -0,0 +1,134 @@
+package system;
+
+import java.util.Collections;
+import java.util.List;
+
+import enums.Quarter;
+import enums.SubjectCode;
+import registration.Course;
+import registration.Section;
+import util.PersistentLongMap;
+import util.PersistentVector;
+
+/**
+ * The CatalogSnapshot class is one immutable version of the catalog of a
+ * RegistrationSystem: its subjects, courses and sections, as of one epoch.
+ * 
+ * Readers get the current version from RegistrationSystem.getCatalog and may
+ * keep it as long as they like; it never changes, so every lookup on it is
+ * consistent with every other without any locking. Writers publish a new
+ * version for every subject, course or section added, sharing all but the
+ * changed paths of the old version's tries, so a version costs O(log n)
+ * memory rather than a copy of the catalog.
+ * 
+ * A version fixes which subjects, courses and sections exist. The courses
+ * and sections themselves are the live objects, so their prerequisites and
+ * rosters are always current.
+ */
+public final class CatalogSnapshot {
+	
+	private CatalogSnapshot(long epoch, String[] subjects, PersistentVector<Course> courses,
+			PersistentLongMap<Course> courseIndex, PersistentVector<Section> sections,
+			PersistentLongMap<PersistentVector<Section>> sectionsByTerm) {
+		this.epoch = epoch;
+		this.subjects = subjects;
+		this.courses = courses;
+		this.courseIndex = courseIndex;
+		this.sections = sections;
+		this.sectionsByTerm = sectionsByTerm;
+	}
+	
+	/**
+	 * Returns the number of versions published before this one.
+	 */
+	public long getEpoch() {
+		return epoch;
+	}
+	
+	public boolean hasSubject(SubjectCode code) {
+		return subjects[code.ordinal()] != null;
+	}
+	
+	/**
+	 * Returns the description of a subject, or null if the subject was not
+	 * added as of this version.
+	 */
+	public String getSubjectDescription(SubjectCode code) {
+		return subjects[code.ordinal()];
+	}
+	
+	/**
+	 * Finds a course.
+	 * 
+	 * @param code	The subject code of the course
+	 * @param num	The course number of the course
+	 * @return the course, or null if it was not added as of this version
+	 */
+	public Course getCourse(SubjectCode code, int num) {
+		return courseIndex.get(courseKey(code, num));
+	}
+	
+	/**
+	 * Returns the courses in the order they were added.
+	 */
+	public List<Course> getCourses() {
+		return courses;
+	}
+	
+	/**
+	 * Returns the sections in the order they were added.
+	 */
+	public List<Section> getSections() {
+		return sections;
+	}
+	
+	/**
+	 * Returns the sections held in a term, in the order they were added.
+	 * 
+	 * @param quarter	The quarter
+	 * @param year		The year
+	 */
+	public List<Section> getSections(Quarter quarter, int year) {
+		List<Section> term = sectionsByTerm.get(RegistrationSystem.termKey(quarter, year));
+		return term == null ? Collections.emptyList() : term;
+	}
+	
+	CatalogSnapshot withSubject(SubjectCode code, String desc) {
+		String[] next = subjects.clone();
+		next[code.ordinal()] = desc;
+		return new CatalogSnapshot(epoch + 1, next, courses, courseIndex, sections, sectionsByTerm);
+	}
+	
+	CatalogSnapshot withCourse(Course course) {
+		return new CatalogSnapshot(epoch + 1, subjects, courses.append(course),
+				courseIndex.put(courseKey(course.getCode(), course.getCourseNum()), course),
+				sections, sectionsByTerm);
+	}
+	
+	CatalogSnapshot withSection(Section section) {
+		PersistentLongMap<PersistentVector<Section>> byTerm = sectionsByTerm;
+		if(section.getQuarter() != null) {
+			long key = RegistrationSystem.termKey(section.getQuarter(), section.getYear());
+			PersistentVector<Section> term = byTerm.get(key);
+			byTerm = byTerm.put(key, (term == null ? PersistentVector.<Section>empty() : term).append(section));
+		}
+		return new CatalogSnapshot(epoch + 1, subjects, courses, courseIndex,
+				sections.append(section), byTerm);
+	}
+	
+	private static long courseKey(SubjectCode code, int num) {
+		return (long) code.ordinal() << 32 | (num & 0xFFFFFFFFL);
+	}
+	
+	static final CatalogSnapshot EMPTY = new CatalogSnapshot(0, new String[SubjectCode.values().length],
+			PersistentVector.empty(), PersistentLongMap.empty(), PersistentVector.empty(),
+			PersistentLongMap.empty());
+	
+	private final long epoch;
+	// the description of each subject by code ordinal, null if not added
+	private final String[] subjects;
+	private final PersistentVector<Course> courses;
+	private final PersistentLongMap<Course> courseIndex;
+	private final PersistentVector<Section> sections;
+	private final PersistentLongMap<PersistentVector<Section>> sectionsByTerm;
+}
@@ -0,0 +1,155 @@
+package system;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import system.RegistrationMetrics.Operation;
+
+/**
+ * The MetricsSnapshot class is a copy of the metrics of a RegistrationSystem
+ * at one point in time, with the sizes of its collections. It is what the 
+ * JMX bean returns as its Metrics attribute, one composite per operation.
+ */
+public final class MetricsSnapshot {
+	
+	MetricsSnapshot(RegistrationMetrics metrics, int students, int faculty, int subjects, 
+			int courses, int sections) {
+		this.takenAt = System.currentTimeMillis();
+		this.enabled = metrics.isEnabled();
+		this.students = students;
+		this.faculty = faculty;
+		this.subjects = subjects;
+		this.courses = courses;
+		this.sections = sections;
+		List<OperationStats> ops = new ArrayList<>();
+		for(Operation op : Operation.values()) ops.add(new OperationStats(op, metrics));
+		this.operations = Collections.unmodifiableList(ops);
+	}
+	
+	/**
+	 * The metrics of one operation. Latencies are in nanoseconds, over the
+	 * sample of calls that were timed.
+	 */
+	public static final class OperationStats {
+		
+		OperationStats(Operation op, RegistrationMetrics metrics) {
+			this.operation = op;
+			this.count = metrics.getCount(op);
+			this.rejected = metrics.getRejected(op);
+			this.mean = metrics.getMeanLatency(op);
+			this.p50 = metrics.getLatency(op, 50);
+			this.p99 = metrics.getLatency(op, 99);
+			this.p999 = metrics.getLatency(op, 99.9);
+			this.max = metrics.getMaxLatency(op);
+		}
+		
+		public String getName() {
+			return operation.name();
+		}
+		
+		public long getCount() {
+			return count;
+		}
+		
+		public long getRejected() {
+			return rejected;
+		}
+		
+		public double getMeanNanos() {
+			return mean;
+		}
+		
+		public long getP50Nanos() {
+			return p50;
+		}
+		
+		public long getP99Nanos() {
+			return p99;
+		}
+		
+		public long getP999Nanos() {
+			return p999;
+		}
+		
+		public long getMaxNanos() {
+			return max;
+		}
+		
+		@Override
+		public String toString() {
+			return String.format("%-24s %10d %8d %10d %10d %10d %12d", operation, count, rejected, 
+					p50, p99, p999, max);
+		}
+		
+		private final Operation operation;
+		private final long count, rejected, p50, p99, p999, max;
+		private final double mean;
+	}
+	
+	/**
+	 * Returns the metrics of one operation.
+	 */
+	public OperationStats get(Operation op) {
+		return operations.get(op.ordinal());
+	}
+	
+	/**
+	 * Returns the metrics of every operation, in Operation order.
+	 */
+	public List<OperationStats> getOperations() {
+		return operations;
+	}
+	
+	/**
+	 * Returns when the snapshot was taken, in milliseconds since the epoch.
+	 */
+	public long getTakenAt() {
+		return takenAt;
+	}
+	
+	public boolean isEnabled() {
+		return enabled;
+	}
+	
+	public int getStudents() {
+		return students;
+	}
+	
+	public int getFaculty() {
+		return faculty;
+	}
+	
+	public int getSubjects() {
+		return subjects;
+	}
+	
+	public int getCourses() {
+		return courses;
+	}
+	
+	public int getSections() {
+		return sections;
+	}
+	
+	/**
+	 * Returns the metrics as a table, one operation with calls per row.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder str = new StringBuilder(String.format(
+				"%d students, %d faculty, %d subjects, %d courses, %d sections%n", 
+				students, faculty, subjects, courses, sections));
+		str.append(String.format("%-24s %10s %8s %10s %10s %10s %12s%n", "Operation", "Count", 
+				"Rejected", "p50 ns", "p99 ns", "p99.9 ns", "Max ns"));
+		for(OperationStats op : operations) {
+			if(op.count > 0) str.append(op).append(System.lineSeparator());
+		}
+		return str.toString();
+	}
+	
+	private final long takenAt;
+	private final boolean enabled;
+	private final int students, faculty, subjects, courses, sections;
+	private final List<OperationStats> operations;
+}
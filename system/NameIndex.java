@@ -0,0 +1,90 @@
+package system;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * The NameIndex class keeps people sorted by (last name, first name, SUID),
+ * ignoring case, so that every person with a last name, or with a last name
+ * starting with a prefix, is one contiguous range.
+ * 
+ * Lookups cost one O(log n) descent plus the size of the page, and take no
+ * lock; adds must be serialized by the caller.
+ */
+final class NameIndex<P> {
+	
+	NameIndex() {
+		this.index = new ConcurrentSkipListMap<>();
+	}
+	
+	/**
+	 * 
+	 * @param firstName	The first name of the person
+	 * @param lastName	The last name of the person
+	 * @param suid		The SUID of the person, which keeps namesakes apart
+	 * @param person	The person
+	 */
+	void add(String firstName, String lastName, int suid, P person) {
+		StringBuilder key = new StringBuilder(lastName.length() + firstName.length() + 4);
+		key.append(fold(lastName)).append(SEPARATOR).append(fold(firstName)).append(SEPARATOR)
+			.append((char) (suid >>> 16)).append((char) suid);
+		index.put(key.toString(), person);
+	}
+	
+	/**
+	 * Returns one page of the people with the given last name.
+	 * 
+	 * @param lastName	The last name, in any case
+	 * @param offset	The number of matches to skip
+	 * @param limit		The maximum number of matches to return
+	 * @return the matches, ordered by first name and then SUID
+	 */
+	List<P> exact(String lastName, int offset, int limit) {
+		String from = fold(lastName) + SEPARATOR;
+		return page(index.subMap(from, true, from + END, false), offset, limit);
+	}
+	
+	/**
+	 * Returns one page of the people whose last name starts with a prefix.
+	 * 
+	 * @param prefix	The prefix of the last name, in any case
+	 * @param offset	The number of matches to skip
+	 * @param limit		The maximum number of matches to return
+	 * @return the matches, ordered by last name, first name and then SUID
+	 */
+	List<P> prefix(String prefix, int offset, int limit) {
+		String from = fold(prefix);
+		return page(index.subMap(from, true, from + END, false), offset, limit);
+	}
+	
+	private static <P> List<P> page(NavigableMap<String, P> range, int offset, int limit) {
+		if(offset < 0 || limit < 0) throw new IllegalArgumentException("negative offset or limit");
+		if(limit == 0) return Collections.emptyList();
+		List<P> page = new ArrayList<>(Math.min(limit, 64));
+		int skip = offset;
+		for(P person : range.values()) {
+			if(skip > 0) {
+				skip--;
+				continue;
+			}
+			page.add(person);
+			if(page.size() == limit) break;
+		}
+		return page;
+	}
+	
+	private static String fold(String name) {
+		return name.toLowerCase(Locale.ROOT);
+	}
+	
+	// sorts before every character of a name, so "Li" comes before "Lin"
+	private static final char SEPARATOR = '\0';
+	// sorts after every character of a name
+	private static final char END = '\uFFFF';
+	
+	private final ConcurrentSkipListMap<String, P> index;
+}
@@ -0,0 +1,36 @@
+package system;
+
+/**
+ * The NameKey class is the composite (first name, last name) key used to
+ * index people in the registration system.
+ */
+final class NameKey {
+
+	/**
+	 * 
+	 * @param firstName	The first name of the person
+	 * @param lastName	The last name of the person
+	 */
+	NameKey(String firstName, String lastName) {
+		this.firstName = firstName;
+		this.lastName = lastName;
+		this.hash = 31 * lastName.hashCode() + firstName.hashCode();
+	}
+	
+	@Override
+	public boolean equals(Object o) {
+		if(this == o) return true;
+		if(!(o instanceof NameKey)) return false;
+		NameKey k = (NameKey) o;
+		return hash == k.hash && lastName.equals(k.lastName) 
+				&& firstName.equals(k.firstName);
+	}
+	
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+	
+	private final String firstName, lastName;
+	private final int hash;
+}
@@ -0,0 +1,85 @@
+package system;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The Query class is a lazy, typed view of the students, faculty, courses or
+ * sections of a RegistrationSystem that match some conditions.
+ * 
+ * The RegistrationSystem query methods answer the conditions they have an
+ * index for by picking the matching index bucket, so a query starts from 
+ * exactly the matching entities instead of the whole list. Further 
+ * conditions added with where(...) are checked entity by entity as the 
+ * query is read. Nothing is copied until a page is taken.
+ * 
+ * A query reads the entities added before it was created; it is safe to 
+ * read from any thread while more are added.
+ */
+public final class Query<T> implements Iterable<T> {
+
+	Query(List<T> source) {
+		this(source, null);
+	}
+	
+	private Query(List<T> source, Predicate<? super T> filter) {
+		this.source = source;
+		this.filter = filter;
+	}
+	
+	/**
+	 * Returns a query that also requires a condition.
+	 * 
+	 * @param condition	The condition
+	 * @return the narrower query
+	 */
+	public Query<T> where(Predicate<? super T> condition) {
+		if(filter == null) return new Query<>(source, condition);
+		Predicate<? super T> previous = filter;
+		return new Query<T>(source, t -> previous.test(t) && condition.test(t));
+	}
+	
+	public Stream<T> stream() {
+		return filter == null ? source.stream() : source.stream().filter(filter);
+	}
+	
+	@Override
+	public Iterator<T> iterator() {
+		return filter == null ? source.iterator() : stream().iterator();
+	}
+	
+	/**
+	 * Returns one page of the matches, in the order they were added. Without
+	 * where(...) conditions this costs only the size of the page.
+	 * 
+	 * @param offset	The number of matches to skip
+	 * @param limit		The maximum number of matches to return
+	 * @return the page
+	 */
+	public List<T> page(int offset, int limit) {
+		if(offset < 0 || limit < 0) throw new IllegalArgumentException("negative offset or limit");
+		if(filter == null) {
+			int from = Math.min(offset, source.size());
+			int to = (int) Math.min(source.size(), (long) from + limit);
+			return Collections.unmodifiableList(new ArrayList<>(source.subList(from, to)));
+		}
+		return stream().skip(offset).limit(limit).collect(Collectors.toList());
+	}
+	
+	/**
+	 * Returns the number of matches; without where(...) conditions this 
+	 * does not read them.
+	 */
+	public long count() {
+		return filter == null ? source.size() : stream().count();
+	}
+	
+	// the matches of the indexed conditions, and the remaining conditions
+	private final List<T> source;
+	private final Predicate<? super T> filter;
+}
@@ -0,0 +1,61 @@
+package system;
+
+import enums.SubjectCode;
+import person.Faculty;
+import person.Student;
+import registration.Course;
+import registration.Section;
+
+/**
+ * The RegistrationListener interface is notified of every change made to a
+ * RegistrationSystem.
+ * 
+ * Listeners are called on the thread making the change, under its write 
+ * lock, once the change has been checked but before other threads can see
+ * it, so they should return quickly. Slow work for a change, such as waiting
+ * for it to reach the disk, belongs in afterChange(). An unchecked exception
+ * thrown by a listener is passed on to the caller of the add method; thrown
+ * before afterChange(), it leaves the change unapplied.
+ */
+public interface RegistrationListener {
+
+	default void studentAdded(Student student) {
+	}
+	
+	default void facultyAdded(Faculty faculty) {
+	}
+	
+	default void subjectAdded(SubjectCode code, String desc) {
+	}
+	
+	default void courseAdded(Course course) {
+	}
+	
+	default void prerequisiteAdded(Course course, Course prereq) {
+	}
+	
+	default void sectionAdded(Section section) {
+	}
+	
+	default void courseCompleted(Student student, Course course) {
+	}
+	
+	/**
+	 * Called after each of the methods above, once the change is applied 
+	 * and its write lock released, on the same thread and before the add 
+	 * call returns.
+	 */
+	default void afterChange() {
+	}
+	
+	/**
+	 * Called when a dropped seat goes to the head of a section's waitlist. 
+	 * Unlike the other methods, this is called without any lock of the 
+	 * system held, on the thread that dropped the seat.
+	 * 
+	 * @param section	The section
+	 * @param student	The student who was given the seat
+	 */
+	default void waitlistPromoted(Section section, Student student) {
+	}
+}
@@ -0,0 +1,156 @@
+package system;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import util.LatencyHistogram;
+
+/**
+ * The RegistrationMetrics class counts the calls made to a 
+ * RegistrationSystem and how long they took, per operation.
+ * 
+ * Metrics are off until setEnabled(true). While off, each call costs one 
+ * volatile read. While on, every call is counted in a LongAdder, and one 
+ * call in SAMPLE, picked at random, is timed into a latency histogram: 
+ * reading the clock costs more than a lookup itself, and the fence in it 
+ * stalls the memory accesses around it. Calls that throw, e.g. adds 
+ * rejected as duplicates, are also counted as rejected. The counters are 
+ * only allocated the first time metrics are turned on.
+ */
+public final class RegistrationMetrics {
+	
+	/**
+	 * The operations measured; overloads of a method share one.
+	 */
+	public enum Operation {
+		ADD_STUDENT, ADD_FACULTY, ADD_SUBJECT, ADD_COURSE, ADD_PREREQUISITE, ADD_SECTION, 
+		COMPLETE_COURSE, GET_STUDENT, GET_FACULTY, GET_COURSE, GET_SUBJECT_DESCRIPTION, 
+		HAS_STUDENT, HAS_FACULTY, HAS_INSTRUCTOR, HAS_SUBJECT, HAS_COURSE, 
+		FIND_STUDENTS, FIND_FACULTY, REQUIRES_PREREQUISITE, GET_PREREQUISITE_MASKS, 
+		QUERY_STUDENTS, QUERY_FACULTY, QUERY_COURSES, QUERY_SECTIONS, RUN_EXCLUSIVE, 
+		APPLY_BATCH
+	}
+	
+	RegistrationMetrics() {
+	}
+	
+	/**
+	 * Turns measuring on or off. Calls already in progress when metrics are
+	 * turned off are still recorded.
+	 * 
+	 * @param enabled	true to measure
+	 */
+	public synchronized void setEnabled(boolean enabled) {
+		if(enabled && latencies == null) {
+			LatencyHistogram[] l = new LatencyHistogram[OPERATIONS.length];
+			LongAdder[] c = new LongAdder[OPERATIONS.length];
+			LongAdder[] r = new LongAdder[OPERATIONS.length];
+			for(int i = 0; i < l.length; i++) {
+				l[i] = new LatencyHistogram();
+				c[i] = new LongAdder();
+				r[i] = new LongAdder();
+			}
+			counts = c;
+			rejected = r;
+			latencies = l;
+		}
+		this.enabled = enabled;
+	}
+	
+	public boolean isEnabled() {
+		return enabled;
+	}
+	
+	/**
+	 * Returns the number of calls of an operation measured so far.
+	 */
+	public long getCount(Operation op) {
+		LongAdder[] c = counts;
+		return c == null ? 0 : c[op.ordinal()].sum();
+	}
+	
+	/**
+	 * Returns the number of calls of an operation that threw.
+	 */
+	public long getRejected(Operation op) {
+		LongAdder[] r = rejected;
+		return r == null ? 0 : r[op.ordinal()].sum();
+	}
+	
+	/**
+	 * Returns the number of calls of an operation that were timed, about one
+	 * in SAMPLE of those counted.
+	 */
+	public long getSampleCount(Operation op) {
+		LatencyHistogram[] l = latencies;
+		return l == null ? 0 : l[op.ordinal()].getCount();
+	}
+	
+	/**
+	 * Returns the latency in nanoseconds that a percentage of the timed 
+	 * calls of an operation took at most.
+	 * 
+	 * @param op			The operation
+	 * @param percentile	The percentage, e.g. 99.9
+	 * @return the latency, or 0 if no call was measured
+	 */
+	public long getLatency(Operation op, double percentile) {
+		LatencyHistogram[] l = latencies;
+		return l == null ? 0 : l[op.ordinal()].getPercentile(percentile);
+	}
+	
+	/**
+	 * Returns the latency in nanoseconds of the slowest timed call.
+	 */
+	public long getMaxLatency(Operation op) {
+		LatencyHistogram[] l = latencies;
+		return l == null ? 0 : l[op.ordinal()].getMax();
+	}
+	
+	public double getMeanLatency(Operation op) {
+		LatencyHistogram[] l = latencies;
+		return l == null ? 0 : l[op.ordinal()].getMean();
+	}
+	
+	/**
+	 * Clears every count and latency.
+	 */
+	public synchronized void reset() {
+		if(latencies == null) return;
+		for(int i = 0; i < OPERATIONS.length; i++) {
+			latencies[i].reset();
+			counts[i].reset();
+			rejected[i].reset();
+		}
+	}
+	
+	// returns the start time of a call to time, UNTIMED for a call to only 
+	// count, or OFF
+	long start() {
+		if(!enabled) return OFF;
+		if((ThreadLocalRandom.current().nextInt() & (SAMPLE - 1)) != 0) return UNTIMED;
+		return System.nanoTime();
+	}
+	
+	void end(Operation op, long start) {
+		if(start == OFF) return;
+		counts[op.ordinal()].increment();
+		if(start != UNTIMED) latencies[op.ordinal()].record(System.nanoTime() - start);
+	}
+	
+	void end(Operation op, long start, boolean ok) {
+		if(start == OFF) return;
+		end(op, start);
+		if(!ok) rejected[op.ordinal()].increment();
+	}
+	
+	// one call in SAMPLE is timed, a power of two
+	static final int SAMPLE = 16;
+	private static final Operation[] OPERATIONS = Operation.values();
+	private static final long OFF = Long.MIN_VALUE, UNTIMED = Long.MIN_VALUE + 1;
+	
+	private volatile boolean enabled;
+	// set before enabled is first written, so a call that saw enabled sees them
+	private volatile LatencyHistogram[] latencies;
+	private volatile LongAdder[] counts, rejected;
+}
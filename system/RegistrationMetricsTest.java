@@ -0,0 +1,95 @@
+package system;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import enums.Quarter;
+import enums.StudentProgram;
+import enums.StudentType;
+import system.RegistrationMetrics.Operation;
+
+
+public class RegistrationMetricsTest {
+	
+	@Before
+	public void setUp() throws Exception {
+		s = new RegistrationSystem();
+		metrics = s.getMetrics();
+	}
+	
+	@Test
+	public void testDisabledByDefault() throws Exception {
+		assertFalse(metrics.isEnabled());
+		s.addStudent("Michael", "Bluth", StudentType.GRAD, StudentProgram.MSCS, Quarter.FQ, 2018);
+		for(int i = 0; i < CALLS; i++) s.hasStudent("Michael", "Bluth");
+		for(Operation op : Operation.values()) {
+			assertEquals(0, metrics.getCount(op));
+			assertEquals(0, metrics.getSampleCount(op));
+			assertEquals(0, metrics.getLatency(op, 99));
+			assertEquals(0, metrics.getMaxLatency(op));
+		}
+		assertFalse(s.getMetricsSnapshot().isEnabled());
+		assertEquals(0, s.getMetricsSnapshot().get(Operation.HAS_STUDENT).getCount());
+		// nothing to clear yet
+		metrics.reset();
+	}
+	
+	@Test
+	public void testSampledLatencies() throws Exception {
+		metrics.setEnabled(true);
+		// one call in SLOW spins for SPIN_NANOS; the rest return at once
+		for(int i = 0; i < CALLS; i++) {
+			boolean slow = i % SLOW == 0;
+			s.runExclusive(() -> slow ? spin(SPIN_NANOS) : 0L);
+		}
+		
+		assertEquals(CALLS, metrics.getCount(Operation.RUN_EXCLUSIVE));
+		long sampled = metrics.getSampleCount(Operation.RUN_EXCLUSIVE);
+		long expected = CALLS / RegistrationMetrics.SAMPLE;
+		assertTrue("sampled " + sampled, sampled > expected / 2 && sampled < expected * 2);
+		
+		long p50 = metrics.getLatency(Operation.RUN_EXCLUSIVE, 50);
+		long p99 = metrics.getLatency(Operation.RUN_EXCLUSIVE, 99);
+		long p999 = metrics.getLatency(Operation.RUN_EXCLUSIVE, 99.9);
+		long max = metrics.getMaxLatency(Operation.RUN_EXCLUSIVE);
+		// the median call is a fast one, and p99 one of the slow ones, to 
+		// within the histogram's precision
+		assertTrue("p50 " + p50, p50 < SPIN_NANOS);
+		assertTrue("p99 " + p99, p99 >= SPIN_NANOS * 63 / 64);
+		assertTrue(p99 <= p999 && p999 <= max);
+		double mean = metrics.getMeanLatency(Operation.RUN_EXCLUSIVE);
+		assertTrue("mean " + mean, mean > p50 && mean < max);
+		
+		MetricsSnapshot.OperationStats stats = s.getMetricsSnapshot().get(Operation.RUN_EXCLUSIVE);
+		assertEquals(CALLS, stats.getCount());
+		assertEquals(p99, stats.getP99Nanos());
+		// operations not called stay empty
+		assertEquals(0, metrics.getCount(Operation.ADD_STUDENT));
+		assertEquals(0, metrics.getSampleCount(Operation.ADD_STUDENT));
+		
+		metrics.reset();
+		assertEquals(0, metrics.getCount(Operation.RUN_EXCLUSIVE));
+		assertEquals(0, metrics.getSampleCount(Operation.RUN_EXCLUSIVE));
+		assertEquals(0, metrics.getLatency(Operation.RUN_EXCLUSIVE, 50));
+		
+		// turned off again, calls are no longer counted
+		metrics.setEnabled(false);
+		s.runExclusive(() -> 0L);
+		assertEquals(0, metrics.getCount(Operation.RUN_EXCLUSIVE));
+	}
+	
+	private static long spin(long nanos) {
+		long start = System.nanoTime();
+		while(System.nanoTime() - start < nanos) Thread.onSpinWait();
+		return nanos;
+	}
+	
+	// about 200 timed calls, 20 of them slow
+	private static final int CALLS = 3200, SLOW = 10;
+	private static final long SPIN_NANOS = 200_000;
+	
+	private RegistrationSystem s;
+	private RegistrationMetrics metrics;
+}
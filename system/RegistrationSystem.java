@@ -1,45 +1,222 @@
 package system;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.UnaryOperator;
 import enums.Building;
 import enums.FacultyType;
 import enums.Quarter;
 import enums.StudentProgram;
 import enums.StudentType;
 import enums.SubjectCode;
+import exception.CircularPrerequisiteException;
 import exception.CourseNotFoundException;
 import exception.DuplicateCourseException;
 import exception.DuplicatePersonException;
 import exception.DuplicateSubjectException;
 import exception.PersonNotFoundException;
-import javafx.util.Pair;
+import exception.ScheduleConflictException;
 import person.Faculty;
 import person.Student;
+import registration.AcademicClock;
 import registration.Course;
+import registration.Meeting;
+import registration.PrerequisiteGraph;
 import registration.Section;
+import registration.Subject;
+import registration.Timetable;
+import system.RegistrationMetrics.Operation;
+import util.AppendOnlyList;
+import util.CompactBitSet;
+import util.IntObjectMap;
 /**
  * The RegistrationSystem class stores information about the school, including
  * the ability to add students, add faculty, add courses, and add prerequisite(s).
  * 
+ * The system is safe to use from many threads. Writes are serialized per 
+ * entity type, and per subject code for courses, by a StampedLock for each;
+ * writes to different stripes run in parallel. Lookups and listings take no
+ * lock: the indexes are concurrent maps, the lists only grow and are handed
+ * out as unmodifiable snapshots, and prerequisite queries use optimistic
+ * reads that only fall back to a read lock when a writer got in the way.
+ * Readers that need the subjects, courses and sections to agree with each 
+ * other can pin an immutable CatalogSnapshot instead; see 
+ * enableCatalogSnapshots.
+ * 
  * @author ohsh
  */
 public class RegistrationSystem {
-
+	
 	
 	/**
-	 * 
+	 * Creates a system that takes the current term from the system clock.
 	 */
 	public RegistrationSystem() { 
-		studentList = new ArrayList<>();
-		facultyList = new ArrayList<>();
-		subjectList = new ArrayList<>();
-		courseList = new ArrayList<>();
-		sectionList = new ArrayList<>();
+		this(AcademicClock.system());
+	}
+	
+	/**
+	 * 
+	 * @param clock	The clock the class standing of students is taken from
+	 */
+	public RegistrationSystem(AcademicClock clock) { 
+		this.clock = clock;
+		studentList = new AppendOnlyList<>();
+		facultyList = new AppendOnlyList<>();
+		courseList = new AppendOnlyList<>();
+		sectionList = new AppendOnlyList<>();
+		studentIndex = new ConcurrentHashMap<>();
+		facultyIndex = new ConcurrentHashMap<>();
+		studentNames = new NameIndex<>();
+		facultyNames = new NameIndex<>();
+		studentsBySuid = new IntObjectMap<>();
+		facultyBySuid = new IntObjectMap<>();
+		suids = new SuidAllocator(FIRST_SUID, SUID_BLOCK);
+		claimed = new int[2];
+		suidLock = new Object();
+		subjects = new SubjectRegistry();
+		studentsByProgram = new EnumMap<>(StudentProgram.class);
+		for(StudentProgram p : StudentProgram.values()) studentsByProgram.put(p, new AppendOnlyList<>());
+		sectionsByTerm = new ConcurrentHashMap<>();
+		sectionsByTermAndBuilding = new ConcurrentHashMap<>();
+		prereqGraph = new PrerequisiteGraph();
+		timetable = new Timetable();
+		studentLock = new StampedLock();
+		facultyLock = new StampedLock();
+		subjectLock = new StampedLock();
+		graphLock = new StampedLock();
+		sectionLock = new StampedLock();
+		List<StampedLock> locks = new ArrayList<>();
+		locks.add(studentLock);
+		locks.add(facultyLock);
+		locks.add(subjectLock);
+		for(SubjectRegistry.Partition p : subjects.partitions()) locks.add(p.lock);
+		locks.add(graphLock);
+		locks.add(sectionLock);
+		allLocks = locks.toArray(new StampedLock[0]);
+		listeners = new RegistrationListener[0];
+		metrics = new RegistrationMetrics();
+		catalog = new AtomicReference<>();
+	}
+	
+	public AcademicClock getClock() {
+		return clock;
+	}
+	
+	/**
+	 * Returns the call counts and latencies of the system's operations, 
+	 * which are off until turned on with setEnabled(true).
+	 */
+	public RegistrationMetrics getMetrics() {
+		return metrics;
 	}
 	
 	/**
-	 * Add a student to the student list collection.
+	 * Turns on catalog snapshots: from now on every subject, course and 
+	 * section added publishes a new CatalogSnapshot. Changes pause while the
+	 * first version is built from the catalog so far.
+	 * 
+	 * @return the current version of the catalog
+	 */
+	public CatalogSnapshot enableCatalogSnapshots() {
+		CatalogSnapshot current = catalog.get();
+		if(current != null) return current;
+		long[] stamps = lockAll();
+		try {
+			current = catalog.get();
+			if(current == null) {
+				current = CatalogSnapshot.EMPTY;
+				for(Subject subject : subjects.snapshot()) 
+					current = current.withSubject(subject.getCode(), subject.getDescription());
+				for(Course course : courseList.snapshot()) current = current.withCourse(course);
+				for(Section section : sectionList.snapshot()) current = current.withSection(section);
+				catalog.set(current);
+			}
+			return current;
+		} finally {
+			unlockAll(stamps);
+		}
+	}
+	
+	/**
+	 * Returns the current version of the catalog. The version never changes,
+	 * so it can be read without locking for as long as it is kept.
+	 * 
+	 * @return the version, or null if catalog snapshots are not enabled
+	 */
+	public CatalogSnapshot getCatalog() {
+		return catalog.get();
+	}
+	
+	/**
+	 * Returns the metrics of every operation together with the number of 
+	 * people, subjects, courses and sections in the system.
+	 * 
+	 * @return a copy of the metrics as of now
+	 */
+	public MetricsSnapshot getMetricsSnapshot() {
+		return new MetricsSnapshot(metrics, studentCount(), facultyCount(), subjectCount(), 
+				courseCount(), sectionCount());
+	}
+	
+	// collection sizes for the JMX bean
+	int studentCount() {
+		return studentList.size();
+	}
+	
+	int facultyCount() {
+		return facultyList.size();
+	}
+	
+	int subjectCount() {
+		return subjects.size();
+	}
+	
+	int courseCount() {
+		return courseList.size();
+	}
+	
+	int sectionCount() {
+		return sectionList.size();
+	}
+	
+	/**
+	 * Registers a listener to be notified of every change made to the system.
+	 * Listeners are called while the write lock of the change is held, before
+	 * the change is visible to other threads, so a change never reaches them 
+	 * ahead of a change it depends on. A listener must not make changes to
+	 * the system itself.
+	 * 
+	 * @param listener	The listener to add
+	 */
+	public synchronized void addListener(RegistrationListener listener) {
+		RegistrationListener[] next = Arrays.copyOf(listeners, listeners.length + 1);
+		next[listeners.length] = listener;
+		listeners = next;
+	}
+	
+	/**
+	 * Unregisters a listener.
+	 * 
+	 * @param listener	The listener to remove
+	 */
+	public synchronized void removeListener(RegistrationListener listener) {
+		List<RegistrationListener> next = new ArrayList<>(Arrays.asList(listeners));
+		next.remove(listener);
+		listeners = next.toArray(new RegistrationListener[0]);
+	}
+	
+	/**
+	 * Add a student to the student list collection. The student is given
+	 * the next free SUID.
 	 * 
 	 * @param firstName	The first name of the student
 	 * @param lastName	The last name of the student
@@ -53,24 +230,72 @@ public class RegistrationSystem {
 							StudentType type, StudentProgram program,
 							Quarter quarter, int year) 
 							throws DuplicatePersonException {
+		long start = metrics.start();
+		boolean ok = false;
+		try {
+			insertStudent(0, firstName, lastName, type, program, quarter, year);
+			ok = true;
+		} finally {
+			metrics.end(Operation.ADD_STUDENT, start, ok);
+		}
+	}
+	
+	/**
+	 * Add a student whose SUID was assigned elsewhere, e.g. recovered from
+	 * storage. SUIDs handed out afterwards skip it.
+	 * 
+	 * @param suid		The SUID of the student
+	 * @param firstName	The first name of the student
+	 * @param lastName	The last name of the student
+	 * @param type		The student type
+	 * @param program	The student program	
+	 * @param quarter	The start quarter of the student
+	 * @param year		The start year of the student
+	 * @throws DuplicatePersonException The person or the SUID is already in the system
+	 */
+	public void addStudent(int suid, String firstName, String lastName, 
+							StudentType type, StudentProgram program,
+							Quarter quarter, int year) 
+							throws DuplicatePersonException {
+		if(suid <= 0) throw new IllegalArgumentException("SUID must be positive");
+		long start = metrics.start();
+		boolean ok = false;
+		try {
+			insertStudent(suid, firstName, lastName, type, program, quarter, year);
+			ok = true;
+		} finally {
+			metrics.end(Operation.ADD_STUDENT, start, ok);
+		}
+	}
+	
+	// suid is 0 to allocate one
+	private void insertStudent(int suid, String firstName, String lastName, 
+							StudentType type, StudentProgram program,
+							Quarter quarter, int year) 
+							throws DuplicatePersonException {
 		
 		//throw exist exception
 		if(existStudent(firstName,lastName) == true) throw 
 		new DuplicatePersonException();
-
-		Student newStudent = new Student(firstName, lastName);
-		newStudent.setStatus(type);
-		newStudent.setProgram(program);
-		newStudent.setQuarter(quarter);
-		newStudent.setYear(year);
-		studentList.add(newStudent);
+		
+		Student newStudent = newStudent(firstName, lastName, type, program, quarter, year);
+		RegistrationListener[] notified;
+		long stamp = studentLock.writeLock();
+		try {
+			notified = listeners;
+			storeStudent(newStudent, suid, notified);
+		} finally {
+			studentLock.unlockWrite(stamp);
+		}
+		for(RegistrationListener l : notified) l.afterChange();
 		
 		//added message
 		//System.out.println("new student " + firstName + " " + lastName + " added");
 	}
 	
 	/**
-	 * Add a faculty to the faculty list collection.
+	 * Add a faculty to the faculty list collection. The faculty is given
+	 * the next free SUID.
 	 * 
 	 * @param firstName	The first name of the faculty
 	 * @param lastName	The last name of the faculty
@@ -82,27 +307,129 @@ public class RegistrationSystem {
 	 */
 	public void addFaculty(String firstName, String lastName,
 							FacultyType type, Building bldg, int room, String email) 
-							throws DuplicatePersonException {	
+							throws DuplicatePersonException {
+		long start = metrics.start();
+		boolean ok = false;
+		try {
+			insertFaculty(0, firstName, lastName, type, bldg, room, email);
+			ok = true;
+		} finally {
+			metrics.end(Operation.ADD_FACULTY, start, ok);
+		}
+	}
 	
+	/**
+	 * Add a faculty whose SUID was assigned elsewhere, e.g. recovered from
+	 * storage. SUIDs handed out afterwards skip it.
+	 * 
+	 * @param suid		The SUID of the faculty
+	 * @param firstName	The first name of the faculty
+	 * @param lastName	The last name of the faculty
+	 * @param type		The faculty type
+	 * @param bldg		The building of the faculty office
+	 * @param room		The (building) room of the faculty office
+	 * @param email		The email of the faculty
+	 * @throws DuplicatePersonException The person or the SUID is already in the system
+	 */
+	public void addFaculty(int suid, String firstName, String lastName,
+							FacultyType type, Building bldg, int room, String email) 
+							throws DuplicatePersonException {
+		if(suid <= 0) throw new IllegalArgumentException("SUID must be positive");
+		long start = metrics.start();
+		boolean ok = false;
+		try {
+			insertFaculty(suid, firstName, lastName, type, bldg, room, email);
+			ok = true;
+		} finally {
+			metrics.end(Operation.ADD_FACULTY, start, ok);
+		}
+	}
+	
+	private Student newStudent(String firstName, String lastName, StudentType type, 
+							StudentProgram program, Quarter quarter, int year) {
+		Student newStudent = new Student(firstName, lastName);
+		newStudent.setStatus(type);
+		newStudent.setProgram(program);
+		newStudent.setQuarter(quarter);
+		newStudent.setYear(year, clock);
+		return newStudent;
+	}
+	
+	// under studentLock; suid is 0 to allocate one
+	private void storeStudent(Student newStudent, int suid, RegistrationListener[] notified) 
+							throws DuplicatePersonException {
+		String firstName = newStudent.getFirstName(), lastName = newStudent.getLastName();
+		// check again now that no other student can be added
+		if(existStudent(firstName,lastName) == true) throw 
+		new DuplicatePersonException();
+		newStudent.setSUID(claimSuid(suid, STUDENT_CLAIM));
+		try {
+			for(RegistrationListener l : notified) l.studentAdded(newStudent);
+			studentList.add(newStudent);
+			if(newStudent.getProgram() != null) studentsByProgram.get(newStudent.getProgram()).add(newStudent);
+			studentIndex.put(new NameKey(firstName, lastName), newStudent);
+			studentsBySuid.put(newStudent.getSUID(), newStudent);
+			studentNames.add(firstName, lastName, newStudent.getSUID(), newStudent);
+		} finally {
+			releaseSuid(STUDENT_CLAIM);
+		}
+	}
+	
+	// suid is 0 to allocate one
+	private void insertFaculty(int suid, String firstName, String lastName,
+							FacultyType type, Building bldg, int room, String email) 
+							throws DuplicatePersonException {	
+		
 		//throw exist exception
 		if(existFaculty(firstName,lastName) == true) throw 
 		new DuplicatePersonException();
-
+		
+		Faculty newFaculty = newFaculty(firstName, lastName, type, bldg, room, email);
+		RegistrationListener[] notified;
+		long stamp = facultyLock.writeLock();
+		try {
+			notified = listeners;
+			storeFaculty(newFaculty, suid, notified);
+		} finally {
+			facultyLock.unlockWrite(stamp);
+		}
+		for(RegistrationListener l : notified) l.afterChange();
+		
+		//add message test
+		//System.out.println("new faculty " + firstName + " " + lastName + " added");
+	
+	}
+	
+	private static Faculty newFaculty(String firstName, String lastName, FacultyType type, 
+							Building bldg, int room, String email) {
 		Faculty newFaculty = new Faculty(firstName, lastName);
 		newFaculty.setType(type);
 		newFaculty.setBuilding(bldg);
 		newFaculty.setRoom(room);
 		newFaculty.setEmail(email);
-		facultyList.add(newFaculty);
-		
-		//add message test
-		//System.out.println("new faculty " + firstName + " " + lastName + " added");
-
+		return newFaculty;
+	}
+	
+	// under facultyLock; suid is 0 to allocate one
+	private void storeFaculty(Faculty newFaculty, int suid, RegistrationListener[] notified) 
+							throws DuplicatePersonException {
+		String firstName = newFaculty.getFirstName(), lastName = newFaculty.getLastName();
+		if(existFaculty(firstName,lastName) == true) throw 
+		new DuplicatePersonException();
+		newFaculty.setSUID(claimSuid(suid, FACULTY_CLAIM));
+		try {
+			for(RegistrationListener l : notified) l.facultyAdded(newFaculty);
+			facultyList.add(newFaculty);
+			facultyIndex.put(new NameKey(firstName, lastName), newFaculty);
+			facultyBySuid.put(newFaculty.getSUID(), newFaculty);
+			facultyNames.add(firstName, lastName, newFaculty.getSUID(), newFaculty);
+		} finally {
+			releaseSuid(FACULTY_CLAIM);
+		}
 	}
 	
 	/**
 	 * Adds a subject to the subject list collection.
-	 * (hint: use a Pair instead of creating a class)
 	 * 
 	 * @param code	The subject code
 	 * @param desc	The subject description
@@ -111,14 +438,41 @@ public class RegistrationSystem {
 	 */
 	public void addSubject(SubjectCode code, String desc) 
 							throws DuplicateSubjectException {
+		long start = metrics.start();
+		boolean ok = false;
+		try {
+			insertSubject(code, desc);
+			ok = true;
+		} finally {
+			metrics.end(Operation.ADD_SUBJECT, start, ok);
+		}
+	}
+	
+	private void insertSubject(SubjectCode code, String desc) 
+							throws DuplicateSubjectException {
 		
+		RegistrationListener[] notified;
+		long stamp = subjectLock.writeLock();
+		try {
+			notified = listeners;
+			storeSubject(code, desc, notified);
+		} finally {
+			subjectLock.unlockWrite(stamp);
+		}
+		for(RegistrationListener l : notified) l.afterChange();
+		//added message
+		//System.out.println("new subject " + code + " " + desc + " added");
+	}
+	
+	// under subjectLock
+	private void storeSubject(SubjectCode code, String desc, RegistrationListener[] notified) 
+							throws DuplicateSubjectException {
 		//throw exist exception
 		if(existSubject(code) == true) throw 
 		new DuplicateSubjectException();
-		Pair<SubjectCode, String> subject = new Pair<SubjectCode, String>(code, desc);
-		subjectList.add(subject);
-		//added message
-		//System.out.println("new subject " + code + " " + desc + " added");
+		for(RegistrationListener l : notified) l.subjectAdded(code, desc);
+		publish(c -> c.withSubject(code, desc));
+		subjects.add(new Subject(code, desc));
 	}
 	
 	/**
@@ -132,18 +486,54 @@ public class RegistrationSystem {
 	 */
 	public void addCourse(SubjectCode code, int num, String name, 
 							int creditNum) throws DuplicateCourseException {
-		if(existCourse(code, num) == true) throw 
+		long start = metrics.start();
+		boolean ok = false;
+		try {
+			insertCourse(code, num, name, creditNum);
+			ok = true;
+		} finally {
+			metrics.end(Operation.ADD_COURSE, start, ok);
+		}
+	}
+	
+	private void insertCourse(SubjectCode code, int num, String name, 
+							int creditNum) throws DuplicateCourseException {
+		SubjectRegistry.Partition partition = subjects.get(code);
+		RegistrationListener[] notified;
+		long stamp = partition.lock.writeLock();
+		try {
+			notified = listeners;
+			storeCourse(partition, new Course(code, num, name, creditNum), notified);
+		} finally {
+			partition.lock.unlockWrite(stamp);
+		}
+		for(RegistrationListener l : notified) l.afterChange();
+		//added message
+		//System.out.println("new Course " + code + " " + num + " "+ name + " added");
+	}
+	
+	// under the lock of the course's partition
+	private void storeCourse(SubjectRegistry.Partition partition, Course course, 
+							RegistrationListener[] notified) throws DuplicateCourseException {
+		if(existCourse(course.getCode(), course.getCourseNum()) == true) throw 
 		new DuplicateCourseException();
 		
-		Course course = new Course(code, num, name, creditNum);
+		for(RegistrationListener l : notified) l.courseAdded(course);
+		long graphStamp = graphLock.writeLock();
+		try {
+			prereqGraph.register(course);
+		} finally {
+			graphLock.unlockWrite(graphStamp);
+		}
+		// before the index, so no section of it is published ahead of it
+		publish(c -> c.withCourse(course));
 		courseList.add(course);
-		//added message
-		//System.out.println("new Course " + code + " " + num + " "+ name + " added");
+		partition.addCourse(course);
 	}
 	
 	/**
 	 * Adds a prerequisite to an existing course in the course
-	 * list collection.
+	 * list collection. Adding one the course already has does nothing.
 	 * 
 	 * @param code			The subject code of the course
 	 * @param num			The course number of the course
@@ -152,128 +542,1049 @@ public class RegistrationSystem {
 	 * @param prereqNum		The course number of the prerequisite
 	 * 						to add to the course
 	 * @throws CourseNotFoundException The course was not found in the system
+	 * @throws CircularPrerequisiteException The course is already a (transitive)
+	 * 										 prerequisite of the prerequisite
 	 */
 	public void addPrerequisite(SubjectCode code, int num, 
 							SubjectCode prereqCode, int prereqNum) 
-							throws CourseNotFoundException {
-		if(findCourse(code, num) == null) throw new CourseNotFoundException();
-		if(findCourse(prereqCode, prereqNum) == null) throw new CourseNotFoundException();
+							throws CourseNotFoundException, CircularPrerequisiteException {
+		long start = metrics.start();
+		boolean ok = false;
+		try {
+			insertPrerequisite(code, num, prereqCode, prereqNum);
+			ok = true;
+		} finally {
+			metrics.end(Operation.ADD_PREREQUISITE, start, ok);
+		}
+	}
+	
+	private void insertPrerequisite(SubjectCode code, int num, 
+							SubjectCode prereqCode, int prereqNum) 
+							throws CourseNotFoundException, CircularPrerequisiteException {
 		Course course = findCourse(code, num);
+		if(course == null) throw new CourseNotFoundException();
 		Course prereq = findCourse(prereqCode, prereqNum);
-		course.setPrerequisite(prereq);
+		if(prereq == null) throw new CourseNotFoundException();
+		RegistrationListener[] notified;
+		long stamp = graphLock.writeLock();
+		try {
+			notified = listeners;
+			storePrerequisite(course, prereq, notified);
+		} finally {
+			graphLock.unlockWrite(stamp);
+		}
+		for(RegistrationListener l : notified) l.afterChange();
 		//added message
 		//System.out.println("new Prerequisitie " + prereqCode + " " + prereqNum 
 		//		+ " was added to " + code + " " + num);
 	}
 	
+	// under graphLock; returns false if the course already had the prerequisite
+	private boolean storePrerequisite(Course course, Course prereq, RegistrationListener[] notified) 
+							throws CircularPrerequisiteException {
+		if(!prereqGraph.addPrerequisite(course, prereq)) return false;
+		for(RegistrationListener l : notified) l.prerequisiteAdded(course, prereq);
+		course.setPrerequisite(prereq);
+		return true;
+	}
+	
+	/**
+	 * Checks whether a course directly or transitively requires another, 
+	 * e.g. whether CPSC 5600 requires CPSC 5001.
+	 * 
+	 * @param code			The subject code of the course
+	 * @param num			The course number of the course
+	 * @param prereqCode	The subject code of the possible prerequisite
+	 * @param prereqNum		The course number of the possible prerequisite
+	 * @return true if the prerequisite must be completed before the course
+	 * @throws CourseNotFoundException The course was not found in the system
+	 */
+	public boolean requiresPrerequisite(SubjectCode code, int num, 
+							SubjectCode prereqCode, int prereqNum) 
+							throws CourseNotFoundException {
+		long start = metrics.start();
+		boolean ok = false;
+		try {
+			boolean requires = requires(code, num, prereqCode, prereqNum);
+			ok = true;
+			return requires;
+		} finally {
+			metrics.end(Operation.REQUIRES_PREREQUISITE, start, ok);
+		}
+	}
+	
+	private boolean requires(SubjectCode code, int num, 
+							SubjectCode prereqCode, int prereqNum) 
+							throws CourseNotFoundException {
+		Course course = findCourse(code, num);
+		if(course == null) throw new CourseNotFoundException();
+		Course prereq = findCourse(prereqCode, prereqNum);
+		if(prereq == null) throw new CourseNotFoundException();
+		
+		long stamp = graphLock.tryOptimisticRead();
+		if(stamp != 0) {
+			try {
+				boolean requires = prereqGraph.requires(course, prereq);
+				if(graphLock.validate(stamp)) return requires;
+			} catch (RuntimeException e) {
+				// a writer was resizing the closure; read again under the lock
+			}
+		}
+		stamp = graphLock.readLock();
+		try {
+			return prereqGraph.requires(course, prereq);
+		} finally {
+			graphLock.unlockRead(stamp);
+		}
+	}
+	
+	/**
+	 * Checks whether a student with the given name is in the system.
+	 * 
+	 * @param firstName	The first name of the student
+	 * @param lastName	The last name of the student
+	 * @return true if the student has been added
+	 */
+	public boolean hasStudent(String firstName, String lastName) {
+		long start = metrics.start();
+		boolean found = existStudent(firstName, lastName);
+		metrics.end(Operation.HAS_STUDENT, start);
+		return found;
+	}
 	
+	/**
+	 * Checks whether a faculty with the given name is in the system.
+	 * 
+	 * @param firstName	The first name of the faculty
+	 * @param lastName	The last name of the faculty
+	 * @return true if the faculty has been added
+	 */
+	public boolean hasFaculty(String firstName, String lastName) {
+		long start = metrics.start();
+		boolean found = existFaculty(firstName, lastName);
+		metrics.end(Operation.HAS_FACULTY, start);
+		return found;
+	}
 	
 	/**
-	 * Adds a section to the section list collection.
+	 * Checks whether a faculty with the given last name has been added. 
+	 * Adding a section by last name also needs the name to be unique.
+	 * 
+	 * @param lastName	The last name of the faculty
+	 * @return true if a faculty with that last name has been added
+	 */
+	public boolean hasInstructor(String lastName) {
+		long start = metrics.start();
+		boolean found = !facultyNames.exact(lastName, 0, 1).isEmpty();
+		metrics.end(Operation.HAS_INSTRUCTOR, start);
+		return found;
+	}
+	
+	/**
+	 * Returns the student with the given SUID.
+	 * 
+	 * @param suid	The SUID of the student
+	 * @return the student, or null if no student has that SUID
+	 */
+	public Student getStudent(int suid) {
+		long start = metrics.start();
+		Student student = suid == 0 ? null : studentsBySuid.get(suid);
+		metrics.end(Operation.GET_STUDENT, start);
+		return student;
+	}
+	
+	/**
+	 * Returns the faculty with the given SUID.
+	 * 
+	 * @param suid	The SUID of the faculty
+	 * @return the faculty, or null if no faculty has that SUID
+	 */
+	public Faculty getFaculty(int suid) {
+		long start = metrics.start();
+		Faculty faculty = suid == 0 ? null : facultyBySuid.get(suid);
+		metrics.end(Operation.GET_FACULTY, start);
+		return faculty;
+	}
+	
+	/**
+	 * Returns one page of the students with the given last name, in any case,
+	 * ordered by first name and then SUID.
+	 * 
+	 * @param lastName	The last name of the students
+	 * @param offset	The number of students to skip
+	 * @param limit		The maximum number of students to return
+	 * @return the page of students
+	 */
+	public List<Student> findStudents(String lastName, int offset, int limit) {
+		long start = metrics.start();
+		List<Student> page = studentNames.exact(lastName, offset, limit);
+		metrics.end(Operation.FIND_STUDENTS, start);
+		return page;
+	}
+	
+	/**
+	 * Returns one page of the students whose last name starts with a prefix,
+	 * in any case, ordered by last name, first name and then SUID.
+	 * 
+	 * @param prefix	The start of the last name, e.g. "Lil"
+	 * @param offset	The number of students to skip
+	 * @param limit		The maximum number of students to return
+	 * @return the page of students
+	 */
+	public List<Student> findStudentsByPrefix(String prefix, int offset, int limit) {
+		long start = metrics.start();
+		List<Student> page = studentNames.prefix(prefix, offset, limit);
+		metrics.end(Operation.FIND_STUDENTS, start);
+		return page;
+	}
+	
+	/**
+	 * Returns one page of the faculty with the given last name, in any case,
+	 * ordered by first name and then SUID.
+	 * 
+	 * @param lastName	The last name of the faculty
+	 * @param offset	The number of faculty to skip
+	 * @param limit		The maximum number of faculty to return
+	 * @return the page of faculty
+	 */
+	public List<Faculty> findFaculty(String lastName, int offset, int limit) {
+		long start = metrics.start();
+		List<Faculty> page = facultyNames.exact(lastName, offset, limit);
+		metrics.end(Operation.FIND_FACULTY, start);
+		return page;
+	}
+	
+	/**
+	 * Returns one page of the faculty whose last name starts with a prefix,
+	 * in any case, ordered by last name, first name and then SUID.
+	 * 
+	 * @param prefix	The start of the last name, e.g. "Lil"
+	 * @param offset	The number of faculty to skip
+	 * @param limit		The maximum number of faculty to return
+	 * @return the page of faculty
+	 */
+	public List<Faculty> findFacultyByPrefix(String prefix, int offset, int limit) {
+		long start = metrics.start();
+		List<Faculty> page = facultyNames.prefix(prefix, offset, limit);
+		metrics.end(Operation.FIND_FACULTY, start);
+		return page;
+	}
+	
+	public boolean hasSubject(SubjectCode code) {
+		long start = metrics.start();
+		boolean found = existSubject(code);
+		metrics.end(Operation.HAS_SUBJECT, start);
+		return found;
+	}
+	
+	public boolean hasCourse(SubjectCode code, int num) {
+		long start = metrics.start();
+		boolean found = existCourse(code, num);
+		metrics.end(Operation.HAS_COURSE, start);
+		return found;
+	}
+	
+	/**
+	 * Returns the description of a subject.
+	 * 
+	 * @param code	The subject code
+	 * @return the description, or null if the subject has not been added
+	 */
+	public String getSubjectDescription(SubjectCode code) {
+		long start = metrics.start();
+		String desc = subjects.getDescription(code);
+		metrics.end(Operation.GET_SUBJECT_DESCRIPTION, start);
+		return desc;
+	}
+	
+	/**
+	 * Adds a section to the section list collection. The meeting time of the
+	 * section is TBA, so it is not checked for conflicts.
 	 * 
 	 * @param code		 The subject code of the course
 	 * @param courseNum	 The course number of the course
 	 * @param sectionNum The section number for the course
-	 * @param facultyLN	 The last name for the faculty teaching the course
+	 * @param lastName	 The last name for the faculty teaching the course
 	 * @param quarter	 The quarter that the course section is held 
 	 * @param year		 The year that the course section is held
 	 * @param cap		 The capacity of the course section
 	 * @param bldg		 The building that the course section is held
 	 * @param room		 The room that the course section is held
 	 * @throws CourseNotFoundException The course was not found in the system
-	 * @throws PersonNotFoundException The person was not found in the system
+	 * @throws PersonNotFoundException No faculty, or more than one, has that last name
 	 */
 	public void addSection(SubjectCode code, int courseNum, int sectionNum,
 							String lastName, Quarter quarter, int year, 
 							int cap, Building bldg, int room) 
 							throws CourseNotFoundException, PersonNotFoundException {
-
-		if(findCourse(code, courseNum) == null) throw new CourseNotFoundException();
-		if(findFaculty(lastName) == null) throw new PersonNotFoundException();
+		long start = metrics.start();
+		boolean ok = false;
+		try {
+			insertSection(code, courseNum, sectionNum, findInstructor(lastName), 
+					quarter, year, cap, bldg, room, null);
+			ok = true;
+		} finally {
+			metrics.end(Operation.ADD_SECTION, start, ok);
+		}
+	}
+	
+	/**
+	 * Adds a section that meets at a set time to the section list collection,
+	 * unless its room or instructor is already booked at that time.
+	 * 
+	 * @param code		 The subject code of the course
+	 * @param courseNum	 The course number of the course
+	 * @param sectionNum The section number for the course
+	 * @param lastName	 The last name for the faculty teaching the course
+	 * @param quarter	 The quarter that the course section is held 
+	 * @param year		 The year that the course section is held
+	 * @param cap		 The capacity of the course section
+	 * @param bldg		 The building that the course section is held
+	 * @param room		 The room that the course section is held
+	 * @param meeting	 The weekly meeting time of the section
+	 * @throws CourseNotFoundException The course was not found in the system
+	 * @throws PersonNotFoundException No faculty, or more than one, has that last name
+	 * @throws ScheduleConflictException The room or the instructor is booked at that time
+	 */
+	public void addSection(SubjectCode code, int courseNum, int sectionNum,
+							String lastName, Quarter quarter, int year, 
+							int cap, Building bldg, int room, Meeting meeting) 
+							throws CourseNotFoundException, PersonNotFoundException, 
+							ScheduleConflictException {
+		long start = metrics.start();
+		boolean ok = false;
+		try {
+			Section clash = insertSection(code, courseNum, sectionNum, findInstructor(lastName), 
+					quarter, year, cap, bldg, room, meeting);
+			if(clash != null) throw conflict(clash);
+			ok = true;
+		} finally {
+			metrics.end(Operation.ADD_SECTION, start, ok);
+		}
+	}
+	
+	/**
+	 * Adds a section taught by the faculty with the given SUID to the section 
+	 * list collection. The meeting time of the section is TBA, so it is not 
+	 * checked for conflicts.
+	 * 
+	 * @param code		 The subject code of the course
+	 * @param courseNum	 The course number of the course
+	 * @param sectionNum The section number for the course
+	 * @param instructor The SUID of the faculty teaching the course
+	 * @param quarter	 The quarter that the course section is held 
+	 * @param year		 The year that the course section is held
+	 * @param cap		 The capacity of the course section
+	 * @param bldg		 The building that the course section is held
+	 * @param room		 The room that the course section is held
+	 * @throws CourseNotFoundException The course was not found in the system
+	 * @throws PersonNotFoundException No faculty has that SUID
+	 */
+	public void addSection(SubjectCode code, int courseNum, int sectionNum,
+							int instructor, Quarter quarter, int year, 
+							int cap, Building bldg, int room) 
+							throws CourseNotFoundException, PersonNotFoundException {
+		long start = metrics.start();
+		boolean ok = false;
+		try {
+			insertSection(code, courseNum, sectionNum, findInstructor(instructor), 
+					quarter, year, cap, bldg, room, null);
+			ok = true;
+		} finally {
+			metrics.end(Operation.ADD_SECTION, start, ok);
+		}
+	}
+	
+	/**
+	 * Adds a section that meets at a set time, taught by the faculty with the
+	 * given SUID, to the section list collection, unless its room or 
+	 * instructor is already booked at that time.
+	 * 
+	 * @param code		 The subject code of the course
+	 * @param courseNum	 The course number of the course
+	 * @param sectionNum The section number for the course
+	 * @param instructor The SUID of the faculty teaching the course
+	 * @param quarter	 The quarter that the course section is held 
+	 * @param year		 The year that the course section is held
+	 * @param cap		 The capacity of the course section
+	 * @param bldg		 The building that the course section is held
+	 * @param room		 The room that the course section is held
+	 * @param meeting	 The weekly meeting time of the section, or null if TBA
+	 * @throws CourseNotFoundException The course was not found in the system
+	 * @throws PersonNotFoundException No faculty has that SUID
+	 * @throws ScheduleConflictException The room or the instructor is booked at that time
+	 */
+	public void addSection(SubjectCode code, int courseNum, int sectionNum,
+							int instructor, Quarter quarter, int year, 
+							int cap, Building bldg, int room, Meeting meeting) 
+							throws CourseNotFoundException, PersonNotFoundException, 
+							ScheduleConflictException {
+		long start = metrics.start();
+		boolean ok = false;
+		try {
+			Section clash = insertSection(code, courseNum, sectionNum, findInstructor(instructor), 
+					quarter, year, cap, bldg, room, meeting);
+			if(clash != null) throw conflict(clash);
+			ok = true;
+		} finally {
+			metrics.end(Operation.ADD_SECTION, start, ok);
+		}
+	}
+	
+	/**
+	 * Adds a section unless it clashes with a booked one.
+	 * 
+	 * @return the section it clashes with, or null if it was added
+	 */
+	private Section insertSection(SubjectCode code, int courseNum, int sectionNum,
+							Faculty instructor, Quarter quarter, int year, 
+							int cap, Building bldg, int room, Meeting meeting) 
+							throws CourseNotFoundException {
+		Section newSection = newSection(code, courseNum, sectionNum, instructor, quarter, 
+				year, cap, bldg, room, meeting);
+		RegistrationListener[] notified;
+		long stamp = sectionLock.writeLock();
+		try {
+			notified = listeners;
+			Section clash = storeSection(newSection, notified);
+			if(clash != null) return clash;
+		} finally {
+			sectionLock.unlockWrite(stamp);
+		}
+		for(RegistrationListener l : notified) l.afterChange();
+		
+		//added message
+		//System.out.println(code + " " + courseNum + " has section " + sectionNum);
+		return null;
+	}
+	
+	private Section newSection(SubjectCode code, int courseNum, int sectionNum,
+							Faculty instructor, Quarter quarter, int year, 
+							int cap, Building bldg, int room, Meeting meeting) 
+							throws CourseNotFoundException {
 		Course course = findCourse(code, courseNum);
-		Faculty instructor = findFaculty(lastName);
+		if(course == null) throw new CourseNotFoundException();
 		Section newSection = new Section(course, sectionNum, instructor, quarter, 
-				year, cap, bldg, room);
+				year, cap, bldg, room, meeting);
+		newSection.attach(this::student, student -> {
+			for(RegistrationListener l : listeners) l.waitlistPromoted(newSection, student);
+		});
+		return newSection;
+	}
+	
+	// under sectionLock; returns the section it clashes with, or null if added
+	private Section storeSection(Section newSection, RegistrationListener[] notified) {
+		Section clash = timetable.findConflict(newSection);
+		if(clash != null) return clash;
+		for(RegistrationListener l : notified) l.sectionAdded(newSection);
+		timetable.book(newSection);
+		publish(c -> c.withSection(newSection));
 		sectionList.add(newSection);
+		Quarter quarter = newSection.getQuarter();
+		Building bldg = newSection.getBuilding();
+		int year = newSection.getYear();
+		if(quarter != null) {
+			sectionsByTerm.computeIfAbsent(termKey(quarter, year), 
+					k -> new AppendOnlyList<>()).add(newSection);
+			if(bldg != null) sectionsByTermAndBuilding.computeIfAbsent(termKey(quarter, year, bldg), 
+					k -> new AppendOnlyList<>()).add(newSection);
+		}
+		return null;
+	}
 	
-		//added message
-		//System.out.println(code + " " + courseNum + " has section " + sectionNum);
+	/**
+	 * Returns an empty batch of add calls for this system.
+	 */
+	public Batch newBatch() {
+		return new Batch(this);
 	}
 	
-	// student list, faculty list, subject list, course list, section list
-	// note that there is not list for prerequisites - these should be included 
-	// as part of the course list
-	private List<Student> studentList;
-	private List<Faculty> facultyList;
-	private List<Pair<SubjectCode, String>> subjectList;
-	private List<Course> courseList;
-	private List<Section> sectionList;
+	// adds rows from..to of a batch, all of one kind, taking the write lock 
+	// of that kind once rather than once per row; sets errors[i] for each 
+	// row that is not added
+	void applyRun(Batch.Kind kind, List<Object[]> rows, int from, int to, Exception[] errors) {
+		switch(kind) {
+		case STUDENT:
+			applyStudents(rows, from, to, errors);
+			break;
+		case FACULTY:
+			applyFaculty(rows, from, to, errors);
+			break;
+		case SUBJECT:
+			applySubjects(rows, from, to, errors);
+			break;
+		case COURSE:
+			applyCourses(rows, from, to, errors);
+			break;
+		case PREREQUISITE:
+			applyPrerequisites(rows, from, to, errors);
+			break;
+		case SECTION:
+			applySections(rows, from, to, errors);
+			break;
+		}
+	}
 	
-	private boolean existStudent(String firstName, String lastName) {
-		for(int i = 0; i < studentList.size(); i++) {
-			if(studentList.get(i).getLastName().equals(lastName) ) {
-				if(studentList.get(i).getFirstName().equals(firstName))
-					return true;
+	private void applyStudents(List<Object[]> rows, int from, int to, Exception[] errors) {
+		Student[] people = new Student[to - from];
+		for(int i = from; i < to; i++) {
+			Object[] r = rows.get(i);
+			people[i - from] = newStudent((String) r[0], (String) r[1], (StudentType) r[2], 
+					(StudentProgram) r[3], (Quarter) r[4], (Integer) r[5]);
+		}
+		RegistrationListener[] notified;
+		int added = 0;
+		long stamp = studentLock.writeLock();
+		try {
+			notified = listeners;
+			for(int i = from; i < to; i++) {
+				try {
+					storeStudent(people[i - from], 0, notified);
+					added++;
+				} catch (DuplicatePersonException e) {
+					errors[i] = e;
+				}
 			}
+		} finally {
+			studentLock.unlockWrite(stamp);
 		}
-		return false;
+		afterChanges(notified, added);
 	}
 	
+	private void applyFaculty(List<Object[]> rows, int from, int to, Exception[] errors) {
+		Faculty[] people = new Faculty[to - from];
+		for(int i = from; i < to; i++) {
+			Object[] r = rows.get(i);
+			people[i - from] = newFaculty((String) r[0], (String) r[1], (FacultyType) r[2], 
+					(Building) r[3], (Integer) r[4], (String) r[5]);
+		}
+		RegistrationListener[] notified;
+		int added = 0;
+		long stamp = facultyLock.writeLock();
+		try {
+			notified = listeners;
+			for(int i = from; i < to; i++) {
+				try {
+					storeFaculty(people[i - from], 0, notified);
+					added++;
+				} catch (DuplicatePersonException e) {
+					errors[i] = e;
+				}
+			}
+		} finally {
+			facultyLock.unlockWrite(stamp);
+		}
+		afterChanges(notified, added);
+	}
 	
-	
-	private boolean existFaculty(String firstName, String lastName) {
-		for(int i = 0; i < facultyList.size(); i++) {
-			if(facultyList.get(i).getLastName().equals(lastName)) {
-				if(facultyList.get(i).getFirstName().equals(lastName))
-					return true;
+	private void applySubjects(List<Object[]> rows, int from, int to, Exception[] errors) {
+		RegistrationListener[] notified;
+		int added = 0;
+		long stamp = subjectLock.writeLock();
+		try {
+			notified = listeners;
+			for(int i = from; i < to; i++) {
+				Object[] r = rows.get(i);
+				try {
+					storeSubject((SubjectCode) r[0], (String) r[1], notified);
+					added++;
+				} catch (DuplicateSubjectException e) {
+					errors[i] = e;
+				}
 			}
+		} finally {
+			subjectLock.unlockWrite(stamp);
 		}
-		return false;
+		afterChanges(notified, added);
 	}
 	
-	private boolean existSubject(SubjectCode s) {
-		for(int i = 0; i < subjectList.size(); i++) {
-			if(subjectList.get(i).equals(s)) {
-					return true;
+	// takes the lock of a partition once per run of rows of its subject code
+	private void applyCourses(List<Object[]> rows, int from, int to, Exception[] errors) {
+		int i = from;
+		while(i < to) {
+			SubjectCode code = (SubjectCode) rows.get(i)[0];
+			SubjectRegistry.Partition partition = subjects.get(code);
+			RegistrationListener[] notified;
+			int added = 0;
+			long stamp = partition.lock.writeLock();
+			try {
+				notified = listeners;
+				for(; i < to && rows.get(i)[0] == code; i++) {
+					Object[] r = rows.get(i);
+					try {
+						storeCourse(partition, new Course(code, (Integer) r[1], (String) r[2], 
+								(Integer) r[3]), notified);
+						added++;
+					} catch (DuplicateCourseException e) {
+						errors[i] = e;
+					}
+				}
+			} finally {
+				partition.lock.unlockWrite(stamp);
 			}
+			afterChanges(notified, added);
 		}
-		return false;
 	}
 	
-	private boolean existCourse(SubjectCode c, int n) {
-		for(int i = 0; i < courseList.size(); i++) {
-			if(courseList.get(i).getCode().equals(c) ) {
-				if(courseList.get(i).getCourseNum() == n)
-					return true;
+	private void applyPrerequisites(List<Object[]> rows, int from, int to, Exception[] errors) {
+		Course[] courses = new Course[2 * (to - from)];
+		for(int i = from; i < to; i++) {
+			Object[] r = rows.get(i);
+			Course course = findCourse((SubjectCode) r[0], (Integer) r[1]);
+			Course prereq = findCourse((SubjectCode) r[2], (Integer) r[3]);
+			if(course == null || prereq == null) errors[i] = new CourseNotFoundException();
+			courses[2 * (i - from)] = course;
+			courses[2 * (i - from) + 1] = prereq;
+		}
+		RegistrationListener[] notified;
+		int added = 0;
+		long stamp = graphLock.writeLock();
+		try {
+			notified = listeners;
+			for(int i = from; i < to; i++) {
+				if(errors[i] != null) continue;
+				try {
+					if(storePrerequisite(courses[2 * (i - from)], courses[2 * (i - from) + 1], notified)) 
+						added++;
+				} catch (CircularPrerequisiteException e) {
+					errors[i] = e;
+				}
 			}
+		} finally {
+			graphLock.unlockWrite(stamp);
 		}
-		return false;
+		afterChanges(notified, added);
 	}
 	
-	private Course findCourse(SubjectCode c, int n) {
-		for(int i = 0; i < courseList.size(); i++) {
-			if(courseList.get(i).getCode().equals(c) ) {
-				if(courseList.get(i).getCourseNum() == n)
-					return courseList.get(i);
+	private void applySections(List<Object[]> rows, int from, int to, Exception[] errors) {
+		Section[] sections = new Section[to - from];
+		for(int i = from; i < to; i++) {
+			Object[] r = rows.get(i);
+			try {
+				Faculty instructor = r[3] instanceof Integer 
+						? findInstructor((Integer) r[3]) : findInstructor((String) r[3]);
+				sections[i - from] = newSection((SubjectCode) r[0], (Integer) r[1], (Integer) r[2], 
+						instructor, (Quarter) r[4], (Integer) r[5], (Integer) r[6], 
+						(Building) r[7], (Integer) r[8], (Meeting) r[9]);
+			} catch (CourseNotFoundException | PersonNotFoundException e) {
+				errors[i] = e;
 			}
-		}return null;
+		}
+		RegistrationListener[] notified;
+		int added = 0;
+		long stamp = sectionLock.writeLock();
+		try {
+			notified = listeners;
+			for(int i = from; i < to; i++) {
+				if(errors[i] != null) continue;
+				Section clash = storeSection(sections[i - from], notified);
+				if(clash != null) errors[i] = conflict(clash);
+				else added++;
+			}
+		} finally {
+			sectionLock.unlockWrite(stamp);
+		}
+		afterChanges(notified, added);
 	}
 	
-	private Faculty findFaculty(String lastname) {
-		for(int i = 0; i < facultyList.size(); i++) {
-			if(facultyList.get(i).getLastName().equals(lastname) ) {
-				return facultyList.get(i);
+	// the afterChange calls owed for changes made under one hold of a lock
+	private static void afterChanges(RegistrationListener[] notified, int changes) {
+		for(int i = 0; i < changes; i++) {
+			for(RegistrationListener l : notified) l.afterChange();
+		}
+	}
+	
+	private Faculty findInstructor(String lastName) throws PersonNotFoundException {
+		List<Faculty> matches = facultyNames.exact(lastName, 0, 2);
+		if(matches.isEmpty()) throw new PersonNotFoundException();
+		if(matches.size() > 1) throw new PersonNotFoundException("More than one faculty is named " 
+				+ lastName + "; give the SUID of the instructor.");
+		return matches.get(0);
+	}
+	
+	private Faculty findInstructor(int suid) throws PersonNotFoundException {
+		Faculty faculty = suid == 0 ? null : facultyBySuid.get(suid);
+		if(faculty == null) throw new PersonNotFoundException();
+		return faculty;
+	}
+	
+	private static ScheduleConflictException conflict(Section clash) {
+		return new ScheduleConflictException("Section conflicts with " 
+				+ clash.getCourse().getCode() + " " + clash.getCourse().getCourseNum() 
+				+ "-" + clash.getSection() + " (" + clash.getMeeting() + ", " 
+				+ clash.getBuilding() + " " + clash.getRoom() + ", " 
+				+ clash.getInstructor().getLastName() + ").");
+	}
+	
+	// student list, faculty list, subject list, course list, section list
+	// note that there is not list for prerequisites - these should be included 
+	// as part of the course list
+	private final AppendOnlyList<Student> studentList;
+	private final AppendOnlyList<Faculty> facultyList;
+	private final AppendOnlyList<Course> courseList;
+	private final AppendOnlyList<Section> sectionList;
+	
+	// keyed indexes shadowing the lists above so that duplicate checks and
+	// lookups do not scan; people are keyed by (first, last) name
+	private final Map<NameKey, Student> studentIndex;
+	private final Map<NameKey, Faculty> facultyIndex;
+	
+	// the subjects, and per subject code the course index, list and lock
+	private final SubjectRegistry subjects;
+	
+	// buckets for the typed queries; sections are keyed by quarter and year,
+	// and by quarter, year and building
+	private final Map<StudentProgram, AppendOnlyList<Student>> studentsByProgram;
+	private final Map<Long, AppendOnlyList<Section>> sectionsByTerm;
+	private final Map<Long, AppendOnlyList<Section>> sectionsByTermAndBuilding;
+	
+	// students and faculty share one SUID space; each map is only written 
+	// under the lock of its list
+	private final IntObjectMap<Student> studentsBySuid;
+	private final IntObjectMap<Faculty> facultyBySuid;
+	private final SuidAllocator suids;
+	
+	// the SUID each kind of person is being added with, 0 if none, guarded
+	// by suidLock
+	private final int[] claimed;
+	private final Object suidLock;
+	
+	// people sorted by name for exact and prefix searches
+	private final NameIndex<Student> studentNames;
+	private final NameIndex<Faculty> facultyNames;
+	private static final int FIRST_SUID = 100000, SUID_BLOCK = 1024;
+	private static final int STUDENT_CLAIM = 0, FACULTY_CLAIM = 1;
+	
+	// transitive closure of the prerequisites of every course
+	private final PrerequisiteGraph prereqGraph;
+	
+	// meeting times booked per room and per instructor, guarded by sectionLock
+	private final Timetable timetable;
+	
+	// write locks, one per entity type, plus one per subject code for courses
+	// in the subject registry; the prerequisite graph is shared by every
+	// subject and has its own
+	private final StampedLock studentLock, facultyLock, subjectLock, graphLock, sectionLock;
+	private final StampedLock[] allLocks;
+	
+	// the current catalog version, null until snapshots are enabled
+	private final AtomicReference<CatalogSnapshot> catalog;
+	
+	// notified after every change, replaced as a whole when one is added
+	private volatile RegistrationListener[] listeners;
+	
+	private final AcademicClock clock;
+	private final RegistrationMetrics metrics;
+	
+	private Student student(int suid) {
+		return suid == 0 ? null : studentsBySuid.get(suid);
+	}
+	
+	private boolean existStudent(String firstName, String lastName) {
+		return studentIndex.containsKey(new NameKey(firstName, lastName));
+	}
+	
+	private boolean existFaculty(String firstName, String lastName) {
+		return facultyIndex.containsKey(new NameKey(firstName, lastName));
+	}
+	
+	/**
+	 * Returns the SUID to give a new person: the next free one when suid is
+	 * 0, otherwise suid itself once it is known to be unused. Called with 
+	 * the write lock of the person's list held, so there is at most one 
+	 * claim of each kind at a time.
+	 * 
+	 * Students and faculty share the SUIDs but not a lock, so claims are 
+	 * made under suidLock, and a claimed SUID counts as taken until 
+	 * releaseSuid, which must be called once the person is in its by-SUID
+	 * map or will not be added.
+	 */
+	private int claimSuid(int suid, int kind) throws DuplicatePersonException {
+		synchronized(suidLock) {
+			if(suid == 0) {
+				// a block taken before an explicit SUID was reserved may contain it
+				do suid = suids.next(); while(suidTaken(suid));
+			} else {
+				if(suidTaken(suid)) throw new DuplicatePersonException();
+				suids.reserve(suid);
 			}
-		}return null;
+			claimed[kind] = suid;
+			return suid;
+		}
 	}
 	
+	private void releaseSuid(int kind) {
+		synchronized(suidLock) {
+			claimed[kind] = 0;
+		}
+	}
+	
+	// under suidLock
+	private boolean suidTaken(int suid) {
+		return studentsBySuid.containsKey(suid) || facultyBySuid.containsKey(suid) 
+				|| claimed[STUDENT_CLAIM] == suid || claimed[FACULTY_CLAIM] == suid;
+	}
+	
+	private boolean existSubject(SubjectCode s) {
+		return subjects.contains(s);
+	}
+	
+	private boolean existCourse(SubjectCode c, int n) {
+		return subjects.get(c).findCourse(n) != null;
+	}
+	
+	private Course findCourse(SubjectCode c, int n) {
+		return subjects.get(c).findCourse(n);
+	}
+	
+	/**
+	 * Returns every student, in the order they were added.
+	 */
+	public Query<Student> queryStudents() {
+		long start = metrics.start();
+		Query<Student> query = new Query<>(studentList.snapshot());
+		metrics.end(Operation.QUERY_STUDENTS, start);
+		return query;
+	}
+	
+	/**
+	 * Returns the students in a program, in the order they were added.
+	 * 
+	 * @param program	The student program
+	 * @return the query
+	 */
+	public Query<Student> queryStudents(StudentProgram program) {
+		long start = metrics.start();
+		Query<Student> query = new Query<>(studentsByProgram.get(program).snapshot());
+		metrics.end(Operation.QUERY_STUDENTS, start);
+		return query;
+	}
+	
+	/**
+	 * Returns every faculty, in the order they were added.
+	 */
+	public Query<Faculty> queryFaculty() {
+		long start = metrics.start();
+		Query<Faculty> query = new Query<>(facultyList.snapshot());
+		metrics.end(Operation.QUERY_FACULTY, start);
+		return query;
+	}
+	
+	/**
+	 * Returns every course, in the order they were added.
+	 */
+	public Query<Course> queryCourses() {
+		long start = metrics.start();
+		Query<Course> query = new Query<>(courseList.snapshot());
+		metrics.end(Operation.QUERY_COURSES, start);
+		return query;
+	}
+	
+	/**
+	 * Returns the courses of a subject, in the order they were added.
+	 * 
+	 * @param code	The subject code
+	 * @return the query
+	 */
+	public Query<Course> queryCourses(SubjectCode code) {
+		long start = metrics.start();
+		Query<Course> query = new Query<>(subjects.get(code).courses());
+		metrics.end(Operation.QUERY_COURSES, start);
+		return query;
+	}
+	
+	/**
+	 * Returns every section, in the order they were added.
+	 */
+	public Query<Section> querySections() {
+		long start = metrics.start();
+		Query<Section> query = new Query<>(sectionList.snapshot());
+		metrics.end(Operation.QUERY_SECTIONS, start);
+		return query;
+	}
+	
+	/**
+	 * Returns the sections held in a quarter, in the order they were added.
+	 * 
+	 * @param quarter	The quarter
+	 * @param year		The year
+	 * @return the query
+	 */
+	public Query<Section> querySections(Quarter quarter, int year) {
+		long start = metrics.start();
+		Query<Section> query = new Query<>(bucket(sectionsByTerm.get(termKey(quarter, year))));
+		metrics.end(Operation.QUERY_SECTIONS, start);
+		return query;
+	}
+	
+	/**
+	 * Returns the sections held in a building in a quarter, in the order 
+	 * they were added.
+	 * 
+	 * @param quarter	The quarter
+	 * @param year		The year
+	 * @param bldg		The building
+	 * @return the query
+	 */
+	public Query<Section> querySections(Quarter quarter, int year, Building bldg) {
+		long start = metrics.start();
+		Query<Section> query = new Query<>(bucket(sectionsByTermAndBuilding.get(termKey(quarter, year, bldg))));
+		metrics.end(Operation.QUERY_SECTIONS, start);
+		return query;
+	}
+	
+	static long termKey(Quarter quarter, int year) {
+		return (long) year * Quarter.values().length + quarter.ordinal();
+	}
+	
+	private static long termKey(Quarter quarter, int year, Building bldg) {
+		return termKey(quarter, year) * Building.values().length + bldg.ordinal();
+	}
+	
+	private static <T> List<T> bucket(AppendOnlyList<T> list) {
+		return list == null ? Collections.emptyList() : list.snapshot();
+	}
+	
+	/**
+	 * Returns an unmodifiable snapshot of one of the lists. Later additions 
+	 * do not show up in a snapshot, so it is safe to iterate while other 
+	 * threads keep adding.
+	 * 
+	 * @param s	One of "faculty", "student", "subject", "course", "section"
+	 * @return the snapshot, or null for an unknown list name
+	 * @deprecated Use the typed queryStudents, queryFaculty, queryCourses and
+	 * 			   querySections methods, which also use the indexes
+	 */
+	@Deprecated
 	public List<?> returnList(String s){
-		if(s.equals("faculty")) return facultyList;
-		if(s.equals("student")) return studentList;
-		if(s.equals("subject")) return subjectList;
-		if(s.equals("course")) return courseList;
-		if(s.equals("section")) return sectionList;
+		if(s.equals("faculty")) return facultyList.snapshot();
+		if(s.equals("student")) return studentList.snapshot();
+		if(s.equals("subject")) return subjects.snapshot();
+		if(s.equals("course")) return courseList.snapshot();
+		if(s.equals("section")) return sectionList.snapshot();
 		else return null;
 	}
+	
+	/**
+	 * Returns the direct prerequisites of every course as sets of dense 
+	 * course ids, indexed by course id.
+	 * 
+	 * @return a copy of the prerequisite masks
+	 */
+	public CompactBitSet[] getPrerequisiteMasks() {
+		long start = metrics.start();
+		long stamp = graphLock.readLock();
+		try {
+			return prereqGraph.getPrerequisiteMasks();
+		} finally {
+			graphLock.unlockRead(stamp);
+			metrics.end(Operation.GET_PREREQUISITE_MASKS, start);
+		}
+	}
+	
+	/**
+	 * Returns the course with the given dense id.
+	 * 
+	 * @param id	The id of the course
+	 * @return the course
+	 * @throws CourseNotFoundException No course has that id
+	 */
+	public Course getCourse(int id) throws CourseNotFoundException {
+		long start = metrics.start();
+		boolean ok = false;
+		long stamp = graphLock.readLock();
+		try {
+			if(id < 0 || id >= prereqGraph.size()) throw new CourseNotFoundException();
+			Course course = prereqGraph.getCourse(id);
+			ok = true;
+			return course;
+		} finally {
+			graphLock.unlockRead(stamp);
+			metrics.end(Operation.GET_COURSE, start, ok);
+		}
+	}
+	
+	/**
+	 * Records that a student has completed a course.
+	 * Completing a course the student has already completed changes nothing.
+	 * 
+	 * @param suid	The SUID of the student
+	 * @param code	The subject code of the course
+	 * @param num	The course number of the course
+	 * @throws PersonNotFoundException No student has that SUID
+	 * @throws CourseNotFoundException The course was not found in the system
+	 */
+	public void completeCourse(int suid, SubjectCode code, int num) 
+							throws PersonNotFoundException, CourseNotFoundException {
+		long start = metrics.start();
+		boolean ok = false;
+		try {
+			Student student = student(suid);
+			if(student == null) throw new PersonNotFoundException();
+			Course course = findCourse(code, num);
+			if(course == null) throw new CourseNotFoundException();
+			RegistrationListener[] notified;
+			long stamp = studentLock.writeLock();
+			try {
+				notified = listeners;
+				storeCompletion(student, course, notified);
+			} finally {
+				studentLock.unlockWrite(stamp);
+			}
+			for(RegistrationListener l : notified) l.afterChange();
+			ok = true;
+		} finally {
+			metrics.end(Operation.COMPLETE_COURSE, start, ok);
+		}
+	}
+	
+	// under studentLock; returns false if the student had already completed the course
+	private boolean storeCompletion(Student student, Course course, RegistrationListener[] notified) {
+		if(student.hasCompleted(course.getId())) return false;
+		for(RegistrationListener l : notified) l.courseCompleted(student, course);
+		student.complete(course);
+		return true;
+	}
+	
+	/**
+	 * Runs an action while no changes can be made to the system, e.g. to 
+	 * write a consistent snapshot. Lookups and listings keep working; the
+	 * action itself must not make changes.
+	 * 
+	 * @param action	The action to run
+	 * @return the result of the action
+	 * @throws Exception The exception thrown by the action
+	 */
+	public <T> T runExclusive(Callable<T> action) throws Exception {
+		long start = metrics.start();
+		long[] stamps = lockAll();
+		try {
+			return action.call();
+		} finally {
+			unlockAll(stamps);
+			metrics.end(Operation.RUN_EXCLUSIVE, start);
+		}
+	}
+	
+	// takes every write lock, in the same order as the nested course/graph locks
+	private long[] lockAll() {
+		long[] stamps = new long[allLocks.length];
+		for(int i = 0; i < stamps.length; i++) stamps[i] = allLocks[i].writeLock();
+		return stamps;
+	}
+	
+	private void unlockAll(long[] stamps) {
+		for(int i = stamps.length - 1; i >= 0; i--) allLocks[i].unlockWrite(stamps[i]);
+	}
+	
+	// publishes the next catalog version, if snapshots are enabled; writers
+	// of different stripes may race, so the change is retried on a newer one
+	private void publish(UnaryOperator<CatalogSnapshot> change) {
+		CatalogSnapshot current;
+		do {
+			current = catalog.get();
+			if(current == null) return;
+		} while(!catalog.compareAndSet(current, change.apply(current)));
+	}
 }
 	
\ No newline at end of file
@@ -0,0 +1,34 @@
+package system;
+
+/**
+ * The RegistrationSystemMXBean interface is the JMX view of a 
+ * RegistrationSystem: the sizes of its collections, its metrics, and the
+ * switch that turns them on. Register a system with 
+ * RegistrationSystemMonitor.register.
+ */
+public interface RegistrationSystemMXBean {
+	
+	int getStudentCount();
+	
+	int getFacultyCount();
+	
+	int getSubjectCount();
+	
+	int getCourseCount();
+	
+	int getSectionCount();
+	
+	boolean isMetricsEnabled();
+	
+	void setMetricsEnabled(boolean enabled);
+	
+	/**
+	 * Returns a snapshot of the metrics of every operation.
+	 */
+	MetricsSnapshot getMetrics();
+	
+	/**
+	 * Clears every count and latency.
+	 */
+	void resetMetrics();
+}
@@ -0,0 +1,86 @@
+package system;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * The RegistrationSystemMonitor class publishes a RegistrationSystem over 
+ * JMX, e.g. to jconsole, under 
+ * "system:type=RegistrationSystem,name=&lt;name&gt;".
+ */
+public class RegistrationSystemMonitor implements RegistrationSystemMXBean {
+	
+	/**
+	 * Registers a system with the platform MBean server.
+	 * 
+	 * @param system	The registration system
+	 * @param name		The name to register it under, unique per JVM
+	 * @return the object name, to unregister it with
+	 * @throws JMException A bean is already registered under that name
+	 */
+	public static ObjectName register(RegistrationSystem system, String name) throws JMException {
+		ObjectName objectName = new ObjectName("system:type=RegistrationSystem,name=" 
+				+ ObjectName.quote(name));
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		server.registerMBean(new RegistrationSystemMonitor(system), objectName);
+		return objectName;
+	}
+	
+	/**
+	 * 
+	 * @param system	The registration system to monitor
+	 */
+	public RegistrationSystemMonitor(RegistrationSystem system) {
+		this.system = system;
+	}
+	
+	@Override
+	public int getStudentCount() {
+		return system.studentCount();
+	}
+	
+	@Override
+	public int getFacultyCount() {
+		return system.facultyCount();
+	}
+	
+	@Override
+	public int getSubjectCount() {
+		return system.subjectCount();
+	}
+	
+	@Override
+	public int getCourseCount() {
+		return system.courseCount();
+	}
+	
+	@Override
+	public int getSectionCount() {
+		return system.sectionCount();
+	}
+	
+	@Override
+	public boolean isMetricsEnabled() {
+		return system.getMetrics().isEnabled();
+	}
+	
+	@Override
+	public void setMetricsEnabled(boolean enabled) {
+		system.getMetrics().setEnabled(enabled);
+	}
+	
+	@Override
+	public MetricsSnapshot getMetrics() {
+		return system.getMetricsSnapshot();
+	}
+	
+	@Override
+	public void resetMetrics() {
+		system.getMetrics().reset();
+	}
+	
+	private final RegistrationSystem system;
+}
@@ -2,63 +2,414 @@ package system;
 
 import static org.junit.Assert.*;
 
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
 import enums.Building;
 import enums.FacultyType;
+import enums.Quarter;
+import enums.StudentProgram;
+import enums.StudentType;
+import enums.StudentYear;
+import enums.SubjectCode;
+import exception.CircularPrerequisiteException;
+import exception.CourseNotFoundException;
+import exception.DuplicateCourseException;
 import exception.DuplicatePersonException;
+import exception.DuplicateSubjectException;
+import exception.PersonNotFoundException;
+import exception.ScheduleConflictException;
+import person.Faculty;
+import person.Student;
+import registration.Course;
+import registration.Meeting;
+import registration.Section;
+import registration.Term;
 
 
 public class RegistrationSystemTest {
-
+	
 	@Before
 	public void setUp() throws Exception {
 		s = new RegistrationSystem();
 	}
-
+	
 	@Test
 	public void testRegistrationSystem() {
-		fail("Not yet implemented");
+		assertEquals(0, s.queryStudents().count());
+		assertEquals(0, s.queryFaculty().count());
+		assertEquals(0, s.queryCourses().count());
+		assertEquals(0, s.querySections().count());
+		for(SubjectCode code : SubjectCode.values()) assertFalse(s.hasSubject(code));
+		assertNull(s.getStudent(100000));
+		assertNotNull(s.getClock());
+		assertFalse(s.getMetrics().isEnabled());
+		assertNull(s.getCatalog());
 	}
-
-	@Test
-	public void testAddStudent() {
-		fail("Not yet implemented");
+	
+	@Test(expected = DuplicatePersonException.class)
+	public void testAddStudent() throws DuplicatePersonException {
+		s.addStudent("Michael", "Bluth", StudentType.UNDERGRAD, StudentProgram.BSCS, Quarter.FQ, 2018);
+		s.addStudent("Gob", "Bluth", StudentType.UNDERGRAD, StudentProgram.BACS, Quarter.SQ, 2018);
+		assertEquals(2, s.queryStudents().count());
+		s.addStudent("Michael", "Bluth", StudentType.UNDERGRAD, StudentProgram.BSCS, Quarter.FQ, 2018);
 	}
-
-	@Test
+	
+	@Test(expected = DuplicatePersonException.class)
 	public void testAddFaculty() throws DuplicatePersonException {
 		s = new RegistrationSystem();
 		s.addFaculty("Abc","DEF", FacultyType.ADJUNCT, Building.ADMN , 207, "alboe@faejf.com" );
 		s.addFaculty("Abc","DEF", FacultyType.ADJUNCT, Building.ADMN , 207, "alboe@faejf.com" );
 	}
-
+	
 	@Test
-	public void testAddSubject() {
-		fail("Not yet implemented");
+	public void testMetrics() throws Exception {
+		RegistrationMetrics metrics = s.getMetrics();
+		s.addStudent("Michael", "Bluth", StudentType.UNDERGRAD, StudentProgram.BSCS, Quarter.FQ, 2018);
+		assertEquals(0, metrics.getCount(RegistrationMetrics.Operation.ADD_STUDENT));
+		
+		ObjectName name = RegistrationSystemMonitor.register(s, "testMetrics");
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			server.setAttribute(name, new Attribute("MetricsEnabled", true));
+			assertTrue(metrics.isEnabled());
+			s.addStudent("Gob", "Bluth", StudentType.UNDERGRAD, StudentProgram.BACS, Quarter.FQ, 2015);
+			try {
+				s.addStudent("Gob", "Bluth", StudentType.UNDERGRAD, StudentProgram.BACS, Quarter.FQ, 2015);
+				fail();
+			} catch (DuplicatePersonException e) {
+				// counted as rejected
+			}
+			s.findStudents("Bluth", 0, 10);
+			assertEquals(2, metrics.getCount(RegistrationMetrics.Operation.ADD_STUDENT));
+			assertEquals(1, metrics.getRejected(RegistrationMetrics.Operation.ADD_STUDENT));
+			assertEquals(1, s.getMetricsSnapshot().get(RegistrationMetrics.Operation.FIND_STUDENTS).getCount());
+			
+			assertEquals(2, server.getAttribute(name, "StudentCount"));
+			CompositeData snapshot = (CompositeData) server.getAttribute(name, "Metrics");
+			CompositeData[] ops = (CompositeData[]) snapshot.get("operations");
+			CompositeData add = ops[RegistrationMetrics.Operation.ADD_STUDENT.ordinal()];
+			assertEquals("ADD_STUDENT", add.get("name"));
+			assertEquals(1L, add.get("rejected"));
+			
+			metrics.setEnabled(false);
+			s.findStudents("Bluth", 0, 10);
+			assertEquals(1, metrics.getCount(RegistrationMetrics.Operation.FIND_STUDENTS));
+		} finally {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+		}
 	}
-
+	
+	@Test(expected = DuplicatePersonException.class)
+	public void testSuid() throws DuplicatePersonException {
+		s.addStudent("Michael", "Bluth", StudentType.UNDERGRAD, StudentProgram.BSCS, Quarter.FQ, 2018);
+		s.addFaculty("Abc","DEF", FacultyType.ADJUNCT, Building.ADMN , 207, "alboe@faejf.com" );
+		int student = s.queryStudents().page(0, 1).get(0).getSUID();
+		assertEquals("Michael", s.getStudent(student).getFirstName());
+		int faculty = s.queryFaculty().page(0, 1).get(0).getSUID();
+		assertNotEquals(student, faculty);
+		assertEquals("DEF", s.getFaculty(faculty).getLastName());
+		assertNull(s.getStudent(faculty));
+		s.addStudent(faculty + 1, "Gob", "Bluth", StudentType.UNDERGRAD, StudentProgram.BACS, Quarter.SQ, 2018);
+		s.addStudent("Lindsay", "Bluth", StudentType.UNDERGRAD, StudentProgram.BACS, Quarter.SQ, 2018);
+		assertEquals("Gob", s.getStudent(faculty + 1).getFirstName());
+		assertTrue(s.queryStudents().page(2, 1).get(0).getSUID() > faculty + 1);
+		s.addFaculty(faculty + 1, "Tobias", "Funke", FacultyType.ADJUNCT, Building.ADMN , 207, "tf@faejf.com" );
+	}
+	
 	@Test
-	public void testAddCourse() {
-		fail("Not yet implemented");
+	public void testConcurrentSuids() throws Exception {
+		// students take the SUIDs faculty are being allocated from the first block
+		for(int round = 0; round < 20; round++) {
+			RegistrationSystem s = new RegistrationSystem();
+			// holds each SUID claimed but not yet stored for a while
+			s.addListener(new RegistrationListener() {
+				@Override
+				public void studentAdded(Student student) {
+					Thread.yield();
+				}
+				
+				@Override
+				public void facultyAdded(Faculty faculty) {
+					Thread.yield();
+				}
+			});
+			int n = 1000;
+			CountDownLatch go = new CountDownLatch(1);
+			Thread faculty = new Thread(() -> {
+				try {
+					go.await();
+					for(int i = 0; i < n; i++) {
+						s.addFaculty("First" + i, "Last", FacultyType.ADJUNCT, Building.ADMN, 207, 
+								"first" + i + "@seattleu.edu");
+					}
+				} catch (Exception e) {
+					throw new AssertionError(e);
+				}
+			});
+			faculty.start();
+			go.countDown();
+			for(int i = 0; i < n; i++) {
+				try {
+					s.addStudent(100000 + i, "First" + i, "Last", StudentType.UNDERGRAD, 
+							StudentProgram.BSCS, Quarter.FQ, 2018);
+				} catch (DuplicatePersonException e) {
+					// the faculty thread got there first
+				}
+			}
+			faculty.join();
+			
+			Set<Integer> suids = new HashSet<>();
+			for(Student st : s.queryStudents()) assertTrue(suids.add(st.getSUID()));
+			for(Faculty f : s.queryFaculty()) assertTrue(suids.add(f.getSUID()));
+			assertEquals(n, s.queryFaculty().count());
+		}
 	}
-
+	
+	@Test(expected = DuplicateSubjectException.class)
+	public void testAddSubject() throws DuplicateSubjectException {
+		s.addSubject(SubjectCode.CPSC, "Computer Science");
+		assertTrue(s.hasSubject(SubjectCode.CPSC));
+		assertFalse(s.hasSubject(SubjectCode.MATH));
+		assertEquals("Computer Science", s.getSubjectDescription(SubjectCode.CPSC));
+		s.addSubject(SubjectCode.CPSC, "Computer Science");
+	}
+	
+	@Test(expected = DuplicateCourseException.class)
+	public void testAddCourse() throws DuplicateCourseException {
+		s.addCourse(SubjectCode.CPSC, 5011, "Object-Oriented Concepts", 3);
+		s.addCourse(SubjectCode.MATH, 5011, "Not A Duplicate", 3);
+		assertEquals(2, s.queryCourses().count());
+		s.addCourse(SubjectCode.CPSC, 5011, "Object-Oriented Concepts", 3);
+	}
+	
+	@Test(expected = CircularPrerequisiteException.class)
+	public void testAddPrerequisite() throws DuplicateCourseException, 
+						CourseNotFoundException, CircularPrerequisiteException {
+		s.addCourse(SubjectCode.CPSC, 5001, "Programming Boot Camp I", 3);
+		s.addCourse(SubjectCode.CPSC, 5002, "Programming Boot Camp II", 3);
+		s.addCourse(SubjectCode.CPSC, 5003, "Programming Boot Camp III", 3);
+		s.addCourse(SubjectCode.CPSC, 5011, "Object-Oriented Concepts", 3);
+		s.addPrerequisite(SubjectCode.CPSC, 5011, SubjectCode.CPSC, 5003);
+		s.addPrerequisite(SubjectCode.CPSC, 5002, SubjectCode.CPSC, 5001);
+		s.addPrerequisite(SubjectCode.CPSC, 5003, SubjectCode.CPSC, 5002);
+		assertTrue(s.requiresPrerequisite(SubjectCode.CPSC, 5011, SubjectCode.CPSC, 5001));
+		assertFalse(s.requiresPrerequisite(SubjectCode.CPSC, 5001, SubjectCode.CPSC, 5011));
+		s.addPrerequisite(SubjectCode.CPSC, 5001, SubjectCode.CPSC, 5011);
+	}
+	
 	@Test
-	public void testAddPrerequisite() {
-		fail("Not yet implemented");
+	public void testDuplicatePrerequisite() throws Exception {
+		s.addCourse(SubjectCode.CPSC, 2430, "Data Structures", 5);
+		s.addCourse(SubjectCode.CPSC, 5011, "Object-Oriented Concepts", 3);
+		List<String> added = new ArrayList<>();
+		s.addListener(new RegistrationListener() {
+			@Override
+			public void prerequisiteAdded(Course course, Course prereq) {
+				added.add(course.getCourseNum() + "<" + prereq.getCourseNum());
+			}
+		});
+		s.addPrerequisite(SubjectCode.CPSC, 5011, SubjectCode.CPSC, 2430);
+		s.addPrerequisite(SubjectCode.CPSC, 5011, SubjectCode.CPSC, 2430);
+		Batch batch = s.newBatch();
+		batch.addPrerequisite(SubjectCode.CPSC, 5011, SubjectCode.CPSC, 2430);
+		assertNull(batch.apply()[0]);
+		
+		// stored and heard of once
+		assertEquals(List.of("5011<2430"), added);
+		for(Course c : s.queryCourses()) {
+			assertEquals(c.getCourseNum() == 5011 ? 1 : 0, c.getPrerequisiteList().size());
+			assertEquals(c.getCourseNum() == 5011 ? 1 : 0, s.getPrerequisiteMasks()[c.getId()].cardinality());
+		}
 	}
-
+	
 	@Test
-	public void testAddSection() {
-		fail("Not yet implemented");
+	public void testAddSection() throws Exception {
+		s.addCourse(SubjectCode.CPSC, 5011, "Object-Oriented Concepts", 3);
+		s.addFaculty("Adair", "Dingle", FacultyType.PROF, Building.ENGR, 531, "dingle@seattleu.edu");
+		s.addSection(SubjectCode.CPSC, 5011, 1, "Dingle", Quarter.FQ, 2018, 30, Building.ENGR, 100);
+		s.addSection(SubjectCode.CPSC, 5011, 2, "Dingle", Quarter.WQ, 2019, 25, Building.PIGT, 207, 
+				Meeting.parse("TR 13:30-15:15"));
+		assertEquals(2, s.querySections().count());
+		Section first = s.querySections(Quarter.FQ, 2018).page(0, 10).get(0);
+		assertEquals(1, first.getSection());
+		assertEquals(5011, first.getCourse().getCourseNum());
+		assertEquals("Dingle", first.getInstructor().getLastName());
+		assertEquals(30, first.getCapacity());
+		assertEquals(Building.ENGR, first.getBuilding());
+		assertEquals(100, first.getRoom());
+		assertNull(first.getMeeting());
+		assertEquals(1, s.querySections(Quarter.WQ, 2019, Building.PIGT).count());
+		assertEquals(0, s.querySections(Quarter.WQ, 2019, Building.ENGR).count());
+		try {
+			s.addSection(SubjectCode.CPSC, 5600, 1, "Dingle", Quarter.FQ, 2018, 30, Building.ENGR, 101);
+			fail("section of an unknown course");
+		} catch (CourseNotFoundException e) {
+			assertEquals(2, s.querySections().count());
+		}
+		try {
+			s.addSection(SubjectCode.CPSC, 5011, 3, "Roshandel", Quarter.FQ, 2018, 30, Building.ENGR, 101);
+			fail("section of an unknown instructor");
+		} catch (PersonNotFoundException e) {
+			assertEquals(2, s.querySections().count());
+		}
 	}
-
+	
+	@Test(expected = PersonNotFoundException.class)
+	public void testAddSectionSharedLastName() throws Exception {
+		s.addCourse(SubjectCode.CPSC, 5011, "Object-Oriented Concepts", 3);
+		s.addFaculty("Adair", "Dingle", FacultyType.PROF, Building.ENGR, 531, "dingle@seattleu.edu");
+		s.addSection(SubjectCode.CPSC, 5011, 1, "dingle", Quarter.FQ, 2018, 30, Building.ENGR, 100);
+		s.addFaculty("Bob", "Dingle", FacultyType.ADJUNCT, Building.ENGR, 532, "bdingle@seattleu.edu");
+		int bob = s.findFaculty("Dingle", 1, 1).get(0).getSUID();
+		s.addSection(SubjectCode.CPSC, 5011, 2, bob, Quarter.FQ, 2018, 30, Building.ENGR, 100);
+		assertEquals("Bob", s.querySections().page(1, 1).get(0).getInstructor().getFirstName());
+		assertTrue(s.hasInstructor("Dingle"));
+		s.addSection(SubjectCode.CPSC, 5011, 3, "Dingle", Quarter.FQ, 2018, 30, Building.ENGR, 100);
+	}
+	
+	@Test(expected = ScheduleConflictException.class)
+	public void testAddSectionConflict() throws Exception {
+		s.addCourse(SubjectCode.CPSC, 2430, "Data Structures", 5);
+		s.addFaculty("Adair", "Dingle", FacultyType.PROF, Building.ENGR, 531, "dingle@seattleu.edu");
+		s.addFaculty("Roshanak", "Roshandel", FacultyType.ASSOCPROF, Building.ENGR, 530, "roshanak@seattleu.edu");
+		s.addSection(SubjectCode.CPSC, 2430, 1, "Dingle", Quarter.FQ, 2018, 30, Building.PIGT, 207, 
+				Meeting.parse("MW 10:15-12:00"));
+		// TBA, another room, another quarter, right after, another day
+		s.addSection(SubjectCode.CPSC, 2430, 2, "Roshandel", Quarter.FQ, 2018, 30, Building.PIGT, 207);
+		s.addSection(SubjectCode.CPSC, 2430, 3, "Roshandel", Quarter.FQ, 2018, 30, Building.PIGT, 208, 
+				Meeting.parse("MW 10:15-12:00"));
+		s.addSection(SubjectCode.CPSC, 2430, 4, "Roshandel", Quarter.WQ, 2018, 30, Building.PIGT, 207, 
+				Meeting.parse("MW 10:15-12:00"));
+		s.addSection(SubjectCode.CPSC, 2430, 5, "Dingle", Quarter.FQ, 2018, 30, Building.PIGT, 207, 
+				Meeting.parse("MW 12:00-13:45"));
+		s.addSection(SubjectCode.CPSC, 2430, 6, "Dingle", Quarter.FQ, 2018, 30, Building.PIGT, 207, 
+				Meeting.parse("TR 10:15-12:00"));
+		assertEquals(6, s.querySections().count());
+		try {
+			s.addSection(SubjectCode.CPSC, 2430, 7, "Dingle", Quarter.FQ, 2018, 30, Building.LEML, 122, 
+					Meeting.parse("W 11:00-11:30"));
+			fail("instructor double-booked");
+		} catch (ScheduleConflictException e) {
+			assertEquals(6, s.querySections().count());
+		}
+		s.addSection(SubjectCode.CPSC, 2430, 8, "Roshandel", Quarter.FQ, 2018, 30, Building.PIGT, 207, 
+				Meeting.parse("RF 11:59-13:00"));
+	}
+	
 	@Test
-	public void testReturnList() {
-		fail("Not yet implemented");
+	public void testQuery() throws Exception {
+		s.addCourse(SubjectCode.CPSC, 2430, "Data Structures", 5);
+		s.addCourse(SubjectCode.MATH, 1334, "Linear Algebra", 5);
+		s.addCourse(SubjectCode.CPSC, 5011, "Object-Oriented Concepts", 3);
+		s.addFaculty("Adair", "Dingle", FacultyType.PROF, Building.ENGR, 531, "dingle@seattleu.edu");
+		s.addSection(SubjectCode.CPSC, 2430, 1, "Dingle", Quarter.FQ, 2018, 30, Building.PIGT, 207);
+		s.addSection(SubjectCode.CPSC, 2430, 2, "Dingle", Quarter.FQ, 2018, 30, Building.ENGR, 304);
+		s.addSection(SubjectCode.CPSC, 5011, 1, "Dingle", Quarter.FQ, 2018, 30, Building.PIGT, 102);
+		s.addSection(SubjectCode.CPSC, 5011, 2, "Dingle", Quarter.WQ, 2018, 30, Building.PIGT, 102);
+		
+		assertEquals(2, s.queryCourses(SubjectCode.CPSC).count());
+		assertEquals(3, s.querySections(Quarter.FQ, 2018).count());
+		assertEquals(0, s.querySections(Quarter.FQ, 2019).count());
+		Query<Section> pigott = s.querySections(Quarter.FQ, 2018, Building.PIGT);
+		assertEquals(2, pigott.count());
+		assertEquals(5011, pigott.page(1, 10).get(0).getCourse().getCourseNum());
+		assertEquals(1, pigott.where(x -> x.getCourse().getCourseNum() == 2430).count());
+		assertTrue(pigott.page(2, 10).isEmpty());
+		
+		s.addStudent("Michael", "Bluth", StudentType.UNDERGRAD, StudentProgram.BSCS, Quarter.FQ, 2018);
+		assertEquals(1, s.queryStudents(StudentProgram.BSCS).count());
+		assertEquals(0, s.queryStudents(StudentProgram.MSCS).count());
 	}
-
+	
+	@Test
+	public void testTermRollover() throws DuplicatePersonException {
+		Term[] now = { new Term(Quarter.SQ, 2019) };
+		s = new RegistrationSystem(() -> now[0]);
+		s.addStudent("Michael", "Bluth", StudentType.UNDERGRAD, StudentProgram.BSCS, Quarter.FQ, 2018);
+		s.addStudent("Gob", "Bluth", StudentType.UNDERGRAD, StudentProgram.BACS, Quarter.FQ, 2015);
+		Student michael = s.findStudents("Bluth", 1, 1).get(0);
+		assertEquals(StudentYear.FRESHMAN, michael.getYear());
+		assertEquals(0, new TermRollover(s).run());
+		now[0] = new Term(Quarter.FQ, 2019);
+		assertEquals(1, new TermRollover(s).run());
+		assertEquals(StudentYear.SOPHOMORE, michael.getYear());
+	}
+	
+	@Test
+	public void testCatalogSnapshots() throws Exception {
+		s.addSubject(SubjectCode.CPSC, "Computer Science");
+		for(int num = 1000; num < 2000; num++) s.addCourse(SubjectCode.CPSC, num, "Course " + num, 5);
+		assertNull(s.getCatalog());
+		CatalogSnapshot before = s.enableCatalogSnapshots();
+		assertSame(before, s.getCatalog());
+		assertEquals(1000, before.getCourses().size());
+		assertEquals("Course 1999", before.getCourse(SubjectCode.CPSC, 1999).getName());
+		
+		s.addSubject(SubjectCode.MATH, "Mathematics");
+		for(int num = 2000; num < 3000; num++) s.addCourse(SubjectCode.CPSC, num, "Course " + num, 5);
+		s.addFaculty("Adair", "Dingle", FacultyType.PROF, Building.ENGR, 531, "dingle@seattleu.edu");
+		s.addSection(SubjectCode.CPSC, 2500, 1, "Dingle", Quarter.FQ, 2018, 30, Building.ENGR, 100);
+		CatalogSnapshot after = s.getCatalog();
+		assertEquals(before.getEpoch() + 1002, after.getEpoch());
+		assertEquals(2000, after.getCourses().size());
+		assertEquals("Course 1500", after.getCourses().get(500).getName());
+		assertEquals("Mathematics", after.getSubjectDescription(SubjectCode.MATH));
+		assertEquals(1, after.getSections(Quarter.FQ, 2018).size());
+		assertTrue(after.getSections(Quarter.WQ, 2018).isEmpty());
+		
+		// the pinned version is unchanged
+		assertEquals(1000, before.getCourses().size());
+		assertNull(before.getCourse(SubjectCode.CPSC, 2500));
+		assertFalse(before.hasSubject(SubjectCode.MATH));
+		assertTrue(before.getSections().isEmpty());
+	}
+	
+	@Test
+	public void testFindByName() throws DuplicatePersonException {
+		s.addStudent("Michael", "Bluth", StudentType.UNDERGRAD, StudentProgram.BSCS, Quarter.FQ, 2018);
+		s.addStudent("Gob", "Bluth", StudentType.UNDERGRAD, StudentProgram.BACS, Quarter.SQ, 2018);
+		s.addStudent("Lucille", "Austero", StudentType.UNDERGRAD, StudentProgram.BACS, Quarter.SQ, 2018);
+		s.addStudent("Oscar", "Bluthe", StudentType.UNDERGRAD, StudentProgram.BACS, Quarter.SQ, 2018);
+		assertEquals(2, s.findStudents("BLUTH", 0, 10).size());
+		assertEquals("Gob", s.findStudents("Bluth", 0, 1).get(0).getFirstName());
+		assertEquals("Michael", s.findStudents("Bluth", 1, 10).get(0).getFirstName());
+		List<Student> page = s.findStudentsByPrefix("blu", 0, 10);
+		assertEquals(3, page.size());
+		assertEquals("Oscar", page.get(2).getFirstName());
+		assertEquals(1, s.findStudentsByPrefix("blu", 2, 10).size());
+		assertTrue(s.findFacultyByPrefix("blu", 0, 10).isEmpty());
+	}
+	
+	@Test
+	@SuppressWarnings("deprecation")
+	public void testReturnList() throws DuplicatePersonException {
+		s.addStudent("Michael", "Bluth", StudentType.UNDERGRAD, StudentProgram.BSCS, Quarter.FQ, 2018);
+		List<?> students = s.returnList("student");
+		s.addStudent("Gob", "Bluth", StudentType.UNDERGRAD, StudentProgram.BACS, Quarter.SQ, 2018);
+		assertEquals(1, students.size());
+		assertEquals(2, s.returnList("student").size());
+		assertNull(s.returnList("nothing"));
+		try {
+			students.clear();
+			fail("returnList should not hand out the live list");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+	}
+	
 	RegistrationSystem s;
 }
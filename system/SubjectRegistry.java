@@ -0,0 +1,114 @@
+package system;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+
+import enums.SubjectCode;
+import registration.Course;
+import registration.Subject;
+import util.AppendOnlyList;
+
+/**
+ * The SubjectRegistry class keeps one partition per subject code: the
+ * subject once it is added, and the courses filed under the code, with
+ * their own write lock, index and list. A subject-scoped lookup or listing
+ * is one EnumMap read followed by work on that partition alone.
+ * 
+ * Partitions exist for every code from the start, so courses can be filed
+ * before their subject is added. Lookups take no lock; adding a subject
+ * must be serialized by the caller, and adding a course by the lock of its
+ * partition.
+ */
+final class SubjectRegistry {
+	
+	SubjectRegistry() {
+		this.partitions = new EnumMap<>(SubjectCode.class);
+		for(SubjectCode code : SubjectCode.values()) partitions.put(code, new Partition());
+		this.subjects = new AppendOnlyList<>();
+	}
+	
+	Partition get(SubjectCode code) {
+		return partitions.get(code);
+	}
+	
+	/**
+	 * Adds a subject unless its code already has one.
+	 * 
+	 * @return true if the subject was added
+	 */
+	boolean add(Subject subject) {
+		Partition p = partitions.get(subject.getCode());
+		if(p.subject != null) return false;
+		subjects.add(subject);
+		p.subject = subject;
+		return true;
+	}
+	
+	boolean contains(SubjectCode code) {
+		return partitions.get(code).subject != null;
+	}
+	
+	/**
+	 * Returns the description of a subject, or null if it has not been added.
+	 */
+	String getDescription(SubjectCode code) {
+		Subject subject = partitions.get(code).subject;
+		return subject == null ? null : subject.getDescription();
+	}
+	
+	/**
+	 * Returns the subjects in the order they were added.
+	 */
+	List<Subject> snapshot() {
+		return subjects.snapshot();
+	}
+	
+	int size() {
+		return subjects.size();
+	}
+	
+	/**
+	 * Returns the partitions in subject code order, the order their locks
+	 * are taken in together.
+	 */
+	Iterable<Partition> partitions() {
+		return partitions.values();
+	}
+	
+	/**
+	 * The Partition class holds one subject code's subject and courses.
+	 */
+	static final class Partition {
+		
+		Partition() {
+			this.lock = new StampedLock();
+			this.index = new ConcurrentHashMap<>();
+			this.courses = new AppendOnlyList<>();
+		}
+		
+		Course findCourse(int num) {
+			return index.get(num);
+		}
+		
+		// under the partition's write lock
+		void addCourse(Course course) {
+			courses.add(course);
+			index.put(course.getCourseNum(), course);
+		}
+		
+		List<Course> courses() {
+			return courses.snapshot();
+		}
+		
+		final StampedLock lock;
+		private volatile Subject subject;
+		private final Map<Integer, Course> index;
+		private final AppendOnlyList<Course> courses;
+	}
+	
+	private final Map<SubjectCode, Partition> partitions;
+	private final AppendOnlyList<Subject> subjects;
+}
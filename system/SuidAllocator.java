@@ -0,0 +1,56 @@
+package system;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The SuidAllocator class hands out Seattle U identification numbers.
+ * 
+ * Each thread takes a block of consecutive SUIDs from a shared counter and
+ * then issues them from the block without touching any shared state, so 
+ * threads adding people at the same time do not contend. SUIDs are unique 
+ * but, across threads, not issued in order, and the unused part of a block
+ * is never issued.
+ */
+public class SuidAllocator {
+
+	/**
+	 * 
+	 * @param first		The first SUID to hand out
+	 * @param blockSize	The number of SUIDs a thread takes at a time
+	 */
+	public SuidAllocator(int first, int blockSize) {
+		this.nextBlock = new AtomicInteger(first);
+		this.blockSize = blockSize;
+		this.block = ThreadLocal.withInitial(() -> new int[2]);
+	}
+	
+	/**
+	 * Returns a SUID that has not been handed out before.
+	 * 
+	 * @return the SUID
+	 */
+	public int next() {
+		int[] b = block.get();
+		if(b[0] == b[1]) {
+			b[0] = nextBlock.getAndAdd(blockSize);
+			b[1] = b[0] + blockSize;
+		}
+		return b[0]++;
+	}
+	
+	/**
+	 * Makes sure blocks taken from now on start after a SUID that was 
+	 * assigned elsewhere, e.g. recovered from storage.
+	 * 
+	 * @param suid	The SUID in use
+	 */
+	public void reserve(int suid) {
+		nextBlock.accumulateAndGet(suid + 1, Math::max);
+	}
+	
+	private final AtomicInteger nextBlock;
+	private final int blockSize;
+	
+	// the next SUID of this thread's block and the end of the block
+	private final ThreadLocal<int[]> block;
+}
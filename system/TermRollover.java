@@ -0,0 +1,47 @@
+package system;
+
+import enums.StudentYear;
+import person.Student;
+import registration.AcademicClock;
+
+/**
+ * The TermRollover class brings the class standing of every student up to
+ * date with the current term, e.g. once a year when fall quarter starts.
+ * 
+ * The students are split across the common fork/join pool. Each standing 
+ * is worked out from the student's start term alone, and only students 
+ * whose standing changes are written to.
+ */
+public class TermRollover {
+
+	/**
+	 * 
+	 * @param system	The system whose students to reclassify
+	 */
+	public TermRollover(RegistrationSystem system) {
+		this.system = system;
+	}
+	
+	/**
+	 * Reclassifies every student as of the current term of the system's 
+	 * clock.
+	 * 
+	 * @return the number of students whose standing changed
+	 */
+	public long run() {
+		// one term for the whole run, even if it changes part way through
+		AcademicClock term = AcademicClock.fixed(system.getClock().currentTerm());
+		return system.queryStudents().stream().parallel()
+				.mapToLong(s -> reclassify(s, term) ? 1 : 0)
+				.sum();
+	}
+	
+	private static boolean reclassify(Student s, AcademicClock term) {
+		StudentYear standing = term.standing(s.getQuarter(), s.getEnrollYear());
+		if(standing == s.getYear()) return false;
+		s.setStanding(standing);
+		return true;
+	}
+	
+	private final RegistrationSystem system;
+}
@@ -0,0 +1,82 @@
+package util;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * The AppendOnlyList class is a list that can only grow, safe to read from
+ * any number of threads while one thread at a time appends.
+ * 
+ * snapshot() returns an unmodifiable view of the elements added so far. The
+ * view never changes afterwards, is taken without locking or copying, and 
+ * can be iterated while more elements are appended.
+ */
+public final class AppendOnlyList<T> {
+
+	public AppendOnlyList() {
+		this.elements = new Object[16];
+	}
+	
+	/**
+	 * Appends an element. Appends from several threads are serialized.
+	 * 
+	 * @param element	The element to add
+	 */
+	public synchronized void add(T element) {
+		int n = size;
+		if(n == elements.length) elements = Arrays.copyOf(elements, n + (n >> 1));
+		elements[n] = element;
+		size = n + 1;
+	}
+	
+	@SuppressWarnings("unchecked")
+	public T get(int index) {
+		int n = size;
+		if(index < 0 || index >= n) throw new IndexOutOfBoundsException(Integer.toString(index));
+		return (T) elements[index];
+	}
+	
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Returns an unmodifiable view of the elements added so far.
+	 * 
+	 * @return the snapshot
+	 */
+	public List<T> snapshot() {
+		// size is read first; the array it was published with is at least as
+		// long, and holds every element below it
+		int n = size;
+		return new Snapshot<>(elements, n);
+	}
+	
+	private static final class Snapshot<T> extends AbstractList<T> implements RandomAccess {
+		
+		Snapshot(Object[] elements, int size) {
+			this.elements = elements;
+			this.size = size;
+		}
+		
+		@Override
+		@SuppressWarnings("unchecked")
+		public T get(int index) {
+			if(index < 0 || index >= size) throw new IndexOutOfBoundsException(Integer.toString(index));
+			return (T) elements[index];
+		}
+		
+		@Override
+		public int size() {
+			return size;
+		}
+		
+		private final Object[] elements;
+		private final int size;
+	}
+	
+	private volatile Object[] elements;
+	private volatile int size;
+}
@@ -0,0 +1,159 @@
+package util;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * The CompactBitSet class is a set of non-negative ints stored as a bitmap 
+ * that only spans the words between its lowest and highest members.
+ * 
+ * A java.util.BitSet always starts at bit 0, so a small set of large ids 
+ * (e.g. the prerequisites of the 500,000th course) costs as much as a set 
+ * of every id below them. Sets of ids that sit close together, such as 
+ * courses added to the catalog together, stay small here.
+ */
+public final class CompactBitSet {
+
+	public CompactBitSet() {
+		this.words = EMPTY;
+	}
+	
+	private CompactBitSet(int offset, long[] words) {
+		this.offset = offset;
+		this.words = words;
+	}
+	
+	public boolean get(int bit) {
+		int w = (bit >>> 6) - offset;
+		return w >= 0 && w < words.length && (words[w] & (1L << bit)) != 0;
+	}
+	
+	/**
+	 * Adds a bit to the set.
+	 * 
+	 * @param bit	The bit to set
+	 * @return true if the bit was not already set
+	 */
+	public boolean set(int bit) {
+		int word = bit >>> 6;
+		ensure(word, word);
+		int w = word - offset;
+		long before = words[w];
+		words[w] = before | (1L << bit);
+		return before != words[w];
+	}
+	
+	/**
+	 * Adds every bit of another set to this one.
+	 * 
+	 * @param other	The set to add
+	 * @return true if this set changed
+	 */
+	public boolean or(CompactBitSet other) {
+		if(other.words.length == 0) return false;
+		ensure(other.offset, other.offset + other.words.length - 1);
+		boolean changed = false;
+		int shift = other.offset - offset;
+		for(int i = 0; i < other.words.length; i++) {
+			long before = words[i + shift];
+			long after = before | other.words[i];
+			if(after != before) {
+				words[i + shift] = after;
+				changed = true;
+			}
+		}
+		return changed;
+	}
+	
+	/**
+	 * Checks whether every bit of this set is also set in a bitmap of words
+	 * starting at bit 0.
+	 * 
+	 * @param bits	The bitmap words
+	 * @return true if this set is a subset of the bitmap
+	 */
+	public boolean isSubsetOf(long[] bits) {
+		for(int i = 0; i < words.length; i++) {
+			int w = i + offset;
+			long have = w < bits.length ? bits[w] : 0L;
+			if((words[i] & ~have) != 0) return false;
+		}
+		return true;
+	}
+	
+	public boolean isEmpty() {
+		for(long w : words) if(w != 0) return false;
+		return true;
+	}
+	
+	public int cardinality() {
+		int n = 0;
+		for(long w : words) n += Long.bitCount(w);
+		return n;
+	}
+	
+	/**
+	 * Returns the first set bit at or after a position, or -1 if none.
+	 * 
+	 * @param from	The position to start at
+	 * @return the next set bit
+	 */
+	public int nextSetBit(int from) {
+		int w = Math.max(0, (from >>> 6) - offset);
+		if(w >= words.length) return -1;
+		long word = (from >>> 6) - offset == w ? words[w] & (-1L << from) : words[w];
+		while(true) {
+			if(word != 0) return ((w + offset) << 6) + Long.numberOfTrailingZeros(word);
+			if(++w == words.length) return -1;
+			word = words[w];
+		}
+	}
+	
+	public CompactBitSet copy() {
+		return new CompactBitSet(offset, words.clone());
+	}
+	
+	public BitSet toBitSet() {
+		BitSet set = new BitSet();
+		for(int i = nextSetBit(0); i >= 0; i = nextSetBit(i + 1)) set.set(i);
+		return set;
+	}
+	
+	// grows the word range to cover the words lo to hi
+	private void ensure(int lo, int hi) {
+		if(words.length == 0) {
+			offset = lo;
+			words = new long[hi - lo + 1];
+			return;
+		}
+		int end = offset + words.length - 1;
+		if(lo >= offset && hi <= end) return;
+		int newOffset = Math.min(lo, offset);
+		int newEnd = Math.max(hi, end);
+		long[] grown = new long[newEnd - newOffset + 1];
+		System.arraycopy(words, 0, grown, offset - newOffset, words.length);
+		offset = newOffset;
+		words = grown;
+	}
+	
+	@Override
+	public String toString() {
+		return toBitSet().toString();
+	}
+	
+	@Override
+	public boolean equals(Object o) {
+		return o instanceof CompactBitSet && toBitSet().equals(((CompactBitSet) o).toBitSet());
+	}
+	
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(toBitSet().toLongArray());
+	}
+	
+	private static final long[] EMPTY = new long[0];
+	
+	// index of the word held in words[0]
+	private int offset;
+	private long[] words;
+}
@@ -0,0 +1,115 @@
+package util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * The IntObjectMap class maps int keys to objects with open addressing and
+ * linear probing, without boxing the keys.
+ * 
+ * Writes must be serialized by the caller, but any number of threads may 
+ * read at the same time as a write: a key is published after its value, and
+ * a resized table is only published once it is complete.
+ * 
+ * The key 0 is reserved to mark empty slots and cannot be stored.
+ */
+public final class IntObjectMap<V> {
+
+	public IntObjectMap() {
+		this(16);
+	}
+	
+	/**
+	 * 
+	 * @param expected	The number of entries to size the table for
+	 */
+	public IntObjectMap(int expected) {
+		int capacity = Integer.highestOneBit(Math.max(4, expected * 2 - 1)) << 1;
+		this.table = new Table(capacity);
+	}
+	
+	@SuppressWarnings("unchecked")
+	public V get(int key) {
+		Table t = table;
+		int mask = t.keys.length - 1;
+		for(int i = mix(key) & mask; ; i = (i + 1) & mask) {
+			int k = (int) KEYS.getAcquire(t.keys, i);
+			if(k == key) return (V) t.values[i];
+			if(k == 0) return null;
+		}
+	}
+	
+	public boolean containsKey(int key) {
+		return get(key) != null;
+	}
+	
+	/**
+	 * Maps a key to a value, replacing any previous value.
+	 * 
+	 * @param key	The key, not 0
+	 * @param value	The value, not null
+	 * @return the previous value, or null
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(int key, V value) {
+		if(key == 0) throw new IllegalArgumentException("key 0 is reserved");
+		if(value == null) throw new NullPointerException();
+		Table t = table;
+		int mask = t.keys.length - 1;
+		int i = mix(key) & mask;
+		while(true) {
+			int k = t.keys[i];
+			if(k == key) {
+				V old = (V) t.values[i];
+				VALUES.setRelease(t.values, i, value);
+				return old;
+			}
+			if(k == 0) break;
+			i = (i + 1) & mask;
+		}
+		t.values[i] = value;
+		KEYS.setRelease(t.keys, i, key);
+		if(++size * 2 > t.keys.length) table = grow(t);
+		return null;
+	}
+	
+	public int size() {
+		return size;
+	}
+	
+	private static Table grow(Table old) {
+		Table t = new Table(old.keys.length * 2);
+		int mask = t.keys.length - 1;
+		for(int j = 0; j < old.keys.length; j++) {
+			int key = old.keys[j];
+			if(key == 0) continue;
+			int i = mix(key) & mask;
+			while(t.keys[i] != 0) i = (i + 1) & mask;
+			t.keys[i] = key;
+			t.values[i] = old.values[j];
+		}
+		return t;
+	}
+	
+	// spreads sequential keys, such as SUIDs, over the table
+	private static int mix(int key) {
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+	
+	private static final class Table {
+		Table(int capacity) {
+			keys = new int[capacity];
+			values = new Object[capacity];
+		}
+		
+		final int[] keys;
+		final Object[] values;
+	}
+	
+	private static final VarHandle KEYS = MethodHandles.arrayElementVarHandle(int[].class);
+	private static final VarHandle VALUES = MethodHandles.arrayElementVarHandle(Object[].class);
+	
+	private volatile Table table;
+	private int size;
+}
@@ -0,0 +1,156 @@
+package util;
+
+import java.util.Arrays;
+
+/**
+ * The PersistentLongMap class is an immutable map from long keys to values,
+ * stored as a hash array mapped trie: putting a key returns a new version
+ * that shares everything but the O(log n) nodes on the key's path with the
+ * old one.
+ * 
+ * Each node covers 5 bits of the key's hash and holds only the children that
+ * exist, packed in an array and located through a 32-bit bitmap. Keys whose
+ * whole hash collides share a leaf list at the bottom. Versions never change,
+ * so any number of threads may read them without locking.
+ */
+public final class PersistentLongMap<V> {
+	
+	private PersistentLongMap(Node root, int size) {
+		this.root = root;
+		this.size = size;
+	}
+	
+	@SuppressWarnings("unchecked")
+	public static <V> PersistentLongMap<V> empty() {
+		return (PersistentLongMap<V>) EMPTY;
+	}
+	
+	/**
+	 * Returns the value of a key, or null if the key is not in the map.
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(long key) {
+		int hash = hash(key);
+		Object slot = root;
+		for(int shift = 0; slot instanceof Node; shift += BITS) {
+			Node node = (Node) slot;
+			int bit = 1 << ((hash >>> shift) & MASK);
+			if((node.bitmap & bit) == 0) return null;
+			slot = node.slots[Integer.bitCount(node.bitmap & (bit - 1))];
+		}
+		if(slot instanceof Entry) {
+			Entry e = (Entry) slot;
+			return e.key == key ? (V) e.value : null;
+		}
+		for(Entry e : ((Collision) slot).entries) {
+			if(e.key == key) return (V) e.value;
+		}
+		return null;
+	}
+	
+	/**
+	 * Returns a new version in which a key maps to a value.
+	 * 
+	 * @param key	The key
+	 * @param value	The value, not null
+	 * @return the new version
+	 */
+	public PersistentLongMap<V> put(long key, V value) {
+		if(value == null) throw new NullPointerException("value");
+		boolean added = get(key) == null;
+		Node newRoot = (Node) put(root, 0, hash(key), new Entry(key, value));
+		return new PersistentLongMap<>(newRoot, added ? size + 1 : size);
+	}
+	
+	public int size() {
+		return size;
+	}
+	
+	// returns the copy of the slot with the entry in it
+	private static Object put(Object slot, int shift, int hash, Entry entry) {
+		if(slot instanceof Node) {
+			Node node = (Node) slot;
+			int bit = 1 << ((hash >>> shift) & MASK);
+			int i = Integer.bitCount(node.bitmap & (bit - 1));
+			if((node.bitmap & bit) == 0) {
+				Object[] slots = new Object[node.slots.length + 1];
+				System.arraycopy(node.slots, 0, slots, 0, i);
+				slots[i] = entry;
+				System.arraycopy(node.slots, i, slots, i + 1, node.slots.length - i);
+				return new Node(node.bitmap | bit, slots);
+			}
+			Object[] slots = node.slots.clone();
+			slots[i] = put(slots[i], shift + BITS, hash, entry);
+			return new Node(node.bitmap, slots);
+		}
+		if(slot instanceof Entry) {
+			Entry old = (Entry) slot;
+			if(old.key == entry.key) return entry;
+			return merge(old, hash(old.key), entry, hash, shift);
+		}
+		Entry[] entries = ((Collision) slot).entries;
+		for(int i = 0; i < entries.length; i++) {
+			if(entries[i].key == entry.key) {
+				Entry[] copy = entries.clone();
+				copy[i] = entry;
+				return new Collision(copy);
+			}
+		}
+		Entry[] copy = Arrays.copyOf(entries, entries.length + 1);
+		copy[entries.length] = entry;
+		return new Collision(copy);
+	}
+	
+	// the smallest subtree holding two entries with different keys
+	private static Object merge(Entry a, int hashA, Entry b, int hashB, int shift) {
+		if(shift >= Integer.SIZE) return new Collision(new Entry[] { a, b });
+		int bitA = 1 << ((hashA >>> shift) & MASK), bitB = 1 << ((hashB >>> shift) & MASK);
+		if(bitA == bitB) return new Node(bitA, new Object[] { merge(a, hashA, b, hashB, shift + BITS) });
+		return new Node(bitA | bitB, Integer.compareUnsigned(bitA, bitB) < 0
+				? new Object[] { a, b } : new Object[] { b, a });
+	}
+	
+	private static int hash(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+	
+	private static final class Node {
+		
+		Node(int bitmap, Object[] slots) {
+			this.bitmap = bitmap;
+			this.slots = slots;
+		}
+		
+		// one bit per child present, and the children in bit order
+		final int bitmap;
+		final Object[] slots;
+	}
+	
+	private static final class Entry {
+		
+		Entry(long key, Object value) {
+			this.key = key;
+			this.value = value;
+		}
+		
+		final long key;
+		final Object value;
+	}
+	
+	// entries whose keys have the same hash
+	private static final class Collision {
+		
+		Collision(Entry[] entries) {
+			this.entries = entries;
+		}
+		
+		final Entry[] entries;
+	}
+	
+	private static final int BITS = 5, MASK = (1 << BITS) - 1;
+	private static final PersistentLongMap<?> EMPTY = new PersistentLongMap<>(new Node(0, new Object[0]), 0);
+	
+	private final Node root;
+	private final int size;
+}
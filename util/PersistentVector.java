@@ -0,0 +1,101 @@
+package util;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * The PersistentVector class is an immutable list that appends by returning
+ * a new version, which shares all but O(log n) of its storage with the old
+ * one.
+ * 
+ * The elements live in a 32-way tree of full leaf arrays plus a tail array
+ * of up to 32 elements. An append copies the tail; once every 32 appends the
+ * full tail moves into the tree, copying only the path from the root to it.
+ * Lookups read at most log32(n) arrays. Versions never change, so any number
+ * of threads may read them without locking.
+ */
+public final class PersistentVector<T> extends AbstractList<T> implements RandomAccess {
+	
+	private PersistentVector(int size, int shift, Object[] root, Object[] tail) {
+		this.size = size;
+		this.shift = shift;
+		this.root = root;
+		this.tail = tail;
+	}
+	
+	@SuppressWarnings("unchecked")
+	public static <T> PersistentVector<T> empty() {
+		return (PersistentVector<T>) EMPTY;
+	}
+	
+	/**
+	 * Returns a new version with an element added at the end.
+	 * 
+	 * @param element	The element to add
+	 * @return the new version
+	 */
+	public PersistentVector<T> append(T element) {
+		int inTail = size - tailOffset();
+		if(inTail < WIDTH) {
+			Object[] newTail = Arrays.copyOf(tail, inTail + 1);
+			newTail[inTail] = element;
+			return new PersistentVector<>(size + 1, shift, root, newTail);
+		}
+		// the tail is full: push it into the tree and start a new one
+		Object[] newRoot;
+		int newShift = shift;
+		if((size >>> BITS) > (1 << shift)) {
+			newRoot = new Object[] { root, path(shift, tail) };
+			newShift += BITS;
+		} else {
+			newRoot = push(shift, root, tail);
+		}
+		return new PersistentVector<>(size + 1, newShift, newRoot, new Object[] { element });
+	}
+	
+	@Override
+	@SuppressWarnings("unchecked")
+	public T get(int index) {
+		if(index < 0 || index >= size) throw new IndexOutOfBoundsException(Integer.toString(index));
+		if(index >= tailOffset()) return (T) tail[index & MASK];
+		Object[] node = root;
+		for(int level = shift; level > 0; level -= BITS) node = (Object[]) node[(index >>> level) & MASK];
+		return (T) node[index & MASK];
+	}
+	
+	@Override
+	public int size() {
+		return size;
+	}
+	
+	// the index of the first element in the tail
+	private int tailOffset() {
+		return size < WIDTH ? 0 : ((size - 1) >>> BITS) << BITS;
+	}
+	
+	// copies the path to the last leaf and adds the full tail after it
+	private Object[] push(int level, Object[] parent, Object[] leaf) {
+		int i = ((size - 1) >>> level) & MASK;
+		Object[] node = Arrays.copyOf(parent, i + 1);
+		if(level == BITS) {
+			node[i] = leaf;
+		} else {
+			Object[] child = i < parent.length ? (Object[]) parent[i] : null;
+			node[i] = child == null ? path(level - BITS, leaf) : push(level - BITS, child, leaf);
+		}
+		return node;
+	}
+	
+	// a chain of single-child nodes from the given level down to the leaf
+	private static Object[] path(int level, Object[] leaf) {
+		return level == 0 ? leaf : new Object[] { path(level - BITS, leaf) };
+	}
+	
+	private static final int BITS = 5, WIDTH = 1 << BITS, MASK = WIDTH - 1;
+	private static final PersistentVector<?> EMPTY =
+			new PersistentVector<>(0, BITS, new Object[0], new Object[0]);
+	
+	private final int size, shift;
+	private final Object[] root, tail;
+}
@@ -0,0 +1,71 @@
+package util;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The StringDictionary class gives each distinct string a dense int code,
+ * so that a value repeated across millions of records, such as a last name
+ * or an email domain, is stored once and referred to by four bytes.
+ * 
+ * Code 0 stands for null. Codes are never reused or removed. Decoding is an
+ * array read and returns the one shared instance of the string; encoding a
+ * string seen before is one hash lookup. New strings are added one at a 
+ * time; lookups never wait.
+ */
+public final class StringDictionary {
+	
+	public StringDictionary() {
+		this.codes = new ConcurrentHashMap<>();
+		this.strings = new String[16];
+		this.size = 1;
+	}
+	
+	/**
+	 * Returns the code of a string, adding it if it is new.
+	 * 
+	 * @param s	The string, or null
+	 * @return the code, 0 for null
+	 */
+	public int encode(String s) {
+		if(s == null) return 0;
+		Integer code = codes.get(s);
+		return code != null ? code : add(s);
+	}
+	
+	/**
+	 * Returns the string with a code.
+	 * 
+	 * @param code	A code returned by encode
+	 * @return the string, or null for 0
+	 */
+	public String decode(int code) {
+		return strings[code];
+	}
+	
+	/**
+	 * Returns the number of distinct strings, not counting null.
+	 */
+	public int size() {
+		return codes.size();
+	}
+	
+	private synchronized int add(String s) {
+		Integer code = codes.get(s);
+		if(code != null) return code;
+		int n = size;
+		String[] array = strings;
+		if(n == array.length) array = Arrays.copyOf(array, n + (n >> 1));
+		array[n] = s;
+		// published before the code can be handed out
+		strings = array;
+		size = n + 1;
+		codes.put(s, n);
+		return n;
+	}
+	
+	private final ConcurrentHashMap<String, Integer> codes;
+	// strings by code; replaced as a whole when it grows
+	private volatile String[] strings;
+	private int size;
+}